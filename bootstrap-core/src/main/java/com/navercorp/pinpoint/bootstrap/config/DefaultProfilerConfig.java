@@ -106,13 +106,23 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     private int spanDataSenderSocketSendBufferSize = 1024 * 64 * 16;
     private int spanDataSenderSocketTimeout = 1000 * 3;
     private int spanDataSenderChunkSize = 1024 * 16;
-    private String spanDataSenderSocketType = "OIO";
+    private String spanDataSenderSocketType = "NIO";
+    private String spanDataSenderWriteQueueType = "LINKED";
+    private String spanDataSenderWriteQueueWaitStrategy = "PARK";
+    private int spanDataSenderWriteDrainSize = 10;
+    private long spanDataSenderWriteLingerTime = 0;
+    private int spanDataSenderBatchPacketSize = 0;
 
     private int statDataSenderWriteQueueSize = 1024 * 5;
     private int statDataSenderSocketSendBufferSize = 1024 * 64 * 16;
     private int statDataSenderSocketTimeout = 1000 * 3;
     private int statDataSenderChunkSize = 1024 * 16;
-    private String statDataSenderSocketType = "OIO";
+    private String statDataSenderSocketType = "NIO";
+    private String statDataSenderWriteQueueType = "LINKED";
+    private String statDataSenderWriteQueueWaitStrategy = "PARK";
+    private int statDataSenderWriteDrainSize = 10;
+    private long statDataSenderWriteLingerTime = 0;
+    private int statDataSenderBatchPacketSize = 0;
 
     private boolean tcpDataSenderCommandAcceptEnable = false;
     private boolean tcpDataSenderCommandActiveThreadEnable = false;
@@ -131,10 +141,20 @@ public class DefaultProfilerConfig implements ProfilerConfig {
     // Sampling
     private boolean samplingEnable = true;
     private int samplingRate = 1;
+    private String samplingType = "RATE";
+    private int samplingRateLimitTracesPerSecond = 100;
+    private int samplingAdaptiveMaxRate = 1000;
+    private long samplingAdaptiveInterval = 1000;
+    private int samplingAdaptiveQueueHighWatermark = 50;
+    private int samplingAdaptiveQueueLowWatermark = 10;
+    private boolean samplingDeferredEnable = false;
+    private long samplingDeferredElapsedThreshold = 1000;
+    private int samplingDeferredMaxBufferedSpanEvent = 10000;
 
     // span buffering
     private boolean ioBufferingEnable;
     private int ioBufferingBufferSize;
+    private int ioBufferingRecyclePoolSize;
 
     private int profileJvmCollectInterval;
     private String profileJvmVendorName;
@@ -218,6 +238,31 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return statDataSenderSocketType;
     }
 
+    @Override
+    public String getStatDataSenderWriteQueueType() {
+        return statDataSenderWriteQueueType;
+    }
+
+    @Override
+    public String getStatDataSenderWriteQueueWaitStrategy() {
+        return statDataSenderWriteQueueWaitStrategy;
+    }
+
+    @Override
+    public int getStatDataSenderWriteDrainSize() {
+        return statDataSenderWriteDrainSize;
+    }
+
+    @Override
+    public long getStatDataSenderWriteLingerTime() {
+        return statDataSenderWriteLingerTime;
+    }
+
+    @Override
+    public int getStatDataSenderBatchPacketSize() {
+        return statDataSenderBatchPacketSize;
+    }
+
     @Override
     public int getSpanDataSenderWriteQueueSize() {
         return spanDataSenderWriteQueueSize;
@@ -268,6 +313,31 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return spanDataSenderSocketType;
     }
 
+    @Override
+    public String getSpanDataSenderWriteQueueType() {
+        return spanDataSenderWriteQueueType;
+    }
+
+    @Override
+    public String getSpanDataSenderWriteQueueWaitStrategy() {
+        return spanDataSenderWriteQueueWaitStrategy;
+    }
+
+    @Override
+    public int getSpanDataSenderWriteDrainSize() {
+        return spanDataSenderWriteDrainSize;
+    }
+
+    @Override
+    public long getSpanDataSenderWriteLingerTime() {
+        return spanDataSenderWriteLingerTime;
+    }
+
+    @Override
+    public int getSpanDataSenderBatchPacketSize() {
+        return spanDataSenderBatchPacketSize;
+    }
+
     @Override
     public int getSpanDataSenderChunkSize() {
         return spanDataSenderChunkSize;
@@ -309,6 +379,51 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return samplingRate;
     }
 
+    @Override
+    public String getSamplingType() {
+        return samplingType;
+    }
+
+    @Override
+    public int getSamplingRateLimitTracesPerSecond() {
+        return samplingRateLimitTracesPerSecond;
+    }
+
+    @Override
+    public int getSamplingAdaptiveMaxRate() {
+        return samplingAdaptiveMaxRate;
+    }
+
+    @Override
+    public long getSamplingAdaptiveInterval() {
+        return samplingAdaptiveInterval;
+    }
+
+    @Override
+    public int getSamplingAdaptiveQueueHighWatermark() {
+        return samplingAdaptiveQueueHighWatermark;
+    }
+
+    @Override
+    public int getSamplingAdaptiveQueueLowWatermark() {
+        return samplingAdaptiveQueueLowWatermark;
+    }
+
+    @Override
+    public boolean isSamplingDeferredEnable() {
+        return samplingDeferredEnable;
+    }
+
+    @Override
+    public long getSamplingDeferredElapsedThreshold() {
+        return samplingDeferredElapsedThreshold;
+    }
+
+    @Override
+    public int getSamplingDeferredMaxBufferedSpanEvent() {
+        return samplingDeferredMaxBufferedSpanEvent;
+    }
+
     @Override
     public boolean isIoBufferingEnable() {
         return ioBufferingEnable;
@@ -319,6 +434,11 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         return ioBufferingBufferSize;
     }
 
+    @Override
+    public int getIoBufferingRecyclePoolSize() {
+        return ioBufferingRecyclePoolSize;
+    }
+
     @Override
     public int getProfileJvmCollectInterval() {
         return profileJvmCollectInterval;
@@ -412,13 +532,23 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         this.spanDataSenderSocketSendBufferSize = readInt("profiler.spandatasender.socket.sendbuffersize", 1024 * 64 * 16);
         this.spanDataSenderSocketTimeout = readInt("profiler.spandatasender.socket.timeout", 1000 * 3);
         this.spanDataSenderChunkSize = readInt("profiler.spandatasender.chunk.size", 1024 * 16);
-        this.spanDataSenderSocketType = readString("profiler.spandatasender.socket.type", "OIO");
+        this.spanDataSenderSocketType = readString("profiler.spandatasender.socket.type", "NIO");
+        this.spanDataSenderWriteQueueType = readString("profiler.spandatasender.write.queue.type", "LINKED");
+        this.spanDataSenderWriteQueueWaitStrategy = readString("profiler.spandatasender.write.queue.waitstrategy", "PARK");
+        this.spanDataSenderWriteDrainSize = readInt("profiler.spandatasender.write.drain.size", 10);
+        this.spanDataSenderWriteLingerTime = readLong("profiler.spandatasender.write.linger.time", 0);
+        this.spanDataSenderBatchPacketSize = readInt("profiler.spandatasender.batch.packet.size", 0);
 
         this.statDataSenderWriteQueueSize = readInt("profiler.statdatasender.write.queue.size", 1024 * 5);
         this.statDataSenderSocketSendBufferSize = readInt("profiler.statdatasender.socket.sendbuffersize", 1024 * 64 * 16);
         this.statDataSenderSocketTimeout = readInt("profiler.statdatasender.socket.timeout", 1000 * 3);
         this.statDataSenderChunkSize = readInt("profiler.statdatasender.chunk.size", 1024 * 16);
-        this.statDataSenderSocketType = readString("profiler.statdatasender.socket.type", "OIO");
+        this.statDataSenderSocketType = readString("profiler.statdatasender.socket.type", "NIO");
+        this.statDataSenderWriteQueueType = readString("profiler.statdatasender.write.queue.type", "LINKED");
+        this.statDataSenderWriteQueueWaitStrategy = readString("profiler.statdatasender.write.queue.waitstrategy", "PARK");
+        this.statDataSenderWriteDrainSize = readInt("profiler.statdatasender.write.drain.size", 10);
+        this.statDataSenderWriteLingerTime = readLong("profiler.statdatasender.write.linger.time", 0);
+        this.statDataSenderBatchPacketSize = readInt("profiler.statdatasender.batch.packet.size", 0);
 
         this.tcpDataSenderCommandAcceptEnable = readBoolean("profiler.tcpdatasender.command.accept.enable", false);
         this.tcpDataSenderCommandActiveThreadEnable = readBoolean("profiler.tcpdatasender.command.activethread.enable", false);
@@ -441,12 +571,23 @@ public class DefaultProfilerConfig implements ProfilerConfig {
 
         this.samplingEnable = readBoolean("profiler.sampling.enable", true);
         this.samplingRate = readInt("profiler.sampling.rate", 1);
+        // RATE, RATE_LIMIT, ADAPTIVE
+        this.samplingType = readString("profiler.sampling.type", "RATE");
+        this.samplingRateLimitTracesPerSecond = readInt("profiler.sampling.ratelimit.traces.per.second", 100);
+        this.samplingAdaptiveMaxRate = readInt("profiler.sampling.adaptive.max.rate", 1000);
+        this.samplingAdaptiveInterval = readLong("profiler.sampling.adaptive.interval", 1000);
+        this.samplingAdaptiveQueueHighWatermark = readInt("profiler.sampling.adaptive.queue.high.watermark", 50);
+        this.samplingAdaptiveQueueLowWatermark = readInt("profiler.sampling.adaptive.queue.low.watermark", 10);
+        this.samplingDeferredEnable = readBoolean("profiler.sampling.deferred.enable", false);
+        this.samplingDeferredElapsedThreshold = readLong("profiler.sampling.deferred.elapsed.threshold", 1000);
+        this.samplingDeferredMaxBufferedSpanEvent = readInt("profiler.sampling.deferred.max.buffered.spanevent", 10000);
 
         // configuration for sampling and IO buffer 
         this.ioBufferingEnable = readBoolean("profiler.io.buffering.enable", true);
 
         // it may be a problem to be here.  need to modify(delete or move or .. )  this configuration.
         this.ioBufferingBufferSize = readInt("profiler.io.buffering.buffersize", 20);
+        this.ioBufferingRecyclePoolSize = readInt("profiler.io.buffering.recycle.poolsize", 0);
 
         // JVM
         this.profileJvmCollectInterval = readInt("profiler.jvm.collect.interval", 1000);
@@ -610,6 +751,16 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         builder.append(spanDataSenderChunkSize);
         builder.append(", spanDataSenderSocketType=");
         builder.append(spanDataSenderSocketType);
+        builder.append(", spanDataSenderWriteQueueType=");
+        builder.append(spanDataSenderWriteQueueType);
+        builder.append(", spanDataSenderWriteQueueWaitStrategy=");
+        builder.append(spanDataSenderWriteQueueWaitStrategy);
+        builder.append(", spanDataSenderWriteDrainSize=");
+        builder.append(spanDataSenderWriteDrainSize);
+        builder.append(", spanDataSenderWriteLingerTime=");
+        builder.append(spanDataSenderWriteLingerTime);
+        builder.append(", spanDataSenderBatchPacketSize=");
+        builder.append(spanDataSenderBatchPacketSize);
         builder.append(", statDataSenderWriteQueueSize=");
         builder.append(statDataSenderWriteQueueSize);
         builder.append(", statDataSenderSocketSendBufferSize=");
@@ -620,6 +771,16 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         builder.append(statDataSenderChunkSize);
         builder.append(", statDataSenderSocketType=");
         builder.append(statDataSenderSocketType);
+        builder.append(", statDataSenderWriteQueueType=");
+        builder.append(statDataSenderWriteQueueType);
+        builder.append(", statDataSenderWriteQueueWaitStrategy=");
+        builder.append(statDataSenderWriteQueueWaitStrategy);
+        builder.append(", statDataSenderWriteDrainSize=");
+        builder.append(statDataSenderWriteDrainSize);
+        builder.append(", statDataSenderWriteLingerTime=");
+        builder.append(statDataSenderWriteLingerTime);
+        builder.append(", statDataSenderBatchPacketSize=");
+        builder.append(statDataSenderBatchPacketSize);
         builder.append(", tcpDataSenderCommandAcceptEnable=");
         builder.append(tcpDataSenderCommandAcceptEnable);
         builder.append(", tcpDataSenderCommandActiveThreadEnable=");
@@ -644,10 +805,30 @@ public class DefaultProfilerConfig implements ProfilerConfig {
         builder.append(samplingEnable);
         builder.append(", samplingRate=");
         builder.append(samplingRate);
+        builder.append(", samplingType=");
+        builder.append(samplingType);
+        builder.append(", samplingRateLimitTracesPerSecond=");
+        builder.append(samplingRateLimitTracesPerSecond);
+        builder.append(", samplingAdaptiveMaxRate=");
+        builder.append(samplingAdaptiveMaxRate);
+        builder.append(", samplingAdaptiveInterval=");
+        builder.append(samplingAdaptiveInterval);
+        builder.append(", samplingAdaptiveQueueHighWatermark=");
+        builder.append(samplingAdaptiveQueueHighWatermark);
+        builder.append(", samplingAdaptiveQueueLowWatermark=");
+        builder.append(samplingAdaptiveQueueLowWatermark);
+        builder.append(", samplingDeferredEnable=");
+        builder.append(samplingDeferredEnable);
+        builder.append(", samplingDeferredElapsedThreshold=");
+        builder.append(samplingDeferredElapsedThreshold);
+        builder.append(", samplingDeferredMaxBufferedSpanEvent=");
+        builder.append(samplingDeferredMaxBufferedSpanEvent);
         builder.append(", ioBufferingEnable=");
         builder.append(ioBufferingEnable);
         builder.append(", ioBufferingBufferSize=");
         builder.append(ioBufferingBufferSize);
+        builder.append(", ioBufferingRecyclePoolSize=");
+        builder.append(ioBufferingRecyclePoolSize);
         builder.append(", profileJvmCollectInterval=");
         builder.append(profileJvmCollectInterval);
         builder.append(", profilableClassFilter=");
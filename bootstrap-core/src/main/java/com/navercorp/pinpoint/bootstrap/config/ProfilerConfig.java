@@ -46,6 +46,16 @@ public interface ProfilerConfig {
 
     String getStatDataSenderSocketType();
 
+    String getStatDataSenderWriteQueueType();
+
+    String getStatDataSenderWriteQueueWaitStrategy();
+
+    int getStatDataSenderWriteDrainSize();
+
+    long getStatDataSenderWriteLingerTime();
+
+    int getStatDataSenderBatchPacketSize();
+
     int getSpanDataSenderWriteQueueSize();
 
     int getSpanDataSenderSocketSendBufferSize();
@@ -66,6 +76,16 @@ public interface ProfilerConfig {
 
     String getSpanDataSenderSocketType();
 
+    String getSpanDataSenderWriteQueueType();
+
+    String getSpanDataSenderWriteQueueWaitStrategy();
+
+    int getSpanDataSenderWriteDrainSize();
+
+    long getSpanDataSenderWriteLingerTime();
+
+    int getSpanDataSenderBatchPacketSize();
+
     int getSpanDataSenderChunkSize();
 
     int getStatDataSenderChunkSize();
@@ -82,10 +102,30 @@ public interface ProfilerConfig {
 
     int getSamplingRate();
 
+    String getSamplingType();
+
+    int getSamplingRateLimitTracesPerSecond();
+
+    int getSamplingAdaptiveMaxRate();
+
+    long getSamplingAdaptiveInterval();
+
+    int getSamplingAdaptiveQueueHighWatermark();
+
+    int getSamplingAdaptiveQueueLowWatermark();
+
+    boolean isSamplingDeferredEnable();
+
+    long getSamplingDeferredElapsedThreshold();
+
+    int getSamplingDeferredMaxBufferedSpanEvent();
+
     boolean isIoBufferingEnable();
 
     int getIoBufferingBufferSize();
 
+    int getIoBufferingRecyclePoolSize();
+
     int getProfileJvmCollectInterval();
 
     String getProfilerJvmVendorName();
@@ -64,6 +64,7 @@ public class CollectorConfiguration implements InitializingBean {
     private int udpStatWorkerThread;
     private int udpStatWorkerQueueSize;
     private boolean udpStatWorkerMonitor;
+    private String udpStatWorkerType;
     private int udpStatSocketReceiveBufferSize;
 
     private String udpSpanListenIp = DEFAULT_LISTEN_IP;
@@ -72,6 +73,7 @@ public class CollectorConfiguration implements InitializingBean {
     private int udpSpanWorkerThread;
     private int udpSpanWorkerQueueSize;
     private boolean udpSpanWorkerMonitor;
+    private String udpSpanWorkerType;
     private int udpSpanSocketReceiveBufferSize;
     
     private int agentEventWorkerThreadSize;
@@ -166,6 +168,14 @@ public class CollectorConfiguration implements InitializingBean {
         this.udpStatWorkerMonitor = udpStatWorkerMonitor;
     }
 
+    public String getUdpStatWorkerType() {
+        return udpStatWorkerType;
+    }
+
+    public void setUdpStatWorkerType(String udpStatWorkerType) {
+        this.udpStatWorkerType = udpStatWorkerType;
+    }
+
     public int getUdpStatSocketReceiveBufferSize() {
         return udpStatSocketReceiveBufferSize;
     }
@@ -214,6 +224,14 @@ public class CollectorConfiguration implements InitializingBean {
         this.udpSpanWorkerMonitor = udpSpanWorkerMonitor;
     }
 
+    public String getUdpSpanWorkerType() {
+        return udpSpanWorkerType;
+    }
+
+    public void setUdpSpanWorkerType(String udpSpanWorkerType) {
+        this.udpSpanWorkerType = udpSpanWorkerType;
+    }
+
     public int getUdpSpanSocketReceiveBufferSize() {
         return udpSpanSocketReceiveBufferSize;
     }
@@ -327,6 +345,7 @@ public class CollectorConfiguration implements InitializingBean {
         this.udpStatWorkerThread = readInt(properties, "collector.udpStatWorkerThread", 128);
         this.udpStatWorkerQueueSize = readInt(properties, "collector.udpStatWorkerQueueSize", 1024);
         this.udpStatWorkerMonitor = readBoolean(properties, "collector.udpStatWorker.monitor");
+        this.udpStatWorkerType = readString(properties, "collector.udpStatWorkerType", WorkerType.DEFAULT_EXECUTOR.name());
         this.udpStatSocketReceiveBufferSize = readInt(properties, "collector.udpStatSocketReceiveBufferSize", 1024 * 4096);
 
         this.udpSpanListenIp = readString(properties, "collector.udpSpanListenIp", DEFAULT_LISTEN_IP);
@@ -335,6 +354,7 @@ public class CollectorConfiguration implements InitializingBean {
         this.udpSpanWorkerThread = readInt(properties, "collector.udpSpanWorkerThread", 256);
         this.udpSpanWorkerQueueSize = readInt(properties, "collector.udpSpanWorkerQueueSize", 1024 * 5);
         this.udpSpanWorkerMonitor = readBoolean(properties, "collector.udpSpanWorker.monitor");
+        this.udpSpanWorkerType = readString(properties, "collector.udpSpanWorkerType", WorkerType.DEFAULT_EXECUTOR.name());
         this.udpSpanSocketReceiveBufferSize = readInt(properties, "collector.udpSpanSocketReceiveBufferSize", 1024 * 4096);
         
         this.agentEventWorkerThreadSize = readInt(properties, "collector.agentEventWorker.threadSize", 32);
@@ -413,12 +433,14 @@ public class CollectorConfiguration implements InitializingBean {
         sb.append(", udpStatWorkerThread=").append(udpStatWorkerThread);
         sb.append(", udpStatWorkerQueueSize=").append(udpStatWorkerQueueSize);
         sb.append(", udpStatWorkerMonitor=").append(udpStatWorkerMonitor);
+        sb.append(", udpStatWorkerType=").append(udpStatWorkerType);
         sb.append(", udpStatSocketReceiveBufferSize=").append(udpStatSocketReceiveBufferSize);
         sb.append(", udpSpanListenIp='").append(udpSpanListenIp).append('\'');
         sb.append(", udpSpanListenPort=").append(udpSpanListenPort);
         sb.append(", udpSpanWorkerThread=").append(udpSpanWorkerThread);
         sb.append(", udpSpanWorkerQueueSize=").append(udpSpanWorkerQueueSize);
         sb.append(", udpSpanWorkerMonitor=").append(udpSpanWorkerMonitor);
+        sb.append(", udpSpanWorkerType=").append(udpSpanWorkerType);
         sb.append(", udpSpanSocketReceiveBufferSize=").append(udpSpanSocketReceiveBufferSize);
         sb.append(", agentEventWorkerThreadSize=").append(agentEventWorkerThreadSize);
         sb.append(", agentEventWorkerQueueSize=").append(agentEventWorkerQueueSize);
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.collector.receiver.BackPressure;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.util.ExecutorFactory;
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects Puts of the worker threads per table and writes them in batches from its own writer threads.
+ * <p>
+ * A table is flushed when batchSize Puts are buffered or every flushPeriod.
+ * The number of concurrent batch writes is bounded by writerThreadSize, and the number of buffered and in-flight Puts by maxPendingSize.
+ * The hbase client splits each batch by region server.
+ * When maxPendingSize is reached, the {@link OverflowPolicy} decides what happens to the Put, the worker never waits for a batch.
+ * A failed batch is queued again and retried on the next flush of its table, up to maxRetries times.
+ * Puts arriving after {@link #stop()} are dropped.
+ * <p>
+ * If disabled, Puts go through {@link HbaseOperations2#asyncPut(TableName, Put)} and fall back to a synchronous put.
+ *
+ * @author agent
+ */
+public class BatchPutWriter implements BackPressure {
+
+    public enum OverflowPolicy {
+        /**
+         * discard the Put
+         */
+        DROP,
+        /**
+         * write the Put from the calling thread through asyncPut, or synchronously if asyncPut refuses it.
+         * this blocks the worker while hbase is slow.
+         */
+        SPILL
+    }
+
+    private static final int WRITER_QUEUE_SIZE = 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final HbaseOperations2 hbaseTemplate;
+
+    private final boolean enable;
+    private final int maxPendingSize;
+    private final int batchSize;
+    private final long flushPeriodMillis;
+    private final int writerThreadSize;
+    private final int maxRetries;
+    private final OverflowPolicy overflowPolicy;
+    private final int backPressureThreshold;
+
+    private final Semaphore pendingPermit;
+    private final ConcurrentMap<TableName, TableBuffer> tableBufferMap = new ConcurrentHashMap<>();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    private ThreadPoolExecutor writer;
+    private ScheduledExecutorService flusher;
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+
+    public BatchPutWriter(HbaseOperations2 hbaseTemplate, boolean enable, int maxPendingSize, int batchSize, long flushPeriodMillis,
+                          int writerThreadSize, int maxRetries, String overflowPolicy, int backPressurePercent) {
+        if (hbaseTemplate == null) {
+            throw new NullPointerException("hbaseTemplate must not be null");
+        }
+        if (maxPendingSize <= 0) {
+            throw new IllegalArgumentException("maxPendingSize:" + maxPendingSize);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize:" + batchSize);
+        }
+        if (flushPeriodMillis <= 0) {
+            throw new IllegalArgumentException("flushPeriodMillis:" + flushPeriodMillis);
+        }
+        if (writerThreadSize <= 0) {
+            throw new IllegalArgumentException("writerThreadSize:" + writerThreadSize);
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries:" + maxRetries);
+        }
+        if (overflowPolicy == null) {
+            throw new NullPointerException("overflowPolicy must not be null");
+        }
+        if (backPressurePercent <= 0 || backPressurePercent > 100) {
+            throw new IllegalArgumentException("backPressurePercent:" + backPressurePercent);
+        }
+        this.hbaseTemplate = hbaseTemplate;
+        this.enable = enable;
+        this.maxPendingSize = maxPendingSize;
+        this.batchSize = batchSize;
+        this.flushPeriodMillis = flushPeriodMillis;
+        this.writerThreadSize = writerThreadSize;
+        this.maxRetries = maxRetries;
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase());
+        this.backPressureThreshold = (int) ((long) maxPendingSize * backPressurePercent / 100);
+        this.pendingPermit = new Semaphore(maxPendingSize);
+    }
+
+    public void start() {
+        if (!enable) {
+            logger.info("BatchPutWriter disabled");
+            return;
+        }
+        this.writer = ExecutorFactory.newFixedThreadPool(writerThreadSize, WRITER_QUEUE_SIZE, "Pinpoint-BatchPutWriter", true);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new PinpointThreadFactory("Pinpoint-BatchPutWriter-Flusher", true));
+        this.flusher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                for (TableBuffer tableBuffer : tableBufferMap.values()) {
+                    if (tableBuffer.size() > 0 || tableBuffer.hasRetry()) {
+                        scheduleFlush(tableBuffer);
+                    }
+                }
+            }
+        }, flushPeriodMillis, flushPeriodMillis, TimeUnit.MILLISECONDS);
+        logger.info("BatchPutWriter started. {}", this);
+    }
+
+    public void stop() {
+        if (!enable) {
+            return;
+        }
+        if (!stopped.compareAndSet(false, true)) {
+            return;
+        }
+        logger.info("BatchPutWriter stop");
+        shutdownExecutor(flusher);
+        shutdownExecutor(writer);
+        // write what is left from the calling thread, failed batches are not queued again once stopped
+        for (TableBuffer tableBuffer : tableBufferMap.values()) {
+            retry(tableBuffer);
+            while (true) {
+                final List<Put> batch = tableBuffer.drain(batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                write(tableBuffer, batch, 0);
+            }
+        }
+    }
+
+    private void shutdownExecutor(ExecutorService executor) {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(3000 + flushPeriodMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void put(TableName tableName, Put put) {
+        if (tableName == null) {
+            throw new NullPointerException("tableName must not be null");
+        }
+        if (put == null) {
+            throw new NullPointerException("put must not be null");
+        }
+        if (!enable) {
+            asyncPut(tableName, put);
+            return;
+        }
+        if (stopped.get()) {
+            drop(tableName, 1);
+            return;
+        }
+        if (!pendingPermit.tryAcquire()) {
+            overflow(tableName, put);
+            return;
+        }
+
+        final TableBuffer tableBuffer = getTableBuffer(tableName);
+        final int size = tableBuffer.add(put);
+        if (stopped.get()) {
+            // stop() may have drained this table before the Put was added
+            discard(tableBuffer);
+            return;
+        }
+        if (size >= batchSize) {
+            scheduleFlush(tableBuffer);
+        }
+    }
+
+    private void asyncPut(TableName tableName, Put put) {
+        boolean success = hbaseTemplate.asyncPut(tableName, put);
+        if (!success) {
+            hbaseTemplate.put(tableName, put);
+        }
+    }
+
+    private void overflow(TableName tableName, Put put) {
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            spilledCount.incrementAndGet();
+            asyncPut(tableName, put);
+            return;
+        }
+        drop(tableName, 1);
+    }
+
+    private void drop(TableName tableName, int size) {
+        final long dropped = droppedCount.addAndGet(size);
+        if (size > 1 || (dropped % 100) == 1) {
+            logger.warn("BatchPutWriter is full or stopped. table:{}, droppedCount:{}", tableName, dropped);
+        }
+    }
+
+    private void discard(TableBuffer tableBuffer) {
+        while (true) {
+            final List<Put> batch = tableBuffer.drain(batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            pendingPermit.release(batch.size());
+            drop(tableBuffer.tableName, batch.size());
+        }
+    }
+
+    private TableBuffer getTableBuffer(TableName tableName) {
+        final TableBuffer tableBuffer = tableBufferMap.get(tableName);
+        if (tableBuffer != null) {
+            return tableBuffer;
+        }
+        final TableBuffer newTableBuffer = new TableBuffer(tableName);
+        final TableBuffer before = tableBufferMap.putIfAbsent(tableName, newTableBuffer);
+        if (before != null) {
+            return before;
+        }
+        return newTableBuffer;
+    }
+
+    private void scheduleFlush(final TableBuffer tableBuffer) {
+        if (!tableBuffer.flushing.compareAndSet(false, true)) {
+            // a writer is already draining this table
+            return;
+        }
+        try {
+            writer.execute(new Runnable() {
+                @Override
+                public void run() {
+                    flush(tableBuffer);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            tableBuffer.flushing.set(false);
+            if (stopped.get()) {
+                discard(tableBuffer);
+            }
+        }
+    }
+
+    private void flush(TableBuffer tableBuffer) {
+        try {
+            retry(tableBuffer);
+            do {
+                final List<Put> batch = tableBuffer.drain(batchSize);
+                if (batch.isEmpty()) {
+                    return;
+                }
+                write(tableBuffer, batch, 0);
+                // a partial batch waits for the next flushPeriod
+            } while (tableBuffer.size() >= batchSize);
+        } finally {
+            tableBuffer.flushing.set(false);
+        }
+    }
+
+    private void retry(TableBuffer tableBuffer) {
+        // batches failing again here are queued for the next flush, not retried in this loop
+        final int retrySize = tableBuffer.retryQueue.size();
+        for (int i = 0; i < retrySize; i++) {
+            final FailedBatch failedBatch = tableBuffer.retryQueue.poll();
+            if (failedBatch == null) {
+                return;
+            }
+            write(tableBuffer, failedBatch.batch, failedBatch.retryCount);
+        }
+    }
+
+    private void write(TableBuffer tableBuffer, List<Put> batch, int retryCount) {
+        final TableName tableName = tableBuffer.tableName;
+        try {
+            hbaseTemplate.put(tableName, batch);
+            batchCount.incrementAndGet();
+            writtenCount.addAndGet(batch.size());
+        } catch (Exception e) {
+            if (retryCount < maxRetries && !stopped.get()) {
+                // the Puts keep their permits until the retry
+                retriedCount.addAndGet(batch.size());
+                logger.warn("batch put failed, retry on the next flush. table:{}, size:{}, retryCount:{} Caused:{}", tableName, batch.size(), retryCount, e.getMessage(), e);
+                tableBuffer.retryQueue.offer(new FailedBatch(batch, retryCount + 1));
+                return;
+            }
+            failedCount.addAndGet(batch.size());
+            logger.warn("batch put failed. table:{}, size:{}, retryCount:{} Caused:{}", tableName, batch.size(), retryCount, e.getMessage(), e);
+        }
+        pendingPermit.release(batch.size());
+    }
+
+    @Override
+    public boolean isOverloaded() {
+        if (!enable) {
+            return false;
+        }
+        return getPendingCount() >= backPressureThreshold;
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public int getPendingCount() {
+        return maxPendingSize - pendingPermit.availablePermits();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getRetriedCount() {
+        return retriedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchPutWriter{" +
+                "enable=" + enable +
+                ", maxPendingSize=" + maxPendingSize +
+                ", batchSize=" + batchSize +
+                ", flushPeriodMillis=" + flushPeriodMillis +
+                ", writerThreadSize=" + writerThreadSize +
+                ", maxRetries=" + maxRetries +
+                ", overflowPolicy=" + overflowPolicy +
+                ", backPressureThreshold=" + backPressureThreshold +
+                '}';
+    }
+
+    private static class TableBuffer {
+        private final TableName tableName;
+        private final ConcurrentLinkedQueue<Put> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        private final ConcurrentLinkedQueue<FailedBatch> retryQueue = new ConcurrentLinkedQueue<>();
+
+        private TableBuffer(TableName tableName) {
+            this.tableName = tableName;
+        }
+
+        private int add(Put put) {
+            queue.offer(put);
+            return size.incrementAndGet();
+        }
+
+        private int size() {
+            return size.get();
+        }
+
+        private boolean hasRetry() {
+            return !retryQueue.isEmpty();
+        }
+
+        private List<Put> drain(int maxSize) {
+            Put put = queue.poll();
+            if (put == null) {
+                return Collections.emptyList();
+            }
+            final List<Put> batch = new ArrayList<>(maxSize);
+            while (put != null) {
+                batch.add(put);
+                if (batch.size() >= maxSize) {
+                    break;
+                }
+                put = queue.poll();
+            }
+            size.addAndGet(-batch.size());
+            return batch;
+        }
+    }
+
+    private static class FailedBatch {
+        private final List<Put> batch;
+        private final int retryCount;
+
+        private FailedBatch(List<Put> batch, int retryCount) {
+            this.batch = batch;
+            this.retryCount = retryCount;
+        }
+    }
+}
@@ -19,7 +19,9 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 import com.navercorp.pinpoint.collector.dao.MapResponseTimeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
-import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
+import com.navercorp.pinpoint.collector.util.ConcurrentFingerprintCounterMap;
+import com.navercorp.pinpoint.collector.util.Fingerprint;
+import com.navercorp.pinpoint.collector.util.LongCounterTable;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
@@ -34,7 +36,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Map;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
@@ -69,7 +70,7 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
 
     private final boolean useBulk;
 
-    private final ConcurrentCounterMap<RowInfo> counter = new ConcurrentCounterMap<>();
+    private final ConcurrentFingerprintCounterMap<RowInfo> counter = new ConcurrentFingerprintCounterMap<>();
 
     public HbaseMapResponseTimeDao() {
         this(true);
@@ -95,13 +96,21 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         // make row key. rowkey is me
         final long acceptedTime = acceptedTimeService.getAcceptedTime();
         final long rowTimeSlot = timeSlot.getTimeSlot(acceptedTime);
-        final RowKey selfRowKey = new CallRowKey(applicationName, applicationServiceType.getCode(), rowTimeSlot);
-
         final short slotNumber = ApplicationMapStatisticsUtils.getSlotNumber(applicationServiceType, elapsed, isError);
+
+        long fingerprint = 0;
+        if (useBulk) {
+            fingerprint = fingerprint(applicationName, applicationServiceType.getCode(), rowTimeSlot, agentId, slotNumber);
+            if (this.counter.increment(fingerprint, 1L)) {
+                return;
+            }
+        }
+
+        final RowKey selfRowKey = new CallRowKey(applicationName, applicationServiceType.getCode(), rowTimeSlot);
         final ColumnName selfColumnName = new ResponseColumnName(agentId, slotNumber);
         if (useBulk) {
             RowInfo rowInfo = new DefaultRowInfo(selfRowKey, selfColumnName);
-            this.counter.increment(rowInfo, 1L);
+            this.counter.increment(fingerprint, rowInfo, 1L);
         } else {
             final byte[] rowKey = getDistributedKey(selfRowKey.getRowKey());
             // column name is the name of caller app.
@@ -110,6 +119,14 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         }
     }
 
+    private static long fingerprint(String applicationName, short applicationServiceType, long rowTimeSlot, String agentId, short slotNumber) {
+        long fingerprint = Fingerprint.hash(Fingerprint.SEED, applicationName);
+        fingerprint = Fingerprint.hash(fingerprint, applicationServiceType);
+        fingerprint = Fingerprint.hash(fingerprint, rowTimeSlot);
+        fingerprint = Fingerprint.hash(fingerprint, agentId);
+        return Fingerprint.hash(fingerprint, slotNumber);
+    }
+
     private void increment(byte[] rowKey, byte[] columnName, long increment) {
         if (rowKey == null) {
             throw new NullPointerException("rowKey must not be null");
@@ -128,7 +145,7 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         }
 
         // update statistics by rowkey and column for now. need to update it by rowkey later.
-        Map<RowInfo,ConcurrentCounterMap.LongAdder> remove = this.counter.remove();
+        LongCounterTable<RowInfo> remove = this.counter.remove();
         List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
         if (!merge.isEmpty()) {
             if (logger.isDebugEnabled()) {
@@ -21,7 +21,9 @@ import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
-import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
+import com.navercorp.pinpoint.collector.util.ConcurrentFingerprintCounterMap;
+import com.navercorp.pinpoint.collector.util.Fingerprint;
+import com.navercorp.pinpoint.collector.util.LongCounterTable;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
@@ -37,7 +39,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Update statistics of callee node
@@ -69,7 +70,7 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
     private final boolean useBulk;
 
-    private final ConcurrentCounterMap<RowInfo> counter = new ConcurrentCounterMap<>();
+    private final ConcurrentFingerprintCounterMap<RowInfo> counter = new ConcurrentFingerprintCounterMap<>();
 
     public HbaseMapStatisticsCalleeDao() {
         this(true);
@@ -82,6 +83,12 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
 
     @Override
     public void update(String calleeApplicationName, ServiceType calleeServiceType, String callerApplicationName, ServiceType callerServiceType, String callerHost, int elapsed, boolean isError) {
+        final short callerSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
+        updateCount(calleeApplicationName, calleeServiceType, callerApplicationName, callerServiceType, callerHost, callerSlotNumber, 1L);
+    }
+
+    @Override
+    public void updateCount(String calleeApplicationName, ServiceType calleeServiceType, String callerApplicationName, ServiceType callerServiceType, String callerHost, short callerSlotNumber, long count) {
         if (callerApplicationName == null) {
             throw new NullPointerException("callerApplicationName must not be null");
         }
@@ -100,23 +107,42 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         // make row key. rowkey is me
         final long acceptedTime = acceptedTimeService.getAcceptedTime();
         final long rowTimeSlot = timeSlot.getTimeSlot(acceptedTime);
-        final RowKey calleeRowKey = new CallRowKey(calleeApplicationName, calleeServiceType.getCode(), rowTimeSlot);
 
-        final short callerSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
+        long fingerprint = 0;
+        if (useBulk) {
+            fingerprint = fingerprint(calleeApplicationName, calleeServiceType.getCode(), rowTimeSlot,
+                    callerServiceType.getCode(), callerApplicationName, callerHost, callerSlotNumber);
+            if (counter.increment(fingerprint, count)) {
+                return;
+            }
+        }
+
+        final RowKey calleeRowKey = new CallRowKey(calleeApplicationName, calleeServiceType.getCode(), rowTimeSlot);
         final ColumnName callerColumnName = new CallerColumnName(callerServiceType.getCode(), callerApplicationName, callerHost, callerSlotNumber);
 
         if (useBulk) {
             RowInfo rowInfo = new DefaultRowInfo(calleeRowKey, callerColumnName);
-            counter.increment(rowInfo, 1L);
+            counter.increment(fingerprint, rowInfo, count);
         } else {
             final byte[] rowKey = getDistributedKey(calleeRowKey.getRowKey());
 
             // column name is the name of caller app.
             byte[] columnName = callerColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(rowKey, columnName, count);
         }
     }
 
+    private static long fingerprint(String calleeApplicationName, short calleeServiceType, long rowTimeSlot,
+                                    short callerServiceType, String callerApplicationName, String callerHost, short callerSlotNumber) {
+        long fingerprint = Fingerprint.hash(Fingerprint.SEED, calleeApplicationName);
+        fingerprint = Fingerprint.hash(fingerprint, calleeServiceType);
+        fingerprint = Fingerprint.hash(fingerprint, rowTimeSlot);
+        fingerprint = Fingerprint.hash(fingerprint, callerServiceType);
+        fingerprint = Fingerprint.hash(fingerprint, callerApplicationName);
+        fingerprint = Fingerprint.hash(fingerprint, callerHost);
+        return Fingerprint.hash(fingerprint, callerSlotNumber);
+    }
+
     private void increment(byte[] rowKey, byte[] columnName, long increment) {
         if (rowKey == null) {
             throw new NullPointerException("rowKey must not be null");
@@ -133,7 +159,7 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
             throw new IllegalStateException();
         }
 
-        Map<RowInfo, ConcurrentCounterMap.LongAdder> remove = this.counter.remove();
+        LongCounterTable<RowInfo> remove = this.counter.remove();
         List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
         if (!merge.isEmpty()) {
             if (logger.isDebugEnabled()) {
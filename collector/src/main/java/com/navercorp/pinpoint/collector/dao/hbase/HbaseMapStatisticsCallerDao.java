@@ -21,7 +21,9 @@ import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
 import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
-import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
+import com.navercorp.pinpoint.collector.util.ConcurrentFingerprintCounterMap;
+import com.navercorp.pinpoint.collector.util.Fingerprint;
+import com.navercorp.pinpoint.collector.util.LongCounterTable;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
@@ -37,7 +39,6 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Update statistics of caller node
@@ -69,7 +70,7 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
 
     private final boolean useBulk;
 
-    private final ConcurrentCounterMap<RowInfo> counter = new ConcurrentCounterMap<>();
+    private final ConcurrentFingerprintCounterMap<RowInfo> counter = new ConcurrentFingerprintCounterMap<>();
 
     public HbaseMapStatisticsCallerDao() {
         this(true);
@@ -81,6 +82,12 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
 
     @Override
     public void update(String callerApplicationName, ServiceType callerServiceType, String callerAgentid, String calleeApplicationName, ServiceType calleeServiceType, String calleeHost, int elapsed, boolean isError) {
+        final short calleeSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
+        updateCount(callerApplicationName, callerServiceType, callerAgentid, calleeApplicationName, calleeServiceType, calleeHost, calleeSlotNumber, 1L);
+    }
+
+    @Override
+    public void updateCount(String callerApplicationName, ServiceType callerServiceType, String callerAgentid, String calleeApplicationName, ServiceType calleeServiceType, String calleeHost, short calleeSlotNumber, long count) {
         if (callerApplicationName == null) {
             throw new NullPointerException("callerApplicationName must not be null");
         }
@@ -99,21 +106,41 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         // make row key. rowkey is me
         final long acceptedTime = acceptedTimeService.getAcceptedTime();
         final long rowTimeSlot = timeSlot.getTimeSlot(acceptedTime);
-        final RowKey callerRowKey = new CallRowKey(callerApplicationName, callerServiceType.getCode(), rowTimeSlot);
 
-        final short calleeSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
+        long fingerprint = 0;
+        if (useBulk) {
+            fingerprint = fingerprint(callerApplicationName, callerServiceType.getCode(), rowTimeSlot,
+                    callerAgentid, calleeServiceType.getCode(), calleeApplicationName, calleeHost, calleeSlotNumber);
+            if (this.counter.increment(fingerprint, count)) {
+                return;
+            }
+        }
+
+        final RowKey callerRowKey = new CallRowKey(callerApplicationName, callerServiceType.getCode(), rowTimeSlot);
         final ColumnName calleeColumnName = new CalleeColumnName(callerAgentid, calleeServiceType.getCode(), calleeApplicationName, calleeHost, calleeSlotNumber);
         if (useBulk) {
             RowInfo rowInfo = new DefaultRowInfo(callerRowKey, calleeColumnName);
-            this.counter.increment(rowInfo, 1L);
+            this.counter.increment(fingerprint, rowInfo, count);
         } else {
             final byte[] rowKey = getDistributedKey(callerRowKey.getRowKey());
             // column name is the name of caller app.
             byte[] columnName = calleeColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(rowKey, columnName, count);
         }
     }
 
+    private static long fingerprint(String callerApplicationName, short callerServiceType, long rowTimeSlot,
+                                    String callerAgentId, short calleeServiceType, String calleeApplicationName, String calleeHost, short calleeSlotNumber) {
+        long fingerprint = Fingerprint.hash(Fingerprint.SEED, callerApplicationName);
+        fingerprint = Fingerprint.hash(fingerprint, callerServiceType);
+        fingerprint = Fingerprint.hash(fingerprint, rowTimeSlot);
+        fingerprint = Fingerprint.hash(fingerprint, callerAgentId);
+        fingerprint = Fingerprint.hash(fingerprint, calleeServiceType);
+        fingerprint = Fingerprint.hash(fingerprint, calleeApplicationName);
+        fingerprint = Fingerprint.hash(fingerprint, calleeHost);
+        return Fingerprint.hash(fingerprint, calleeSlotNumber);
+    }
+
     private void increment(byte[] rowKey, byte[] columnName, long increment) {
         if (rowKey == null) {
             throw new NullPointerException("rowKey must not be null");
@@ -130,7 +157,7 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
             throw new IllegalStateException();
         }
         // update statistics by rowkey and column for now. need to update it by rowkey later.
-        Map<RowInfo,ConcurrentCounterMap.LongAdder> remove = this.counter.remove();
+        LongCounterTable<RowInfo> remove = this.counter.remove();
         List<Increment> merge = rowKeyMerge.createBulkIncrement(remove, rowKeyDistributorByHashPrefix);
         if (!merge.isEmpty()) {
             if (logger.isDebugEnabled()) {
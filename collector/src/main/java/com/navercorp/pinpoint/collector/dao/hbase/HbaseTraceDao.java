@@ -30,7 +30,6 @@ import com.navercorp.pinpoint.common.server.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
-import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.hadoop.hbase.client.Put;
@@ -51,7 +50,7 @@ public class HbaseTraceDao implements TraceDao {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
-    private HbaseOperations2 hbaseTemplate;
+    private BatchPutWriter batchPutWriter;
 
     @Autowired
     private AcceptedTimeService acceptedTimeService;
@@ -91,10 +90,7 @@ public class HbaseTraceDao implements TraceDao {
 
         addNestedSpanEvent(put, spanBo);
 
-        boolean success = hbaseTemplate.asyncPut(TRACES, put);
-        if (!success) {
-            hbaseTemplate.put(TRACES, put);
-        }
+        batchPutWriter.put(TRACES, put);
     }
 
     private void addNestedSpanEvent(Put put, SpanBo span) {
@@ -127,10 +123,7 @@ public class HbaseTraceDao implements TraceDao {
         }
 
         if (!put.isEmpty()) {
-            boolean success = hbaseTemplate.asyncPut(TRACES, put);
-            if (!success) {
-                hbaseTemplate.put(TRACES, put);
-            }
+            batchPutWriter.put(TRACES, put);
         }
     }
 
@@ -1,7 +1,6 @@
 package com.navercorp.pinpoint.collector.dao.hbase;
 
 import com.navercorp.pinpoint.collector.dao.TraceDao;
-import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
 import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
@@ -30,7 +29,7 @@ public class HbaseTraceDaoV2 implements TraceDao {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
-    private HbaseOperations2 hbaseTemplate;
+    private BatchPutWriter batchPutWriter;
 
 
     @Autowired
@@ -60,10 +59,7 @@ public class HbaseTraceDaoV2 implements TraceDao {
         this.spanSerializer.serialize(spanBo, put, null);
 
 
-        boolean success = hbaseTemplate.asyncPut(TRACE_V2, put);
-        if (!success) {
-            hbaseTemplate.put(TRACE_V2, put);
-        }
+        batchPutWriter.put(TRACE_V2, put);
 
     }
 
@@ -86,10 +82,7 @@ public class HbaseTraceDaoV2 implements TraceDao {
         this.spanChunkSerializer.serialize(spanChunkBo, put, null);
 
         if (!put.isEmpty()) {
-            boolean success = hbaseTemplate.asyncPut(TRACE_V2, put);
-            if (!success) {
-                hbaseTemplate.put(TRACE_V2, put);
-            }
+            batchPutWriter.put(TRACE_V2, put);
         }
     }
 
@@ -37,6 +37,18 @@ public class CallRowKey implements RowKey {
         this.callServiceType = callServiceType;
         this.rowTimeSlot = rowTimeSlot;
     }
+    public String getCallApplicationName() {
+        return callApplicationName;
+    }
+
+    public short getCallServiceType() {
+        return callServiceType;
+    }
+
+    public long getRowTimeSlot() {
+        return rowTimeSlot;
+    }
+
     public byte[] getRowKey() {
         return ApplicationMapStatisticsUtils.makeRowKey(callApplicationName, callServiceType, rowTimeSlot);
     }
@@ -17,12 +17,15 @@
 package com.navercorp.pinpoint.collector.dao.hbase.statistics;
 
 import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
+import com.navercorp.pinpoint.collector.util.LongCounterTable;
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 import org.apache.hadoop.hbase.client.Increment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -32,6 +35,8 @@ public class RowKeyMerge {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final byte[] family;
 
+    private MapStatisticsRollup[] rollups = new MapStatisticsRollup[0];
+
     public RowKeyMerge(byte[] family) {
         if (family == null) {
             throw new NullPointerException("family must not be null");
@@ -39,14 +44,91 @@ public class RowKeyMerge {
         this.family = Arrays.copyOf(family, family.length);
     }
 
+    /**
+     * rollups are incremented together with the one minute columns.
+     */
+    public void setRollups(MapStatisticsRollup[] rollups) {
+        if (rollups == null) {
+            throw new NullPointerException("rollups must not be null");
+        }
+        this.rollups = Arrays.copyOf(rollups, rollups.length);
+    }
+
     public  List<Increment> createBulkIncrement(Map<RowInfo, ConcurrentCounterMap.LongAdder> data, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
         if (data.isEmpty()) {
             return Collections.emptyList();
         }
 
         final Map<RowKey, List<ColumnName>> rowkeyMerge = rowKeyBaseMerge(data);
+        final List<Increment> incrementList = createIncrementList(rowkeyMerge, rowKeyDistributorByHashPrefix);
+        addRollupIncrement(incrementList, rowkeyMerge, rowKeyDistributorByHashPrefix);
+        return incrementList;
+    }
 
-        List<Increment> incrementList = new ArrayList<>();
+    public List<Increment> createBulkIncrement(LongCounterTable<RowInfo> data, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        if (data.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final Map<RowKey, List<ColumnName>> rowkeyMerge = rowKeyBaseMerge(data);
+        final List<Increment> incrementList = createIncrementList(rowkeyMerge, rowKeyDistributorByHashPrefix);
+        addRollupIncrement(incrementList, rowkeyMerge, rowKeyDistributorByHashPrefix);
+        return incrementList;
+    }
+
+    private void addRollupIncrement(List<Increment> incrementList, Map<RowKey, List<ColumnName>> rowkeyMerge, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        for (MapStatisticsRollup rollup : rollups) {
+            final Map<RowKey, Map<ByteBuffer, long[]>> rollupMerge = rollupMerge(rowkeyMerge, rollup);
+            for (Map.Entry<RowKey, Map<ByteBuffer, long[]>> rowKeyEntry : rollupMerge.entrySet()) {
+                final Increment increment = new Increment(getDistributedKey(rowKeyEntry.getKey(), rowKeyDistributorByHashPrefix));
+                for (Map.Entry<ByteBuffer, long[]> columnEntry : rowKeyEntry.getValue().entrySet()) {
+                    increment.addColumn(rollup.getFamily(), columnEntry.getKey().array(), columnEntry.getValue()[0]);
+                }
+                incrementList.add(increment);
+            }
+        }
+    }
+
+    private Map<RowKey, Map<ByteBuffer, long[]>> rollupMerge(Map<RowKey, List<ColumnName>> rowkeyMerge, MapStatisticsRollup rollup) {
+        // several minute rows of a flush may fall into the same rollup row. sum the columns, Increment keeps only the last value of a qualifier.
+        final Map<RowKey, Map<ByteBuffer, long[]>> merge = new HashMap<>();
+        for (Map.Entry<RowKey, List<ColumnName>> rowKeyEntry : rowkeyMerge.entrySet()) {
+            final RowKey rowKey = rowKeyEntry.getKey();
+            if (!(rowKey instanceof CallRowKey)) {
+                logger.warn("unsupported rollup rowKey:{}", rowKey);
+                continue;
+            }
+            final CallRowKey callRowKey = (CallRowKey) rowKey;
+            final long rollupTimeSlot = rollup.getTimeSlot(callRowKey.getRowTimeSlot());
+            final RowKey rollupRowKey = new CallRowKey(callRowKey.getCallApplicationName(), callRowKey.getCallServiceType(), rollupTimeSlot);
+
+            Map<ByteBuffer, long[]> columnMap = merge.get(rollupRowKey);
+            if (columnMap == null) {
+                columnMap = new HashMap<>();
+                merge.put(rollupRowKey, columnMap);
+            }
+            for (ColumnName columnName : rowKeyEntry.getValue()) {
+                final ByteBuffer qualifier = ByteBuffer.wrap(columnName.getColumnName());
+                final long[] callCount = columnMap.get(qualifier);
+                if (callCount == null) {
+                    columnMap.put(qualifier, new long[]{columnName.getCallCount()});
+                } else {
+                    callCount[0] += columnName.getCallCount();
+                }
+            }
+        }
+        return merge;
+    }
+
+    private byte[] getDistributedKey(RowKey rowKey, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        if (rowKeyDistributorByHashPrefix == null) {
+            return rowKey.getRowKey();
+        }
+        return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey.getRowKey());
+    }
+
+    private List<Increment> createIncrementList(Map<RowKey, List<ColumnName>> rowkeyMerge, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
+        List<Increment> incrementList = new ArrayList<>(rowkeyMerge.size());
         for (Map.Entry<RowKey, List<ColumnName>> rowKeyEntry : rowkeyMerge.entrySet()) {
             Increment increment = createIncrement(rowKeyEntry, rowKeyDistributorByHashPrefix);
             incrementList.add(increment);
@@ -56,12 +138,7 @@ public class RowKeyMerge {
 
     private Increment createIncrement(Map.Entry<RowKey, List<ColumnName>> rowKeyEntry, RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix) {
         RowKey rowKey = rowKeyEntry.getKey();
-        byte[] key = null;
-        if (rowKeyDistributorByHashPrefix == null) {
-            key = rowKey.getRowKey();
-        } else {
-            key = rowKeyDistributorByHashPrefix.getDistributedKey(rowKey.getRowKey());
-        }
+        final byte[] key = getDistributedKey(rowKey, rowKeyDistributorByHashPrefix);
         final Increment increment = new Increment(key);
         for (ColumnName columnName : rowKeyEntry.getValue()) {
             increment.addColumn(family, columnName.getColumnName(), columnName.getCallCount());
@@ -75,20 +152,38 @@ public class RowKeyMerge {
 
         for (Map.Entry<RowInfo, ConcurrentCounterMap.LongAdder> entry : data.entrySet()) {
             final RowInfo rowInfo = entry.getKey();
-            // write callCount to columnName and throw away
             long callCount = entry.getValue().get();
-            rowInfo.getColumnName().setCallCount(callCount);
-
-            RowKey rowKey = rowInfo.getRowKey();
-            List<ColumnName> oldList = merge.get(rowKey);
-            if (oldList == null) {
-                List<ColumnName> newList = new ArrayList<>();
-                newList.add(rowInfo.getColumnName());
-                merge.put(rowKey, newList);
-            } else {
-                oldList.add(rowInfo.getColumnName());
+            addColumn(merge, rowInfo, callCount);
+        }
+        return merge;
+    }
+
+    private Map<RowKey, List<ColumnName>> rowKeyBaseMerge(LongCounterTable<RowInfo> data) {
+        final Map<RowKey, List<ColumnName>> merge = new HashMap<>();
+
+        final int capacity = data.capacity();
+        for (int slot = 0; slot < capacity; slot++) {
+            final RowInfo rowInfo = data.getKey(slot);
+            if (rowInfo == null) {
+                continue;
             }
+            addColumn(merge, rowInfo, data.getCount(slot));
         }
         return merge;
     }
+
+    private void addColumn(Map<RowKey, List<ColumnName>> merge, RowInfo rowInfo, long callCount) {
+        // write callCount to columnName and throw away
+        rowInfo.getColumnName().setCallCount(callCount);
+
+        RowKey rowKey = rowInfo.getRowKey();
+        List<ColumnName> oldList = merge.get(rowKey);
+        if (oldList == null) {
+            List<ColumnName> newList = new ArrayList<>();
+            newList.add(rowInfo.getColumnName());
+            merge.put(rowKey, newList);
+        } else {
+            oldList.add(rowInfo.getColumnName());
+        }
+    }
 }
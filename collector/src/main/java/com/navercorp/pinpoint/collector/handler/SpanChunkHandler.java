@@ -22,8 +22,6 @@ import com.navercorp.pinpoint.collector.dao.TraceDao;
 import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
 import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
 import com.navercorp.pinpoint.common.server.bo.SpanFactory;
-import com.navercorp.pinpoint.common.service.ServiceTypeRegistryService;
-import com.navercorp.pinpoint.common.trace.ServiceType;
 
 import org.apache.thrift.TBase;
 import org.slf4j.Logger;
@@ -50,9 +48,6 @@ public class SpanChunkHandler implements SimpleHandler {
     @Autowired
     private StatisticsHandler statisticsHandler;
 
-    @Autowired
-    private ServiceTypeRegistryService registry;
-
     @Autowired
     private SpanFactory spanFactory;
 
@@ -64,34 +59,13 @@ public class SpanChunkHandler implements SimpleHandler {
 
             traceDao.insertSpanChunk(spanChunkBo);
 
-            final ServiceType applicationServiceType = getApplicationServiceType(spanChunkBo);
-            List<SpanEventBo> spanEventList = spanChunkBo.getSpanEventBoList();
-            if (spanEventList != null) {
-                if (logger.isDebugEnabled()) {
+            if (logger.isDebugEnabled()) {
+                List<SpanEventBo> spanEventList = spanChunkBo.getSpanEventBoList();
+                if (spanEventList != null) {
                     logger.debug("SpanChunk Size:{}", spanEventList.size());
                 }
-                // TODO need to batch update later.
-                for (SpanEventBo spanEvent : spanEventList) {
-                    final ServiceType spanEventType = registry.findServiceType(spanEvent.getServiceType());
-
-                    if (!spanEventType.isRecordStatistics()) {
-                        continue;
-                    }
-
-                    // if terminal update statistics
-                    final int elapsed = spanEvent.getEndElapsed();
-                    final boolean hasException = spanEvent.hasException();
-
-                    /*
-                     * save information to draw a server map based on statistics
-                     */
-                    // save the information of caller (the spanevent that span called)
-                    statisticsHandler.updateCaller(spanChunkBo.getApplicationId(), applicationServiceType, spanChunkBo.getAgentId(), spanEvent.getDestinationId(), spanEventType, spanEvent.getEndPoint(), elapsed, hasException);
-
-                    // save the information of callee (the span that called spanevent)
-                    statisticsHandler.updateCallee(spanEvent.getDestinationId(), spanEventType, spanChunkBo.getApplicationId(), applicationServiceType, spanChunkBo.getEndPoint(), elapsed, hasException);
-                }
             }
+            statisticsHandler.updateSpanEventStatistics(spanChunkBo);
         } catch (Exception e) {
             logger.warn("SpanChunk handle error Caused:{}", e.getMessage(), e);
         }
@@ -109,9 +83,4 @@ public class SpanChunkHandler implements SimpleHandler {
 
         return this.spanFactory.buildSpanChunkBo(tSpanChunk);
     }
-
-    private ServiceType getApplicationServiceType(SpanChunkBo spanChunk) {
-        final short applicationServiceTypeCode = spanChunk.getApplicationServiceType();
-        return registry.findServiceType(applicationServiceTypeCode);
-    }
-}
\ No newline at end of file
+}
@@ -25,7 +25,6 @@ import com.navercorp.pinpoint.common.server.bo.SpanFactory;
 import com.navercorp.pinpoint.common.service.ServiceTypeRegistryService;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.thrift.TBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -156,35 +155,11 @@ public class SpanHandler implements SimpleHandler {
     }
 
     private void insertSpanEventStat(SpanBo span) {
-
-        final List<SpanEventBo> spanEventList = span.getSpanEventBoList();
-        if (CollectionUtils.isEmpty(spanEventList)) {
-            return;
-        }
-
-        final ServiceType applicationServiceType = getApplicationServiceType(span);
-
-        logger.debug("handle spanEvent size:{}", spanEventList.size());
-        // TODO need to batch update later.
-        for (SpanEventBo spanEvent : spanEventList) {
-            final ServiceType spanEventType = registry.findServiceType(spanEvent.getServiceType());
-            if (!spanEventType.isRecordStatistics()) {
-                continue;
-            }
-
-            // if terminal update statistics
-            final int elapsed = spanEvent.getEndElapsed();
-            final boolean hasException = spanEvent.hasException();
-
-            /*
-             * save information to draw a server map based on statistics
-             */
-            // save the information of caller (the spanevent that called span)
-            statisticsHandler.updateCaller(span.getApplicationId(), applicationServiceType, span.getAgentId(), spanEvent.getDestinationId(), spanEventType, spanEvent.getEndPoint(), elapsed, hasException);
-
-            // save the information of callee (the span that spanevent called)
-            statisticsHandler.updateCallee(spanEvent.getDestinationId(), spanEventType, span.getApplicationId(), applicationServiceType, span.getEndPoint(), elapsed, hasException);
+        if (logger.isDebugEnabled()) {
+            final List<SpanEventBo> spanEventList = span.getSpanEventBoList();
+            logger.debug("handle spanEvent size:{}", spanEventList == null ? 0 : spanEventList.size());
         }
+        statisticsHandler.updateSpanEventStatistics(span);
     }
 
     private void insertAcceptorHost(SpanBo span) {
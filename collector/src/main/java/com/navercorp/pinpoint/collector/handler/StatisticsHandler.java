@@ -19,11 +19,21 @@ package com.navercorp.pinpoint.collector.handler;
 import com.navercorp.pinpoint.collector.dao.MapResponseTimeDao;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCallerDao;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanChunkBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.service.ServiceTypeRegistryService;
 import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 
+import org.apache.commons.collections.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 
  * @author netspider
@@ -41,6 +51,9 @@ public class StatisticsHandler {
     @Autowired
     private MapResponseTimeDao mapResponseTimeDao;
 
+    @Autowired
+    private ServiceTypeRegistryService registry;
+
     /**
      * Calling MySQL from Tomcat generates the following message for the caller(Tomcat) :<br/>
      * emeroad-app (TOMCAT) -> MySQL_DB_ID (MYSQL)[10.25.141.69:3306] <br/>
@@ -80,4 +93,102 @@ public class StatisticsHandler {
     public void updateResponseTime(String applicationName, ServiceType serviceType, String agentId, int elapsed, boolean isError) {
         mapResponseTimeDao.received(applicationName, serviceType, agentId, elapsed, isError);
     }
+
+    /**
+     * Updates caller/callee statistics of every SpanEvent in the span.
+     * SpanEvents with the same destination, service type, endPoint and histogram slot are counted once,
+     * so hundreds of identical jdbc calls cost a single dao update.
+     */
+    public void updateSpanEventStatistics(SpanBo span) {
+        updateSpanEventStatistics(span.getApplicationId(), span.getApplicationServiceType(), span.getAgentId(), span.getEndPoint(), span.getSpanEventBoList());
+    }
+
+    public void updateSpanEventStatistics(SpanChunkBo spanChunk) {
+        updateSpanEventStatistics(spanChunk.getApplicationId(), spanChunk.getApplicationServiceType(), spanChunk.getAgentId(), spanChunk.getEndPoint(), spanChunk.getSpanEventBoList());
+    }
+
+    private void updateSpanEventStatistics(String applicationName, short applicationServiceTypeCode, String agentId, String endPoint, List<SpanEventBo> spanEventList) {
+        if (CollectionUtils.isEmpty(spanEventList)) {
+            return;
+        }
+
+        final Map<SpanEventStatKey, SpanEventStatKey> merge = mergeSpanEvent(spanEventList);
+        if (merge.isEmpty()) {
+            return;
+        }
+
+        final ServiceType applicationServiceType = registry.findServiceType(applicationServiceTypeCode);
+        for (SpanEventStatKey key : merge.values()) {
+            /*
+             * save information to draw a server map based on statistics
+             */
+            // save the information of caller (the spanevent that span called)
+            mapStatisticsCallerDao.updateCount(applicationName, applicationServiceType, agentId, key.destinationId, key.serviceType, key.endPoint, key.slotNumber, key.count);
+
+            // save the information of callee (the span that called spanevent)
+            mapStatisticsCalleeDao.updateCount(key.destinationId, key.serviceType, applicationName, applicationServiceType, endPoint, key.slotNumber, key.count);
+        }
+    }
+
+    private Map<SpanEventStatKey, SpanEventStatKey> mergeSpanEvent(List<SpanEventBo> spanEventList) {
+        final Map<SpanEventStatKey, SpanEventStatKey> merge = new HashMap<>();
+        // consecutive SpanEvents mostly share a service type. resolve it again only when the code changes.
+        ServiceType spanEventType = null;
+        for (SpanEventBo spanEvent : spanEventList) {
+            final short serviceTypeCode = spanEvent.getServiceType();
+            if (spanEventType == null || spanEventType.getCode() != serviceTypeCode) {
+                spanEventType = registry.findServiceType(serviceTypeCode);
+            }
+            if (!spanEventType.isRecordStatistics()) {
+                continue;
+            }
+
+            final short slotNumber = ApplicationMapStatisticsUtils.getSlotNumber(spanEventType, spanEvent.getEndElapsed(), spanEvent.hasException());
+            final SpanEventStatKey key = new SpanEventStatKey(spanEvent.getDestinationId(), spanEventType, spanEvent.getEndPoint(), slotNumber);
+            final SpanEventStatKey old = merge.get(key);
+            if (old == null) {
+                merge.put(key, key);
+            } else {
+                old.count++;
+            }
+        }
+        return merge;
+    }
+
+    private static final class SpanEventStatKey {
+        private final String destinationId;
+        private final ServiceType serviceType;
+        private final String endPoint;
+        private final short slotNumber;
+        private long count = 1;
+
+        private SpanEventStatKey(String destinationId, ServiceType serviceType, String endPoint, short slotNumber) {
+            this.destinationId = destinationId;
+            this.serviceType = serviceType;
+            this.endPoint = endPoint;
+            this.slotNumber = slotNumber;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SpanEventStatKey that = (SpanEventStatKey) o;
+
+            if (slotNumber != that.slotNumber) return false;
+            if (serviceType.getCode() != that.serviceType.getCode()) return false;
+            if (destinationId != null ? !destinationId.equals(that.destinationId) : that.destinationId != null) return false;
+            return endPoint != null ? endPoint.equals(that.endPoint) : that.endPoint == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = destinationId != null ? destinationId.hashCode() : 0;
+            result = 31 * result + serviceType.getCode();
+            result = 31 * result + (endPoint != null ? endPoint.hashCode() : 0);
+            result = 31 * result + slotNumber;
+            return result;
+        }
+    }
 }
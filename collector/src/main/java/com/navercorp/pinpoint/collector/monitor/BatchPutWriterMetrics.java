@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.monitor;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.navercorp.pinpoint.collector.dao.hbase.BatchPutWriter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author agent
+ */
+public class BatchPutWriterMetrics implements MetricSet {
+
+    private static final String HBASE_BATCH_PUT = "hbase.batch.put";
+    private static final String PENDING_COUNT = HBASE_BATCH_PUT + ".pending.count";
+    private static final String BATCH_COUNT = HBASE_BATCH_PUT + ".batch.count";
+    private static final String WRITTEN_COUNT = HBASE_BATCH_PUT + ".written.count";
+    private static final String RETRIED_COUNT = HBASE_BATCH_PUT + ".retried.count";
+    private static final String FAILED_COUNT = HBASE_BATCH_PUT + ".failed.count";
+    private static final String DROPPED_COUNT = HBASE_BATCH_PUT + ".dropped.count";
+    private static final String SPILLED_COUNT = HBASE_BATCH_PUT + ".spilled.count";
+
+    private final BatchPutWriter batchPutWriter;
+
+    public BatchPutWriterMetrics(BatchPutWriter batchPutWriter) {
+        if (batchPutWriter == null) {
+            throw new NullPointerException("batchPutWriter must not be null");
+        }
+        this.batchPutWriter = batchPutWriter;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        if (!batchPutWriter.isEnable()) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, Metric> gauges = new HashMap<>(7);
+        gauges.put(PENDING_COUNT, new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return batchPutWriter.getPendingCount();
+            }
+        });
+        gauges.put(BATCH_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getBatchCount();
+            }
+        });
+        gauges.put(WRITTEN_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getWrittenCount();
+            }
+        });
+        gauges.put(RETRIED_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getRetriedCount();
+            }
+        });
+        gauges.put(FAILED_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getFailedCount();
+            }
+        });
+        gauges.put(DROPPED_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getDroppedCount();
+            }
+        });
+        gauges.put(SPILLED_COUNT, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return batchPutWriter.getSpilledCount();
+            }
+        });
+
+        return Collections.unmodifiableMap(gauges);
+    }
+}
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.collector.monitor;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
@@ -29,6 +30,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -62,6 +64,22 @@ public class MonitoredExecutorService implements ExecutorService {
 
         this.dispatchDurationTimer = registry.timer(MetricRegistry.name(name, "dispatchDuration"));
         this.durationTimer = registry.timer(MetricRegistry.name(name, "duration"));
+
+        if (delegate instanceof ThreadPoolExecutor) {
+            registerQueueSize(registry, MetricRegistry.name(name, "queueSize"), (ThreadPoolExecutor) delegate);
+        }
+    }
+
+    private void registerQueueSize(MetricRegistry registry, String gaugeName, final ThreadPoolExecutor executor) {
+        if (registry.getGauges().containsKey(gaugeName)) {
+            return;
+        }
+        registry.register(gaugeName, new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return executor.getQueue().size();
+            }
+        });
     }
 
     @Override
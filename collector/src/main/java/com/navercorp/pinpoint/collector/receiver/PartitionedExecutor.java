@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.receiver;
+
+import com.navercorp.pinpoint.common.util.MathUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches tasks to single thread lanes by partition key.
+ * <p>
+ * Tasks with the same key always run on the same lane in submission order.
+ * Each lane has its own queue, so workers do not contend with each other on a shared queue.
+ *
+ * @author agent
+ */
+public class PartitionedExecutor {
+
+    private final ExecutorService[] lanes;
+
+    public PartitionedExecutor(ExecutorService[] lanes) {
+        if (lanes == null) {
+            throw new NullPointerException("lanes must not be null");
+        }
+        if (lanes.length == 0) {
+            throw new IllegalArgumentException("lanes must not be empty");
+        }
+        this.lanes = Arrays.copyOf(lanes, lanes.length);
+    }
+
+    /**
+     * @throws java.util.concurrent.RejectedExecutionException if the queue of the lane is full
+     */
+    public void execute(int partitionKey, Runnable task) {
+        final int lane = MathUtils.fastAbs(partitionKey) % lanes.length;
+        lanes[lane].execute(task);
+    }
+
+    public int getLaneSize() {
+        return lanes.length;
+    }
+
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ExecutorService lane : lanes) {
+            final long remaining = deadline - System.nanoTime();
+            if (!lane.awaitTermination(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
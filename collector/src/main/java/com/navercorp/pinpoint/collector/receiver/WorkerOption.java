@@ -26,11 +26,17 @@ public final class WorkerOption {
 
     private final boolean enableCollectMetric;
 
+    private final WorkerType workerType;
+
     public WorkerOption(int workerThreadSize, int workerThreadQueueSize) {
         this(workerThreadSize, workerThreadQueueSize, false);
     }
 
     public WorkerOption(int workerThreadSize, int workerThreadQueueSize, boolean enableCollectMetric) {
+        this(workerThreadSize, workerThreadQueueSize, enableCollectMetric, WorkerType.DEFAULT_EXECUTOR);
+    }
+
+    public WorkerOption(int workerThreadSize, int workerThreadQueueSize, boolean enableCollectMetric, WorkerType workerType) {
         if (workerThreadSize <= 0) {
             throw new IllegalArgumentException("workerThreadSize must be greater than 0");
         }
@@ -39,9 +45,14 @@ public final class WorkerOption {
             throw new IllegalArgumentException("workerThreadQueueSize must be greater than 0");
         }
 
+        if (workerType == null) {
+            throw new NullPointerException("workerType must not be null");
+        }
+
         this.workerThreadSize = workerThreadSize;
         this.workerThreadQueueSize = workerThreadQueueSize;
         this.enableCollectMetric = enableCollectMetric;
+        this.workerType = workerType;
     }
 
     public int getWorkerThreadSize() {
@@ -56,12 +67,17 @@ public final class WorkerOption {
         return enableCollectMetric;
     }
 
+    public WorkerType getWorkerType() {
+        return workerType;
+    }
+
     @Override
     public String toString() {
         return "WorkerOption{" +
                 "workerThreadSize=" + workerThreadSize +
                 ", workerThreadQueueSize=" + workerThreadQueueSize +
                 ", enableCollectMetric=" + enableCollectMetric +
+                ", workerType=" + workerType +
                 '}';
     }
 
@@ -114,12 +114,16 @@ public class BaseUDPHandlerFactory<T extends DatagramPacket> implements PacketHa
             TBase<?, ?> tBase = null;
             
             try {
-                tBase = deserializer.deserialize(packet.getData());
-                if (filter.filter(localSocket, tBase, socketAddress) == TBaseFilter.BREAK) {
-                    return;
+                // a packet may carry several messages when the agent batches small messages into one datagram.
+                final List<TBase<?, ?>> tBaseList = deserializer.deserializeAll(packet.getData(), packet.getOffset(), packet.getLength());
+                for (int i = 0; i < tBaseList.size(); i++) {
+                    tBase = tBaseList.get(i);
+                    if (filter.filter(localSocket, tBase, socketAddress) == TBaseFilter.BREAK) {
+                        continue;
+                    }
+                    // dispatch signifies business logic execution
+                    dispatchHandler.dispatchSendMessage(tBase);
                 }
-                // dispatch signifies business logic execution
-                dispatchHandler.dispatchSendMessage(tBase);
             } catch (TException e) {
                 if (logger.isWarnEnabled()) {
                     logger.warn("packet serialize error. SendSocketAddress:{} Cause:{}", socketAddress, e.getMessage(), e);
@@ -18,8 +18,11 @@ package com.navercorp.pinpoint.collector.receiver.udp;
 
 import com.codahale.metrics.MetricRegistry;
 import com.navercorp.pinpoint.collector.monitor.MonitoredExecutorService;
+import com.navercorp.pinpoint.collector.receiver.BackPressure;
 import com.navercorp.pinpoint.collector.receiver.DataReceiver;
+import com.navercorp.pinpoint.collector.receiver.PartitionedExecutor;
 import com.navercorp.pinpoint.collector.receiver.WorkerOption;
+import com.navercorp.pinpoint.collector.receiver.WorkerType;
 import com.navercorp.pinpoint.collector.util.DatagramPacketFactory;
 import com.navercorp.pinpoint.collector.util.DefaultObjectPool;
 import com.navercorp.pinpoint.collector.util.ObjectPool;
@@ -74,6 +77,8 @@ public class UDPReceiver implements DataReceiver {
     private final WorkerOption workerOption;
     // modify thread pool size appropriately when modifying queue capacity
     private ExecutorService worker;
+    // used instead of worker if WorkerType.PARTITIONED
+    private PartitionedExecutor partitionedWorker;
 
     // can't really allocate memory as max udp packet sizes are unknown.
     // not allocating memory in advance as I am unsure of the max udp packet size.
@@ -86,6 +91,10 @@ public class UDPReceiver implements DataReceiver {
 
     private final AtomicInteger rejectedExecutionCount = new AtomicInteger(0);
 
+    // optional. drops packets on the io thread while the storage can not keep up
+    private BackPressure backPressure;
+    private final AtomicInteger backPressureDropCount = new AtomicInteger(0);
+
     private final AtomicBoolean state = new AtomicBoolean(true);
 
     public UDPReceiver(String receiverName, PacketHandlerFactory<DatagramPacket> packetHandlerFactory, String bindAddress, int port, int receiverBufferSize, WorkerOption workerOption) {
@@ -118,9 +127,13 @@ public class UDPReceiver implements DataReceiver {
         Assert.notNull(metricRegistry, "metricRegistry must not be null");
         Assert.notNull(packetHandlerFactory, "packetHandlerFactory must not be null");
 
-        this.worker = createWorker(workerOption, receiverName + "-Worker");
-        if (workerOption.isEnableCollectMetric()) {
-            this.worker = new MonitoredExecutorService(worker, metricRegistry, receiverName + "-Worker");
+        if (workerOption.getWorkerType() == WorkerType.PARTITIONED) {
+            this.partitionedWorker = createPartitionedWorker(workerOption, receiverName + "-Worker");
+        } else {
+            this.worker = createWorker(workerOption, receiverName + "-Worker");
+            if (workerOption.isEnableCollectMetric()) {
+                this.worker = new MonitoredExecutorService(worker, metricRegistry, receiverName + "-Worker");
+            }
         }
 
         final int packetPoolSize = getPacketPoolSize(workerOption);
@@ -136,6 +149,29 @@ public class UDPReceiver implements DataReceiver {
         return ExecutorFactory.newFixedThreadPool(workerThreadSize, workerThreadQueueSize, receiverName, true);
     }
 
+    private PartitionedExecutor createPartitionedWorker(WorkerOption workerOption, String receiverName) {
+        final int laneSize = workerOption.getWorkerThreadSize();
+        final int laneQueueSize = getLaneQueueSize(workerOption);
+
+        final ExecutorService[] lanes = new ExecutorService[laneSize];
+        for (int i = 0; i < laneSize; i++) {
+            final String laneName = receiverName + "-Lane-" + i;
+            ExecutorService lane = ExecutorFactory.newFixedThreadPool(1, laneQueueSize, laneName, true);
+            if (workerOption.isEnableCollectMetric()) {
+                lane = new MonitoredExecutorService(lane, metricRegistry, laneName);
+            }
+            lanes[i] = lane;
+        }
+        logger.info("partitioned worker lane:{}, laneQueueSize:{}", laneSize, laneQueueSize);
+        return new PartitionedExecutor(lanes);
+    }
+
+    private int getLaneQueueSize(WorkerOption workerOption) {
+        // the queue capacity is split between the lanes
+        final int workerThreadSize = workerOption.getWorkerThreadSize();
+        return (workerOption.getWorkerThreadQueueSize() + workerThreadSize - 1) / workerThreadSize;
+    }
+
     private void receive(final DatagramSocket socket) {
         if (logger.isInfoEnabled()) {
             logger.info("start ioThread localAddress:{}, IoThread:{}", this.socket.getLocalAddress(), Thread.currentThread().getName());
@@ -156,9 +192,14 @@ public class UDPReceiver implements DataReceiver {
                 }
                 return;
             }
+            if (isOverloaded()) {
+                pooledPacket.returnObject();
+                handleBackPressure();
+                continue;
+            }
             try {
                 Runnable dispatchTask = wrapDispatchTask(pooledPacket);
-                worker.execute(dispatchTask);
+                dispatch(packet, dispatchTask);
             } catch (RejectedExecutionException ree) {
                 handleRejectedExecutionException(ree);
             }
@@ -176,6 +217,36 @@ public class UDPReceiver implements DataReceiver {
         }
     }
 
+    private void dispatch(DatagramPacket packet, Runnable dispatchTask) {
+        if (partitionedWorker != null) {
+            // the socket address of the sender identifies the agent. a transaction is always sent by the same sender.
+            final int partitionKey = 31 * packet.getAddress().hashCode() + packet.getPort();
+            partitionedWorker.execute(partitionKey, dispatchTask);
+        } else {
+            worker.execute(dispatchTask);
+        }
+    }
+
+    private boolean isOverloaded() {
+        final BackPressure backPressure = this.backPressure;
+        if (backPressure == null) {
+            return false;
+        }
+        return backPressure.isOverloaded();
+    }
+
+    private void handleBackPressure() {
+        final int drop = backPressureDropCount.incrementAndGet();
+        final int mod = 100;
+        if ((drop % mod) == 1) {
+            logger.warn("storage overloaded. BackPressureDropCount={}", drop);
+        }
+    }
+
+    public void setBackPressure(BackPressure backPressure) {
+        this.backPressure = backPressure;
+    }
+
     private Runnable wrapDispatchTask(final PooledObject<DatagramPacket> pooledPacket) {
         final Runnable lazyExecution = new Runnable() {
             @Override
@@ -257,6 +328,10 @@ public class UDPReceiver implements DataReceiver {
 
     private int getPacketPoolSize(WorkerOption workerOption) {
         int workerThreadQueueSize = workerOption.getWorkerThreadQueueSize();
+        if (workerOption.getWorkerType() == WorkerType.PARTITIONED) {
+            // rounding up the lane queues may exceed the configured capacity a little
+            workerThreadQueueSize = getLaneQueueSize(workerOption) * workerOption.getWorkerThreadSize();
+        }
         return workerOption.getWorkerThreadSize() + workerThreadQueueSize + ioThreadSize;
     }
 
@@ -293,7 +368,22 @@ public class UDPReceiver implements DataReceiver {
             socket.close();
         }
         shutdownExecutor(io, "IoExecutor");
-        shutdownExecutor(worker, "WorkerExecutor");
+        if (partitionedWorker != null) {
+            shutdownPartitionedWorker(partitionedWorker);
+        } else {
+            shutdownExecutor(worker, "WorkerExecutor");
+        }
+    }
+
+    private void shutdownPartitionedWorker(PartitionedExecutor partitionedWorker) {
+        logger.info("PartitionedWorker shutdown.");
+        partitionedWorker.shutdown();
+        try {
+            partitionedWorker.awaitTermination(1000 * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            logger.info("PartitionedWorker.shutdown() Interrupted", e);
+            Thread.currentThread().interrupt();
+        }
     }
 
     private void shutdownExecutor(ExecutorService executor, String executorName) {
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Counter map for statistics aggregation keyed by a {@link Fingerprint} of the key fields.
+ * <p>
+ * Each thread is bound to a stripe by its thread id, so a worker keeps counting the same keys in the same
+ * {@link LongCounterTable} and different workers rarely contend on a lock.
+ * Counting an existing key allocates nothing, the key object is only needed when {@link #increment(long, long)} returns false.
+ * <p>
+ * {@link #remove()} swaps every stripe with an empty table and adds the swapped tables into one,
+ * instead of copying every entry into a new HashMap like {@link ConcurrentCounterMap}.
+ * The drained tables are cleared and reused by the next swap.
+ *
+ * @author agent
+ */
+public class ConcurrentFingerprintCounterMap<K> {
+
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    // tables grown bigger than this by a burst are not reused
+    private static final int MAX_RECYCLE_CAPACITY = 1 << 16;
+
+    private final int initialCapacity;
+    private final Stripe<K>[] stripes;
+    private final int stripeMask;
+
+    private final Deque<LongCounterTable<K>> spareTables = new ArrayDeque<>();
+
+    public ConcurrentFingerprintCounterMap() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public ConcurrentFingerprintCounterMap(int concurrencyLevel) {
+        this(concurrencyLevel, LongCounterTable.DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public ConcurrentFingerprintCounterMap(int concurrencyLevel, int initialCapacity) {
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("concurrencyLevel:" + concurrencyLevel);
+        }
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity:" + initialCapacity);
+        }
+        this.initialCapacity = initialCapacity;
+        final int stripeCount = LongCounterTable.roundToPowerOfTwo(concurrencyLevel);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe<>(new LongCounterTable<K>(initialCapacity));
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    private Stripe<K> getStripe() {
+        final long threadId = Thread.currentThread().getId();
+        final int index = (int) Fingerprint.mix(threadId) & stripeMask;
+        return stripes[index];
+    }
+
+    /**
+     * @return false if the key has not been counted by this stripe since the last {@link #remove()}.
+     * the caller should call {@link #increment(long, Object, long)} with the key object.
+     */
+    public boolean increment(long fingerprint, long increment) {
+        return getStripe().increment(fingerprint, increment);
+    }
+
+    public void increment(long fingerprint, K key, long increment) {
+        if (key == null) {
+            throw new NullPointerException("key must not be null");
+        }
+        getStripe().add(fingerprint, key, increment);
+    }
+
+    /**
+     * @return counters collected since the last call. the returned table is owned by the caller.
+     */
+    public synchronized LongCounterTable<K> remove() {
+        LongCounterTable<K> merge = null;
+        for (Stripe<K> stripe : stripes) {
+            final LongCounterTable<K> next = nextTable();
+            final LongCounterTable<K> table = stripe.swap(next);
+            if (table == null) {
+                // nothing counted. keep the spare for the next stripe
+                spareTables.offerFirst(next);
+                continue;
+            }
+            if (merge == null) {
+                merge = table;
+            } else {
+                merge.addAll(table);
+                recycle(table);
+            }
+        }
+        if (merge == null) {
+            return new LongCounterTable<>(1);
+        }
+        return merge;
+    }
+
+    private LongCounterTable<K> nextTable() {
+        final LongCounterTable<K> spare = spareTables.pollFirst();
+        if (spare != null) {
+            return spare;
+        }
+        return new LongCounterTable<>(initialCapacity);
+    }
+
+    private void recycle(LongCounterTable<K> table) {
+        if (table.capacity() > MAX_RECYCLE_CAPACITY) {
+            return;
+        }
+        table.clear();
+        spareTables.offerFirst(table);
+    }
+
+    private static final class Stripe<K> {
+
+        private LongCounterTable<K> table;
+
+        private Stripe(LongCounterTable<K> table) {
+            this.table = table;
+        }
+
+        private synchronized boolean increment(long fingerprint, long increment) {
+            return table.increment(fingerprint, increment);
+        }
+
+        private synchronized void add(long fingerprint, K key, long increment) {
+            table.add(fingerprint, key, increment);
+        }
+
+        /**
+         * @return the current table, or null if it is empty and the next table was not used
+         */
+        private synchronized LongCounterTable<K> swap(LongCounterTable<K> next) {
+            final LongCounterTable<K> old = this.table;
+            if (old.isEmpty()) {
+                return null;
+            }
+            this.table = next;
+            return old;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.util;
+
+/**
+ * 64bit fingerprint of composite keys, computed from the key fields without building the key object.
+ * <p>
+ * Strings are hashed char by char instead of using {@link String#hashCode()}, so that two keys collide
+ * only with a 64bit probability and not whenever their 32bit hashCodes do.
+ *
+ * @author agent
+ */
+public final class Fingerprint {
+
+    public static final long SEED = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+    private static final long NULL_MARKER = 0x9e3779b97f4a7c15L;
+
+    private Fingerprint() {
+    }
+
+    public static long hash(long fingerprint, String value) {
+        if (value == null) {
+            return hash(fingerprint, NULL_MARKER);
+        }
+        final int length = value.length();
+        long h = fingerprint;
+        for (int i = 0; i < length; i++) {
+            h = (h ^ value.charAt(i)) * PRIME;
+        }
+        // length delimits adjacent strings. ("ab", "c") != ("a", "bc")
+        return hash(h, length);
+    }
+
+    public static long hash(long fingerprint, long value) {
+        return (fingerprint ^ mix(value)) * PRIME;
+    }
+
+    /**
+     * murmur3 fmix64. spreads the fingerprint over all bits before it is used as a table index.
+     */
+    public static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
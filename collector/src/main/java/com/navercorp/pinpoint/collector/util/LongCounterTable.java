@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressed table of primitive long counters keyed by {@link Fingerprint}.
+ * <p>
+ * The key object is only stored the first time a fingerprint is added, so that counting an existing key allocates nothing.
+ * Not thread safe.
+ *
+ * @author agent
+ */
+public class LongCounterTable<K> {
+
+    public static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] fingerprints;
+    private long[] counts;
+    private Object[] keys;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public LongCounterTable() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public LongCounterTable(int initialCapacity) {
+        if (initialCapacity <= 0 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("initialCapacity:" + initialCapacity);
+        }
+        allocate(roundToPowerOfTwo(initialCapacity));
+    }
+
+    static int roundToPowerOfTwo(int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        if (highestOneBit == value) {
+            return value;
+        }
+        return highestOneBit << 1;
+    }
+
+    private void allocate(int capacity) {
+        this.fingerprints = new long[capacity];
+        this.counts = new long[capacity];
+        this.keys = new Object[capacity];
+        this.mask = capacity - 1;
+        // load factor 0.5 keeps the linear probe sequence short
+        this.resizeThreshold = capacity >>> 1;
+    }
+
+    /**
+     * @return false if the fingerprint is not in the table. the caller should {@link #add(long, Object, long)} the key.
+     */
+    public boolean increment(long fingerprint, long increment) {
+        final int index = indexOf(fingerprint);
+        if (keys[index] == null) {
+            return false;
+        }
+        counts[index] += increment;
+        return true;
+    }
+
+    public void add(long fingerprint, K key, long increment) {
+        if (key == null) {
+            throw new NullPointerException("key must not be null");
+        }
+        final int index = indexOf(fingerprint);
+        if (keys[index] != null) {
+            counts[index] += increment;
+            return;
+        }
+        fingerprints[index] = fingerprint;
+        counts[index] = increment;
+        keys[index] = key;
+        size++;
+        if (size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    /**
+     * adds every counter of the given table to this table. the given table is not modified.
+     */
+    public void addAll(LongCounterTable<K> table) {
+        if (table == null) {
+            throw new NullPointerException("table must not be null");
+        }
+        final Object[] otherKeys = table.keys;
+        for (int i = 0; i < otherKeys.length; i++) {
+            final Object key = otherKeys[i];
+            if (key != null) {
+                add(table.fingerprints[i], (K) key, table.counts[i]);
+            }
+        }
+    }
+
+    private int indexOf(long fingerprint) {
+        final long[] fingerprints = this.fingerprints;
+        final Object[] keys = this.keys;
+        int index = (int) Fingerprint.mix(fingerprint) & mask;
+        while (keys[index] != null && fingerprints[index] != fingerprint) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        final int capacity = keys.length;
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("table is full. capacity:" + capacity);
+        }
+        final long[] oldFingerprints = this.fingerprints;
+        final long[] oldCounts = this.counts;
+        final Object[] oldKeys = this.keys;
+        allocate(capacity << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            final Object key = oldKeys[i];
+            if (key != null) {
+                final int index = indexOf(oldFingerprints[i]);
+                fingerprints[index] = oldFingerprints[i];
+                counts[index] = oldCounts[i];
+                keys[index] = key;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * slot count. iterate from 0 to capacity and skip the slots whose {@link #getKey(int)} is null.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    public K getKey(int slot) {
+        return (K) keys[slot];
+    }
+
+    public long getCount(int slot) {
+        return counts[slot];
+    }
+
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, null);
+        // fingerprints and counts of an empty slot are never read
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "LongCounterTable{" +
+                "size=" + size +
+                ", capacity=" + keys.length +
+                '}';
+    }
+}
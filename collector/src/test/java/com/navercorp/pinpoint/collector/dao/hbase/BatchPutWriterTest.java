@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author agent
+ */
+public class BatchPutWriterTest {
+
+    private static final TableName TABLE = TableName.valueOf("BatchPutWriterTest");
+
+    private HbaseOperations2 hbaseTemplate;
+
+    private BatchPutWriter batchPutWriter;
+
+    @Before
+    public void setUp() {
+        hbaseTemplate = mock(HbaseOperations2.class);
+    }
+
+    @After
+    public void tearDown() {
+        if (batchPutWriter != null) {
+            batchPutWriter.stop();
+        }
+    }
+
+    private BatchPutWriter start(boolean enable, int maxPendingSize, int batchSize, long flushPeriodMillis, String overflowPolicy) {
+        return start(enable, maxPendingSize, batchSize, flushPeriodMillis, 3, overflowPolicy);
+    }
+
+    private BatchPutWriter start(boolean enable, int maxPendingSize, int batchSize, long flushPeriodMillis, int maxRetries, String overflowPolicy) {
+        batchPutWriter = new BatchPutWriter(hbaseTemplate, enable, maxPendingSize, batchSize, flushPeriodMillis, 2, maxRetries, overflowPolicy, 100);
+        batchPutWriter.start();
+        return batchPutWriter;
+    }
+
+    @Test
+    public void disable() {
+        when(hbaseTemplate.asyncPut(eq(TABLE), any(Put.class))).thenReturn(false);
+        BatchPutWriter writer = start(false, 10, 10, 100, "DROP");
+
+        Put put = newPut(0);
+        writer.put(TABLE, put);
+
+        verify(hbaseTemplate).asyncPut(TABLE, put);
+        verify(hbaseTemplate).put(TABLE, put);
+        Assert.assertFalse(writer.isOverloaded());
+    }
+
+    @Test
+    public void flushByBatchSize() {
+        BatchPutWriter writer = start(true, 100, 10, 60000, "DROP");
+
+        for (int i = 0; i < 10; i++) {
+            writer.put(TABLE, newPut(i));
+        }
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(hbaseTemplate, timeout(3000)).put(eq(TABLE), captor.capture());
+        Assert.assertEquals(10, captor.getValue().size());
+    }
+
+    @Test
+    public void flushByPeriod() {
+        BatchPutWriter writer = start(true, 100, 10, 50, "DROP");
+
+        writer.put(TABLE, newPut(0));
+        writer.put(TABLE, newPut(1));
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(hbaseTemplate, timeout(3000)).put(eq(TABLE), captor.capture());
+        Assert.assertEquals(2, captor.getValue().size());
+    }
+
+    @Test
+    public void overflowDrop() {
+        BatchPutWriter writer = start(true, 2, 10, 60000, "DROP");
+
+        writer.put(TABLE, newPut(0));
+        writer.put(TABLE, newPut(1));
+        Assert.assertTrue(writer.isOverloaded());
+        writer.put(TABLE, newPut(2));
+
+        Assert.assertEquals(1, writer.getDroppedCount());
+        verify(hbaseTemplate, never()).asyncPut(eq(TABLE), any(Put.class));
+        verify(hbaseTemplate, never()).put(eq(TABLE), anyListOf(Put.class));
+    }
+
+    @Test
+    public void overflowSpill() {
+        when(hbaseTemplate.asyncPut(eq(TABLE), any(Put.class))).thenReturn(false);
+        BatchPutWriter writer = start(true, 2, 10, 60000, "spill");
+
+        writer.put(TABLE, newPut(0));
+        writer.put(TABLE, newPut(1));
+        Put spill = newPut(2);
+        writer.put(TABLE, spill);
+
+        Assert.assertEquals(1, writer.getSpilledCount());
+        verify(hbaseTemplate).asyncPut(TABLE, spill);
+        verify(hbaseTemplate).put(TABLE, spill);
+    }
+
+    @Test
+    public void retryFailedBatch() throws InterruptedException {
+        doThrow(new RuntimeException("test")).doNothing().when(hbaseTemplate).put(eq(TABLE), anyListOf(Put.class));
+        BatchPutWriter writer = start(true, 100, 1, 50, 3, "DROP");
+
+        writer.put(TABLE, newPut(0));
+
+        verify(hbaseTemplate, timeout(3000).times(2)).put(eq(TABLE), anyListOf(Put.class));
+        awaitPendingCount(writer, 0);
+        Assert.assertEquals(1, writer.getRetriedCount());
+        Assert.assertEquals(1, writer.getWrittenCount());
+        Assert.assertEquals(0, writer.getFailedCount());
+    }
+
+    @Test
+    public void failAfterMaxRetries() throws InterruptedException {
+        doThrow(new RuntimeException("test")).when(hbaseTemplate).put(eq(TABLE), anyListOf(Put.class));
+        BatchPutWriter writer = start(true, 100, 1, 50, 2, "DROP");
+
+        writer.put(TABLE, newPut(0));
+
+        verify(hbaseTemplate, timeout(3000).times(3)).put(eq(TABLE), anyListOf(Put.class));
+        awaitPendingCount(writer, 0);
+        Assert.assertEquals(2, writer.getRetriedCount());
+        Assert.assertEquals(1, writer.getFailedCount());
+        Assert.assertEquals(0, writer.getWrittenCount());
+    }
+
+    @Test
+    public void dropAfterStop() {
+        BatchPutWriter writer = start(true, 100, 10, 60000, "SPILL");
+        writer.stop();
+        batchPutWriter = null;
+
+        writer.put(TABLE, newPut(0));
+
+        Assert.assertEquals(1, writer.getDroppedCount());
+        Assert.assertEquals(0, writer.getPendingCount());
+        verify(hbaseTemplate, never()).asyncPut(eq(TABLE), any(Put.class));
+        verify(hbaseTemplate, never()).put(eq(TABLE), anyListOf(Put.class));
+    }
+
+    @Test
+    public void stop() {
+        BatchPutWriter writer = start(true, 100, 10, 60000, "DROP");
+        writer.put(TABLE, newPut(0));
+
+        writer.stop();
+        batchPutWriter = null;
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(hbaseTemplate).put(eq(TABLE), captor.capture());
+        Assert.assertEquals(1, captor.getValue().size());
+    }
+
+    private void awaitPendingCount(BatchPutWriter writer, int pendingCount) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 3000;
+        while (writer.getPendingCount() != pendingCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(pendingCount, writer.getPendingCount());
+    }
+
+    private Put newPut(int row) {
+        return new Put(Bytes.toBytes(row));
+    }
+}
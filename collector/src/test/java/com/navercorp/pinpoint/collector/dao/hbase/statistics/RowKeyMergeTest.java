@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.collector.util.LongCounterTable;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author agent
+ */
+public class RowKeyMergeTest {
+
+    private static final byte[] COUNTER = HBaseTables.MAP_STATISTICS_CALLEE_VER2_CF_COUNTER;
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Test
+    public void createBulkIncrement() {
+        RowKeyMerge rowKeyMerge = new RowKeyMerge(COUNTER);
+
+        LongCounterTable<RowInfo> data = new LongCounterTable<>();
+        add(data, 0, 10);
+        add(data, ONE_MINUTE, 20);
+
+        List<Increment> incrementList = rowKeyMerge.createBulkIncrement(data, null);
+        Assert.assertEquals(2, incrementList.size());
+        Assert.assertEquals(30, sum(incrementList, COUNTER));
+    }
+
+    @Test
+    public void createBulkIncrement_rollup() {
+        RowKeyMerge rowKeyMerge = new RowKeyMerge(COUNTER);
+        rowKeyMerge.setRollups(new MapStatisticsRollup[]{MapStatisticsRollup.FIVE_MINUTES, MapStatisticsRollup.ONE_HOUR});
+
+        LongCounterTable<RowInfo> data = new LongCounterTable<>();
+        add(data, 0, 10);
+        add(data, ONE_MINUTE, 20);
+        add(data, ONE_MINUTE * 5, 40);
+
+        List<Increment> incrementList = rowKeyMerge.createBulkIncrement(data, null);
+        // 3 minute rows + 2 five minute rows + 1 hour row
+        Assert.assertEquals(6, incrementList.size());
+        Assert.assertEquals(70, sum(incrementList, COUNTER));
+
+        final byte[] firstFiveMinutes = new CallRowKey("callerApp", (short) 1000, 0).getRowKey();
+        Assert.assertEquals(30, get(incrementList, firstFiveMinutes, MapStatisticsRollup.FIVE_MINUTES.getFamily()));
+        Assert.assertEquals(70, get(incrementList, firstFiveMinutes, MapStatisticsRollup.ONE_HOUR.getFamily()));
+    }
+
+    private void add(LongCounterTable<RowInfo> data, long timeSlot, long count) {
+        RowKey rowKey = new CallRowKey("callerApp", (short) 1000, timeSlot);
+        ColumnName columnName = new CalleeColumnName("agent", (short) 2000, "calleeApp", "host", (short) 1);
+        data.add(timeSlot, new DefaultRowInfo(rowKey, columnName), count);
+    }
+
+    private long sum(List<Increment> incrementList, byte[] family) {
+        long sum = 0;
+        for (Increment increment : incrementList) {
+            NavigableMap<byte[], Long> columnMap = increment.getFamilyMapOfLongs().get(family);
+            if (columnMap == null) {
+                continue;
+            }
+            for (Long value : columnMap.values()) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    private long get(List<Increment> incrementList, byte[] rowKey, byte[] family) {
+        long sum = 0;
+        for (Increment increment : incrementList) {
+            if (!Arrays.equals(rowKey, increment.getRow())) {
+                continue;
+            }
+            for (Map.Entry<byte[], NavigableMap<byte[], Long>> familyEntry : increment.getFamilyMapOfLongs().entrySet()) {
+                if (Bytes.equals(family, familyEntry.getKey())) {
+                    for (Long value : familyEntry.getValue().values()) {
+                        sum += value;
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+}
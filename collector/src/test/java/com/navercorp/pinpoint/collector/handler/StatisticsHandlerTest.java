@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.handler;
+
+import static com.navercorp.pinpoint.common.trace.ServiceTypeProperty.*;
+import static org.mockito.Mockito.*;
+
+import com.navercorp.pinpoint.collector.dao.MapResponseTimeDao;
+import com.navercorp.pinpoint.collector.dao.MapStatisticsCalleeDao;
+import com.navercorp.pinpoint.collector.dao.MapStatisticsCallerDao;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.service.ServiceTypeRegistryService;
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.common.trace.ServiceTypeFactory;
+import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * @author agent
+ */
+public class StatisticsHandlerTest {
+
+    private static final ServiceType TOMCAT = ServiceTypeFactory.of(1010, "TOMCAT", RECORD_STATISTICS);
+    private static final ServiceType MYSQL = ServiceTypeFactory.of(2101, "MYSQL", TERMINAL, INCLUDE_DESTINATION_ID, RECORD_STATISTICS);
+    private static final ServiceType INTERNAL_METHOD = ServiceTypeFactory.of(5000, "INTERNAL_METHOD");
+
+    @Mock
+    private MapStatisticsCalleeDao mapStatisticsCalleeDao;
+
+    @Mock
+    private MapStatisticsCallerDao mapStatisticsCallerDao;
+
+    @Mock
+    private MapResponseTimeDao mapResponseTimeDao;
+
+    @Mock
+    private ServiceTypeRegistryService registry;
+
+    @InjectMocks
+    private StatisticsHandler statisticsHandler = new StatisticsHandler();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(registry.findServiceType(TOMCAT.getCode())).thenReturn(TOMCAT);
+        when(registry.findServiceType(MYSQL.getCode())).thenReturn(MYSQL);
+        when(registry.findServiceType(INTERNAL_METHOD.getCode())).thenReturn(INTERNAL_METHOD);
+    }
+
+    @Test
+    public void updateSpanEventStatistics() {
+        SpanBo span = new SpanBo();
+        span.setApplicationId("app");
+        span.setAgentId("agent");
+        span.setServiceType(TOMCAT.getCode());
+        span.setEndPoint("localhost:8080");
+        for (int i = 0; i < 100; i++) {
+            span.addSpanEvent(newSpanEvent(MYSQL, "MYSQL_DB", "10.0.0.1:3306", 10, false));
+            span.addSpanEvent(newSpanEvent(INTERNAL_METHOD, null, null, 10, false));
+        }
+        span.addSpanEvent(newSpanEvent(MYSQL, "MYSQL_DB", "10.0.0.1:3306", 10, true));
+
+        statisticsHandler.updateSpanEventStatistics(span);
+
+        final short slot = ApplicationMapStatisticsUtils.getSlotNumber(MYSQL, 10, false);
+        final short errorSlot = ApplicationMapStatisticsUtils.getSlotNumber(MYSQL, 10, true);
+        verify(mapStatisticsCallerDao).updateCount("app", TOMCAT, "agent", "MYSQL_DB", MYSQL, "10.0.0.1:3306", slot, 100L);
+        verify(mapStatisticsCallerDao).updateCount("app", TOMCAT, "agent", "MYSQL_DB", MYSQL, "10.0.0.1:3306", errorSlot, 1L);
+        verify(mapStatisticsCalleeDao).updateCount("MYSQL_DB", MYSQL, "app", TOMCAT, "localhost:8080", slot, 100L);
+        verify(mapStatisticsCalleeDao).updateCount("MYSQL_DB", MYSQL, "app", TOMCAT, "localhost:8080", errorSlot, 1L);
+        verifyNoMoreInteractions(mapStatisticsCallerDao, mapStatisticsCalleeDao);
+    }
+
+    @Test
+    public void updateSpanEventStatistics_empty() {
+        SpanBo span = new SpanBo();
+        span.setServiceType(TOMCAT.getCode());
+
+        statisticsHandler.updateSpanEventStatistics(span);
+
+        verifyZeroInteractions(mapStatisticsCallerDao, mapStatisticsCalleeDao);
+    }
+
+    private SpanEventBo newSpanEvent(ServiceType serviceType, String destinationId, String endPoint, int elapsed, boolean error) {
+        SpanEventBo spanEvent = new SpanEventBo();
+        spanEvent.setServiceType(serviceType.getCode());
+        spanEvent.setDestinationId(destinationId);
+        spanEvent.setEndPoint(endPoint);
+        spanEvent.setEndElapsed(elapsed);
+        if (error) {
+            spanEvent.setExceptionInfo(1, "error");
+        }
+        return spanEvent;
+    }
+}
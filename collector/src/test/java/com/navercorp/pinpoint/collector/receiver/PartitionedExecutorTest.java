@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.receiver;
+
+import com.navercorp.pinpoint.common.util.ExecutorFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author agent
+ */
+public class PartitionedExecutorTest {
+
+    @Test
+    public void orderByPartitionKey() throws Exception {
+        final int laneSize = 4;
+        ExecutorService[] lanes = new ExecutorService[laneSize];
+        for (int i = 0; i < laneSize; i++) {
+            lanes[i] = ExecutorFactory.newFixedThreadPool(1, 1000, "PartitionedExecutorTest-" + i, true);
+        }
+        PartitionedExecutor executor = new PartitionedExecutor(lanes);
+        Assert.assertEquals(laneSize, executor.getLaneSize());
+
+        final int keySize = 10;
+        final List<List<Integer>> results = new ArrayList<>();
+        final List<Set<String>> threads = new ArrayList<>();
+        for (int key = 0; key < keySize; key++) {
+            results.add(Collections.synchronizedList(new ArrayList<Integer>()));
+            threads.add(Collections.synchronizedSet(new HashSet<String>()));
+        }
+
+        for (int sequence = 0; sequence < 100; sequence++) {
+            for (int key = 0; key < keySize; key++) {
+                final int currentKey = key;
+                final int currentSequence = sequence;
+                executor.execute(-key, new Runnable() {
+                    @Override
+                    public void run() {
+                        results.get(currentKey).add(currentSequence);
+                        threads.get(currentKey).add(Thread.currentThread().getName());
+                    }
+                });
+            }
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(3000, TimeUnit.MILLISECONDS));
+
+        for (int key = 0; key < keySize; key++) {
+            List<Integer> result = results.get(key);
+            Assert.assertEquals(100, result.size());
+            for (int sequence = 0; sequence < 100; sequence++) {
+                Assert.assertEquals(sequence, result.get(sequence).intValue());
+            }
+            Assert.assertEquals(1, threads.get(key).size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyLanes() {
+        new PartitionedExecutor(new ExecutorService[0]);
+    }
+}
@@ -53,6 +53,15 @@ public class WorkerOptionTest {
         Assert.assertEquals(collectMetric, workerOption.isEnableCollectMetric());
     }
 
+    @Test
+    public void workerType() throws Exception {
+        WorkerOption defaultOption = new WorkerOption(1, 10, true);
+        Assert.assertEquals(WorkerType.DEFAULT_EXECUTOR, defaultOption.getWorkerType());
+
+        WorkerOption partitionedOption = new WorkerOption(1, 10, true, WorkerType.PARTITIONED);
+        Assert.assertEquals(WorkerType.PARTITIONED, partitionedOption.getWorkerType());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void throwExceptionTest1() {
         WorkerOption workerOption = new WorkerOption(0, 100);
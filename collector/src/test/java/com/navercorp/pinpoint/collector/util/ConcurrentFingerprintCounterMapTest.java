@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.util;
+
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.CallRowKey;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.CalleeColumnName;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.DefaultRowInfo;
+import com.navercorp.pinpoint.collector.dao.hbase.statistics.RowInfo;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author agent
+ */
+public class ConcurrentFingerprintCounterMapTest {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Test
+    public void testIncrement() {
+        ConcurrentFingerprintCounterMap<String> counter = new ConcurrentFingerprintCounterMap<>();
+        increment(counter, "a", 1L);
+        increment(counter, "a", 2L);
+        increment(counter, "b", 5L);
+
+        LongCounterTable<String> remove = counter.remove();
+        Assert.assertEquals(3L, LongCounterTableTest.count(remove, "a"));
+        Assert.assertEquals(5L, LongCounterTableTest.count(remove, "b"));
+
+        increment(counter, "a", 1L);
+        LongCounterTable<String> remove2 = counter.remove();
+        Assert.assertEquals(1, remove2.size());
+        Assert.assertEquals(1L, LongCounterTableTest.count(remove2, "a"));
+
+        Assert.assertTrue(counter.remove().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentIncrement() throws Exception {
+        final ConcurrentFingerprintCounterMap<String> counter = new ConcurrentFingerprintCounterMap<>(4);
+        final int threadCount = 8;
+        final int keyCount = 100;
+        final int loop = 10000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < loop; j++) {
+                        increment(counter, "key" + (j % keyCount), 1L);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        LongCounterTable<String> remove = counter.remove();
+        Assert.assertEquals(keyCount, remove.size());
+        for (int i = 0; i < keyCount; i++) {
+            Assert.assertEquals(threadCount * loop / keyCount, LongCounterTableTest.count(remove, "key" + i));
+        }
+    }
+
+    private static void increment(ConcurrentFingerprintCounterMap<String> counter, String key, long increment) {
+        final long fingerprint = Fingerprint.hash(Fingerprint.SEED, key);
+        if (!counter.increment(fingerprint, increment)) {
+            counter.increment(fingerprint, key, increment);
+        }
+    }
+
+    /**
+     * caller statistics stream of SpanHandler.insertSpanEventStat(). 8 workers, 1 flush per second.
+     */
+    @Ignore
+    @Test
+    public void benchmarkCallerStatistics() throws Exception {
+        final int workers = 8;
+        final int updatesPerWorker = 2000000;
+        final String[] callerAgents = new String[20];
+        for (int i = 0; i < callerAgents.length; i++) {
+            callerAgents[i] = "front-agent-" + i;
+        }
+        final String[] callees = {"order-api", "user-api", "payment-api", "MYSQL", "REDIS", "ARCUS"};
+        final String[] calleeHosts = {"10.0.0.1:8080", "10.0.0.2:8080", "10.0.1.1:3306", "10.0.2.1:6379"};
+        final short[] slots = {1, 3, 5, 8, 0};
+
+        for (int round = 0; round < 3; round++) {
+            final ConcurrentCounterMap<RowInfo> counterMap = new ConcurrentCounterMap<>();
+            long start = System.nanoTime();
+            run(workers, new Runnable() {
+                @Override
+                public void run() {
+                    Random random = new Random(0);
+                    for (int i = 0; i < updatesPerWorker; i++) {
+                        final String callerAgent = callerAgents[random.nextInt(callerAgents.length)];
+                        final String callee = callees[random.nextInt(callees.length)];
+                        final String calleeHost = calleeHosts[random.nextInt(calleeHosts.length)];
+                        final short slot = slots[random.nextInt(slots.length)];
+                        RowInfo rowInfo = new DefaultRowInfo(new CallRowKey("front", (short) 1010, 0L), new CalleeColumnName(callerAgent, (short) 1010, callee, calleeHost, slot));
+                        counterMap.increment(rowInfo, 1L);
+                    }
+                }
+            });
+            Map<RowInfo, ConcurrentCounterMap.LongAdder> merge = counterMap.remove();
+            logger.debug("ConcurrentCounterMap {}ms keys:{}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), merge.size());
+
+            final ConcurrentFingerprintCounterMap<RowInfo> fingerprintMap = new ConcurrentFingerprintCounterMap<>();
+            start = System.nanoTime();
+            run(workers, new Runnable() {
+                @Override
+                public void run() {
+                    Random random = new Random(0);
+                    for (int i = 0; i < updatesPerWorker; i++) {
+                        final String callerAgent = callerAgents[random.nextInt(callerAgents.length)];
+                        final String callee = callees[random.nextInt(callees.length)];
+                        final String calleeHost = calleeHosts[random.nextInt(calleeHosts.length)];
+                        final short slot = slots[random.nextInt(slots.length)];
+                        long fingerprint = Fingerprint.hash(Fingerprint.SEED, "front");
+                        fingerprint = Fingerprint.hash(fingerprint, 1010);
+                        fingerprint = Fingerprint.hash(fingerprint, 0L);
+                        fingerprint = Fingerprint.hash(fingerprint, callerAgent);
+                        fingerprint = Fingerprint.hash(fingerprint, 1010);
+                        fingerprint = Fingerprint.hash(fingerprint, callee);
+                        fingerprint = Fingerprint.hash(fingerprint, calleeHost);
+                        fingerprint = Fingerprint.hash(fingerprint, slot);
+                        if (!fingerprintMap.increment(fingerprint, 1L)) {
+                            RowInfo rowInfo = new DefaultRowInfo(new CallRowKey("front", (short) 1010, 0L), new CalleeColumnName(callerAgent, (short) 1010, callee, calleeHost, slot));
+                            fingerprintMap.increment(fingerprint, rowInfo, 1L);
+                        }
+                    }
+                }
+            });
+            LongCounterTable<RowInfo> table = fingerprintMap.remove();
+            logger.debug("ConcurrentFingerprintCounterMap {}ms keys:{}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), table.size());
+
+            Assert.assertEquals(merge.size(), table.size());
+        }
+    }
+
+    private void run(int workers, Runnable job) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(job);
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class LongCounterTableTest {
+
+    @Test
+    public void testIncrement() {
+        LongCounterTable<String> table = new LongCounterTable<>();
+        final long a = Fingerprint.hash(Fingerprint.SEED, "a");
+        final long b = Fingerprint.hash(Fingerprint.SEED, "b");
+
+        Assert.assertFalse(table.increment(a, 1L));
+        table.add(a, "a", 1L);
+        Assert.assertTrue(table.increment(a, 2L));
+        table.add(b, "b", 5L);
+        table.add(b, "b", 1L);
+
+        Assert.assertEquals(2, table.size());
+        Assert.assertEquals(3L, count(table, "a"));
+        Assert.assertEquals(6L, count(table, "b"));
+    }
+
+    @Test
+    public void testResize() {
+        LongCounterTable<String> table = new LongCounterTable<>(2);
+        final int keyCount = 10000;
+        for (int i = 0; i < keyCount; i++) {
+            final String key = "key" + i;
+            table.add(Fingerprint.hash(Fingerprint.SEED, key), key, i);
+        }
+        for (int i = 0; i < keyCount; i++) {
+            final String key = "key" + i;
+            Assert.assertTrue(table.increment(Fingerprint.hash(Fingerprint.SEED, key), 1L));
+        }
+
+        Assert.assertEquals(keyCount, table.size());
+        Assert.assertEquals(1L, count(table, "key0"));
+        Assert.assertEquals(10000L, count(table, "key9999"));
+    }
+
+    @Test
+    public void testAddAll() {
+        LongCounterTable<String> table1 = new LongCounterTable<>();
+        table1.add(Fingerprint.hash(Fingerprint.SEED, "a"), "a", 1L);
+        LongCounterTable<String> table2 = new LongCounterTable<>();
+        table2.add(Fingerprint.hash(Fingerprint.SEED, "a"), "a", 2L);
+        table2.add(Fingerprint.hash(Fingerprint.SEED, "b"), "b", 3L);
+
+        table1.addAll(table2);
+        Assert.assertEquals(2, table1.size());
+        Assert.assertEquals(3L, count(table1, "a"));
+        Assert.assertEquals(3L, count(table1, "b"));
+    }
+
+    @Test
+    public void testClear() {
+        LongCounterTable<String> table = new LongCounterTable<>();
+        final long a = Fingerprint.hash(Fingerprint.SEED, "a");
+        table.add(a, "a", 1L);
+        table.clear();
+
+        Assert.assertTrue(table.isEmpty());
+        Assert.assertFalse(table.increment(a, 1L));
+    }
+
+    @Test
+    public void testFingerprintDelimiter() {
+        long ab = Fingerprint.hash(Fingerprint.hash(Fingerprint.SEED, "ab"), "c");
+        long bc = Fingerprint.hash(Fingerprint.hash(Fingerprint.SEED, "a"), "bc");
+        Assert.assertNotEquals(ab, bc);
+
+        // same String.hashCode()
+        Assert.assertEquals("Aa".hashCode(), "BB".hashCode());
+        Assert.assertNotEquals(Fingerprint.hash(Fingerprint.SEED, "Aa"), Fingerprint.hash(Fingerprint.SEED, "BB"));
+    }
+
+    static <K> long count(LongCounterTable<K> table, K key) {
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            if (key.equals(table.getKey(slot))) {
+                return table.getCount(slot);
+            }
+        }
+        return -1;
+    }
+}
@@ -648,6 +648,21 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
         }
     }
 
+    @Override
+    public <T> List<T> findParallel(TableName tableName, Scan scan, AbstractRowKeyDistributor rowKeyDistributor, int limit, RowMapper<T> action, LimitEventHandler limitEventHandler, ScanCounter scanCounter, int numParallelThreads) {
+        if (scanCounter == null) {
+            throw new NullPointerException("scanCounter must not be null");
+        }
+        if (!this.enableParallelScan || numParallelThreads <= 1 || limit <= 0) {
+            // use DistributedScanner if parallel scan is disabled or if called to use a single thread
+            return find(tableName, scan, rowKeyDistributor, limit, action, limitEventHandler);
+        } else {
+            int numThreadsUsed = numParallelThreads < this.maxThreadsPerParallelScan ? numParallelThreads : this.maxThreadsPerParallelScan;
+            final LimitRowMapperResultsExtractor<T> resultsExtractor = new LimitRowMapperResultsExtractor<>(action, limit, limitEventHandler);
+            return executeParallelDistributedScan(tableName, scan, rowKeyDistributor, resultsExtractor, numThreadsUsed, limit, scanCounter);
+        }
+    }
+
     @Override
     public <T> T findParallel(TableName tableName, Scan scan, AbstractRowKeyDistributor rowKeyDistributor, ResultsExtractor<T> action, int numParallelThreads) {
         if (!this.enableParallelScan || numParallelThreads <= 1) {
@@ -660,6 +675,10 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
     }
 
     protected final <T> T executeParallelDistributedScan(TableName tableName, Scan scan, AbstractRowKeyDistributor rowKeyDistributor, ResultsExtractor<T> action, int numParallelThreads) {
+        return executeParallelDistributedScan(tableName, scan, rowKeyDistributor, action, numParallelThreads, Integer.MAX_VALUE, null);
+    }
+
+    protected final <T> T executeParallelDistributedScan(TableName tableName, Scan scan, AbstractRowKeyDistributor rowKeyDistributor, ResultsExtractor<T> action, int numParallelThreads, int maxResults, ScanCounter scanCounter) {
         assertAccessAvailable();
         try {
             StopWatch watch = null;
@@ -667,7 +686,7 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
                 watch = new StopWatch();
                 watch.start();
             }
-            ParallelResultScanner scanner = new ParallelResultScanner(tableName, this, this.executor, scan, rowKeyDistributor, numParallelThreads);
+            ParallelResultScanner scanner = new ParallelResultScanner(tableName, this, this.executor, scan, rowKeyDistributor, numParallelThreads, maxResults);
             if (debugEnabled) {
                 logger.debug("ParallelDistributedScanner createTime: {}ms", watch.stop());
                 watch.start();
@@ -676,8 +695,12 @@ public class HbaseTemplate2 extends HbaseAccessor implements HbaseOperations2, I
                 return action.extractData(scanner);
             } finally {
                 scanner.close();
+                if (scanCounter != null) {
+                    scanCounter.setReadCount(scanner.getReadCount());
+                    scanCounter.setReturnedCount(scanner.getReturnedCount());
+                }
                 if (debugEnabled) {
-                    logger.debug("ParallelDistributedScanner scanTime: {}ms", watch.stop());
+                    logger.debug("ParallelDistributedScanner scanTime: {}ms read:{} returned:{}", watch.stop(), scanner.getReadCount(), scanner.getReturnedCount());
                 }
             }
         } catch (Throwable th) {
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coarser time slots of the ApplicationMapStatistics tables.
+ * <p>
+ * A rollup is kept in its own column family of the same table, under the row of its first minute,
+ * so the row key, the distributor and the column layout are identical to the one minute rows in family "C".
+ *
+ * @author agent
+ */
+public enum MapStatisticsRollup {
+
+    FIVE_MINUTES("R5M", TimeUnit.MINUTES.toMillis(5)),
+    ONE_HOUR("R1H", TimeUnit.HOURS.toMillis(1)),
+    ONE_DAY("R1D", TimeUnit.DAYS.toMillis(1));
+
+    private final String familyName;
+    private final byte[] family;
+    private final long slotSize;
+
+    MapStatisticsRollup(String familyName, long slotSize) {
+        this.familyName = familyName;
+        this.family = Bytes.toBytes(familyName);
+        this.slotSize = slotSize;
+    }
+
+    public String getFamilyName() {
+        return familyName;
+    }
+
+    public byte[] getFamily() {
+        return family;
+    }
+
+    public long getSlotSize() {
+        return slotSize;
+    }
+
+    public long getTimeSlot(long time) {
+        return time - (time % slotSize);
+    }
+
+    /**
+     * @return the coarsest rollup whose slot evenly divides windowSize, or null if windowSize is finer than every rollup
+     */
+    public static MapStatisticsRollup findCoarsest(long windowSize) {
+        final MapStatisticsRollup[] rollups = values();
+        for (int i = rollups.length - 1; i >= 0; i--) {
+            final MapStatisticsRollup rollup = rollups[i];
+            if (windowSize >= rollup.slotSize && windowSize % rollup.slotSize == 0) {
+                return rollup;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param names comma separated family names. ex) R5M,R1H
+     */
+    public static MapStatisticsRollup[] parse(String names) {
+        if (names == null) {
+            return new MapStatisticsRollup[0];
+        }
+        final String[] split = names.split(",");
+        final MapStatisticsRollup[] rollups = new MapStatisticsRollup[split.length];
+        int count = 0;
+        for (String name : split) {
+            final String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            rollups[count++] = findByFamilyName(trimmed);
+        }
+        final MapStatisticsRollup[] result = new MapStatisticsRollup[count];
+        System.arraycopy(rollups, 0, result, 0, count);
+        return result;
+    }
+
+    private static MapStatisticsRollup findByFamilyName(String familyName) {
+        for (MapStatisticsRollup rollup : values()) {
+            if (rollup.familyName.equalsIgnoreCase(familyName)) {
+                return rollup;
+            }
+        }
+        throw new IllegalArgumentException("unknown rollup:" + familyName);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase;
+
+/**
+ * Row counts of a parallel distributed scan.
+ * Rows read from hbase but not returned were prefetched by the scan tasks and thrown away when the caller stopped.
+ *
+ * @author agent
+ */
+public class ScanCounter {
+
+    private long readCount;
+    private long returnedCount;
+
+    public long getReadCount() {
+        return readCount;
+    }
+
+    public void setReadCount(long readCount) {
+        this.readCount = readCount;
+    }
+
+    public long getReturnedCount() {
+        return returnedCount;
+    }
+
+    public void setReturnedCount(long returnedCount) {
+        this.returnedCount = returnedCount;
+    }
+
+    public long getDiscardedCount() {
+        return Math.max(0, readCount - returnedCount);
+    }
+
+    @Override
+    public String toString() {
+        return "ScanCounter{" +
+                "readCount=" + readCount +
+                ", returnedCount=" + returnedCount +
+                ", discardedCount=" + getDiscardedCount() +
+                '}';
+    }
+}
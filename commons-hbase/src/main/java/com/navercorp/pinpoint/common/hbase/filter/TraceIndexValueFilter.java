@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase.filter;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.exceptions.DeserializationException;
+import org.apache.hadoop.hbase.filter.FilterBase;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Skips ApplicationTraceIndex cells on the region server by the elapsed time and agentId of the cell value.
+ * (value : putVInt(elapsed), putSVInt(exceptionCode), putPrefixedString(agentId))
+ * <p>
+ * The region servers load the filter by class name, so pinpoint-commons-hbase and pinpoint-commons must be on their classpath.
+ * A row without any matching cell is not returned at all.
+ *
+ * @author agent
+ */
+public class TraceIndexValueFilter extends FilterBase {
+
+    private static final byte VERSION = 0;
+
+    private final int elapsedFrom;
+    private final int elapsedTo;
+    // null for any agent
+    private final byte[] agentId;
+
+    public TraceIndexValueFilter(int elapsedFrom, int elapsedTo) {
+        this(elapsedFrom, elapsedTo, null);
+    }
+
+    public TraceIndexValueFilter(int elapsedFrom, int elapsedTo, String agentId) {
+        if (elapsedFrom > elapsedTo) {
+            throw new IllegalArgumentException("elapsedFrom:" + elapsedFrom + " elapsedTo:" + elapsedTo);
+        }
+        this.elapsedFrom = elapsedFrom;
+        this.elapsedTo = elapsedTo;
+        this.agentId = BytesUtils.toBytes(agentId);
+    }
+
+    @Override
+    public ReturnCode filterKeyValue(Cell cell) {
+        final Buffer valueBuffer = new OffsetFixedBuffer(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+        final int elapsed = valueBuffer.readVInt();
+        if (elapsed < elapsedFrom || elapsed > elapsedTo) {
+            return ReturnCode.SKIP;
+        }
+        if (agentId == null) {
+            return ReturnCode.INCLUDE;
+        }
+
+        // exceptionCode
+        valueBuffer.readSVInt();
+        final int agentIdLength = valueBuffer.readSVInt();
+        if (agentIdLength != agentId.length || agentIdLength > valueBuffer.remaining()) {
+            return ReturnCode.SKIP;
+        }
+        if (Bytes.equals(agentId, 0, agentId.length, cell.getValueArray(), valueBuffer.getOffset(), agentIdLength)) {
+            return ReturnCode.INCLUDE;
+        }
+        return ReturnCode.SKIP;
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        final Buffer buffer = new AutomaticBuffer(16);
+        buffer.putByte(VERSION);
+        buffer.putSVInt(elapsedFrom);
+        buffer.putSVInt(elapsedTo);
+        buffer.putPrefixedBytes(agentId);
+        return buffer.getBuffer();
+    }
+
+    public static TraceIndexValueFilter parseFrom(byte[] bytes) throws DeserializationException {
+        if (bytes == null) {
+            throw new DeserializationException("bytes must not be null");
+        }
+        try {
+            final Buffer buffer = new FixedBuffer(bytes);
+            final byte version = buffer.readByte();
+            if (version != VERSION) {
+                throw new DeserializationException("unknown version:" + version);
+            }
+            final int elapsedFrom = buffer.readSVInt();
+            final int elapsedTo = buffer.readSVInt();
+            final String agentId = BytesUtils.toString(buffer.readPrefixedBytes());
+            return new TraceIndexValueFilter(elapsedFrom, elapsedTo, agentId);
+        } catch (RuntimeException e) {
+            throw new DeserializationException(e);
+        }
+    }
+
+    public int getElapsedFrom() {
+        return elapsedFrom;
+    }
+
+    public int getElapsedTo() {
+        return elapsedTo;
+    }
+
+    public String getAgentId() {
+        return BytesUtils.toString(agentId);
+    }
+
+    @Override
+    public String toString() {
+        return "TraceIndexValueFilter{" +
+                "elapsedFrom=" + elapsedFrom +
+                ", elapsedTo=" + elapsedTo +
+                ", agentId=" + getAgentId() +
+                '}';
+    }
+}
@@ -27,21 +27,37 @@ import org.apache.hadoop.hbase.util.Bytes;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.concurrent.ExecutorService;
 
 /**
+ * Merges the results of the distributed scans in the order of the original row key (descending for a reversed scan).
+ * <p>
+ * When maxResults is given, no task reads more than maxResults rows, since a single bucket never contributes more than
+ * that to the first maxResults rows of the merged result.
+ *
  * @author HyunGil Jeong
  */
 public class ParallelResultScanner implements ResultScanner {
 
     private final AbstractRowKeyDistributor keyDistributor;
     private final List<ScanTask> scanTasks;
-    private final Result[] nextResults;
+    private final PriorityQueue<TaskResult> mergeQueue;
+    private boolean mergeQueueInitialized = false;
     private Result next = null;
+    private long returnedCount = 0;
 
     public ParallelResultScanner(TableName tableName, HbaseAccessor hbaseAccessor, ExecutorService executor, Scan originalScan, AbstractRowKeyDistributor keyDistributor, int numParallelThreads) throws IOException {
+        this(tableName, hbaseAccessor, executor, originalScan, keyDistributor, numParallelThreads, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxResults max rows the caller is going to read. rows beyond it are not prefetched
+     */
+    public ParallelResultScanner(TableName tableName, HbaseAccessor hbaseAccessor, ExecutorService executor, Scan originalScan, AbstractRowKeyDistributor keyDistributor, int numParallelThreads, int maxResults) throws IOException {
         if (hbaseAccessor == null) {
             throw new NullPointerException("hbaseAccessor must not be null");
         }
@@ -54,32 +70,39 @@ public class ParallelResultScanner implements ResultScanner {
         if (originalScan == null) {
             throw new NullPointerException("originalScan must not be null");
         }
+        if (maxResults <= 0) {
+            throw new IllegalArgumentException("maxResults:" + maxResults);
+        }
         this.keyDistributor = keyDistributor;
 
         final ScanTaskConfig scanTaskConfig = new ScanTaskConfig(tableName, hbaseAccessor, keyDistributor, originalScan.getCaching());
-        final Scan[] splitScans = splitScans(originalScan);
+        final Scan[] splitScans = splitScans(originalScan, maxResults);
 
-        this.scanTasks = createScanTasks(scanTaskConfig, splitScans, numParallelThreads);
-        this.nextResults = new Result[scanTasks.size()];
+        this.scanTasks = createScanTasks(scanTaskConfig, splitScans, numParallelThreads, maxResults, originalScan.isReversed());
+        this.mergeQueue = new PriorityQueue<>(scanTasks.size(), new TaskResultComparator(originalScan.isReversed()));
         for (ScanTask scanTask : scanTasks) {
             executor.execute(scanTask);
         }
     }
 
-    private Scan[] splitScans(Scan originalScan) throws IOException {
+    private Scan[] splitScans(Scan originalScan, int maxResults) throws IOException {
         Scan[] scans = this.keyDistributor.getDistributedScans(originalScan);
         for (int i = 0; i < scans.length; ++i) {
             Scan scan = scans[i];
             scan.setId(originalScan.getId() + "-" + i);
+            // do not fetch more rows than a bucket may contribute
+            if (scan.getCaching() > maxResults) {
+                scan.setCaching(maxResults);
+            }
         }
         return scans;
     }
 
-    private List<ScanTask> createScanTasks(ScanTaskConfig scanTaskConfig, Scan[] splitScans, int numParallelThreads) {
+    private List<ScanTask> createScanTasks(ScanTaskConfig scanTaskConfig, Scan[] splitScans, int numParallelThreads, int maxResults, boolean reversed) {
         if (splitScans.length <= numParallelThreads) {
             List<ScanTask> scanTasks = new ArrayList<>(splitScans.length);
             for (Scan scan : splitScans) {
-                scanTasks.add(new ScanTask(scanTaskConfig, scan));
+                scanTasks.add(new ScanTask(scanTaskConfig, maxResults, scan));
             }
             return scanTasks;
         } else {
@@ -91,10 +114,12 @@ public class ParallelResultScanner implements ResultScanner {
             for (int i = 0; i < splitScans.length; ++i) {
                 scanDistributions.get(i % numParallelThreads).add(splitScans[i]);
             }
+            // DistributedScanner merges the scans of a task in ascending order only, so the rows of a reversed task are not sorted
+            final int maxTaskResults = reversed ? Integer.MAX_VALUE : maxResults;
             List<ScanTask> scanTasks = new ArrayList<>(numParallelThreads);
             for (List<Scan> scanDistribution : scanDistributions) {
                 Scan[] scansForSingleTask = scanDistribution.toArray(new Scan[scanDistribution.size()]);
-                scanTasks.add(new ScanTask(scanTaskConfig, scansForSingleTask));
+                scanTasks.add(new ScanTask(scanTaskConfig, maxTaskResults, scansForSingleTask));
             }
             return scanTasks;
         }
@@ -113,39 +138,43 @@ public class ParallelResultScanner implements ResultScanner {
         if (hasNext()) {
             Result toReturn = next;
             next = null;
+            returnedCount++;
             return toReturn;
         }
         return null;
     }
 
     private Result nextInternal() throws IOException {
-        Result result = null;
-        int indexOfResultToUse = -1;
-        for (int i = 0; i < this.scanTasks.size(); ++i) {
-            ScanTask scanTask = this.scanTasks.get(i);
-            // fail fast in case of errors
-            checkTask(scanTask);
-            if (nextResults[i] == null) {
-                try {
-                    nextResults[i] = scanTask.getResult();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return null;
-                }
-                if (nextResults[i] == null) {
-                    continue;
+        try {
+            if (!mergeQueueInitialized) {
+                for (int i = 0; i < this.scanTasks.size(); ++i) {
+                    offerNextResult(i);
                 }
+                mergeQueueInitialized = true;
             }
-            if (result == null || Bytes.compareTo(keyDistributor.getOriginalKey(nextResults[i].getRow()),
-                    keyDistributor.getOriginalKey(result.getRow())) < 0) {
-                result = nextResults[i];
-                indexOfResultToUse = i;
+            final TaskResult taskResult = mergeQueue.poll();
+            if (taskResult == null) {
+                return null;
             }
+            offerNextResult(taskResult.taskIndex);
+            return taskResult.result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
         }
-        if (indexOfResultToUse >= 0) {
-            nextResults[indexOfResultToUse] = null;
+    }
+
+    private void offerNextResult(int taskIndex) throws InterruptedException {
+        final ScanTask scanTask = this.scanTasks.get(taskIndex);
+        // fail fast in case of errors
+        checkTask(scanTask);
+        final Result result = scanTask.getResult();
+        if (result == null) {
+            checkTask(scanTask);
+            return;
         }
-        return result;
+        final byte[] originalKey = keyDistributor.getOriginalKey(result.getRow());
+        mergeQueue.offer(new TaskResult(taskIndex, result, originalKey));
     }
 
     private void checkTask(ScanTask scanTask) {
@@ -178,6 +207,24 @@ public class ParallelResultScanner implements ResultScanner {
         }
     }
 
+    /**
+     * @return number of rows read from hbase by all tasks so far
+     */
+    public long getReadCount() {
+        long readCount = 0;
+        for (ScanTask scanTask : this.scanTasks) {
+            readCount += scanTask.getReadCount();
+        }
+        return readCount;
+    }
+
+    /**
+     * @return number of rows returned to the caller
+     */
+    public long getReturnedCount() {
+        return returnedCount;
+    }
+
     @Override
     public Iterator<Result> iterator() {
         // Identical to HTable.ClientScanner implementation
@@ -223,4 +270,30 @@ public class ParallelResultScanner implements ResultScanner {
             }
         };
     }
+
+    private static class TaskResult {
+        private final int taskIndex;
+        private final Result result;
+        private final byte[] originalKey;
+
+        private TaskResult(int taskIndex, Result result, byte[] originalKey) {
+            this.taskIndex = taskIndex;
+            this.result = result;
+            this.originalKey = originalKey;
+        }
+    }
+
+    private static class TaskResultComparator implements Comparator<TaskResult> {
+        private final boolean reversed;
+
+        private TaskResultComparator(boolean reversed) {
+            this.reversed = reversed;
+        }
+
+        @Override
+        public int compare(TaskResult o1, TaskResult o2) {
+            final int compare = Bytes.compareTo(o1.originalKey, o2.originalKey);
+            return reversed ? -compare : compare;
+        }
+    }
 }
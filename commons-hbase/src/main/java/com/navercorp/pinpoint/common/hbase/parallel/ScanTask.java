@@ -42,12 +42,23 @@ public class ScanTask implements Runnable {
 
     private final Scan[] scans;
     private final BlockingQueue<Result> resultQueue;
+    private final int maxResults;
 
     private volatile Throwable throwable;
     private volatile boolean isQueueClosed = false;
     private volatile boolean isDone = false;
+    private volatile boolean isClosed = false;
+    // written by the scan thread only
+    private volatile long readCount = 0;
 
     public ScanTask(ScanTaskConfig scanTaskConfig, Scan... scans) {
+        this(scanTaskConfig, Integer.MAX_VALUE, scans);
+    }
+
+    /**
+     * @param maxResults the task stops after reading maxResults rows
+     */
+    public ScanTask(ScanTaskConfig scanTaskConfig, int maxResults, Scan... scans) {
         if (scanTaskConfig == null) {
             throw new NullPointerException("scanTaskConfig must not be null");
         }
@@ -57,11 +68,15 @@ public class ScanTask implements Runnable {
         if (scans.length == 0) {
             throw new IllegalArgumentException("scans must not be empty");
         }
+        if (maxResults <= 0) {
+            throw new IllegalArgumentException("maxResults:" + maxResults);
+        }
         this.tableName = scanTaskConfig.getTableName();
         this.tableFactory = scanTaskConfig.getTableFactory();
         this.rowKeyDistributor = scanTaskConfig.getRowKeyDistributor();
         this.scans = scans;
         this.resultQueue = new ArrayBlockingQueue<>(scanTaskConfig.getScanTaskQueueSize());
+        this.maxResults = maxResults;
     }
 
     @Override
@@ -72,14 +87,23 @@ public class ScanTask implements Runnable {
             ResultScanner scanner = createResultScanner(table);
             try {
                 for (Result result : scanner) {
-                    this.resultQueue.put(result);
                     if (this.isDone) {
                         break;
                     }
+                    this.readCount++;
+                    this.resultQueue.put(result);
+                    if (this.readCount >= this.maxResults) {
+                        break;
+                    }
                 }
             } finally {
                 this.isDone = true;
-                this.resultQueue.put(END_RESULT);
+                if (this.isClosed) {
+                    // nobody is reading, the queue may be full
+                    this.resultQueue.offer(END_RESULT);
+                } else {
+                    this.resultQueue.put(END_RESULT);
+                }
                 scanner.close();
             }
         } catch (Throwable th) {
@@ -117,12 +141,20 @@ public class ScanTask implements Runnable {
     }
 
     public void close() {
+        this.isClosed = true;
         this.isDone = true;
         // signal threads blocked on resultQueue
         this.resultQueue.clear();
         this.resultQueue.add(END_RESULT);
     }
 
+    /**
+     * @return number of rows read from hbase, including rows still in the queue
+     */
+    public long getReadCount() {
+        return this.readCount;
+    }
+
     public Throwable getThrowable() {
         return this.throwable;
     }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase.filter;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.exceptions.DeserializationException;
+import org.apache.hadoop.hbase.filter.Filter.ReturnCode;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class TraceIndexValueFilterTest {
+
+    private static final byte[] ROW = Bytes.toBytes("row");
+    private static final byte[] FAMILY = Bytes.toBytes("I");
+    private static final byte[] QUALIFIER = Bytes.toBytes("transactionId");
+
+    @Test
+    public void filterKeyValue_elapsed() {
+        TraceIndexValueFilter filter = new TraceIndexValueFilter(100, 200);
+
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(newCell(100, 0, "agent")));
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(newCell(150, 0, "agent")));
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(newCell(200, 0, "agent")));
+
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(newCell(99, 0, "agent")));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(newCell(201, 0, "agent")));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(newCell(100000, 0, "agent")));
+    }
+
+    @Test
+    public void filterKeyValue_error() {
+        TraceIndexValueFilter filter = new TraceIndexValueFilter(0, 1000);
+
+        // the exception code does not change the elapsed time match
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(newCell(10, 1, "agent")));
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(newCell(10, -1, "agent")));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(newCell(2000, 1, "agent")));
+    }
+
+    @Test
+    public void filterKeyValue_agentId() {
+        TraceIndexValueFilter filter = new TraceIndexValueFilter(0, 1000, "agent");
+
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(newCell(10, 0, "agent")));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(newCell(10, 0, "agent2")));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(newCell(10, 0, "agenx")));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(newCell(10, 0, "age")));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(newCell(10, 0, null)));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(newCell(2000, 0, "agent")));
+    }
+
+    @Test
+    public void filterKeyValue_agentId_error() {
+        TraceIndexValueFilter filter = new TraceIndexValueFilter(0, 1000, "agent");
+
+        // exception codes of different vint lengths are skipped before the agentId
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(newCell(10, 1, "agent")));
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(newCell(10, -1, "agent")));
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(newCell(10, Integer.MAX_VALUE, "agent")));
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(newCell(10, Integer.MIN_VALUE, "agent")));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(newCell(10, 1, "agent2")));
+    }
+
+    @Test
+    public void serialize() throws DeserializationException {
+        TraceIndexValueFilter filter = new TraceIndexValueFilter(-1, Integer.MAX_VALUE, "agent");
+
+        TraceIndexValueFilter parsed = TraceIndexValueFilter.parseFrom(filter.toByteArray());
+
+        Assert.assertEquals(-1, parsed.getElapsedFrom());
+        Assert.assertEquals(Integer.MAX_VALUE, parsed.getElapsedTo());
+        Assert.assertEquals("agent", parsed.getAgentId());
+        Assert.assertEquals(ReturnCode.INCLUDE, parsed.filterKeyValue(newCell(10, 0, "agent")));
+        Assert.assertEquals(ReturnCode.SKIP, parsed.filterKeyValue(newCell(10, 0, "agent2")));
+    }
+
+    @Test
+    public void serialize_anyAgent() throws DeserializationException {
+        TraceIndexValueFilter filter = new TraceIndexValueFilter(100, 200);
+
+        TraceIndexValueFilter parsed = TraceIndexValueFilter.parseFrom(filter.toByteArray());
+
+        Assert.assertEquals(100, parsed.getElapsedFrom());
+        Assert.assertEquals(200, parsed.getElapsedTo());
+        Assert.assertNull(parsed.getAgentId());
+        Assert.assertEquals(ReturnCode.INCLUDE, parsed.filterKeyValue(newCell(150, 0, "agent")));
+        Assert.assertEquals(ReturnCode.SKIP, parsed.filterKeyValue(newCell(250, 0, "agent")));
+    }
+
+    @Test(expected = DeserializationException.class)
+    public void parseFrom_unknownVersion() throws DeserializationException {
+        byte[] bytes = new TraceIndexValueFilter(100, 200).toByteArray();
+        bytes[0] = 1;
+        TraceIndexValueFilter.parseFrom(bytes);
+    }
+
+    @Test(expected = DeserializationException.class)
+    public void parseFrom_truncated() throws DeserializationException {
+        byte[] bytes = new TraceIndexValueFilter(100, 200, "agent").toByteArray();
+        TraceIndexValueFilter.parseFrom(Arrays.copyOf(bytes, bytes.length - 2));
+    }
+
+    /**
+     * same value as the collector writes for an ApplicationTraceIndex cell
+     */
+    private Cell newCell(int elapsed, int exceptionCode, String agentId) {
+        final Buffer buffer = new AutomaticBuffer(10);
+        buffer.putVInt(elapsed);
+        buffer.putSVInt(exceptionCode);
+        buffer.putPrefixedString(agentId);
+        return new KeyValue(ROW, FAMILY, QUALIFIER, System.currentTimeMillis(), buffer.getBuffer());
+    }
+}
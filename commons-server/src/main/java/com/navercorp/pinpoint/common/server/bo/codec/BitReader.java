@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.codec;
+
+/**
+ * Reads values written by {@link BitWriter}.
+ *
+ * @author agent
+ */
+public class BitReader {
+
+    private final byte[] buffer;
+    private int bitPosition = 0;
+
+    public BitReader(byte[] buffer) {
+        if (buffer == null) {
+            throw new NullPointerException("buffer must not be null");
+        }
+        this.buffer = buffer;
+    }
+
+    public boolean readBit() {
+        return readBits(1) == 1;
+    }
+
+    public long readBits(int numBits) {
+        if (numBits < 0 || numBits > 64) {
+            throw new IllegalArgumentException("numBits:" + numBits);
+        }
+        if (bitPosition + numBits > (buffer.length << 3)) {
+            throw new IndexOutOfBoundsException("bitPosition:" + bitPosition + ", numBits:" + numBits + ", bufferLength:" + buffer.length);
+        }
+        long value = 0;
+        while (numBits > 0) {
+            final int byteIndex = bitPosition >>> 3;
+            final int availableBits = 8 - (bitPosition & 7);
+            final int bitsToRead = Math.min(availableBits, numBits);
+            final int bits = ((buffer[byteIndex] & 0xFF) >>> (availableBits - bitsToRead)) & ((1 << bitsToRead) - 1);
+            value = (value << bitsToRead) | bits;
+            bitPosition += bitsToRead;
+            numBits -= bitsToRead;
+        }
+        return value;
+    }
+
+    public int getBitPosition() {
+        return bitPosition;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.codec;
+
+import java.util.Arrays;
+
+/**
+ * Writes values of arbitrary bit length, most significant bit first.
+ *
+ * @author agent
+ * @see BitReader
+ */
+public class BitWriter {
+
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private byte[] buffer;
+    private int bitPosition = 0;
+
+    public BitWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BitWriter(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity:" + initialCapacity);
+        }
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * writes the lowest numBits bits of value
+     */
+    public void writeBits(long value, int numBits) {
+        if (numBits < 0 || numBits > 64) {
+            throw new IllegalArgumentException("numBits:" + numBits);
+        }
+        ensureCapacity(bitPosition + numBits);
+        while (numBits > 0) {
+            final int byteIndex = bitPosition >>> 3;
+            final int freeBits = 8 - (bitPosition & 7);
+            final int bitsToWrite = Math.min(freeBits, numBits);
+            final int bits = (int) (value >>> (numBits - bitsToWrite)) & ((1 << bitsToWrite) - 1);
+            buffer[byteIndex] |= bits << (freeBits - bitsToWrite);
+            bitPosition += bitsToWrite;
+            numBits -= bitsToWrite;
+        }
+    }
+
+    private void ensureCapacity(int numBits) {
+        final int numBytes = (numBits + 7) >>> 3;
+        if (numBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(numBytes, buffer.length << 1));
+        }
+    }
+
+    public int getBitLength() {
+        return bitPosition;
+    }
+
+    public int getByteLength() {
+        return (bitPosition + 7) >>> 3;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, getByteLength());
+    }
+}
@@ -17,6 +17,10 @@
 package com.navercorp.pinpoint.common.server.bo.codec.stat;
 
 import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.codec.BitReader;
+import com.navercorp.pinpoint.common.server.bo.codec.BitWriter;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.DoubleEncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import org.springframework.stereotype.Component;
 
@@ -29,6 +33,11 @@ import java.util.List;
 @Component
 public class AgentStatDataPointCodec {
 
+    /**
+     * expected interval between agent stat timestamps used by the bit packed timestamp encoding
+     */
+    public static final long DEFAULT_TIMESTAMP_INTERVAL = 5000L;
+
     public void encodeTimestamps(Buffer buffer, List<Long> timestamps) {
         long prevTimestamp = timestamps.get(0);
         long prevDelta = 0;
@@ -58,6 +67,125 @@ public class AgentStatDataPointCodec {
         return timestamps;
     }
 
+    public void encodeTimestamps(Buffer buffer, long[] timestamps, int length) {
+        long prevTimestamp = timestamps[0];
+        long prevDelta = 0;
+        // skip first timestamp as this value is encoded as the qualifier and delta is meaningless
+        for (int i = 1; i < length; ++i) {
+            long timestamp = timestamps[i];
+            long timestampDelta = timestamp - prevTimestamp;
+            buffer.putVLong(timestampDelta - prevDelta);
+            prevTimestamp = timestamp;
+            prevDelta = timestampDelta;
+        }
+    }
+
+    public void decodeTimestamps(long initialTimestamp, Buffer buffer, long[] timestamps, int numValues) {
+        timestamps[0] = initialTimestamp;
+        long prevTimestamp = initialTimestamp;
+        long prevDelta = 0;
+        // loop from 1 as the first timestamp is gotten from the qualifier
+        for (int i = 1; i < numValues; ++i) {
+            long timestampDelta = prevDelta + buffer.readVLong();
+            long timestamp = prevTimestamp + timestampDelta;
+            timestamps[i] = timestamp;
+            prevTimestamp = timestamp;
+            prevDelta = timestampDelta;
+        }
+    }
+
+    /**
+     * Gorilla style delta-of-delta encoding packed into bits.
+     * The first delta is taken against {@link #DEFAULT_TIMESTAMP_INTERVAL}, so a steady collection interval costs a single bit per timestamp.
+     * <pre>
+     * '0'                      : 0
+     * '10'   + 7 bits          : -64 ~ 63
+     * '110'  + 9 bits          : -256 ~ 255
+     * '1110' + 12 bits         : -2048 ~ 2047
+     * '1111' + 64 bits         : otherwise
+     * </pre>
+     */
+    public void encodeBitPackedTimestamps(Buffer buffer, long[] timestamps, int length) {
+        BitWriter writer = new BitWriter();
+        long prevTimestamp = timestamps[0];
+        long prevDelta = DEFAULT_TIMESTAMP_INTERVAL;
+        // skip first timestamp as this value is encoded as the qualifier
+        for (int i = 1; i < length; ++i) {
+            long timestamp = timestamps[i];
+            long timestampDelta = timestamp - prevTimestamp;
+            long deltaOfDelta = timestampDelta - prevDelta;
+            if (deltaOfDelta == 0) {
+                writer.writeBit(false);
+            } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+                writer.writeBits(0x2, 2);
+                writer.writeBits(deltaOfDelta, 7);
+            } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+                writer.writeBits(0x6, 3);
+                writer.writeBits(deltaOfDelta, 9);
+            } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+                writer.writeBits(0xE, 4);
+                writer.writeBits(deltaOfDelta, 12);
+            } else {
+                writer.writeBits(0xF, 4);
+                writer.writeBits(deltaOfDelta, 64);
+            }
+            prevTimestamp = timestamp;
+            prevDelta = timestampDelta;
+        }
+        buffer.putPrefixedBytes(writer.toByteArray());
+    }
+
+    public void decodeBitPackedTimestamps(long initialTimestamp, Buffer buffer, long[] timestamps, int numValues) {
+        BitReader reader = new BitReader(buffer.readPrefixedBytes());
+        timestamps[0] = initialTimestamp;
+        long prevTimestamp = initialTimestamp;
+        long prevDelta = DEFAULT_TIMESTAMP_INTERVAL;
+        for (int i = 1; i < numValues; ++i) {
+            long deltaOfDelta;
+            if (!reader.readBit()) {
+                deltaOfDelta = 0;
+            } else if (!reader.readBit()) {
+                deltaOfDelta = signExtend(reader.readBits(7), 7);
+            } else if (!reader.readBit()) {
+                deltaOfDelta = signExtend(reader.readBits(9), 9);
+            } else if (!reader.readBit()) {
+                deltaOfDelta = signExtend(reader.readBits(12), 12);
+            } else {
+                deltaOfDelta = reader.readBits(64);
+            }
+            long timestampDelta = prevDelta + deltaOfDelta;
+            long timestamp = prevTimestamp + timestampDelta;
+            timestamps[i] = timestamp;
+            prevTimestamp = timestamp;
+            prevDelta = timestampDelta;
+        }
+    }
+
+    private static long signExtend(long value, int numBits) {
+        final int shift = 64 - numBits;
+        return (value << shift) >> shift;
+    }
+
+    public void encodeValues(Buffer buffer, DoubleEncodingStrategy encodingStrategy, double[] values) {
+        encodingStrategy.encodeValues(buffer, values, values.length);
+    }
+
+    public void decodeValues(Buffer buffer, DoubleEncodingStrategy encodingStrategy, double[] values, int numValues) {
+        encodingStrategy.decodeValues(buffer, values, numValues);
+    }
+
+    public void encodeValues(Buffer buffer, UnsignedLongEncodingStrategy encodingStrategy, long[] values) {
+        encodingStrategy.encodeValues(buffer, values, values.length);
+    }
+
+    public void encodeValues(Buffer buffer, UnsignedLongEncodingStrategy encodingStrategy, long[] values, int length) {
+        encodingStrategy.encodeValues(buffer, values, length);
+    }
+
+    public void decodeValues(Buffer buffer, UnsignedLongEncodingStrategy encodingStrategy, long[] values, int numValues) {
+        encodingStrategy.decodeValues(buffer, values, numValues);
+    }
+
     public <T extends Number> void encodeValues(Buffer buffer, EncodingStrategy<T> encodingStrategy, List<T> values) {
         encodingStrategy.encodeValues(buffer, values);
     }
@@ -34,6 +34,16 @@ public class AgentStatEncoder<T extends AgentStatDataPoint> {
         this.codec = codec;
     }
 
+    /**
+     * V3 is only written when configured, as web must be able to read V3 before the collectors write it.
+     */
+    protected static <T extends AgentStatDataPoint> AgentStatCodec<T> selectCodec(String codecVersion, AgentStatCodec<T> codecV2, AgentStatCodec<T> codecV3) {
+        if ("v3".equalsIgnoreCase(codecVersion)) {
+            return codecV3;
+        }
+        return codecV2;
+    }
+
     public ByteBuffer encodeQualifier(long timestampDelta) {
         // Variable-length encoding of 5 minutes (300000 ms) takes up max 3 bytes
         Buffer qualifierBuffer = new AutomaticBuffer(3);
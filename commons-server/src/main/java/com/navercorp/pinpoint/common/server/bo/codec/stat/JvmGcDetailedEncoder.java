@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.common.server.bo.codec.stat;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcDetailedBo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -28,7 +29,9 @@ import org.springframework.stereotype.Component;
 public class JvmGcDetailedEncoder extends AgentStatEncoder<JvmGcDetailedBo> {
 
     @Autowired
-    public JvmGcDetailedEncoder(@Qualifier("jvmGcDetailedCodecV2") AgentStatCodec<JvmGcDetailedBo> jvmGcDetailedCodec) {
-        super(jvmGcDetailedCodec);
+    public JvmGcDetailedEncoder(@Qualifier("jvmGcDetailedCodecV2") AgentStatCodec<JvmGcDetailedBo> jvmGcDetailedCodecV2,
+                                @Qualifier("jvmGcDetailedCodecV3") AgentStatCodec<JvmGcDetailedBo> jvmGcDetailedCodecV3,
+                                @Value("${collector.stat.codec.version:v2}") String codecVersion) {
+        super(selectCodec(codecVersion, jvmGcDetailedCodecV2, jvmGcDetailedCodecV3));
     }
 }
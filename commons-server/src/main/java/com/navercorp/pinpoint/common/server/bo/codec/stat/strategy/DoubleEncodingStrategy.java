@@ -0,0 +1,230 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat.strategy;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.codec.strategy.impl.XorEncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes ratios and loads either as {@link AgentStatUtils#NUM_DECIMALS} fixed point longs using
+ * {@link UnsignedLongEncodingStrategy}, or with {@link XorEncodingStrategy}.
+ * <p>
+ * Values are rounded to fixed point in both cases so the decoded values do not depend on the chosen strategy.
+ *
+ * @author agent
+ */
+public enum DoubleEncodingStrategy implements EncodingStrategy<Double> {
+    NONE(UnsignedLongEncodingStrategy.NONE),
+    REPEAT_COUNT(UnsignedLongEncodingStrategy.REPEAT_COUNT),
+    DELTA(UnsignedLongEncodingStrategy.DELTA),
+    DELTA_OF_DELTA(UnsignedLongEncodingStrategy.DELTA_OF_DELTA),
+    XOR(null);
+
+    private static final XorEncodingStrategy XOR_ENCODING_STRATEGY = new XorEncodingStrategy();
+
+    private final UnsignedLongEncodingStrategy longEncodingStrategy;
+
+    DoubleEncodingStrategy(UnsignedLongEncodingStrategy longEncodingStrategy) {
+        this.longEncodingStrategy = longEncodingStrategy;
+    }
+
+    @Override
+    public byte getCode() {
+        if (this.longEncodingStrategy == null) {
+            return XOR_ENCODING_STRATEGY.getCode();
+        }
+        return this.longEncodingStrategy.getCode();
+    }
+
+    @Override
+    public void encodeValues(Buffer buffer, List<Double> values) {
+        final double[] primitiveValues = new double[values.size()];
+        for (int i = 0; i < primitiveValues.length; ++i) {
+            primitiveValues[i] = values.get(i);
+        }
+        encodeValues(buffer, primitiveValues, primitiveValues.length);
+    }
+
+    public void encodeValues(Buffer buffer, double[] values, int length) {
+        if (this.longEncodingStrategy == null) {
+            XOR_ENCODING_STRATEGY.encodeValues(buffer, values, length);
+            return;
+        }
+        final long[] longValues = new long[length];
+        for (int i = 0; i < length; ++i) {
+            longValues[i] = toFixedPoint(values[i]);
+        }
+        this.longEncodingStrategy.encodeValues(buffer, longValues, length);
+    }
+
+    @Override
+    public List<Double> decodeValues(Buffer buffer, int numValues) {
+        final double[] primitiveValues = new double[numValues];
+        decodeValues(buffer, primitiveValues, numValues);
+        List<Double> values = new ArrayList<Double>(numValues);
+        for (double value : primitiveValues) {
+            values.add(value);
+        }
+        return values;
+    }
+
+    public void decodeValues(Buffer buffer, double[] values, int numValues) {
+        if (this.longEncodingStrategy == null) {
+            XOR_ENCODING_STRATEGY.decodeValues(buffer, values, numValues);
+            return;
+        }
+        final long[] longValues = new long[numValues];
+        this.longEncodingStrategy.decodeValues(buffer, longValues, numValues);
+        for (int i = 0; i < numValues; ++i) {
+            values[i] = AgentStatUtils.convertLongToDouble(longValues[i]);
+        }
+    }
+
+    public static DoubleEncodingStrategy getFromCode(int code) {
+        for (DoubleEncodingStrategy encodingStrategy : DoubleEncodingStrategy.values()) {
+            if (encodingStrategy.getCode() == (code & 0xFF)) {
+                return encodingStrategy;
+            }
+        }
+        return null;
+    }
+
+    private static long toFixedPoint(double value) {
+        // rounded, as truncating would drift values that are already fixed point (0.0003 * 10000 = 2.9999...)
+        return Math.round(value * AgentStatUtils.CONVERT_VALUE);
+    }
+
+    private static DoubleEncodingStrategy getFromLongEncodingStrategy(UnsignedLongEncodingStrategy longEncodingStrategy) {
+        for (DoubleEncodingStrategy encodingStrategy : DoubleEncodingStrategy.values()) {
+            if (encodingStrategy.longEncodingStrategy == longEncodingStrategy) {
+                return encodingStrategy;
+            }
+        }
+        throw new IllegalArgumentException("unknown longEncodingStrategy:" + longEncodingStrategy);
+    }
+
+    public static class Analyzer implements StrategyAnalyzer<Double> {
+
+        private final DoubleEncodingStrategy bestStrategy;
+        private final double[] values;
+
+        private Analyzer(DoubleEncodingStrategy bestStrategy, double[] values) {
+            this.bestStrategy = bestStrategy;
+            this.values = values;
+        }
+
+        @Override
+        public DoubleEncodingStrategy getBestStrategy() {
+            return this.bestStrategy;
+        }
+
+        @Override
+        public List<Double> getValues() {
+            List<Double> values = new ArrayList<Double>(this.values.length);
+            for (double value : this.values) {
+                values.add(value);
+            }
+            return values;
+        }
+
+        public double[] getPrimitiveValues() {
+            return this.values;
+        }
+
+        public static class Builder implements StrategyAnalyzerBuilder<Double> {
+
+            private static final int DEFAULT_CAPACITY = 16;
+
+            private UnsignedLongEncodingStrategy.Analyzer.Builder longAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+            private XorEncodingStrategy.Compressor xorCompressor = new XorEncodingStrategy.Compressor();
+
+            private double[] values = new double[DEFAULT_CAPACITY];
+            private int numValues = 0;
+
+            private int byteSizeLong = 0;
+            private int byteSizeXor = 0;
+
+            @Override
+            public StrategyAnalyzerBuilder<Double> addValue(Double value) {
+                return addValue(value.doubleValue());
+            }
+
+            public Builder addValue(double value) {
+                final long longValue = toFixedPoint(value);
+                // keep the precision of the fixed point strategies
+                final double convertedValue = AgentStatUtils.convertLongToDouble(longValue);
+                this.longAnalyzerBuilder.addValue(longValue);
+                this.xorCompressor.addValue(convertedValue);
+
+                if (this.numValues == this.values.length) {
+                    this.values = Arrays.copyOf(this.values, this.values.length << 1);
+                }
+                this.values[this.numValues++] = convertedValue;
+                return this;
+            }
+
+            @Override
+            public Analyzer build() {
+                final UnsignedLongEncodingStrategy.Analyzer longAnalyzer = this.longAnalyzerBuilder.build();
+                this.byteSizeLong = getByteSize(this.longAnalyzerBuilder, longAnalyzer.getBestStrategy());
+                this.byteSizeXor = this.xorCompressor.getEncodedSize();
+
+                DoubleEncodingStrategy bestStrategy;
+                if (this.byteSizeXor < this.byteSizeLong) {
+                    bestStrategy = XOR;
+                } else {
+                    bestStrategy = getFromLongEncodingStrategy(longAnalyzer.getBestStrategy());
+                }
+                double[] values = Arrays.copyOf(this.values, this.numValues);
+                this.numValues = 0;
+                this.longAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+                this.xorCompressor = new XorEncodingStrategy.Compressor();
+                return new Analyzer(bestStrategy, values);
+            }
+
+            private int getByteSize(UnsignedLongEncodingStrategy.Analyzer.Builder builder, UnsignedLongEncodingStrategy strategy) {
+                switch (strategy) {
+                    case NONE:
+                        return builder.getByteSizeValue();
+                    case REPEAT_COUNT:
+                        return builder.getByteSizeRepeatCount();
+                    case DELTA:
+                        return builder.getByteSizeDelta();
+                    case DELTA_OF_DELTA:
+                        return builder.getByteSizeDeltaOfDelta();
+                    default:
+                        throw new IllegalArgumentException("unknown strategy:" + strategy);
+                }
+            }
+
+            int getByteSizeLong() {
+                return byteSizeLong;
+            }
+
+            int getByteSizeXor() {
+                return byteSizeXor;
+            }
+        }
+    }
+}
@@ -28,7 +28,6 @@ import com.navercorp.pinpoint.common.util.BytesUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -61,6 +60,147 @@ public enum UnsignedLongEncodingStrategy implements EncodingStrategy<Long> {
         return this.delegate.decodeValues(buffer, numValues);
     }
 
+    /**
+     * Primitive counterpart of {@link #encodeValues(Buffer, List)}, producing the same bytes.
+     */
+    public void encodeValues(Buffer buffer, long[] values, int length) {
+        switch (this) {
+            case NONE:
+                for (int i = 0; i < length; ++i) {
+                    buffer.putVLong(values[i]);
+                }
+                return;
+            case REPEAT_COUNT:
+                encodeRepeatCount(buffer, values, length);
+                return;
+            case DELTA:
+                encodeDelta(buffer, values, length);
+                return;
+            case DELTA_OF_DELTA:
+                encodeDeltaOfDelta(buffer, values, length);
+                return;
+            default:
+                throw new IllegalStateException("unsupported strategy:" + this);
+        }
+    }
+
+    /**
+     * Primitive counterpart of {@link #decodeValues(Buffer, int)}, filling the first numValues elements of values.
+     */
+    public void decodeValues(Buffer buffer, long[] values, int numValues) {
+        if (values.length < numValues) {
+            throw new IllegalArgumentException("values.length:" + values.length + ", numValues:" + numValues);
+        }
+        switch (this) {
+            case NONE:
+                for (int i = 0; i < numValues; ++i) {
+                    values[i] = buffer.readVLong();
+                }
+                return;
+            case REPEAT_COUNT:
+                decodeRepeatCount(buffer, values, numValues);
+                return;
+            case DELTA:
+                decodeDelta(buffer, values, numValues);
+                return;
+            case DELTA_OF_DELTA:
+                decodeDeltaOfDelta(buffer, values, numValues);
+                return;
+            default:
+                throw new IllegalStateException("unsupported strategy:" + this);
+        }
+    }
+
+    private static void encodeRepeatCount(Buffer buffer, long[] values, int length) {
+        if (length < 1) {
+            return;
+        }
+        long previousValue = values[0];
+        int count = 1;
+        for (int i = 1; i < length; ++i) {
+            long value = values[i];
+            if (value != previousValue) {
+                buffer.putVInt(count);
+                buffer.putVLong(previousValue);
+                previousValue = value;
+                count = 1;
+            } else {
+                count++;
+            }
+        }
+        buffer.putVInt(count);
+        buffer.putVLong(previousValue);
+    }
+
+    private static void decodeRepeatCount(Buffer buffer, long[] values, int numValues) {
+        int totalCount = 0;
+        while (totalCount < numValues) {
+            int count = buffer.readVInt();
+            long value = buffer.readVLong();
+            for (int i = 0; i < count; ++i) {
+                values[totalCount++] = value;
+            }
+        }
+    }
+
+    private static void encodeDelta(Buffer buffer, long[] values, int length) {
+        if (length < 1) {
+            return;
+        }
+        long previousValue = values[0];
+        buffer.putVLong(previousValue);
+        for (int i = 1; i < length; ++i) {
+            long value = values[i];
+            buffer.putVLong(value ^ previousValue);
+            previousValue = value;
+        }
+    }
+
+    private static void decodeDelta(Buffer buffer, long[] values, int numValues) {
+        if (numValues < 1) {
+            return;
+        }
+        long previousValue = buffer.readVLong();
+        values[0] = previousValue;
+        for (int i = 1; i < numValues; ++i) {
+            long value = previousValue ^ buffer.readVLong();
+            values[i] = value;
+            previousValue = value;
+        }
+    }
+
+    private static void encodeDeltaOfDelta(Buffer buffer, long[] values, int length) {
+        if (length < 1) {
+            return;
+        }
+        long previousValue = values[0];
+        buffer.putVLong(previousValue);
+        long previousDelta = 0;
+        for (int i = 1; i < length; ++i) {
+            long value = values[i];
+            long delta = value - previousValue;
+            buffer.putSVLong(delta - previousDelta);
+            previousValue = value;
+            previousDelta = delta;
+        }
+    }
+
+    private static void decodeDeltaOfDelta(Buffer buffer, long[] values, int numValues) {
+        if (numValues < 1) {
+            return;
+        }
+        long previousValue = buffer.readVLong();
+        values[0] = previousValue;
+        long previousDelta = 0;
+        for (int i = 1; i < numValues; ++i) {
+            long delta = previousDelta + buffer.readSVLong();
+            long value = previousValue + delta;
+            values[i] = value;
+            previousValue = value;
+            previousDelta = delta;
+        }
+    }
+
     public static UnsignedLongEncodingStrategy getFromCode(int code) {
         for (UnsignedLongEncodingStrategy encodingStrategy : UnsignedLongEncodingStrategy.values()) {
             if (encodingStrategy.getCode() == (code & 0xFF)) {
@@ -72,27 +212,38 @@ public enum UnsignedLongEncodingStrategy implements EncodingStrategy<Long> {
 
     public static class Analyzer implements StrategyAnalyzer<Long> {
 
-        private final EncodingStrategy<Long> bestStrategy;
-        private final List<Long> values;
+        private final UnsignedLongEncodingStrategy bestStrategy;
+        private final long[] values;
 
-        private Analyzer(EncodingStrategy<Long> bestStrategy, List<Long> values) {
+        private Analyzer(UnsignedLongEncodingStrategy bestStrategy, long[] values) {
             this.bestStrategy = bestStrategy;
             this.values = values;
         }
 
         @Override
-        public EncodingStrategy<Long> getBestStrategy() {
+        public UnsignedLongEncodingStrategy getBestStrategy() {
             return this.bestStrategy;
         }
 
         @Override
         public List<Long> getValues() {
+            List<Long> values = new ArrayList<Long>(this.values.length);
+            for (long value : this.values) {
+                values.add(value);
+            }
+            return values;
+        }
+
+        public long[] getPrimitiveValues() {
             return this.values;
         }
 
         public static class Builder implements StrategyAnalyzerBuilder<Long> {
 
-            private final List<Long> values = new ArrayList<Long>();
+            private static final int DEFAULT_CAPACITY = 16;
+
+            private long[] values = new long[DEFAULT_CAPACITY];
+            private int numValues = 0;
             private long previousValue = 0L;
             private long previousDelta = 0L;
 
@@ -105,8 +256,12 @@ public enum UnsignedLongEncodingStrategy implements EncodingStrategy<Long> {
 
             @Override
             public StrategyAnalyzerBuilder<Long> addValue(Long value) {
+                return addValue(value.longValue());
+            }
+
+            public Builder addValue(long value) {
                 long delta = value - this.previousValue;
-                if (this.values.isEmpty()) {
+                if (this.numValues == 0) {
                     initializeByteSizes(value);
                 } else {
                     updateByteSizes(value, delta);
@@ -114,21 +269,22 @@ public enum UnsignedLongEncodingStrategy implements EncodingStrategy<Long> {
                 }
                 this.previousValue = value;
 
-                this.values.add(value);
+                if (this.numValues == this.values.length) {
+                    this.values = Arrays.copyOf(this.values, this.values.length << 1);
+                }
+                this.values[this.numValues++] = value;
                 return this;
             }
 
             @Override
-            public StrategyAnalyzer<Long> build() {
+            public Analyzer build() {
                 if (this.repeatedValueCount > 0) {
                     this.byteSizeRepeatCount += BytesUtils.computeVar32Size(this.repeatedValueCount);
                 }
-                EncodingStrategy<Long> bestStrategy;
-                int minimumNumBytesUsed = Collections.min(Arrays.asList(
-                        this.byteSizeValue,
-                        this.byteSizeDelta,
-                        this.byteSizeDeltaOfDelta,
-                        this.byteSizeRepeatCount));
+                UnsignedLongEncodingStrategy bestStrategy;
+                int minimumNumBytesUsed = Math.min(
+                        Math.min(this.byteSizeValue, this.byteSizeDelta),
+                        Math.min(this.byteSizeDeltaOfDelta, this.byteSizeRepeatCount));
                 if (this.byteSizeValue == minimumNumBytesUsed) {
                     bestStrategy = NONE;
                 } else if (this.byteSizeDelta == minimumNumBytesUsed) {
@@ -138,8 +294,8 @@ public enum UnsignedLongEncodingStrategy implements EncodingStrategy<Long> {
                 } else {
                     bestStrategy = REPEAT_COUNT;
                 }
-                List<Long> values = new ArrayList<Long>(this.values);
-                this.values.clear();
+                long[] values = Arrays.copyOf(this.values, this.numValues);
+                this.numValues = 0;
                 return new Analyzer(bestStrategy, values);
             }
 
@@ -71,17 +71,18 @@ public class ActiveTraceCodecV2 implements AgentStatCodec<ActiveTraceBo> {
         final int numValues = activeTraceBos.size();
         valueBuffer.putVInt(numValues);
 
-        List<Long> startTimestamps = new ArrayList<Long>(numValues);
-        List<Long> timestamps = new ArrayList<Long>(numValues);
+        final long[] startTimestamps = new long[numValues];
+        final long[] timestamps = new long[numValues];
         UnsignedShortEncodingStrategy.Analyzer.Builder versionAnalyzerBuilder = new UnsignedShortEncodingStrategy.Analyzer.Builder();
         UnsignedIntegerEncodingStrategy.Analyzer.Builder schemaTypeAnalyzerBuilder = new UnsignedIntegerEncodingStrategy.Analyzer.Builder();
         UnsignedIntegerEncodingStrategy.Analyzer.Builder fastTraceCountsAnalyzerBuilder = new UnsignedIntegerEncodingStrategy.Analyzer.Builder();
         UnsignedIntegerEncodingStrategy.Analyzer.Builder normalTraceCountsAnalyzerBuilder = new UnsignedIntegerEncodingStrategy.Analyzer.Builder();
         UnsignedIntegerEncodingStrategy.Analyzer.Builder slowTraceCountsAnalyzerBuilder = new UnsignedIntegerEncodingStrategy.Analyzer.Builder();
         UnsignedIntegerEncodingStrategy.Analyzer.Builder verySlowTraceCountsAnalyzerBuilder = new UnsignedIntegerEncodingStrategy.Analyzer.Builder();
+        int index = 0;
         for (ActiveTraceBo activeTraceBo : activeTraceBos) {
-            startTimestamps.add(activeTraceBo.getStartTimestamp());
-            timestamps.add(activeTraceBo.getTimestamp());
+            startTimestamps[index] = activeTraceBo.getStartTimestamp();
+            timestamps[index] = activeTraceBo.getTimestamp();
             versionAnalyzerBuilder.addValue(activeTraceBo.getVersion());
             schemaTypeAnalyzerBuilder.addValue(activeTraceBo.getHistogramSchemaType());
             final Map<SlotType, Integer> activeTraceCounts = activeTraceBo.getActiveTraceCounts();
@@ -89,9 +90,10 @@ public class ActiveTraceCodecV2 implements AgentStatCodec<ActiveTraceBo> {
             normalTraceCountsAnalyzerBuilder.addValue(MapUtils.getIntValue(activeTraceCounts, SlotType.NORMAL, ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT));
             slowTraceCountsAnalyzerBuilder.addValue(MapUtils.getIntValue(activeTraceCounts, SlotType.SLOW, ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT));
             verySlowTraceCountsAnalyzerBuilder.addValue(MapUtils.getIntValue(activeTraceCounts, SlotType.VERY_SLOW, ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT));
+            index++;
         }
-        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps);
-        this.codec.encodeTimestamps(valueBuffer, timestamps);
+        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        this.codec.encodeTimestamps(valueBuffer, timestamps, numValues);
         this.encodeDataPoints(
                 valueBuffer,
                 versionAnalyzerBuilder.build(),
@@ -137,8 +139,10 @@ public class ActiveTraceCodecV2 implements AgentStatCodec<ActiveTraceBo> {
         final long initialTimestamp = baseTimestamp + timestampDelta;
 
         int numValues = valueBuffer.readVInt();
-        List<Long> startTimestamps = this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, numValues);
-        List<Long> timestamps = this.codec.decodeTimestamps(initialTimestamp, valueBuffer, numValues);
+        final long[] startTimestamps = new long[numValues];
+        this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        final long[] timestamps = new long[numValues];
+        this.codec.decodeTimestamps(initialTimestamp, valueBuffer, timestamps, numValues);
 
         // decode headers
         final byte[] header = valueBuffer.readPrefixedBytes();
@@ -161,8 +165,8 @@ public class ActiveTraceCodecV2 implements AgentStatCodec<ActiveTraceBo> {
         for (int i = 0; i < numValues; ++i) {
             ActiveTraceBo activeTraceBo = new ActiveTraceBo();
             activeTraceBo.setAgentId(agentId);
-            activeTraceBo.setStartTimestamp(startTimestamps.get(i));
-            activeTraceBo.setTimestamp(timestamps.get(i));
+            activeTraceBo.setStartTimestamp(startTimestamps[i]);
+            activeTraceBo.setTimestamp(timestamps[i]);
             activeTraceBo.setVersion(versions.get(i));
             activeTraceBo.setHistogramSchemaType(schemaTypes.get(i));
             Map<SlotType, Integer> activeTraceCounts = new HashMap<SlotType, Integer>();
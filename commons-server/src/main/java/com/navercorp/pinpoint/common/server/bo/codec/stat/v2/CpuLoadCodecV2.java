@@ -23,9 +23,7 @@ import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeader
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderEncoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderDecoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
-import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
-import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
@@ -66,25 +64,27 @@ public class CpuLoadCodecV2 implements AgentStatCodec<CpuLoadBo> {
         final int numValues = cpuLoadBos.size();
         valueBuffer.putVInt(numValues);
 
-        List<Long> startTimestamps = new ArrayList<Long>(numValues);
-        List<Long> timestamps = new ArrayList<Long>(numValues);
+        final long[] startTimestamps = new long[numValues];
+        final long[] timestamps = new long[numValues];
         UnsignedLongEncodingStrategy.Analyzer.Builder jvmCpuLoadAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder systemCpuLoadAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+        int index = 0;
         for (CpuLoadBo cpuLoadBo : cpuLoadBos) {
-            startTimestamps.add(cpuLoadBo.getStartTimestamp());
-            timestamps.add(cpuLoadBo.getTimestamp());
+            startTimestamps[index] = cpuLoadBo.getStartTimestamp();
+            timestamps[index] = cpuLoadBo.getTimestamp();
             jvmCpuLoadAnalyzerBuilder.addValue(AgentStatUtils.convertDoubleToLong(cpuLoadBo.getJvmCpuLoad()));
             systemCpuLoadAnalyzerBuilder.addValue(AgentStatUtils.convertDoubleToLong(cpuLoadBo.getSystemCpuLoad()));
+            index++;
         }
-        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps);
-        this.codec.encodeTimestamps(valueBuffer, timestamps);
+        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        this.codec.encodeTimestamps(valueBuffer, timestamps, numValues);
         this.encodeDataPoints(valueBuffer, jvmCpuLoadAnalyzerBuilder.build(), systemCpuLoadAnalyzerBuilder.build());
     }
 
     private void encodeDataPoints(
             Buffer valueBuffer,
-            StrategyAnalyzer<Long> jvmCpuLoadStrategyAnalyzer,
-            StrategyAnalyzer<Long> systemCpuLoadStrategyAnalyzer) {
+            UnsignedLongEncodingStrategy.Analyzer jvmCpuLoadStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer systemCpuLoadStrategyAnalyzer) {
         // encode header
         AgentStatHeaderEncoder headerEncoder = new BitCountingHeaderEncoder();
         headerEncoder.addCode(jvmCpuLoadStrategyAnalyzer.getBestStrategy().getCode());
@@ -92,8 +92,8 @@ public class CpuLoadCodecV2 implements AgentStatCodec<CpuLoadBo> {
         final byte[] header = headerEncoder.getHeader();
         valueBuffer.putPrefixedBytes(header);
         // encode values
-        this.codec.encodeValues(valueBuffer, jvmCpuLoadStrategyAnalyzer.getBestStrategy(), jvmCpuLoadStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, systemCpuLoadStrategyAnalyzer.getBestStrategy(), systemCpuLoadStrategyAnalyzer.getValues());
+        this.codec.encodeValues(valueBuffer, jvmCpuLoadStrategyAnalyzer.getBestStrategy(), jvmCpuLoadStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, systemCpuLoadStrategyAnalyzer.getBestStrategy(), systemCpuLoadStrategyAnalyzer.getPrimitiveValues());
     }
 
     @Override
@@ -104,26 +104,30 @@ public class CpuLoadCodecV2 implements AgentStatCodec<CpuLoadBo> {
         final long initialTimestamp = baseTimestamp + timestampDelta;
 
         int numValues = valueBuffer.readVInt();
-        List<Long> startTimestamps = this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, numValues);
-        List<Long> timestamps = this.codec.decodeTimestamps(initialTimestamp, valueBuffer, numValues);
+        final long[] startTimestamps = new long[numValues];
+        this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        final long[] timestamps = new long[numValues];
+        this.codec.decodeTimestamps(initialTimestamp, valueBuffer, timestamps, numValues);
 
         // decode headers
         final byte[] header = valueBuffer.readPrefixedBytes();
         AgentStatHeaderDecoder headerDecoder = new BitCountingHeaderDecoder(header);
-        EncodingStrategy<Long> jvmCpuLoadEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> systemCpuLoadEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy jvmCpuLoadEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy systemCpuLoadEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
         // decode values
-        List<Long> jvmCpuLoads = this.codec.decodeValues(valueBuffer, jvmCpuLoadEncodingStrategy, numValues);
-        List<Long> systemCpuLoads = this.codec.decodeValues(valueBuffer, systemCpuLoadEncodingStrategy, numValues);
+        final long[] jvmCpuLoads = new long[numValues];
+        this.codec.decodeValues(valueBuffer, jvmCpuLoadEncodingStrategy, jvmCpuLoads, numValues);
+        final long[] systemCpuLoads = new long[numValues];
+        this.codec.decodeValues(valueBuffer, systemCpuLoadEncodingStrategy, systemCpuLoads, numValues);
 
         List<CpuLoadBo> cpuLoadBos = new ArrayList<CpuLoadBo>(numValues);
         for (int i = 0; i < numValues; ++i) {
             CpuLoadBo cpuLoadBo = new CpuLoadBo();
             cpuLoadBo.setAgentId(agentId);
-            cpuLoadBo.setStartTimestamp(startTimestamps.get(i));
-            cpuLoadBo.setTimestamp(timestamps.get(i));
-            cpuLoadBo.setJvmCpuLoad(AgentStatUtils.convertLongToDouble(jvmCpuLoads.get(i)));
-            cpuLoadBo.setSystemCpuLoad(AgentStatUtils.convertLongToDouble(systemCpuLoads.get(i)));
+            cpuLoadBo.setStartTimestamp(startTimestamps[i]);
+            cpuLoadBo.setTimestamp(timestamps[i]);
+            cpuLoadBo.setJvmCpuLoad(AgentStatUtils.convertLongToDouble(jvmCpuLoads[i]));
+            cpuLoadBo.setSystemCpuLoad(AgentStatUtils.convertLongToDouble(systemCpuLoads[i]));
             cpuLoadBos.add(cpuLoadBo);
         }
         return cpuLoadBos;
@@ -24,9 +24,7 @@ import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeader
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderEncoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderDecoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
-import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
-import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcBo;
 import org.apache.commons.collections.CollectionUtils;
@@ -68,27 +66,29 @@ public class JvmGcCodecV2 implements AgentStatCodec<JvmGcBo> {
         final int numValues = jvmGcBos.size();
         valueBuffer.putVInt(numValues);
 
-        List<Long> startTimestamps = new ArrayList<Long>(numValues);
-        List<Long> timestamps = new ArrayList<Long>(numValues);
+        final long[] startTimestamps = new long[numValues];
+        final long[] timestamps = new long[numValues];
         UnsignedLongEncodingStrategy.Analyzer.Builder heapUsedAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder heapMaxAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder nonHeapUsedAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder nonHeapMaxAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder gcOldCountAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder gcOldTimeAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+        int index = 0;
         for (JvmGcBo jvmGcBo : jvmGcBos) {
-            startTimestamps.add(jvmGcBo.getStartTimestamp());
-            timestamps.add(jvmGcBo.getTimestamp());
+            startTimestamps[index] = jvmGcBo.getStartTimestamp();
+            timestamps[index] = jvmGcBo.getTimestamp();
             heapUsedAnalyzerBuilder.addValue(jvmGcBo.getHeapUsed());
             heapMaxAnalyzerBuilder.addValue(jvmGcBo.getHeapMax());
             nonHeapUsedAnalyzerBuilder.addValue(jvmGcBo.getNonHeapUsed());
             nonHeapMaxAnalyzerBuilder.addValue(jvmGcBo.getNonHeapMax());
             gcOldCountAnalyzerBuilder.addValue(jvmGcBo.getGcOldCount());
             gcOldTimeAnalyzerBuilder.addValue(jvmGcBo.getGcOldTime());
+            index++;
         }
 
-        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps);
-        this.codec.encodeTimestamps(valueBuffer, timestamps);
+        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        this.codec.encodeTimestamps(valueBuffer, timestamps, numValues);
         this.encodeDataPoints(
                 valueBuffer,
                 heapUsedAnalyzerBuilder.build(),
@@ -101,12 +101,12 @@ public class JvmGcCodecV2 implements AgentStatCodec<JvmGcBo> {
 
     private void encodeDataPoints(
             Buffer valueBuffer,
-            StrategyAnalyzer<Long> heapUsedStrategyAnalyzer,
-            StrategyAnalyzer<Long> heapMaxStrategyAnalyzer,
-            StrategyAnalyzer<Long> nonHeapUsedStrategyAnalyzer,
-            StrategyAnalyzer<Long> nonHeapMaxStrategyAnalyzer,
-            StrategyAnalyzer<Long> gcOldCountStrategyAnalyzer,
-            StrategyAnalyzer<Long> gcOldTimeStrategyAnalyzer) {
+            UnsignedLongEncodingStrategy.Analyzer heapUsedStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer heapMaxStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer nonHeapUsedStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer nonHeapMaxStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer gcOldCountStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer gcOldTimeStrategyAnalyzer) {
         // encode header
         AgentStatHeaderEncoder headerEncoder = new BitCountingHeaderEncoder();
         headerEncoder.addCode(heapUsedStrategyAnalyzer.getBestStrategy().getCode());
@@ -118,12 +118,12 @@ public class JvmGcCodecV2 implements AgentStatCodec<JvmGcBo> {
         final byte[] header = headerEncoder.getHeader();
         valueBuffer.putPrefixedBytes(header);
         // encode values
-        this.codec.encodeValues(valueBuffer, heapUsedStrategyAnalyzer.getBestStrategy(), heapUsedStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, heapMaxStrategyAnalyzer.getBestStrategy(), heapMaxStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, nonHeapUsedStrategyAnalyzer.getBestStrategy(), nonHeapUsedStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, nonHeapMaxStrategyAnalyzer.getBestStrategy(), nonHeapMaxStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, gcOldCountStrategyAnalyzer.getBestStrategy(), gcOldCountStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, gcOldTimeStrategyAnalyzer.getBestStrategy(), gcOldTimeStrategyAnalyzer.getValues());
+        this.codec.encodeValues(valueBuffer, heapUsedStrategyAnalyzer.getBestStrategy(), heapUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, heapMaxStrategyAnalyzer.getBestStrategy(), heapMaxStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, nonHeapUsedStrategyAnalyzer.getBestStrategy(), nonHeapUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, nonHeapMaxStrategyAnalyzer.getBestStrategy(), nonHeapMaxStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, gcOldCountStrategyAnalyzer.getBestStrategy(), gcOldCountStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, gcOldTimeStrategyAnalyzer.getBestStrategy(), gcOldTimeStrategyAnalyzer.getPrimitiveValues());
     }
 
     @Override
@@ -135,39 +135,47 @@ public class JvmGcCodecV2 implements AgentStatCodec<JvmGcBo> {
 
         final JvmGcType gcType = JvmGcType.getTypeByCode(valueBuffer.readVInt());
         int numValues = valueBuffer.readVInt();
-        List<Long> startTimestamps = this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, numValues);
-        List<Long> timestamps = this.codec.decodeTimestamps(initialTimestamp, valueBuffer, numValues);
+        final long[] startTimestamps = new long[numValues];
+        this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        final long[] timestamps = new long[numValues];
+        this.codec.decodeTimestamps(initialTimestamp, valueBuffer, timestamps, numValues);
 
         // decode headers
         final byte[] header = valueBuffer.readPrefixedBytes();
         AgentStatHeaderDecoder headerDecoder = new BitCountingHeaderDecoder(header);
-        EncodingStrategy<Long> heapUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> heapMaxEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> nonHeapUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> nonHeapMaxEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> gcOldCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> gcOldTimeEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy heapUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy heapMaxEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy nonHeapUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy nonHeapMaxEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy gcOldCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy gcOldTimeEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
         // decode values
-        List<Long> heapUseds = this.codec.decodeValues(valueBuffer, heapUsedEncodingStrategy, numValues);
-        List<Long> heapMaxes = this.codec.decodeValues(valueBuffer, heapMaxEncodingStrategy, numValues);
-        List<Long> nonHeapUseds = this.codec.decodeValues(valueBuffer, nonHeapUsedEncodingStrategy, numValues);
-        List<Long> nonHeapMaxes = this.codec.decodeValues(valueBuffer, nonHeapMaxEncodingStrategy, numValues);
-        List<Long> gcOldCounts = this.codec.decodeValues(valueBuffer, gcOldCountEncodingStrategy,  numValues);
-        List<Long> gcOldTimes = this.codec.decodeValues(valueBuffer, gcOldTimeEncodingStrategy, numValues);
+        final long[] heapUseds = new long[numValues];
+        this.codec.decodeValues(valueBuffer, heapUsedEncodingStrategy, heapUseds, numValues);
+        final long[] heapMaxes = new long[numValues];
+        this.codec.decodeValues(valueBuffer, heapMaxEncodingStrategy, heapMaxes, numValues);
+        final long[] nonHeapUseds = new long[numValues];
+        this.codec.decodeValues(valueBuffer, nonHeapUsedEncodingStrategy, nonHeapUseds, numValues);
+        final long[] nonHeapMaxes = new long[numValues];
+        this.codec.decodeValues(valueBuffer, nonHeapMaxEncodingStrategy, nonHeapMaxes, numValues);
+        final long[] gcOldCounts = new long[numValues];
+        this.codec.decodeValues(valueBuffer, gcOldCountEncodingStrategy, gcOldCounts, numValues);
+        final long[] gcOldTimes = new long[numValues];
+        this.codec.decodeValues(valueBuffer, gcOldTimeEncodingStrategy, gcOldTimes, numValues);
 
         List<JvmGcBo> jvmGcBos = new ArrayList<JvmGcBo>(numValues);
         for (int i = 0; i < numValues; ++i) {
             JvmGcBo jvmGcBo = new JvmGcBo();
             jvmGcBo.setAgentId(agentId);
-            jvmGcBo.setStartTimestamp(startTimestamps.get(i));
-            jvmGcBo.setTimestamp(timestamps.get(i));
+            jvmGcBo.setStartTimestamp(startTimestamps[i]);
+            jvmGcBo.setTimestamp(timestamps[i]);
             jvmGcBo.setGcType(gcType);
-            jvmGcBo.setHeapUsed(heapUseds.get(i));
-            jvmGcBo.setHeapMax(heapMaxes.get(i));
-            jvmGcBo.setNonHeapUsed(nonHeapUseds.get(i));
-            jvmGcBo.setNonHeapMax(nonHeapMaxes.get(i));
-            jvmGcBo.setGcOldCount(gcOldCounts.get(i));
-            jvmGcBo.setGcOldTime(gcOldTimes.get(i));
+            jvmGcBo.setHeapUsed(heapUseds[i]);
+            jvmGcBo.setHeapMax(heapMaxes[i]);
+            jvmGcBo.setNonHeapUsed(nonHeapUseds[i]);
+            jvmGcBo.setNonHeapMax(nonHeapMaxes[i]);
+            jvmGcBo.setGcOldCount(gcOldCounts[i]);
+            jvmGcBo.setGcOldTime(gcOldTimes[i]);
             jvmGcBos.add(jvmGcBo);
         }
         return jvmGcBos;
@@ -23,9 +23,7 @@ import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeader
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderEncoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderDecoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
-import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
-import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
 import com.navercorp.pinpoint.common.server.bo.stat.JvmGcDetailedBo;
@@ -64,8 +62,8 @@ public class JvmGcDetailedCodecV2 implements AgentStatCodec<JvmGcDetailedBo> {
         final int numValues = jvmGcDetailedBos.size();
         valueBuffer.putVInt(numValues);
 
-        List<Long> startTimestamps = new ArrayList<Long>(numValues);
-        List<Long> timestamps = new ArrayList<Long>(numValues);
+        final long[] startTimestamps = new long[numValues];
+        final long[] timestamps = new long[numValues];
         UnsignedLongEncodingStrategy.Analyzer.Builder gcNewCountAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder gcNewTimeAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder codeCacheUsedStrategyAnalyzer = new UnsignedLongEncodingStrategy.Analyzer.Builder();
@@ -74,9 +72,10 @@ public class JvmGcDetailedCodecV2 implements AgentStatCodec<JvmGcDetailedBo> {
         UnsignedLongEncodingStrategy.Analyzer.Builder survivorSpaceUsedStrategyAnalyzer = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder permGenUsedStrategyAnalyzer = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder metaspaceUsedStrategyAnalyzer = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+        int index = 0;
         for (JvmGcDetailedBo jvmGcDetailedBo : jvmGcDetailedBos) {
-            startTimestamps.add(jvmGcDetailedBo.getStartTimestamp());
-            timestamps.add(jvmGcDetailedBo.getTimestamp());
+            startTimestamps[index] = jvmGcDetailedBo.getStartTimestamp();
+            timestamps[index] = jvmGcDetailedBo.getTimestamp();
             gcNewCountAnalyzerBuilder.addValue(jvmGcDetailedBo.getGcNewCount());
             gcNewTimeAnalyzerBuilder.addValue(jvmGcDetailedBo.getGcNewTime());
             codeCacheUsedStrategyAnalyzer.addValue(AgentStatUtils.convertDoubleToLong(jvmGcDetailedBo.getCodeCacheUsed()));
@@ -85,9 +84,10 @@ public class JvmGcDetailedCodecV2 implements AgentStatCodec<JvmGcDetailedBo> {
             survivorSpaceUsedStrategyAnalyzer.addValue(AgentStatUtils.convertDoubleToLong(jvmGcDetailedBo.getSurvivorSpaceUsed()));
             permGenUsedStrategyAnalyzer.addValue(AgentStatUtils.convertDoubleToLong(jvmGcDetailedBo.getPermGenUsed()));
             metaspaceUsedStrategyAnalyzer.addValue(AgentStatUtils.convertDoubleToLong(jvmGcDetailedBo.getMetaspaceUsed()));
+            index++;
         }
-        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps);
-        this.codec.encodeTimestamps(valueBuffer, timestamps);
+        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        this.codec.encodeTimestamps(valueBuffer, timestamps, numValues);
         this.encodeDataPoints(
                 valueBuffer,
                 gcNewCountAnalyzerBuilder.build(),
@@ -102,14 +102,14 @@ public class JvmGcDetailedCodecV2 implements AgentStatCodec<JvmGcDetailedBo> {
 
     private void encodeDataPoints(
             Buffer valueBuffer,
-            StrategyAnalyzer<Long> gcNewCountStrategyAnalyzer,
-            StrategyAnalyzer<Long> gcNewTimeStrategyAnalyzer,
-            StrategyAnalyzer<Long> codeCacheUsedStrategyAnalyzer,
-            StrategyAnalyzer<Long> newGenUsedStrategyAnalyzer,
-            StrategyAnalyzer<Long> oldGenUsedStrategyAnalyzer,
-            StrategyAnalyzer<Long> survivorSpaceUsedStrategyAnalyzer,
-            StrategyAnalyzer<Long> permGenUsedStrategyAnalyzer,
-            StrategyAnalyzer<Long> metaspaceUsedStrategyAnalyzer) {
+            UnsignedLongEncodingStrategy.Analyzer gcNewCountStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer gcNewTimeStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer codeCacheUsedStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer newGenUsedStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer oldGenUsedStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer survivorSpaceUsedStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer permGenUsedStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer metaspaceUsedStrategyAnalyzer) {
         // encode header
         AgentStatHeaderEncoder headerEncoder = new BitCountingHeaderEncoder();
         headerEncoder.addCode(gcNewCountStrategyAnalyzer.getBestStrategy().getCode());
@@ -123,14 +123,14 @@ public class JvmGcDetailedCodecV2 implements AgentStatCodec<JvmGcDetailedBo> {
         final byte[] header = headerEncoder.getHeader();
         valueBuffer.putPrefixedBytes(header);
         // encode values
-        this.codec.encodeValues(valueBuffer, gcNewCountStrategyAnalyzer.getBestStrategy(), gcNewCountStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, gcNewTimeStrategyAnalyzer.getBestStrategy(), gcNewTimeStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, codeCacheUsedStrategyAnalyzer.getBestStrategy(), codeCacheUsedStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, newGenUsedStrategyAnalyzer.getBestStrategy(), newGenUsedStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, oldGenUsedStrategyAnalyzer.getBestStrategy(), oldGenUsedStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, survivorSpaceUsedStrategyAnalyzer.getBestStrategy(), survivorSpaceUsedStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, permGenUsedStrategyAnalyzer.getBestStrategy(), permGenUsedStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, metaspaceUsedStrategyAnalyzer.getBestStrategy(), metaspaceUsedStrategyAnalyzer.getValues());
+        this.codec.encodeValues(valueBuffer, gcNewCountStrategyAnalyzer.getBestStrategy(), gcNewCountStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, gcNewTimeStrategyAnalyzer.getBestStrategy(), gcNewTimeStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, codeCacheUsedStrategyAnalyzer.getBestStrategy(), codeCacheUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, newGenUsedStrategyAnalyzer.getBestStrategy(), newGenUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, oldGenUsedStrategyAnalyzer.getBestStrategy(), oldGenUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, survivorSpaceUsedStrategyAnalyzer.getBestStrategy(), survivorSpaceUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, permGenUsedStrategyAnalyzer.getBestStrategy(), permGenUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, metaspaceUsedStrategyAnalyzer.getBestStrategy(), metaspaceUsedStrategyAnalyzer.getPrimitiveValues());
     }
 
     @Override
@@ -141,44 +141,54 @@ public class JvmGcDetailedCodecV2 implements AgentStatCodec<JvmGcDetailedBo> {
         final long initialTimestamp = baseTimestamp + timestampDelta;
 
         int numValues = valueBuffer.readVInt();
-        List<Long> startTimestamps = this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, numValues);
-        List<Long> timestamps = this.codec.decodeTimestamps(initialTimestamp, valueBuffer, numValues);
+        final long[] startTimestamps = new long[numValues];
+        this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        final long[] timestamps = new long[numValues];
+        this.codec.decodeTimestamps(initialTimestamp, valueBuffer, timestamps, numValues);
 
         // decode headers
         final byte[] header = valueBuffer.readPrefixedBytes();
         AgentStatHeaderDecoder headerDecoder = new BitCountingHeaderDecoder(header);
-        EncodingStrategy<Long> gcNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> gcNewTimeEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> codeCacheUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> newGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> oldGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> survivorSpaceUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> permGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> metaspaceUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy gcNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy gcNewTimeEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy codeCacheUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy newGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy oldGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy survivorSpaceUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy permGenUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy metaspaceUsedEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
         // decode values
-        List<Long> gcNewCounts = this.codec.decodeValues(valueBuffer, gcNewCountEncodingStrategy, numValues);
-        List<Long> gcNewTimes = this.codec.decodeValues(valueBuffer, gcNewTimeEncodingStrategy, numValues);
-        List<Long> codeCacheUseds = this.codec.decodeValues(valueBuffer, codeCacheUsedEncodingStrategy, numValues);
-        List<Long> newGenUseds = this.codec.decodeValues(valueBuffer, newGenUsedEncodingStrategy, numValues);
-        List<Long> oldGenUseds = this.codec.decodeValues(valueBuffer, oldGenUsedEncodingStrategy, numValues);
-        List<Long> survivorSpaceUseds = this.codec.decodeValues(valueBuffer, survivorSpaceUsedEncodingStrategy, numValues);
-        List<Long> permGenUseds = this.codec.decodeValues(valueBuffer, permGenUsedEncodingStrategy, numValues);
-        List<Long> metaspaceUseds = this.codec.decodeValues(valueBuffer, metaspaceUsedEncodingStrategy, numValues);
+        final long[] gcNewCounts = new long[numValues];
+        this.codec.decodeValues(valueBuffer, gcNewCountEncodingStrategy, gcNewCounts, numValues);
+        final long[] gcNewTimes = new long[numValues];
+        this.codec.decodeValues(valueBuffer, gcNewTimeEncodingStrategy, gcNewTimes, numValues);
+        final long[] codeCacheUseds = new long[numValues];
+        this.codec.decodeValues(valueBuffer, codeCacheUsedEncodingStrategy, codeCacheUseds, numValues);
+        final long[] newGenUseds = new long[numValues];
+        this.codec.decodeValues(valueBuffer, newGenUsedEncodingStrategy, newGenUseds, numValues);
+        final long[] oldGenUseds = new long[numValues];
+        this.codec.decodeValues(valueBuffer, oldGenUsedEncodingStrategy, oldGenUseds, numValues);
+        final long[] survivorSpaceUseds = new long[numValues];
+        this.codec.decodeValues(valueBuffer, survivorSpaceUsedEncodingStrategy, survivorSpaceUseds, numValues);
+        final long[] permGenUseds = new long[numValues];
+        this.codec.decodeValues(valueBuffer, permGenUsedEncodingStrategy, permGenUseds, numValues);
+        final long[] metaspaceUseds = new long[numValues];
+        this.codec.decodeValues(valueBuffer, metaspaceUsedEncodingStrategy, metaspaceUseds, numValues);
 
         List<JvmGcDetailedBo> jvmGcDetailedBos = new ArrayList<JvmGcDetailedBo>(numValues);
         for (int i = 0; i < numValues; ++i) {
             JvmGcDetailedBo jvmGcDetailedBo = new JvmGcDetailedBo();
             jvmGcDetailedBo.setAgentId(agentId);
-            jvmGcDetailedBo.setStartTimestamp(startTimestamps.get(i));
-            jvmGcDetailedBo.setTimestamp(timestamps.get(i));
-            jvmGcDetailedBo.setGcNewCount(gcNewCounts.get(i));
-            jvmGcDetailedBo.setGcNewTime(gcNewTimes.get(i));
-            jvmGcDetailedBo.setCodeCacheUsed(AgentStatUtils.convertLongToDouble(codeCacheUseds.get(i)));
-            jvmGcDetailedBo.setNewGenUsed(AgentStatUtils.convertLongToDouble(newGenUseds.get(i)));
-            jvmGcDetailedBo.setOldGenUsed(AgentStatUtils.convertLongToDouble(oldGenUseds.get(i)));
-            jvmGcDetailedBo.setSurvivorSpaceUsed(AgentStatUtils.convertLongToDouble(survivorSpaceUseds.get(i)));
-            jvmGcDetailedBo.setPermGenUsed(AgentStatUtils.convertLongToDouble(permGenUseds.get(i)));
-            jvmGcDetailedBo.setMetaspaceUsed(AgentStatUtils.convertLongToDouble(metaspaceUseds.get(i)));
+            jvmGcDetailedBo.setStartTimestamp(startTimestamps[i]);
+            jvmGcDetailedBo.setTimestamp(timestamps[i]);
+            jvmGcDetailedBo.setGcNewCount(gcNewCounts[i]);
+            jvmGcDetailedBo.setGcNewTime(gcNewTimes[i]);
+            jvmGcDetailedBo.setCodeCacheUsed(AgentStatUtils.convertLongToDouble(codeCacheUseds[i]));
+            jvmGcDetailedBo.setNewGenUsed(AgentStatUtils.convertLongToDouble(newGenUseds[i]));
+            jvmGcDetailedBo.setOldGenUsed(AgentStatUtils.convertLongToDouble(oldGenUseds[i]));
+            jvmGcDetailedBo.setSurvivorSpaceUsed(AgentStatUtils.convertLongToDouble(survivorSpaceUseds[i]));
+            jvmGcDetailedBo.setPermGenUsed(AgentStatUtils.convertLongToDouble(permGenUseds[i]));
+            jvmGcDetailedBo.setMetaspaceUsed(AgentStatUtils.convertLongToDouble(metaspaceUseds[i]));
             jvmGcDetailedBos.add(jvmGcDetailedBo);
         }
         return jvmGcDetailedBos;
@@ -23,9 +23,7 @@ import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeader
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderEncoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderDecoder;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
-import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.StrategyAnalyzer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
-import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
 import com.navercorp.pinpoint.common.server.bo.stat.TransactionBo;
 import org.apache.commons.collections.CollectionUtils;
@@ -65,24 +63,26 @@ public class TransactionCodecV2 implements AgentStatCodec<TransactionBo> {
         final int numValues = transactionBos.size();
         valueBuffer.putVInt(numValues);
 
-        List<Long> startTimestamps = new ArrayList<Long>(numValues);
-        List<Long> timestamps = new ArrayList<Long>(numValues);
+        final long[] startTimestamps = new long[numValues];
+        final long[] timestamps = new long[numValues];
         UnsignedLongEncodingStrategy.Analyzer.Builder collectIntervalAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder sampledNewCountAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder sampledContinuationCountAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder unsampledNewCountAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
         UnsignedLongEncodingStrategy.Analyzer.Builder unsampledContinuationCountAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+        int index = 0;
         for (TransactionBo transactionBo : transactionBos) {
-            startTimestamps.add(transactionBo.getStartTimestamp());
-            timestamps.add(transactionBo.getTimestamp());
+            startTimestamps[index] = transactionBo.getStartTimestamp();
+            timestamps[index] = transactionBo.getTimestamp();
             collectIntervalAnalyzerBuilder.addValue(transactionBo.getCollectInterval());
             sampledNewCountAnalyzerBuilder.addValue(transactionBo.getSampledNewCount());
             sampledContinuationCountAnalyzerBuilder.addValue(transactionBo.getSampledContinuationCount());
             unsampledNewCountAnalyzerBuilder.addValue(transactionBo.getUnsampledNewCount());
             unsampledContinuationCountAnalyzerBuilder.addValue(transactionBo.getUnsampledContinuationCount());
+            index++;
         }
-        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps);
-        this.codec.encodeTimestamps(valueBuffer, timestamps);
+        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        this.codec.encodeTimestamps(valueBuffer, timestamps, numValues);
         this.encodeDataPoints(
                 valueBuffer,
                 collectIntervalAnalyzerBuilder.build(),
@@ -94,11 +94,11 @@ public class TransactionCodecV2 implements AgentStatCodec<TransactionBo> {
 
     private void encodeDataPoints(
             Buffer valueBuffer,
-            StrategyAnalyzer<Long> collectIntervalStrategyAnalyzer,
-            StrategyAnalyzer<Long> sampledNewCountStrategyAnalyzer,
-            StrategyAnalyzer<Long> sampledContinuationCountStrategyAnalyzer,
-            StrategyAnalyzer<Long> unsampledNewCountStrategyAnalyzer,
-            StrategyAnalyzer<Long> unsampledContinuationCountStrategyAnalyzer) {
+            UnsignedLongEncodingStrategy.Analyzer collectIntervalStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer sampledNewCountStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer sampledContinuationCountStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer unsampledNewCountStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer unsampledContinuationCountStrategyAnalyzer) {
         // encode header
         AgentStatHeaderEncoder headerEncoder = new BitCountingHeaderEncoder();
         headerEncoder.addCode(collectIntervalStrategyAnalyzer.getBestStrategy().getCode());
@@ -109,11 +109,11 @@ public class TransactionCodecV2 implements AgentStatCodec<TransactionBo> {
         final byte[] header = headerEncoder.getHeader();
         valueBuffer.putPrefixedBytes(header);
         // encode values
-        this.codec.encodeValues(valueBuffer, collectIntervalStrategyAnalyzer.getBestStrategy(), collectIntervalStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, sampledNewCountStrategyAnalyzer.getBestStrategy(), sampledNewCountStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, sampledContinuationCountStrategyAnalyzer.getBestStrategy(), sampledContinuationCountStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, unsampledNewCountStrategyAnalyzer.getBestStrategy(), unsampledNewCountStrategyAnalyzer.getValues());
-        this.codec.encodeValues(valueBuffer, unsampledContinuationCountStrategyAnalyzer.getBestStrategy(), unsampledContinuationCountStrategyAnalyzer.getValues());
+        this.codec.encodeValues(valueBuffer, collectIntervalStrategyAnalyzer.getBestStrategy(), collectIntervalStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, sampledNewCountStrategyAnalyzer.getBestStrategy(), sampledNewCountStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, sampledContinuationCountStrategyAnalyzer.getBestStrategy(), sampledContinuationCountStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, unsampledNewCountStrategyAnalyzer.getBestStrategy(), unsampledNewCountStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, unsampledContinuationCountStrategyAnalyzer.getBestStrategy(), unsampledContinuationCountStrategyAnalyzer.getPrimitiveValues());
     }
 
     @Override
@@ -124,35 +124,42 @@ public class TransactionCodecV2 implements AgentStatCodec<TransactionBo> {
         final long initialTimestamp = baseTimestamp + timestampDelta;
 
         int numValues = valueBuffer.readVInt();
-        List<Long> startTimestamps = this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, numValues);
-        List<Long> timestamps = this.codec.decodeTimestamps(initialTimestamp, valueBuffer, numValues);
+        final long[] startTimestamps = new long[numValues];
+        this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        final long[] timestamps = new long[numValues];
+        this.codec.decodeTimestamps(initialTimestamp, valueBuffer, timestamps, numValues);
 
         // decode headers
         final byte[] header = valueBuffer.readPrefixedBytes();
         AgentStatHeaderDecoder headerDecoder = new BitCountingHeaderDecoder(header);
-        EncodingStrategy<Long> collectIntervalEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> sampledNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> sampledContinuationCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> unsampledNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
-        EncodingStrategy<Long> unsampledContinuationCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy collectIntervalEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy sampledNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy sampledContinuationCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy unsampledNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy unsampledContinuationCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
         // decode values
-        List<Long> collectIntervals = this.codec.decodeValues(valueBuffer, collectIntervalEncodingStrategy, numValues);
-        List<Long> sampledNewCounts = this.codec.decodeValues(valueBuffer, sampledNewCountEncodingStrategy, numValues);
-        List<Long> sampledContinuationCounts = this.codec.decodeValues(valueBuffer, sampledContinuationCountEncodingStrategy, numValues);
-        List<Long> unsampledNewCounts = this.codec.decodeValues(valueBuffer, unsampledNewCountEncodingStrategy, numValues);
-        List<Long> unsampledContinuationCounts = this.codec.decodeValues(valueBuffer, unsampledContinuationCountEncodingStrategy, numValues);
+        final long[] collectIntervals = new long[numValues];
+        this.codec.decodeValues(valueBuffer, collectIntervalEncodingStrategy, collectIntervals, numValues);
+        final long[] sampledNewCounts = new long[numValues];
+        this.codec.decodeValues(valueBuffer, sampledNewCountEncodingStrategy, sampledNewCounts, numValues);
+        final long[] sampledContinuationCounts = new long[numValues];
+        this.codec.decodeValues(valueBuffer, sampledContinuationCountEncodingStrategy, sampledContinuationCounts, numValues);
+        final long[] unsampledNewCounts = new long[numValues];
+        this.codec.decodeValues(valueBuffer, unsampledNewCountEncodingStrategy, unsampledNewCounts, numValues);
+        final long[] unsampledContinuationCounts = new long[numValues];
+        this.codec.decodeValues(valueBuffer, unsampledContinuationCountEncodingStrategy, unsampledContinuationCounts, numValues);
 
         List<TransactionBo> transactionBos = new ArrayList<TransactionBo>(numValues);
         for (int i = 0; i < numValues; ++i) {
             TransactionBo transactionBo = new TransactionBo();
             transactionBo.setAgentId(agentId);
-            transactionBo.setStartTimestamp(startTimestamps.get(i));
-            transactionBo.setTimestamp(timestamps.get(i));
-            transactionBo.setCollectInterval(collectIntervals.get(i));
-            transactionBo.setSampledNewCount(sampledNewCounts.get(i));
-            transactionBo.setSampledContinuationCount(sampledContinuationCounts.get(i));
-            transactionBo.setUnsampledNewCount(unsampledNewCounts.get(i));
-            transactionBo.setUnsampledContinuationCount(unsampledContinuationCounts.get(i));
+            transactionBo.setStartTimestamp(startTimestamps[i]);
+            transactionBo.setTimestamp(timestamps[i]);
+            transactionBo.setCollectInterval(collectIntervals[i]);
+            transactionBo.setSampledNewCount(sampledNewCounts[i]);
+            transactionBo.setSampledContinuationCount(sampledContinuationCounts[i]);
+            transactionBo.setUnsampledNewCount(unsampledNewCounts[i]);
+            transactionBo.setUnsampledContinuationCount(unsampledContinuationCounts[i]);
             transactionBos.add(transactionBo);
         }
         return transactionBos;
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat.v3;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderDecoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderEncoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderDecoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.DoubleEncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
+import org.apache.commons.collections.CollectionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the cpu loads with {@link DoubleEncodingStrategy} and the timestamps bit packed, tuned for the fixed agent stat collection interval.
+ *
+ * @author agent
+ */
+@Component("cpuLoadCodecV3")
+public class CpuLoadCodecV3 implements AgentStatCodec<CpuLoadBo> {
+
+    private static final byte VERSION = 3;
+
+    private final AgentStatDataPointCodec codec;
+
+    @Autowired
+    public CpuLoadCodecV3(AgentStatDataPointCodec codec) {
+        Assert.notNull(codec, "agentStatDataPointCodec must not be null");
+        this.codec = codec;
+    }
+
+    @Override
+    public byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void encodeValues(Buffer valueBuffer, List<CpuLoadBo> cpuLoadBos) {
+        if (CollectionUtils.isEmpty(cpuLoadBos)) {
+            throw new IllegalArgumentException("cpuLoadBos must not be empty");
+        }
+        final int numValues = cpuLoadBos.size();
+        valueBuffer.putVInt(numValues);
+
+        final long[] startTimestamps = new long[numValues];
+        final long[] timestamps = new long[numValues];
+        DoubleEncodingStrategy.Analyzer.Builder jvmCpuLoadAnalyzerBuilder = new DoubleEncodingStrategy.Analyzer.Builder();
+        DoubleEncodingStrategy.Analyzer.Builder systemCpuLoadAnalyzerBuilder = new DoubleEncodingStrategy.Analyzer.Builder();
+        int index = 0;
+        for (CpuLoadBo cpuLoadBo : cpuLoadBos) {
+            startTimestamps[index] = cpuLoadBo.getStartTimestamp();
+            timestamps[index] = cpuLoadBo.getTimestamp();
+            jvmCpuLoadAnalyzerBuilder.addValue(cpuLoadBo.getJvmCpuLoad());
+            systemCpuLoadAnalyzerBuilder.addValue(cpuLoadBo.getSystemCpuLoad());
+            index++;
+        }
+        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        this.codec.encodeBitPackedTimestamps(valueBuffer, timestamps, numValues);
+        this.encodeDataPoints(valueBuffer, jvmCpuLoadAnalyzerBuilder.build(), systemCpuLoadAnalyzerBuilder.build());
+    }
+
+    private void encodeDataPoints(
+            Buffer valueBuffer,
+            DoubleEncodingStrategy.Analyzer jvmCpuLoadStrategyAnalyzer,
+            DoubleEncodingStrategy.Analyzer systemCpuLoadStrategyAnalyzer) {
+        // encode header
+        AgentStatHeaderEncoder headerEncoder = new BitCountingHeaderEncoder();
+        headerEncoder.addCode(jvmCpuLoadStrategyAnalyzer.getBestStrategy().getCode());
+        headerEncoder.addCode(systemCpuLoadStrategyAnalyzer.getBestStrategy().getCode());
+        final byte[] header = headerEncoder.getHeader();
+        valueBuffer.putPrefixedBytes(header);
+        // encode values
+        this.codec.encodeValues(valueBuffer, jvmCpuLoadStrategyAnalyzer.getBestStrategy(), jvmCpuLoadStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, systemCpuLoadStrategyAnalyzer.getBestStrategy(), systemCpuLoadStrategyAnalyzer.getPrimitiveValues());
+    }
+
+    @Override
+    public List<CpuLoadBo> decodeValues(Buffer valueBuffer, AgentStatDecodingContext decodingContext) {
+        final String agentId = decodingContext.getAgentId();
+        final long baseTimestamp = decodingContext.getBaseTimestamp();
+        final long timestampDelta = decodingContext.getTimestampDelta();
+        final long initialTimestamp = baseTimestamp + timestampDelta;
+
+        int numValues = valueBuffer.readVInt();
+        final long[] startTimestamps = new long[numValues];
+        this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        final long[] timestamps = new long[numValues];
+        this.codec.decodeBitPackedTimestamps(initialTimestamp, valueBuffer, timestamps, numValues);
+
+        // decode headers
+        final byte[] header = valueBuffer.readPrefixedBytes();
+        AgentStatHeaderDecoder headerDecoder = new BitCountingHeaderDecoder(header);
+        DoubleEncodingStrategy jvmCpuLoadEncodingStrategy = DoubleEncodingStrategy.getFromCode(headerDecoder.getCode());
+        DoubleEncodingStrategy systemCpuLoadEncodingStrategy = DoubleEncodingStrategy.getFromCode(headerDecoder.getCode());
+        // decode values
+        final double[] jvmCpuLoads = new double[numValues];
+        this.codec.decodeValues(valueBuffer, jvmCpuLoadEncodingStrategy, jvmCpuLoads, numValues);
+        final double[] systemCpuLoads = new double[numValues];
+        this.codec.decodeValues(valueBuffer, systemCpuLoadEncodingStrategy, systemCpuLoads, numValues);
+
+        List<CpuLoadBo> cpuLoadBos = new ArrayList<CpuLoadBo>(numValues);
+        for (int i = 0; i < numValues; ++i) {
+            CpuLoadBo cpuLoadBo = new CpuLoadBo();
+            cpuLoadBo.setAgentId(agentId);
+            cpuLoadBo.setStartTimestamp(startTimestamps[i]);
+            cpuLoadBo.setTimestamp(timestamps[i]);
+            cpuLoadBo.setJvmCpuLoad(jvmCpuLoads[i]);
+            cpuLoadBo.setSystemCpuLoad(systemCpuLoads[i]);
+            cpuLoadBos.add(cpuLoadBo);
+        }
+        return cpuLoadBos;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat.v3;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.AgentStatDataPointCodec;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderDecoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.AgentStatHeaderEncoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderDecoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.header.BitCountingHeaderEncoder;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.DoubleEncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.strategy.UnsignedLongEncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatDecodingContext;
+import com.navercorp.pinpoint.common.server.bo.stat.JvmGcDetailedBo;
+import org.apache.commons.collections.CollectionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the memory pool usage ratios with {@link DoubleEncodingStrategy} and the timestamps bit packed, tuned for the fixed agent stat collection interval.
+ *
+ * @author agent
+ */
+@Component("jvmGcDetailedCodecV3")
+public class JvmGcDetailedCodecV3 implements AgentStatCodec<JvmGcDetailedBo> {
+
+    private static final byte VERSION = 3;
+
+    private final AgentStatDataPointCodec codec;
+
+    @Autowired
+    public JvmGcDetailedCodecV3(AgentStatDataPointCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void encodeValues(Buffer valueBuffer, List<JvmGcDetailedBo> jvmGcDetailedBos) {
+        if (CollectionUtils.isEmpty(jvmGcDetailedBos)) {
+            throw new IllegalArgumentException("jvmGcDetailedBos must not be empty");
+        }
+        final int numValues = jvmGcDetailedBos.size();
+        valueBuffer.putVInt(numValues);
+
+        final long[] startTimestamps = new long[numValues];
+        final long[] timestamps = new long[numValues];
+        UnsignedLongEncodingStrategy.Analyzer.Builder gcNewCountAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+        UnsignedLongEncodingStrategy.Analyzer.Builder gcNewTimeAnalyzerBuilder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+        DoubleEncodingStrategy.Analyzer.Builder codeCacheUsedStrategyAnalyzer = new DoubleEncodingStrategy.Analyzer.Builder();
+        DoubleEncodingStrategy.Analyzer.Builder newGenUsedStrategyAnalyzer = new DoubleEncodingStrategy.Analyzer.Builder();
+        DoubleEncodingStrategy.Analyzer.Builder oldGenUsedStrategyAnalyzer = new DoubleEncodingStrategy.Analyzer.Builder();
+        DoubleEncodingStrategy.Analyzer.Builder survivorSpaceUsedStrategyAnalyzer = new DoubleEncodingStrategy.Analyzer.Builder();
+        DoubleEncodingStrategy.Analyzer.Builder permGenUsedStrategyAnalyzer = new DoubleEncodingStrategy.Analyzer.Builder();
+        DoubleEncodingStrategy.Analyzer.Builder metaspaceUsedStrategyAnalyzer = new DoubleEncodingStrategy.Analyzer.Builder();
+        int index = 0;
+        for (JvmGcDetailedBo jvmGcDetailedBo : jvmGcDetailedBos) {
+            startTimestamps[index] = jvmGcDetailedBo.getStartTimestamp();
+            timestamps[index] = jvmGcDetailedBo.getTimestamp();
+            gcNewCountAnalyzerBuilder.addValue(jvmGcDetailedBo.getGcNewCount());
+            gcNewTimeAnalyzerBuilder.addValue(jvmGcDetailedBo.getGcNewTime());
+            codeCacheUsedStrategyAnalyzer.addValue(jvmGcDetailedBo.getCodeCacheUsed());
+            newGenUsedStrategyAnalyzer.addValue(jvmGcDetailedBo.getNewGenUsed());
+            oldGenUsedStrategyAnalyzer.addValue(jvmGcDetailedBo.getOldGenUsed());
+            survivorSpaceUsedStrategyAnalyzer.addValue(jvmGcDetailedBo.getSurvivorSpaceUsed());
+            permGenUsedStrategyAnalyzer.addValue(jvmGcDetailedBo.getPermGenUsed());
+            metaspaceUsedStrategyAnalyzer.addValue(jvmGcDetailedBo.getMetaspaceUsed());
+            index++;
+        }
+        this.codec.encodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        this.codec.encodeBitPackedTimestamps(valueBuffer, timestamps, numValues);
+        this.encodeDataPoints(
+                valueBuffer,
+                gcNewCountAnalyzerBuilder.build(),
+                gcNewTimeAnalyzerBuilder.build(),
+                codeCacheUsedStrategyAnalyzer.build(),
+                newGenUsedStrategyAnalyzer.build(),
+                oldGenUsedStrategyAnalyzer.build(),
+                survivorSpaceUsedStrategyAnalyzer.build(),
+                permGenUsedStrategyAnalyzer.build(),
+                metaspaceUsedStrategyAnalyzer.build());
+    }
+
+    private void encodeDataPoints(
+            Buffer valueBuffer,
+            UnsignedLongEncodingStrategy.Analyzer gcNewCountStrategyAnalyzer,
+            UnsignedLongEncodingStrategy.Analyzer gcNewTimeStrategyAnalyzer,
+            DoubleEncodingStrategy.Analyzer codeCacheUsedStrategyAnalyzer,
+            DoubleEncodingStrategy.Analyzer newGenUsedStrategyAnalyzer,
+            DoubleEncodingStrategy.Analyzer oldGenUsedStrategyAnalyzer,
+            DoubleEncodingStrategy.Analyzer survivorSpaceUsedStrategyAnalyzer,
+            DoubleEncodingStrategy.Analyzer permGenUsedStrategyAnalyzer,
+            DoubleEncodingStrategy.Analyzer metaspaceUsedStrategyAnalyzer) {
+        // encode header
+        AgentStatHeaderEncoder headerEncoder = new BitCountingHeaderEncoder();
+        headerEncoder.addCode(gcNewCountStrategyAnalyzer.getBestStrategy().getCode());
+        headerEncoder.addCode(gcNewTimeStrategyAnalyzer.getBestStrategy().getCode());
+        headerEncoder.addCode(codeCacheUsedStrategyAnalyzer.getBestStrategy().getCode());
+        headerEncoder.addCode(newGenUsedStrategyAnalyzer.getBestStrategy().getCode());
+        headerEncoder.addCode(oldGenUsedStrategyAnalyzer.getBestStrategy().getCode());
+        headerEncoder.addCode(survivorSpaceUsedStrategyAnalyzer.getBestStrategy().getCode());
+        headerEncoder.addCode(permGenUsedStrategyAnalyzer.getBestStrategy().getCode());
+        headerEncoder.addCode(metaspaceUsedStrategyAnalyzer.getBestStrategy().getCode());
+        final byte[] header = headerEncoder.getHeader();
+        valueBuffer.putPrefixedBytes(header);
+        // encode values
+        this.codec.encodeValues(valueBuffer, gcNewCountStrategyAnalyzer.getBestStrategy(), gcNewCountStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, gcNewTimeStrategyAnalyzer.getBestStrategy(), gcNewTimeStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, codeCacheUsedStrategyAnalyzer.getBestStrategy(), codeCacheUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, newGenUsedStrategyAnalyzer.getBestStrategy(), newGenUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, oldGenUsedStrategyAnalyzer.getBestStrategy(), oldGenUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, survivorSpaceUsedStrategyAnalyzer.getBestStrategy(), survivorSpaceUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, permGenUsedStrategyAnalyzer.getBestStrategy(), permGenUsedStrategyAnalyzer.getPrimitiveValues());
+        this.codec.encodeValues(valueBuffer, metaspaceUsedStrategyAnalyzer.getBestStrategy(), metaspaceUsedStrategyAnalyzer.getPrimitiveValues());
+    }
+
+    @Override
+    public List<JvmGcDetailedBo> decodeValues(Buffer valueBuffer, AgentStatDecodingContext decodingContext) {
+        final String agentId = decodingContext.getAgentId();
+        final long baseTimestamp = decodingContext.getBaseTimestamp();
+        final long timestampDelta = decodingContext.getTimestampDelta();
+        final long initialTimestamp = baseTimestamp + timestampDelta;
+
+        int numValues = valueBuffer.readVInt();
+        final long[] startTimestamps = new long[numValues];
+        this.codec.decodeValues(valueBuffer, UnsignedLongEncodingStrategy.REPEAT_COUNT, startTimestamps, numValues);
+        final long[] timestamps = new long[numValues];
+        this.codec.decodeBitPackedTimestamps(initialTimestamp, valueBuffer, timestamps, numValues);
+
+        // decode headers
+        final byte[] header = valueBuffer.readPrefixedBytes();
+        AgentStatHeaderDecoder headerDecoder = new BitCountingHeaderDecoder(header);
+        UnsignedLongEncodingStrategy gcNewCountEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        UnsignedLongEncodingStrategy gcNewTimeEncodingStrategy = UnsignedLongEncodingStrategy.getFromCode(headerDecoder.getCode());
+        DoubleEncodingStrategy codeCacheUsedEncodingStrategy = DoubleEncodingStrategy.getFromCode(headerDecoder.getCode());
+        DoubleEncodingStrategy newGenUsedEncodingStrategy = DoubleEncodingStrategy.getFromCode(headerDecoder.getCode());
+        DoubleEncodingStrategy oldGenUsedEncodingStrategy = DoubleEncodingStrategy.getFromCode(headerDecoder.getCode());
+        DoubleEncodingStrategy survivorSpaceUsedEncodingStrategy = DoubleEncodingStrategy.getFromCode(headerDecoder.getCode());
+        DoubleEncodingStrategy permGenUsedEncodingStrategy = DoubleEncodingStrategy.getFromCode(headerDecoder.getCode());
+        DoubleEncodingStrategy metaspaceUsedEncodingStrategy = DoubleEncodingStrategy.getFromCode(headerDecoder.getCode());
+        // decode values
+        final long[] gcNewCounts = new long[numValues];
+        this.codec.decodeValues(valueBuffer, gcNewCountEncodingStrategy, gcNewCounts, numValues);
+        final long[] gcNewTimes = new long[numValues];
+        this.codec.decodeValues(valueBuffer, gcNewTimeEncodingStrategy, gcNewTimes, numValues);
+        final double[] codeCacheUseds = new double[numValues];
+        this.codec.decodeValues(valueBuffer, codeCacheUsedEncodingStrategy, codeCacheUseds, numValues);
+        final double[] newGenUseds = new double[numValues];
+        this.codec.decodeValues(valueBuffer, newGenUsedEncodingStrategy, newGenUseds, numValues);
+        final double[] oldGenUseds = new double[numValues];
+        this.codec.decodeValues(valueBuffer, oldGenUsedEncodingStrategy, oldGenUseds, numValues);
+        final double[] survivorSpaceUseds = new double[numValues];
+        this.codec.decodeValues(valueBuffer, survivorSpaceUsedEncodingStrategy, survivorSpaceUseds, numValues);
+        final double[] permGenUseds = new double[numValues];
+        this.codec.decodeValues(valueBuffer, permGenUsedEncodingStrategy, permGenUseds, numValues);
+        final double[] metaspaceUseds = new double[numValues];
+        this.codec.decodeValues(valueBuffer, metaspaceUsedEncodingStrategy, metaspaceUseds, numValues);
+
+        List<JvmGcDetailedBo> jvmGcDetailedBos = new ArrayList<JvmGcDetailedBo>(numValues);
+        for (int i = 0; i < numValues; ++i) {
+            JvmGcDetailedBo jvmGcDetailedBo = new JvmGcDetailedBo();
+            jvmGcDetailedBo.setAgentId(agentId);
+            jvmGcDetailedBo.setStartTimestamp(startTimestamps[i]);
+            jvmGcDetailedBo.setTimestamp(timestamps[i]);
+            jvmGcDetailedBo.setGcNewCount(gcNewCounts[i]);
+            jvmGcDetailedBo.setGcNewTime(gcNewTimes[i]);
+            jvmGcDetailedBo.setCodeCacheUsed(codeCacheUseds[i]);
+            jvmGcDetailedBo.setNewGenUsed(newGenUseds[i]);
+            jvmGcDetailedBo.setOldGenUsed(oldGenUseds[i]);
+            jvmGcDetailedBo.setSurvivorSpaceUsed(survivorSpaceUseds[i]);
+            jvmGcDetailedBo.setPermGenUsed(permGenUseds[i]);
+            jvmGcDetailedBo.setMetaspaceUsed(metaspaceUseds[i]);
+            jvmGcDetailedBos.add(jvmGcDetailedBo);
+        }
+        return jvmGcDetailedBos;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.server.bo.codec.strategy.impl;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.server.bo.codec.BitReader;
+import com.navercorp.pinpoint.common.server.bo.codec.BitWriter;
+import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gorilla style floating point compression.
+ * <p>
+ * The first value is stored as is, each following value is XORed with the previous one.
+ * A zero XOR takes a single 0 bit. Otherwise the meaningful bits of the XOR are stored, reusing the
+ * leading/trailing zero counts of the previous block when they fit ('10'), or with a new
+ * 5 bit leading zero count and 6 bit length ('11').
+ * The bits are stored as prefixed bytes.
+ *
+ * @author agent
+ */
+public class XorEncodingStrategy implements EncodingStrategy<Double> {
+
+    private static final byte CODE = 4;
+
+    private static final int MAX_LEADING_ZEROS = 31;
+
+    @Override
+    public byte getCode() {
+        return CODE;
+    }
+
+    @Override
+    public void encodeValues(Buffer buffer, List<Double> values) {
+        Compressor compressor = new Compressor();
+        for (Double value : values) {
+            compressor.addValue(value);
+        }
+        buffer.putPrefixedBytes(compressor.toByteArray());
+    }
+
+    public void encodeValues(Buffer buffer, double[] values, int length) {
+        Compressor compressor = new Compressor();
+        for (int i = 0; i < length; ++i) {
+            compressor.addValue(values[i]);
+        }
+        buffer.putPrefixedBytes(compressor.toByteArray());
+    }
+
+    @Override
+    public List<Double> decodeValues(Buffer buffer, int numValues) {
+        double[] decoded = new double[Math.max(numValues, 0)];
+        decodeValues(buffer, decoded, numValues);
+        List<Double> values = new ArrayList<Double>(decoded.length);
+        for (double value : decoded) {
+            values.add(value);
+        }
+        return values;
+    }
+
+    public void decodeValues(Buffer buffer, double[] values, int numValues) {
+        final byte[] bytes = buffer.readPrefixedBytes();
+        if (numValues < 1) {
+            return;
+        }
+        BitReader reader = new BitReader(bytes);
+        long previousBits = reader.readBits(64);
+        values[0] = Double.longBitsToDouble(previousBits);
+        int leadingZeros = 0;
+        int trailingZeros = 0;
+        for (int i = 1; i < numValues; ++i) {
+            if (reader.readBit()) {
+                if (reader.readBit()) {
+                    leadingZeros = (int) reader.readBits(5);
+                    final int significantBits = (int) reader.readBits(6) + 1;
+                    trailingZeros = 64 - leadingZeros - significantBits;
+                }
+                final int significantBits = 64 - leadingZeros - trailingZeros;
+                previousBits ^= reader.readBits(significantBits) << trailingZeros;
+            }
+            values[i] = Double.longBitsToDouble(previousBits);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "XorEncodingStrategy";
+    }
+
+    public static class Compressor {
+
+        private final BitWriter writer = new BitWriter();
+
+        private int numValues = 0;
+        private long previousBits;
+        private int previousLeadingZeros = -1;
+        private int previousTrailingZeros;
+
+        public void addValue(double value) {
+            final long bits = Double.doubleToRawLongBits(value);
+            if (this.numValues++ == 0) {
+                this.writer.writeBits(bits, 64);
+                this.previousBits = bits;
+                return;
+            }
+            final long xor = bits ^ this.previousBits;
+            this.previousBits = bits;
+            if (xor == 0) {
+                this.writer.writeBit(false);
+                return;
+            }
+            this.writer.writeBit(true);
+            final int leadingZeros = Math.min(Long.numberOfLeadingZeros(xor), MAX_LEADING_ZEROS);
+            final int trailingZeros = Long.numberOfTrailingZeros(xor);
+            if (this.previousLeadingZeros != -1 && leadingZeros >= this.previousLeadingZeros && trailingZeros >= this.previousTrailingZeros) {
+                this.writer.writeBit(false);
+                final int significantBits = 64 - this.previousLeadingZeros - this.previousTrailingZeros;
+                this.writer.writeBits(xor >>> this.previousTrailingZeros, significantBits);
+            } else {
+                this.writer.writeBit(true);
+                final int significantBits = 64 - leadingZeros - trailingZeros;
+                this.writer.writeBits(leadingZeros, 5);
+                // 1 ~ 64 is stored as 0 ~ 63
+                this.writer.writeBits(significantBits - 1, 6);
+                this.writer.writeBits(xor >>> trailingZeros, significantBits);
+                this.previousLeadingZeros = leadingZeros;
+                this.previousTrailingZeros = trailingZeros;
+            }
+        }
+
+        /**
+         * @return number of bytes {@link XorEncodingStrategy} writes to the buffer for the values added so far
+         */
+        public int getEncodedSize() {
+            final int byteLength = this.writer.getByteLength();
+            return BytesUtils.computeVar32Size(BytesUtils.intToZigZag(byteLength)) + byteLength;
+        }
+
+        public byte[] toByteArray() {
+            return this.writer.toByteArray();
+        }
+    }
+}
@@ -56,7 +56,10 @@ public class SpanDecoderV0 implements SpanDecoder {
         spanChunk.setCollectorAcceptTime(decodingContext.getCollectorAcceptedTime());
 
 
-        SpanEventBo firstSpanEvent = readQualifier(spanChunk, qualifier);
+        SpanEventBo firstSpanEvent = readQualifier(spanChunk, qualifier, decodingContext);
+        if (decodingContext.isHeaderOnly()) {
+            return spanChunk;
+        }
 
         readSpanChunkValue(columnValue, spanChunk, firstSpanEvent, decodingContext);
 
@@ -71,7 +74,7 @@ public class SpanDecoderV0 implements SpanDecoder {
         span.setTransactionId(transactionId);
         span.setCollectorAcceptTime(decodingContext.getCollectorAcceptedTime());
 
-        SpanEventBo firstSpanEvent = readQualifier(span, qualifier);
+        SpanEventBo firstSpanEvent = readQualifier(span, qualifier, decodingContext);
 
         readSpanValue(columnValue, span, firstSpanEvent, decodingContext);
 
@@ -149,6 +152,10 @@ public class SpanDecoderV0 implements SpanDecoder {
 
         span.setAcceptorHost(buffer.readPrefixedString());
 
+        if (decodingContext.isHeaderOnly()) {
+            // annotations and span events are the tail of the column value
+            return;
+        }
 
         if (bitFiled.isSetAnnotation()) {
             List<AnnotationBo> annotationBoList = readAnnotationList(buffer, decodingContext);
@@ -378,7 +385,7 @@ public class SpanDecoderV0 implements SpanDecoder {
     }
 
 
-    private SpanEventBo readQualifier(BasicSpan basicSpan, Buffer buffer) {
+    private SpanEventBo readQualifier(BasicSpan basicSpan, Buffer buffer, SpanDecodingContext decodingContext) {
         String applicationId = buffer.readPrefixedString();
         basicSpan.setApplicationId(applicationId);
 
@@ -391,6 +398,10 @@ public class SpanDecoderV0 implements SpanDecoder {
         long spanId = buffer.readLong();
         basicSpan.setSpanId(spanId);
 
+        if (decodingContext.isHeaderOnly()) {
+            return null;
+        }
+
         int firstSpanEventSequence = buffer.readSVInt();
         if (firstSpanEventSequence == -1) {
 //            buffer.readByte();
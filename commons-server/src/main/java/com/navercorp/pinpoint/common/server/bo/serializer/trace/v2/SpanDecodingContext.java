@@ -10,6 +10,8 @@ public class SpanDecodingContext {
 //    private AnnotationBo prevAnnotationBo;
     private long collectorAcceptedTime;
     private TransactionId transactionId;
+    // decode only the span header. annotations, span events and span chunk values are skipped
+    private boolean headerOnly;
 
 //    public AnnotationBo getPrevFirstAnnotationBo() {
 //        return prevAnnotationBo;
@@ -36,6 +38,14 @@ public class SpanDecodingContext {
         return transactionId;
     }
 
+    public void setHeaderOnly(boolean headerOnly) {
+        this.headerOnly = headerOnly;
+    }
+
+    public boolean isHeaderOnly() {
+        return headerOnly;
+    }
+
 
     public void next() {
     }
@@ -49,6 +49,63 @@ public class AgentStatDataPointCodecTest {
         Assert.assertEquals(expectedTimestamps, decodedTimestamps);
     }
 
+    @Test
+    public void test_primitive_timestamps() {
+        // Given
+        final long initialTimestamp = System.currentTimeMillis();
+        final int numValues = (int) (Math.random() * 100) + 1;
+        final List<Long> expectedTimestamps = createTimestamps(initialTimestamp, 5000L, 10L, numValues);
+        final long[] timestamps = new long[numValues];
+        for (int i = 0; i < numValues; ++i) {
+            timestamps[i] = expectedTimestamps.get(i);
+        }
+        final Buffer expectedBuffer = new AutomaticBuffer();
+        codec.encodeTimestamps(expectedBuffer, expectedTimestamps);
+        // When
+        final Buffer timestampBuffer = new AutomaticBuffer();
+        codec.encodeTimestamps(timestampBuffer, timestamps, numValues);
+        // Then
+        Assert.assertArrayEquals(expectedBuffer.getBuffer(), timestampBuffer.getBuffer());
+        long[] decodedTimestamps = new long[numValues];
+        codec.decodeTimestamps(initialTimestamp, new FixedBuffer(timestampBuffer.getBuffer()), decodedTimestamps, numValues);
+        Assert.assertArrayEquals(timestamps, decodedTimestamps);
+    }
+
+    @Test
+    public void test_bit_packed_timestamps() {
+        final long initialTimestamp = System.currentTimeMillis();
+        final int numValues = (int) (Math.random() * 100) + 1;
+        testBitPackedTimestamps(createTimestamps(initialTimestamp, AgentStatDataPointCodec.DEFAULT_TIMESTAMP_INTERVAL, 10L, numValues));
+        testBitPackedTimestamps(createTimestamps(initialTimestamp, 1000L, 300L, numValues));
+        testBitPackedTimestamps(createTimestamps(initialTimestamp, 60000L, 5000L, numValues));
+        testBitPackedTimestamps(Arrays.asList(initialTimestamp, initialTimestamp + 5000L, initialTimestamp + 5000L + 3600000L, initialTimestamp + 3610000L, initialTimestamp + 3610000L - 100000L));
+        testBitPackedTimestamps(Arrays.asList(initialTimestamp));
+    }
+
+    @Test
+    public void test_bit_packed_fixed_interval_timestamps() {
+        final long initialTimestamp = System.currentTimeMillis();
+        final int numValues = 81;
+        final List<Long> expectedTimestamps = createTimestamps(initialTimestamp, AgentStatDataPointCodec.DEFAULT_TIMESTAMP_INTERVAL, 0L, numValues);
+        final Buffer timestampBuffer = testBitPackedTimestamps(expectedTimestamps);
+        // 1 bit per timestamp + length prefix
+        Assert.assertEquals(10 + 1, timestampBuffer.getBuffer().length);
+    }
+
+    private Buffer testBitPackedTimestamps(List<Long> expectedTimestamps) {
+        final int numValues = expectedTimestamps.size();
+        final long[] timestamps = new long[numValues];
+        for (int i = 0; i < numValues; ++i) {
+            timestamps[i] = expectedTimestamps.get(i);
+        }
+        final Buffer timestampBuffer = new AutomaticBuffer();
+        codec.encodeBitPackedTimestamps(timestampBuffer, timestamps, numValues);
+        long[] decodedTimestamps = new long[numValues];
+        codec.decodeBitPackedTimestamps(timestamps[0], new FixedBuffer(timestampBuffer.getBuffer()), decodedTimestamps, numValues);
+        Assert.assertArrayEquals(timestamps, decodedTimestamps);
+        return timestampBuffer;
+    }
+
     @Test
     public void test_single_timestamp() {
         // Given
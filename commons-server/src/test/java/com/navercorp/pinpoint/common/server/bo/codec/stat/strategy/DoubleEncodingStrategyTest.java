@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.codec.stat.strategy;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.server.bo.codec.stat.TestAgentStatDataPointFactory;
+import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
+import com.navercorp.pinpoint.common.server.bo.serializer.stat.AgentStatUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author agent
+ */
+public class DoubleEncodingStrategyTest extends EncodingStrategyTestBase<Double> {
+
+    @Override
+    protected StrategyAnalyzer.StrategyAnalyzerBuilder<Double> getStrategyAnalyzerBuilder() {
+        return new DoubleEncodingStrategy.Analyzer.Builder();
+    }
+
+    @Override
+    protected List<EncodingStrategy<Double>> getEncodingStrategies() {
+        return Arrays.<EncodingStrategy<Double>>asList(DoubleEncodingStrategy.values());
+    }
+
+    @Override
+    protected void checkBuilder(StrategyAnalyzer.StrategyAnalyzerBuilder<Double> analyzerBuilder, Map<EncodingStrategy<Double>, Integer> bufferSizes) {
+        DoubleEncodingStrategy.Analyzer.Builder builder = (DoubleEncodingStrategy.Analyzer.Builder) analyzerBuilder;
+        int minLongEncodedSize = Integer.MAX_VALUE;
+        for (DoubleEncodingStrategy strategy : DoubleEncodingStrategy.values()) {
+            if (strategy != DoubleEncodingStrategy.XOR) {
+                minLongEncodedSize = Math.min(minLongEncodedSize, bufferSizes.get(strategy));
+            }
+        }
+        Assert.assertEquals(minLongEncodedSize, builder.getByteSizeLong());
+        Assert.assertEquals((int) bufferSizes.get(DoubleEncodingStrategy.XOR), builder.getByteSizeXor());
+    }
+
+    @Test
+    public void test_percentage_values() {
+        testValues(0, AgentStatUtils.CONVERT_VALUE * 100);
+    }
+
+    @Test
+    public void test_ratio_values() {
+        testValues(0, AgentStatUtils.CONVERT_VALUE);
+    }
+
+    @Test
+    public void test_primitive_values() {
+        for (int i = 0; i < NUM_TEST_RUNS; ++i) {
+            List<Double> values = toDoubles(TestAgentStatDataPointFactory.LONG.createRandomValues(0L, AgentStatUtils.CONVERT_VALUE));
+            DoubleEncodingStrategy.Analyzer.Builder builder = new DoubleEncodingStrategy.Analyzer.Builder();
+            for (double value : values) {
+                builder.addValue(value);
+            }
+            DoubleEncodingStrategy.Analyzer analyzer = builder.build();
+            Assert.assertEquals(values, analyzer.getValues());
+
+            final double[] primitiveValues = analyzer.getPrimitiveValues();
+            for (DoubleEncodingStrategy strategy : DoubleEncodingStrategy.values()) {
+                Buffer buffer = new AutomaticBuffer();
+                strategy.encodeValues(buffer, primitiveValues, primitiveValues.length);
+                double[] decodedValues = new double[primitiveValues.length];
+                strategy.decodeValues(new FixedBuffer(buffer.getBuffer()), decodedValues, primitiveValues.length);
+                Assert.assertArrayEquals(primitiveValues, decodedValues, 0D);
+            }
+        }
+    }
+
+    @Test
+    public void values_should_be_rounded_regardless_of_strategy() {
+        DoubleEncodingStrategy.Analyzer.Builder builder = new DoubleEncodingStrategy.Analyzer.Builder();
+        builder.addValue(0.123456789D);
+        DoubleEncodingStrategy.Analyzer analyzer = builder.build();
+        Assert.assertEquals(0.1235D, analyzer.getPrimitiveValues()[0], 0D);
+    }
+
+    private void testValues(long minValue, long maxValue) {
+        for (int i = 0; i < NUM_TEST_RUNS; ++i) {
+            testFor(toDoubles(TestAgentStatDataPointFactory.LONG.createConstantValues(minValue, maxValue)));
+            testFor(toDoubles(TestAgentStatDataPointFactory.LONG.createRandomValues(minValue, maxValue)));
+            testFor(toDoubles(TestAgentStatDataPointFactory.LONG.createIncreasingValues(minValue, maxValue, 0L, maxValue / 100)));
+            testFor(toDoubles(TestAgentStatDataPointFactory.LONG.createFluctuatingValues(minValue, maxValue, 0L, maxValue / 100)));
+        }
+    }
+
+    private List<Double> toDoubles(List<Long> longValues) {
+        // fixed point values so that the expected buffer sizes are not affected by rounding
+        List<Double> values = new ArrayList<Double>(longValues.size());
+        for (long longValue : longValues) {
+            values.add(AgentStatUtils.convertLongToDouble(longValue));
+        }
+        return values;
+    }
+}
@@ -16,6 +16,9 @@
 
 package com.navercorp.pinpoint.common.server.bo.codec.stat.strategy;
 
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
 import com.navercorp.pinpoint.common.server.bo.codec.stat.TestAgentStatDataPointFactory;
 import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategy;
 import org.junit.Assert;
@@ -80,6 +83,41 @@ public class UnsignedLongEncodingStrategyTest extends EncodingStrategyTestBase<L
         testValues(minValue, maxValue);
     }
 
+    @Test
+    public void test_primitive_values() {
+        long minValue = 1000;
+        long maxValue = 1000000;
+        for (int i = 0; i < NUM_TEST_RUNS; ++i) {
+            testPrimitiveFor(TestAgentStatDataPointFactory.LONG.createConstantValues(minValue, maxValue));
+            testPrimitiveFor(TestAgentStatDataPointFactory.LONG.createRandomValues(minValue, maxValue));
+            testPrimitiveFor(TestAgentStatDataPointFactory.LONG.createIncreasingValues(minValue, maxValue, minValue / 10, maxValue / 10));
+            testPrimitiveFor(TestAgentStatDataPointFactory.LONG.createFluctuatingValues(minValue, maxValue, minValue / 10, maxValue / 10));
+        }
+    }
+
+    private void testPrimitiveFor(List<Long> values) {
+        UnsignedLongEncodingStrategy.Analyzer.Builder builder = new UnsignedLongEncodingStrategy.Analyzer.Builder();
+        for (long value : values) {
+            builder.addValue(value);
+        }
+        UnsignedLongEncodingStrategy.Analyzer analyzer = builder.build();
+        Assert.assertEquals(values, analyzer.getValues());
+
+        final long[] primitiveValues = analyzer.getPrimitiveValues();
+        for (UnsignedLongEncodingStrategy strategy : UnsignedLongEncodingStrategy.values()) {
+            Buffer expectedBuffer = new AutomaticBuffer();
+            strategy.encodeValues(expectedBuffer, values);
+            Buffer actualBuffer = new AutomaticBuffer();
+            strategy.encodeValues(actualBuffer, primitiveValues, primitiveValues.length);
+            // must stay wire compatible with the boxed encoding
+            Assert.assertArrayEquals(expectedBuffer.getBuffer(), actualBuffer.getBuffer());
+
+            long[] decodedValues = new long[primitiveValues.length + 1];
+            strategy.decodeValues(new FixedBuffer(actualBuffer.getBuffer()), decodedValues, primitiveValues.length);
+            Assert.assertArrayEquals(primitiveValues, Arrays.copyOf(decodedValues, primitiveValues.length));
+        }
+    }
+
     private void testValues(long minValue, long maxValue) {
         for (int i = 0; i < NUM_TEST_RUNS; ++i) {
             List<Long> constantValues = TestAgentStatDataPointFactory.LONG.createConstantValues(minValue, maxValue);
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.server.bo.codec.strategy.impl;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+import com.navercorp.pinpoint.common.server.bo.codec.strategy.EncodingStrategyTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author agent
+ */
+public class XorEncodingStrategyTest extends EncodingStrategyTestBase {
+
+    private final Random random = new Random();
+
+    private final XorEncodingStrategy strategy = new XorEncodingStrategy();
+
+    @Test
+    public void random_doubles_should_be_encoded_and_decoded_correctly() {
+        List<Double> expectedValues = new ArrayList<Double>(NUM_TEST_VALUES);
+        for (int i = 0; i < NUM_TEST_VALUES; ++i) {
+            expectedValues.add(random.nextDouble());
+        }
+        testStrategy(expectedValues, strategy);
+    }
+
+    @Test
+    public void special_doubles_should_be_encoded_and_decoded_correctly() {
+        List<Double> expectedValues = Arrays.asList(0D, -1D, Double.NaN, Double.MAX_VALUE, Double.MIN_VALUE, -0D,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0.5D, 0.5D, 0.25D);
+        testStrategy(expectedValues, strategy);
+    }
+
+    @Test
+    public void empty_doubles_should_be_encoded_and_decoded_correctly() {
+        List<Double> expectedValues = Collections.emptyList();
+        testStrategy(expectedValues, strategy);
+    }
+
+    @Test
+    public void constant_doubles_should_take_a_bit_per_value() {
+        final int numValues = 80;
+        double[] values = new double[numValues];
+        Arrays.fill(values, 0.1234D);
+        XorEncodingStrategy.Compressor compressor = new XorEncodingStrategy.Compressor();
+        for (double value : values) {
+            compressor.addValue(value);
+        }
+        // 64 bits for the first value + 1 bit for each following value
+        Assert.assertEquals(8 + 10, compressor.toByteArray().length);
+
+        Buffer buffer = new AutomaticBuffer();
+        strategy.encodeValues(buffer, values, numValues);
+        Assert.assertEquals(compressor.getEncodedSize(), buffer.getBuffer().length);
+
+        double[] decodedValues = new double[numValues];
+        strategy.decodeValues(new FixedBuffer(buffer.getBuffer()), decodedValues, numValues);
+        Assert.assertArrayEquals(values, decodedValues, 0D);
+    }
+}
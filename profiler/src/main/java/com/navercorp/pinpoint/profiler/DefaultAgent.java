@@ -36,6 +36,7 @@ import com.navercorp.pinpoint.profiler.context.DefaultTraceContext;
 import com.navercorp.pinpoint.profiler.context.TransactionCounter;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceLocator;
 import com.navercorp.pinpoint.profiler.context.storage.BufferedStorageFactory;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.SpanStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
 import com.navercorp.pinpoint.profiler.instrument.ASMBytecodeDumpService;
@@ -53,10 +54,13 @@ import com.navercorp.pinpoint.profiler.receiver.CommandDispatcher;
 import com.navercorp.pinpoint.profiler.receiver.service.ActiveThreadService;
 import com.navercorp.pinpoint.profiler.receiver.service.EchoService;
 import com.navercorp.pinpoint.profiler.sampler.SamplerFactory;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueingStatus;
+import com.navercorp.pinpoint.profiler.sender.BatchOption;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
 import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSenderFactory;
+import com.navercorp.pinpoint.profiler.sender.queue.MessageQueueFactory;
 import com.navercorp.pinpoint.profiler.util.ApplicationServerTypeResolver;
 import com.navercorp.pinpoint.profiler.util.RuntimeMXBeanUtils;
 import com.navercorp.pinpoint.rpc.ClassPreLoader;
@@ -345,7 +349,8 @@ public class DefaultAgent implements Agent {
         
         final int jdbcSqlCacheSize = profilerConfig.getJdbcSqlCacheSize();
         final boolean traceActiveThread = profilerConfig.isTraceAgentActiveThread();
-        final DefaultTraceContext traceContext = new DefaultTraceContext(jdbcSqlCacheSize, this.agentInformation, storageFactory, sampler, this.serverMetaDataHolder, traceActiveThread);
+        final DeferredStorageFactory deferredStorageFactory = createDeferredStorageFactory(storageFactory);
+        final DefaultTraceContext traceContext = new DefaultTraceContext(jdbcSqlCacheSize, this.agentInformation, storageFactory, sampler, this.serverMetaDataHolder, traceActiveThread, deferredStorageFactory);
         traceContext.setProfilerConfig(profilerConfig);
 
         return traceContext;
@@ -360,12 +365,24 @@ public class DefaultAgent implements Agent {
         }
     }
 
+    private DeferredStorageFactory createDeferredStorageFactory(StorageFactory storageFactory) {
+        if (!profilerConfig.isSamplingDeferredEnable()) {
+            return null;
+        }
+        final DeferredStorageFactory deferredStorageFactory = new DeferredStorageFactory(storageFactory,
+                profilerConfig.getSamplingDeferredMaxBufferedSpanEvent(), profilerConfig.getSamplingDeferredElapsedThreshold());
+        logger.info("DeferredStorageFactory:{}", deferredStorageFactory);
+        return deferredStorageFactory;
+    }
+
     private Sampler createSampler() {
-        boolean samplingEnable = this.profilerConfig.isSamplingEnable();
-        int samplingRate = this.profilerConfig.getSamplingRate();
+        AsyncQueueingStatus queueingStatus = null;
+        if (this.spanDataSender instanceof AsyncQueueingStatus) {
+            queueingStatus = (AsyncQueueingStatus) this.spanDataSender;
+        }
 
         SamplerFactory samplerFactory = new SamplerFactory();
-        return samplerFactory.createSampler(samplingEnable, samplingRate);
+        return samplerFactory.createSampler(this.profilerConfig, queueingStatus);
     }
     
     protected ServerMetaDataHolder createServerMetaDataHolder() {
@@ -403,12 +420,18 @@ public class DefaultAgent implements Agent {
     }
 
     protected DataSender createUdpStatDataSender(int port, String threadName, int writeQueueSize, int timeout, int sendBufferSize) {
-        UdpDataSenderFactory factory = new UdpDataSenderFactory(this.profilerConfig.getCollectorStatServerIp(), port, threadName, writeQueueSize, timeout, sendBufferSize);
+        MessageQueueFactory messageQueueFactory = new MessageQueueFactory(profilerConfig.getStatDataSenderWriteQueueType(), profilerConfig.getStatDataSenderWriteQueueWaitStrategy());
+        BatchOption batchOption = new BatchOption(profilerConfig.getStatDataSenderWriteDrainSize(), profilerConfig.getStatDataSenderWriteLingerTime(), profilerConfig.getStatDataSenderBatchPacketSize());
+        logger.info("StatDataSender {} {}", messageQueueFactory, batchOption);
+        UdpDataSenderFactory factory = new UdpDataSenderFactory(this.profilerConfig.getCollectorStatServerIp(), port, threadName, writeQueueSize, timeout, sendBufferSize, messageQueueFactory, batchOption);
         return factory.create(profilerConfig.getStatDataSenderSocketType());
     }
     
     protected DataSender createUdpSpanDataSender(int port, String threadName, int writeQueueSize, int timeout, int sendBufferSize) {
-        UdpDataSenderFactory factory = new UdpDataSenderFactory(this.profilerConfig.getCollectorSpanServerIp(), port, threadName, writeQueueSize, timeout, sendBufferSize);
+        MessageQueueFactory messageQueueFactory = new MessageQueueFactory(profilerConfig.getSpanDataSenderWriteQueueType(), profilerConfig.getSpanDataSenderWriteQueueWaitStrategy());
+        BatchOption batchOption = new BatchOption(profilerConfig.getSpanDataSenderWriteDrainSize(), profilerConfig.getSpanDataSenderWriteLingerTime(), profilerConfig.getSpanDataSenderBatchPacketSize());
+        logger.info("SpanDataSender {} {}", messageQueueFactory, batchOption);
+        UdpDataSenderFactory factory = new UdpDataSenderFactory(this.profilerConfig.getCollectorSpanServerIp(), port, threadName, writeQueueSize, timeout, sendBufferSize, messageQueueFactory, batchOption);
         return factory.create(profilerConfig.getSpanDataSenderSocketType());
     }
 
@@ -33,11 +33,24 @@ public class DefaultCachingSqlNormalizer implements CachingSqlNormalizer {
     private static final DefaultParsingResult EMPTY_OBJECT = new DefaultParsingResult("");
 
     private final SimpleCache<String> sqlCache;
+    private final RawSqlCache rawSqlCache;
     private final SqlParser sqlParser;
 
     public DefaultCachingSqlNormalizer(int cacheSize) {
+        this(cacheSize, cacheSize);
+    }
+
+    public DefaultCachingSqlNormalizer(int cacheSize, int rawCacheSize) {
+        this(cacheSize, rawCacheSize, new DefaultSqlParser());
+    }
+
+    DefaultCachingSqlNormalizer(int cacheSize, int rawCacheSize, SqlParser sqlParser) {
+        if (sqlParser == null) {
+            throw new NullPointerException("sqlParser must not be null");
+        }
         this.sqlCache = new SimpleCache<String>(cacheSize);
-        this.sqlParser = new DefaultSqlParser();
+        this.rawSqlCache = new RawSqlCache(rawCacheSize);
+        this.sqlParser = sqlParser;
     }
 
     @Override
@@ -71,23 +84,36 @@ public class DefaultCachingSqlNormalizer implements CachingSqlNormalizer {
         final ParsingResultInternal parsingResultInternal = (ParsingResultInternal) parsingResult;
 
         final String originalSql = parsingResultInternal.getOriginalSql();
+
+        // fast path : same raw sql already normalized, skip the parser.
+        final RawSqlCache.Entry entry = this.rawSqlCache.get(originalSql);
+        if (entry != null) {
+            setResult(parsingResultInternal, entry.getId(), entry.getNormalizedSql(), entry.getOutput());
+            return false;
+        }
+
         final NormalizedSql normalizedSql = this.sqlParser.normalizedSql(originalSql);
 
         final Result cachingResult = this.sqlCache.put(normalizedSql.getNormalizedSql());
+        this.rawSqlCache.put(originalSql, cachingResult.getId(), normalizedSql.getNormalizedSql(), normalizedSql.getParseParameter());
+
+        setResult(parsingResultInternal, cachingResult.getId(), normalizedSql.getNormalizedSql(), normalizedSql.getParseParameter());
 
+        return cachingResult.isNewValue();
+    }
+
+    private void setResult(ParsingResultInternal parsingResultInternal, int sqlId, String normalizedSql, String output) {
         // set normalizedSql
         // set sqlId
-        final boolean success = parsingResultInternal.setId(cachingResult.getId());
+        final boolean success = parsingResultInternal.setId(sqlId);
         if (!success) {
             if (logger.isWarnEnabled()) {
-                logger.warn("invalid state. setSqlId fail setId:{}, ParsingResultInternal:{}", cachingResult.getId(), parsingResultInternal);
+                logger.warn("invalid state. setSqlId fail setId:{}, ParsingResultInternal:{}", sqlId, parsingResultInternal);
             }
         }
 
-        parsingResultInternal.setSql(normalizedSql.getNormalizedSql());
-        parsingResultInternal.setOutput(normalizedSql.getParseParameter());
-
-        return cachingResult.isNewValue();
+        parsingResultInternal.setSql(normalizedSql);
+        parsingResultInternal.setOutput(output);
     }
 
 
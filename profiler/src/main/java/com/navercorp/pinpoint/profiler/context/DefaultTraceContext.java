@@ -33,6 +33,8 @@ import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
 import com.navercorp.pinpoint.profiler.AgentInformation;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceFactory;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceLocator;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredSamplingCounter;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.LogStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
 import com.navercorp.pinpoint.profiler.metadata.LRUCache;
@@ -78,12 +80,22 @@ public class DefaultTraceContext implements TraceContext {
 
     private final TransactionCounter transactionCounter = new DefaultTransactionCounter(this.idGenerator);
 
+    private final DeferredSamplingCounter deferredSamplingCounter;
+
     // for test
     public DefaultTraceContext(final AgentInformation agentInformation) {
         this(LRUCache.DEFAULT_CACHE_SIZE, agentInformation, new LogStorageFactory(), new TrueSampler(), new DefaultServerMetaDataHolder(RuntimeMXBeanUtils.getVmArgs()), TRACE_ACTIVE_THREAD);
     }
 
     public DefaultTraceContext(final int sqlCacheSize, final AgentInformation agentInformation, StorageFactory storageFactory, Sampler sampler, ServerMetaDataHolder serverMetaDataHolder, final boolean traceActiveThread) {
+        this(sqlCacheSize, agentInformation, storageFactory, sampler, serverMetaDataHolder, traceActiveThread, null);
+    }
+
+    /**
+     * @param deferredStorageFactory storage of the transactions not picked by the sampler. null to disable deferred sampling.
+     */
+    public DefaultTraceContext(final int sqlCacheSize, final AgentInformation agentInformation, StorageFactory storageFactory, Sampler sampler, ServerMetaDataHolder serverMetaDataHolder, final boolean traceActiveThread,
+                               DeferredStorageFactory deferredStorageFactory) {
         if (agentInformation == null) {
             throw new NullPointerException("agentInformation must not be null");
         }
@@ -97,14 +109,15 @@ public class DefaultTraceContext implements TraceContext {
 
         this.cachingSqlNormalizer = new DefaultCachingSqlNormalizer(sqlCacheSize);
 
-        this.traceFactory = createTraceFactory(storageFactory, sampler, traceActiveThread);
+        this.traceFactory = createTraceFactory(storageFactory, sampler, traceActiveThread, deferredStorageFactory);
+        this.deferredSamplingCounter = deferredStorageFactory != null ? deferredStorageFactory.getCounter() : null;
 
         this.serverMetaDataHolder = serverMetaDataHolder;
     }
 
-    private TraceFactory createTraceFactory(StorageFactory storageFactory, Sampler sampler, boolean recordActiveThread) {
+    private TraceFactory createTraceFactory(StorageFactory storageFactory, Sampler sampler, boolean recordActiveThread, StorageFactory deferredStorageFactory) {
         // TODO extract chain TraceFactory??
-        final TraceFactory threadLocalTraceFactory = new ThreadLocalTraceFactory(this, storageFactory, sampler, this.idGenerator);
+        final TraceFactory threadLocalTraceFactory = new ThreadLocalTraceFactory(this, storageFactory, sampler, this.idGenerator, deferredStorageFactory);
         if (recordActiveThread) {
             ActiveTraceFactory activeTraceFactory = (ActiveTraceFactory) ActiveTraceFactory.wrap(threadLocalTraceFactory);
             return activeTraceFactory;
@@ -318,4 +331,11 @@ public class DefaultTraceContext implements TraceContext {
         return this.transactionCounter;
     }
 
+    /**
+     * @return null if deferred sampling is disabled
+     */
+    public DeferredSamplingCounter getDeferredSamplingCounter() {
+        return this.deferredSamplingCounter;
+    }
+
 }
@@ -26,6 +26,12 @@ import com.navercorp.pinpoint.common.util.TransactionIdUtils;
  */
 public class DefaultTraceId implements TraceId {
 
+    /**
+     * Trace recorded by deferred sampling. The next nodes do not trace a transaction with this flag,
+     * so that only the root node decides whether it is kept.
+     */
+    public static final short DEFERRED_SAMPLING_FLAG = 0x01;
+
     private final String agentId;
     private final long agentStartTime;
     private final long transactionSequence;
@@ -93,6 +99,14 @@ public class DefaultTraceId implements TraceId {
         return flags;
     }
 
+    public boolean isDeferredSampling() {
+        return isDeferredSampling(flags);
+    }
+
+    public static boolean isDeferredSampling(short flags) {
+        return (flags & DEFERRED_SAMPLING_FLAG) != 0;
+    }
+
     public boolean isRoot() {
         return this.parentSpanId == SpanId.NULL;
     }
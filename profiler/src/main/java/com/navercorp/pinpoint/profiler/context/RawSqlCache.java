@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free cache from the original sql string to its normalized sql, sql id and parameter layout.
+ * <p>
+ * Direct-mapped on String.hashCode(). A colliding statement simply overwrites the slot, so a lookup is one array read
+ * followed by an identity/hash check and, only then, equals().
+ * <p>
+ * Statements with literals (output parameters) are admitted on their second sighting only.
+ * Sql built by string concatenation carries a different literal on almost every execution and never reaches the cache,
+ * while a constant statement with literals is admitted the second time it is executed.
+ * The first sighting is recorded as a hash fingerprint in one of two doorkeeper slots, so statements colliding on
+ * the table slot do not wipe out each other's sighting.
+ *
+ * @author agent
+ */
+class RawSqlCache {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final int EMPTY_FINGERPRINT = 0;
+
+    private final int mask;
+    private final AtomicReferenceArray<Entry> table;
+    private final AtomicIntegerArray doorkeeper;
+
+    RawSqlCache(int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("cacheSize:" + cacheSize);
+        }
+        final int capacity = roundToPowerOfTwo(Math.min(cacheSize, MAX_CAPACITY));
+        this.mask = capacity - 1;
+        this.table = new AtomicReferenceArray<Entry>(capacity);
+        this.doorkeeper = new AtomicIntegerArray(capacity);
+    }
+
+    static int roundToPowerOfTwo(int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        if (highestOneBit == value) {
+            return value;
+        }
+        return highestOneBit << 1;
+    }
+
+    Entry get(String originalSql) {
+        final int hash = hash(originalSql);
+        final Entry entry = table.get(hash & mask);
+        if (entry == null || entry.hash != hash) {
+            return null;
+        }
+        final String cachedSql = entry.originalSql;
+        if (cachedSql == originalSql || cachedSql.equals(originalSql)) {
+            return entry;
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the statement was admitted
+     */
+    boolean put(String originalSql, int id, String normalizedSql, String output) {
+        final int hash = hash(originalSql);
+        if (hasLiteral(output)) {
+            if (!seen(hash)) {
+                return false;
+            }
+        }
+        table.lazySet(hash & mask, new Entry(originalSql, hash, id, normalizedSql, output));
+        return true;
+    }
+
+    /**
+     * @return true if the fingerprint of the statement was recorded before, otherwise records it
+     */
+    private boolean seen(int hash) {
+        final int fingerprint = fingerprint(hash);
+        final int index = hash & mask;
+        final int alternateIndex = rehash(hash) & mask;
+        final int current = doorkeeper.get(index);
+        if (current == fingerprint || doorkeeper.get(alternateIndex) == fingerprint) {
+            return true;
+        }
+        // first sighting. keep the sighting of a colliding statement if the slot is taken
+        if (current == EMPTY_FINGERPRINT) {
+            doorkeeper.lazySet(index, fingerprint);
+        } else {
+            doorkeeper.lazySet(alternateIndex, fingerprint);
+        }
+        return false;
+    }
+
+    private static int fingerprint(int hash) {
+        if (hash == EMPTY_FINGERPRINT) {
+            return 1;
+        }
+        return hash;
+    }
+
+    static int rehash(int hash) {
+        // murmur3 fmix32, independent of the low bits used for the table index
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static boolean hasLiteral(String output) {
+        return output != null && output.length() != 0;
+    }
+
+    static int hash(String sql) {
+        final int h = sql.hashCode();
+        // spread the high bits like HashMap
+        return h ^ (h >>> 16);
+    }
+
+    int capacity() {
+        return table.length();
+    }
+
+    static final class Entry {
+        private final String originalSql;
+        private final int hash;
+        private final int id;
+        private final String normalizedSql;
+        private final String output;
+
+        private Entry(String originalSql, int hash, int id, String normalizedSql, String output) {
+            this.originalSql = originalSql;
+            this.hash = hash;
+            this.id = id;
+            this.normalizedSql = normalizedSql;
+            this.output = output;
+        }
+
+        int getId() {
+            return id;
+        }
+
+        String getNormalizedSql() {
+            return normalizedSql;
+        }
+
+        String getOutput() {
+            return output;
+        }
+    }
+}
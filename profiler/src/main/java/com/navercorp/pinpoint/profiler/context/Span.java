@@ -20,18 +20,23 @@ import com.navercorp.pinpoint.bootstrap.context.FrameAttachment;
 import com.navercorp.pinpoint.bootstrap.context.SpanId;
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.common.util.TransactionIdUtils;
+import com.navercorp.pinpoint.profiler.context.storage.SpanEventListPool;
+import com.navercorp.pinpoint.profiler.sender.RecyclableMessage;
 import com.navercorp.pinpoint.thrift.dto.TIntStringValue;
 import com.navercorp.pinpoint.thrift.dto.TSpan;
 
+import java.util.List;
+
 /**
  * Span represent RPC
  *
  * @author netspider
  * @author emeroad
  */
-public class Span extends TSpan implements FrameAttachment {
+public class Span extends TSpan implements FrameAttachment, RecyclableMessage {
     private boolean timeRecording = true;
     private Object frameObject;
+    private SpanEventListPool spanEventListPool;
     
     public Span() {
     }
@@ -128,4 +133,21 @@ public class Span extends TSpan implements FrameAttachment {
         this.frameObject = null;
         return delete;
     }
-}
\ No newline at end of file
+
+    public void setSpanEventList(List<SpanEvent> spanEventList, SpanEventListPool spanEventListPool) {
+        setSpanEventList((List) spanEventList);
+        this.spanEventListPool = spanEventListPool;
+    }
+
+    @Override
+    public void recycle() {
+        final SpanEventListPool pool = this.spanEventListPool;
+        if (pool == null) {
+            return;
+        }
+        this.spanEventListPool = null;
+        final List spanEventList = getSpanEventList();
+        setSpanEventList(null);
+        pool.release(spanEventList);
+    }
+}
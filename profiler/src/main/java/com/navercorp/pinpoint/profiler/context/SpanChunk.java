@@ -19,17 +19,41 @@ package com.navercorp.pinpoint.profiler.context;
 
 import java.util.List;
 
+import com.navercorp.pinpoint.profiler.context.storage.SpanEventListPool;
+import com.navercorp.pinpoint.profiler.sender.RecyclableMessage;
 import com.navercorp.pinpoint.thrift.dto.TSpanChunk;
 
 /**
  * @author emeroad
  */
-public class SpanChunk extends TSpanChunk {
+public class SpanChunk extends TSpanChunk implements RecyclableMessage {
+
+    private SpanEventListPool spanEventListPool;
 
     public SpanChunk(List<SpanEvent> spanEventList) {
+        this(spanEventList, null);
+    }
+
+    /**
+     * @param spanEventListPool owner of spanEventList. null if spanEventList must not be reused.
+     */
+    public SpanChunk(List<SpanEvent> spanEventList, SpanEventListPool spanEventListPool) {
         if (spanEventList == null) {
             throw new NullPointerException("spanEventList must not be null");
         }
         setSpanEventList((List) spanEventList);
+        this.spanEventListPool = spanEventListPool;
+    }
+
+    @Override
+    public void recycle() {
+        final SpanEventListPool pool = this.spanEventListPool;
+        if (pool == null) {
+            return;
+        }
+        this.spanEventListPool = null;
+        final List spanEventList = getSpanEventList();
+        setSpanEventList(null);
+        pool.release(spanEventList);
     }
 }
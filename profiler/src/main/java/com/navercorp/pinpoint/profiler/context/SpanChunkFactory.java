@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.profiler.context;
 
 import com.navercorp.pinpoint.profiler.AgentInformation;
+import com.navercorp.pinpoint.profiler.context.storage.SpanEventListPool;
 
 import java.util.List;
 
@@ -35,6 +36,13 @@ public class SpanChunkFactory {
     }
 
     public SpanChunk create(final List<SpanEvent> flushData) {
+        return create(flushData, null);
+    }
+
+    /**
+     * @param spanEventListPool flushData is handed back to this pool after the sender has serialized the SpanChunk.
+     */
+    public SpanChunk create(final List<SpanEvent> flushData, final SpanEventListPool spanEventListPool) {
         if (flushData == null) {
             throw new NullPointerException("flushData must not be null");
         }
@@ -52,7 +60,7 @@ public class SpanChunkFactory {
         final Span parentSpan = first.getSpan();
         final String agentId = this.agentInformation.getAgentId();
 
-        final SpanChunk spanChunk = new SpanChunk(flushData);
+        final SpanChunk spanChunk = new SpanChunk(flushData, spanEventListPool);
         spanChunk.setAgentId(agentId);
         spanChunk.setApplicationName(this.agentInformation.getApplicationName());
         spanChunk.setAgentStartTime(this.agentInformation.getStartTime());
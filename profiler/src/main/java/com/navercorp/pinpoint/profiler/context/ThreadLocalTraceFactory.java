@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.profiler.context;
 
 import com.navercorp.pinpoint.bootstrap.context.AsyncTraceId;
+import com.navercorp.pinpoint.bootstrap.context.SpanId;
 import com.navercorp.pinpoint.bootstrap.context.Trace;
 import com.navercorp.pinpoint.bootstrap.context.TraceContext;
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
@@ -44,10 +45,18 @@ public class ThreadLocalTraceFactory implements TraceFactory {
 
     private final StorageFactory storageFactory;
     private final Sampler sampler;
+    private final StorageFactory deferredStorageFactory;
 
     private final IdGenerator idGenerator;
 
     public ThreadLocalTraceFactory(TraceContext traceContext, StorageFactory storageFactory, Sampler sampler, IdGenerator idGenerator) {
+        this(traceContext, storageFactory, sampler, idGenerator, null);
+    }
+
+    /**
+     * @param deferredStorageFactory storage of the transactions not picked by the sampler. null to disable deferred sampling.
+     */
+    public ThreadLocalTraceFactory(TraceContext traceContext, StorageFactory storageFactory, Sampler sampler, IdGenerator idGenerator, StorageFactory deferredStorageFactory) {
         if (traceContext == null) {
             throw new NullPointerException("traceContext must not be null");
         }
@@ -64,6 +73,7 @@ public class ThreadLocalTraceFactory implements TraceFactory {
         this.storageFactory = storageFactory;
         this.sampler = sampler;
         this.idGenerator = idGenerator;
+        this.deferredStorageFactory = deferredStorageFactory;
     }
 
 
@@ -115,12 +125,19 @@ public class ThreadLocalTraceFactory implements TraceFactory {
     public Trace continueTraceObject(final TraceId traceId) {
         checkBeforeTraceObject();
 
+        if (DefaultTraceId.isDeferredSampling(traceId.getFlags())) {
+            // the root node decides alone whether a deferred transaction is kept,
+            // so the rest of the transaction is not traced. propagated as unsampled from here on.
+            final Trace disableTrace = new DisableTrace(this.idGenerator.nextContinuedDisabledId());
+            bind(disableTrace);
+            return disableTrace;
+        }
+
         // TODO need to modify how to bind a datasender
         // always set true because the decision of sampling has been  made on previous nodes
         // TODO need to consider as a target to sample in case Trace object has a sampling flag (true) marked on previous node.
         final boolean sampling = true;
         final DefaultTrace trace = new DefaultTrace(traceContext, traceId, this.idGenerator.nextContinuedTransactionId(), sampling);
-        // final Storage storage = storageFactory.createStorage();
         final Storage storage = storageFactory.createStorage();
         trace.setStorage(storage);
         bind(trace);
@@ -158,6 +175,8 @@ public class ThreadLocalTraceFactory implements TraceFactory {
             trace.setStorage(storage);
             bind(trace);
             return trace;
+        } else if (deferredStorageFactory != null) {
+            return newDeferredTraceObject();
         } else {
             final DisableTrace disableTrace = new DisableTrace(this.idGenerator.nextDisabledId());
             bind(disableTrace);
@@ -165,6 +184,18 @@ public class ThreadLocalTraceFactory implements TraceFactory {
         }
     }
 
+    // recorded like a sampled trace, but sent only if it turns out to be slow or failed.
+    private Trace newDeferredTraceObject() {
+        final long transactionId = idGenerator.nextTransactionId();
+        final TraceId traceId = new DefaultTraceId(traceContext.getAgentId(), traceContext.getAgentStartTime(), transactionId,
+                SpanId.NULL, SpanId.newSpanId(), DefaultTraceId.DEFERRED_SAMPLING_FLAG);
+        final DefaultTrace trace = new DefaultTrace(traceContext, traceId, transactionId, true);
+        final Storage storage = deferredStorageFactory.createStorage();
+        trace.setStorage(storage);
+        bind(trace);
+        return trace;
+    }
+
     private void bind(Trace trace) {
         threadLocalBinder.set(trace);
 
@@ -195,6 +226,12 @@ public class ThreadLocalTraceFactory implements TraceFactory {
         checkBeforeTraceObject();
         
         final TraceId parentTraceId = traceId.getParentTraceId();
+        if (deferredStorageFactory != null && DefaultTraceId.isDeferredSampling(parentTraceId.getFlags())) {
+            // the parent may be discarded, so the async part of a deferred trace is not recorded.
+            final Trace disableTrace = new DisableTrace(this.idGenerator.nextContinuedDisabledId());
+            bind(disableTrace);
+            return disableTrace;
+        }
         final boolean sampling = true;
         final DefaultTrace trace = new DefaultTrace(traceContext, parentTraceId, IdGenerator.UNTRACKED_ID, sampling);
         final Storage storage = storageFactory.createStorage();
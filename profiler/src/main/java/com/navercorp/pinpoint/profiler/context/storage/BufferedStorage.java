@@ -40,12 +40,20 @@ public class BufferedStorage implements Storage {
     private List<SpanEvent> storage;
     private final DataSender dataSender;
     private final SpanChunkFactory spanChunkFactory;
+    private final SpanEventListPool spanEventListPool;
 
     public BufferedStorage(DataSender dataSender, SpanChunkFactory spanChunkFactory) {
         this(dataSender, spanChunkFactory, DEFAULT_BUFFER_SIZE);
     }
 
     public BufferedStorage(DataSender dataSender, SpanChunkFactory spanChunkFactory, int bufferSize) {
+        this(dataSender, spanChunkFactory, bufferSize, null);
+    }
+
+    /**
+     * @param spanEventListPool null if SpanEvent buffers must not be reused.
+     */
+    public BufferedStorage(DataSender dataSender, SpanChunkFactory spanChunkFactory, int bufferSize, SpanEventListPool spanEventListPool) {
         if (dataSender == null) {
             throw new NullPointerException("dataSender must not be null");
         }
@@ -55,21 +63,30 @@ public class BufferedStorage implements Storage {
         this.dataSender = dataSender;
         this.spanChunkFactory = spanChunkFactory;
         this.bufferSize = bufferSize;
-        this.storage = new ArrayList<SpanEvent>(bufferSize);
+        this.spanEventListPool = spanEventListPool;
+    }
+
+    private List<SpanEvent> newStorage() {
+        if (spanEventListPool != null) {
+            return spanEventListPool.borrow();
+        }
+        return new ArrayList<SpanEvent>(bufferSize);
     }
 
     @Override
     public void store(SpanEvent spanEvent) {
-        List<SpanEvent> flushData = null;
+        List<SpanEvent> storage = this.storage;
+        if (storage == null) {
+            // allocated lazily. a trace without SpanEvent does not need a buffer.
+            storage = newStorage();
+            this.storage = storage;
+        }
         storage.add(spanEvent);
         if (storage.size() >= bufferSize) {
-            // data copy
-            flushData = storage;
-            storage = new ArrayList<SpanEvent>(bufferSize);
-        }
+            // hand off the buffer. it belongs to the SpanChunk until the sender recycles it.
+            this.storage = null;
 
-        if (flushData != null) {
-            final SpanChunk spanChunk = spanChunkFactory.create(flushData);
+            final SpanChunk spanChunk = spanChunkFactory.create(storage, spanEventListPool);
             if (isDebug) {
                 logger.debug("[BufferedStorage] Flush span-chunk {}", spanChunk);
             }
@@ -79,31 +96,29 @@ public class BufferedStorage implements Storage {
 
     @Override
     public void store(Span span) {
-        List<SpanEvent> spanEventList;
-        spanEventList = storage;
-        this.storage = new ArrayList<SpanEvent>(bufferSize);
+        final List<SpanEvent> spanEventList = this.storage;
+        this.storage = null;
 
         if (spanEventList != null && !spanEventList.isEmpty()) {
-            span.setSpanEventList((List) spanEventList);
+            span.setSpanEventList(spanEventList, spanEventListPool);
         }
-        dataSender.send(span);
-
+        // logged before send(). the sender may recycle the SpanEvent list as soon as it is serialized.
         if (isDebug) {
             logger.debug("[BufferedStorage] Flush span {}", span);
         }
+        dataSender.send(span);
     }
 
     public void flush() {
-        List<SpanEvent> spanEventList;
-        spanEventList = storage;
-        this.storage = new ArrayList<SpanEvent>(bufferSize);
+        final List<SpanEvent> spanEventList = this.storage;
+        this.storage = null;
 
         if (spanEventList != null && !spanEventList.isEmpty()) {
-            final SpanChunk spanChunk = spanChunkFactory.create(spanEventList);
-            dataSender.send(spanChunk);
+            final SpanChunk spanChunk = spanChunkFactory.create(spanEventList, spanEventListPool);
             if (isDebug) {
                 logger.debug("flush span chunk {}", spanChunk);
             }
+            dataSender.send(spanChunk);
         }
     }
 
@@ -113,6 +128,6 @@ public class BufferedStorage implements Storage {
 
     @Override
     public String toString() {
-        return "BufferedStorage{" + "bufferSize=" + bufferSize + ", dataSender=" + dataSender + '}';
+        return "BufferedStorage{" + "bufferSize=" + bufferSize + ", dataSender=" + dataSender + ", spanEventListPool=" + spanEventListPool + '}';
     }
 }
\ No newline at end of file
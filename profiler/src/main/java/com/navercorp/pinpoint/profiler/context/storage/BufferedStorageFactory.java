@@ -29,6 +29,7 @@ public class BufferedStorageFactory implements StorageFactory {
     private final DataSender dataSender;
     private final int bufferSize;
     private final SpanChunkFactory spanChunkFactory;
+    private final SpanEventListPool spanEventListPool;
 
     public BufferedStorageFactory(DataSender dataSender, ProfilerConfig config, AgentInformation agentInformation) {
         if (dataSender == null) {
@@ -42,12 +43,19 @@ public class BufferedStorageFactory implements StorageFactory {
         this.bufferSize = config.getIoBufferingBufferSize();
 
         this.spanChunkFactory = new SpanChunkFactory(agentInformation);
+
+        final int recyclePoolSize = config.getIoBufferingRecyclePoolSize();
+        if (recyclePoolSize > 0) {
+            this.spanEventListPool = new SpanEventListPool(recyclePoolSize, bufferSize);
+        } else {
+            this.spanEventListPool = null;
+        }
     }
 
 
     @Override
     public Storage createStorage() {
-        BufferedStorage bufferedStorage = new BufferedStorage(this.dataSender, spanChunkFactory, this.bufferSize);
+        BufferedStorage bufferedStorage = new BufferedStorage(this.dataSender, spanChunkFactory, this.bufferSize, spanEventListPool);
         return bufferedStorage;
     }
 
@@ -56,6 +64,7 @@ public class BufferedStorageFactory implements StorageFactory {
         return "BufferedStorageFactory{" +
                 "bufferSize=" + bufferSize +
                 ", dataSender=" + dataSender +
+                ", spanEventListPool=" + spanEventListPool +
                 '}';
     }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agent wide state of deferred sampling.
+ * Caps the number of SpanEvents buffered by every {@link DeferredStorage} of the agent, and counts the decisions.
+ *
+ * @author agent
+ */
+public class DeferredSamplingCounter {
+
+    private final int maxBufferedSpanEventCount;
+    private final AtomicInteger bufferedSpanEventCount = new AtomicInteger();
+
+    private final AtomicLong promotedCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    public DeferredSamplingCounter(int maxBufferedSpanEventCount) {
+        if (maxBufferedSpanEventCount <= 0) {
+            throw new IllegalArgumentException("maxBufferedSpanEventCount:" + maxBufferedSpanEventCount);
+        }
+        this.maxBufferedSpanEventCount = maxBufferedSpanEventCount;
+    }
+
+    boolean tryAcquire() {
+        if (bufferedSpanEventCount.incrementAndGet() > maxBufferedSpanEventCount) {
+            bufferedSpanEventCount.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void release(int spanEventCount) {
+        if (spanEventCount > 0) {
+            bufferedSpanEventCount.addAndGet(-spanEventCount);
+        }
+    }
+
+    void promoted() {
+        promotedCount.incrementAndGet();
+    }
+
+    void discarded() {
+        discardedCount.incrementAndGet();
+    }
+
+    void overflow() {
+        overflowCount.incrementAndGet();
+    }
+
+    public int getMaxBufferedSpanEventCount() {
+        return maxBufferedSpanEventCount;
+    }
+
+    public int getBufferedSpanEventCount() {
+        return bufferedSpanEventCount.get();
+    }
+
+    /**
+     * @return number of traces sent because they were slow or failed
+     */
+    public long getPromotedCount() {
+        return promotedCount.get();
+    }
+
+    /**
+     * @return number of traces dropped at the end, including overflowed ones
+     */
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    /**
+     * @return number of traces dropped because the buffer of the agent was full
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DeferredSamplingCounter{" +
+                "maxBufferedSpanEventCount=" + maxBufferedSpanEventCount +
+                ", bufferedSpanEventCount=" + bufferedSpanEventCount +
+                ", promotedCount=" + promotedCount +
+                ", discardedCount=" + discardedCount +
+                ", overflowCount=" + overflowCount +
+                '}';
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the SpanEvents of an unsampled trace in memory until its Span is stored.
+ * The trace is then promoted to a storage of the delegate factory if it was slow or failed, and discarded otherwise.
+ * <p>
+ * Once the agent wide buffer of {@link DeferredSamplingCounter} is full, the trace overflows and is discarded.
+ *
+ * @author agent
+ */
+public class DeferredStorage implements Storage {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredStorage.class);
+    private static final boolean isDebug = logger.isDebugEnabled();
+
+    private final StorageFactory storageFactory;
+    private final DeferredSamplingCounter counter;
+    private final long elapsedThreshold;
+
+    private List<SpanEvent> spanEventList;
+    private boolean exceptionRecorded;
+    private boolean overflow;
+
+    public DeferredStorage(StorageFactory storageFactory, DeferredSamplingCounter counter, long elapsedThreshold) {
+        if (storageFactory == null) {
+            throw new NullPointerException("storageFactory must not be null");
+        }
+        if (counter == null) {
+            throw new NullPointerException("counter must not be null");
+        }
+        this.storageFactory = storageFactory;
+        this.counter = counter;
+        this.elapsedThreshold = elapsedThreshold;
+    }
+
+    @Override
+    public void store(SpanEvent spanEvent) {
+        if (overflow) {
+            return;
+        }
+        if (!counter.tryAcquire()) {
+            overflow = true;
+            // free the buffer now, the trace can not be promoted anymore.
+            releaseSpanEventList();
+            return;
+        }
+        if (spanEventList == null) {
+            spanEventList = new ArrayList<SpanEvent>();
+        }
+        spanEventList.add(spanEvent);
+        if (spanEvent.isSetExceptionInfo()) {
+            exceptionRecorded = true;
+        }
+    }
+
+    @Override
+    public void store(Span span) {
+        if (overflow) {
+            counter.overflow();
+            counter.discarded();
+            return;
+        }
+        if (!isPromote(span)) {
+            releaseSpanEventList();
+            counter.discarded();
+            return;
+        }
+
+        // log before the hand-off, the storage may recycle the span events once they are sent
+        if (isDebug) {
+            logger.debug("[DeferredStorage] Promote span {}", span);
+        }
+        final List<SpanEvent> spanEventList = this.spanEventList;
+        this.spanEventList = null;
+
+        final Storage storage = storageFactory.createStorage();
+        if (spanEventList != null) {
+            for (SpanEvent spanEvent : spanEventList) {
+                storage.store(spanEvent);
+            }
+            counter.release(spanEventList.size());
+        }
+        storage.store(span);
+        storage.close();
+        counter.promoted();
+    }
+
+    private boolean isPromote(Span span) {
+        if (span.getElapsed() >= elapsedThreshold) {
+            return true;
+        }
+        if (span.isSetErrCode() && span.getErrCode() != 0) {
+            return true;
+        }
+        return exceptionRecorded || span.isSetExceptionInfo();
+    }
+
+    private void releaseSpanEventList() {
+        final List<SpanEvent> spanEventList = this.spanEventList;
+        if (spanEventList != null) {
+            this.spanEventList = null;
+            counter.release(spanEventList.size());
+        }
+    }
+
+    @Override
+    public void flush() {
+        // nothing is sent until the Span decides
+    }
+
+    @Override
+    public void close() {
+        // the Span was not stored. (corrupted call stack)
+        releaseSpanEventList();
+    }
+
+    @Override
+    public String toString() {
+        return "DeferredStorage{" +
+                "elapsedThreshold=" + elapsedThreshold +
+                ", counter=" + counter +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+/**
+ * Creates {@link DeferredStorage} for unsampled traces. Promoted traces are stored by storageFactory.
+ *
+ * @author agent
+ */
+public class DeferredStorageFactory implements StorageFactory {
+
+    private final StorageFactory storageFactory;
+    private final DeferredSamplingCounter counter;
+    private final long elapsedThreshold;
+
+    public DeferredStorageFactory(StorageFactory storageFactory, int maxBufferedSpanEventCount, long elapsedThreshold) {
+        if (storageFactory == null) {
+            throw new NullPointerException("storageFactory must not be null");
+        }
+        this.storageFactory = storageFactory;
+        this.counter = new DeferredSamplingCounter(maxBufferedSpanEventCount);
+        this.elapsedThreshold = elapsedThreshold;
+    }
+
+    @Override
+    public Storage createStorage() {
+        return new DeferredStorage(storageFactory, counter, elapsedThreshold);
+    }
+
+    public DeferredSamplingCounter getCounter() {
+        return counter;
+    }
+
+    @Override
+    public String toString() {
+        return "DeferredStorageFactory{" +
+                "storageFactory=" + storageFactory +
+                ", elapsedThreshold=" + elapsedThreshold +
+                ", counter=" + counter +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of SpanEvent buffers shared by every {@link BufferedStorage} of the agent.
+ * <p>
+ * Application threads borrow a buffer when a trace records its first SpanEvent,
+ * and the sender thread releases it after the SpanChunk or Span owning it has been serialized.
+ * When the pool is empty a new buffer is allocated, and when it is full the released buffer is left to the GC.
+ *
+ * @author agent
+ */
+public class SpanEventListPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<List<SpanEvent>> pool;
+
+    public SpanEventListPool(int poolSize, int bufferSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("poolSize:" + poolSize);
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize:" + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.pool = new ArrayBlockingQueue<List<SpanEvent>>(poolSize);
+    }
+
+    public List<SpanEvent> borrow() {
+        final List<SpanEvent> spanEventList = pool.poll();
+        if (spanEventList != null) {
+            return spanEventList;
+        }
+        return new ArrayList<SpanEvent>(bufferSize);
+    }
+
+    public void release(List<SpanEvent> spanEventList) {
+        if (spanEventList == null) {
+            return;
+        }
+        spanEventList.clear();
+        pool.offer(spanEventList);
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    @Override
+    public String toString() {
+        return "SpanEventListPool{" +
+                "bufferSize=" + bufferSize +
+                ", poolSize=" + (pool.size() + pool.remainingCapacity()) +
+                ", idle=" + pool.size() +
+                '}';
+    }
+}
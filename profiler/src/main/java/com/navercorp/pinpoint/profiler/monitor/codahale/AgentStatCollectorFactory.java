@@ -22,6 +22,7 @@ import com.navercorp.pinpoint.bootstrap.context.TraceContext;
 import com.navercorp.pinpoint.profiler.context.DefaultTraceContext;
 import com.navercorp.pinpoint.profiler.context.TransactionCounter;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceLocator;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredSamplingCounter;
 import com.navercorp.pinpoint.profiler.monitor.MonitorName;
 import com.navercorp.pinpoint.profiler.monitor.codahale.activetrace.DefaultActiveTraceMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.codahale.activetrace.ActiveTraceMetricCollector;
@@ -39,6 +40,7 @@ import com.navercorp.pinpoint.profiler.monitor.codahale.gc.ParallelDetailedMetri
 import com.navercorp.pinpoint.profiler.monitor.codahale.gc.SerialCollector;
 import com.navercorp.pinpoint.profiler.monitor.codahale.gc.SerialDetailedMetricsCollector;
 import com.navercorp.pinpoint.profiler.monitor.codahale.gc.UnknownGarbageCollector;
+import com.navercorp.pinpoint.profiler.monitor.codahale.sampling.metric.DeferredSamplingMetricSet;
 import com.navercorp.pinpoint.profiler.monitor.codahale.tps.DefaultTransactionMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.codahale.tps.TransactionMetricCollector;
 import com.navercorp.pinpoint.profiler.monitor.codahale.tps.metric.TransactionMetricSet;
@@ -77,6 +79,7 @@ public class AgentStatCollectorFactory {
         this.cpuLoadCollector = createCpuLoadCollector(profilerConfig.getProfilerJvmVendorName());
         this.transactionMetricCollector = createTransactionMetricCollector(traceContext);
         this.activeTraceMetricCollector = createActiveTraceCollector(traceContext, profilerConfig.isTraceAgentActiveThread());
+        registerDeferredSamplingMonitor(traceContext);
     }
 
     private MetricMonitorRegistry createRegistry() {
@@ -144,6 +147,18 @@ public class AgentStatCollectorFactory {
         }
     }
 
+    private void registerDeferredSamplingMonitor(TraceContext traceContext) {
+        if (traceContext instanceof DefaultTraceContext) {
+            DeferredSamplingCounter deferredSamplingCounter = ((DefaultTraceContext) traceContext).getDeferredSamplingCounter();
+            if (deferredSamplingCounter != null) {
+                DeferredSamplingMetricSet deferredSamplingMetricSet = this.monitorRegistry.registerDeferredSamplingMonitor(new MonitorName(MetricMonitorValues.DEFERRED_SAMPLING), deferredSamplingCounter);
+                if (logger.isInfoEnabled()) {
+                    logger.info("loaded : {}", deferredSamplingMetricSet);
+                }
+            }
+        }
+    }
+
     private ActiveTraceMetricCollector createActiveTraceCollector(TraceContext traceContext, boolean isTraceAgentActiveThread) {
         if (!isTraceAgentActiveThread) {
             return ActiveTraceMetricCollector.EMPTY_ACTIVE_TRACE_COLLECTOR;
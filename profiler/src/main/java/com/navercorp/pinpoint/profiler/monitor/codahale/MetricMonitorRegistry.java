@@ -26,6 +26,7 @@ import com.codahale.metrics.jvm.MemoryUsageGaugeSet;
 import com.codahale.metrics.jvm.ThreadStatesGaugeSet;
 import com.navercorp.pinpoint.profiler.context.TransactionCounter;
 import com.navercorp.pinpoint.profiler.context.active.ActiveTraceLocator;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredSamplingCounter;
 import com.navercorp.pinpoint.profiler.monitor.CounterMonitor;
 import com.navercorp.pinpoint.profiler.monitor.EventRateMonitor;
 import com.navercorp.pinpoint.profiler.monitor.HistogramMonitor;
@@ -34,6 +35,7 @@ import com.navercorp.pinpoint.profiler.monitor.MonitorRegistry;
 import com.navercorp.pinpoint.profiler.monitor.codahale.activetrace.metric.ActiveTraceMetricSet;
 import com.navercorp.pinpoint.profiler.monitor.codahale.cpu.CpuLoadMetricSetSelector;
 import com.navercorp.pinpoint.profiler.monitor.codahale.cpu.metric.CpuLoadMetricSet;
+import com.navercorp.pinpoint.profiler.monitor.codahale.sampling.metric.DeferredSamplingMetricSet;
 import com.navercorp.pinpoint.profiler.monitor.codahale.tps.metric.TransactionMetricSet;
 
 /**
@@ -96,6 +98,11 @@ public class MetricMonitorRegistry implements MonitorRegistry {
         return this.delegate.register(monitorName.getName(), CpuLoadMetricSetSelector.getCpuLoadMetricSet(vendorName));
     }
 
+    public DeferredSamplingMetricSet registerDeferredSamplingMonitor(MonitorName monitorName, DeferredSamplingCounter deferredSamplingCounter) {
+        validateMonitorName(monitorName);
+        return this.delegate.register(monitorName.getName(), new DeferredSamplingMetricSet(deferredSamplingCounter));
+    }
+
     public TransactionMetricSet registerTpsMonitor(MonitorName monitorName, TransactionCounter transactionCounter) {
         validateMonitorName(monitorName);
         return this.delegate.register(monitorName.getName(), new TransactionMetricSet(transactionCounter));
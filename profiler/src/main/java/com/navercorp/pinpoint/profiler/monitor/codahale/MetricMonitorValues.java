@@ -114,6 +114,12 @@ public final class MetricMonitorValues {
     public static final String ACTIVE_TRACE = "active.trace";
     public static final String ACTIVE_TRACE_COUNT = ACTIVE_TRACE + ".count";
 
+    public static final String DEFERRED_SAMPLING = "sampling.deferred";
+    public static final String DEFERRED_SAMPLING_PROMOTED = DEFERRED_SAMPLING + ".promoted";
+    public static final String DEFERRED_SAMPLING_DISCARDED = DEFERRED_SAMPLING + ".discarded";
+    public static final String DEFERRED_SAMPLING_OVERFLOW = DEFERRED_SAMPLING + ".overflow";
+    public static final String DEFERRED_SAMPLING_BUFFERED = DEFERRED_SAMPLING + ".buffered";
+
     private MetricMonitorValues() {
     }
 
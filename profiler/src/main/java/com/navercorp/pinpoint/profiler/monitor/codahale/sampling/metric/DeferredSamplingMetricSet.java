@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.monitor.codahale.sampling.metric;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredSamplingCounter;
+import com.navercorp.pinpoint.profiler.monitor.codahale.MetricMonitorValues;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author agent
+ */
+public class DeferredSamplingMetricSet implements MetricSet {
+
+    private final DeferredSamplingCounter counter;
+
+    public DeferredSamplingMetricSet(DeferredSamplingCounter counter) {
+        if (counter == null) {
+            throw new NullPointerException("counter must not be null");
+        }
+        this.counter = counter;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        final Map<String, Metric> gauges = new HashMap<String, Metric>();
+        gauges.put(MetricMonitorValues.DEFERRED_SAMPLING_PROMOTED, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return counter.getPromotedCount();
+            }
+        });
+        gauges.put(MetricMonitorValues.DEFERRED_SAMPLING_DISCARDED, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return counter.getDiscardedCount();
+            }
+        });
+        gauges.put(MetricMonitorValues.DEFERRED_SAMPLING_OVERFLOW, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return counter.getOverflowCount();
+            }
+        });
+        gauges.put(MetricMonitorValues.DEFERRED_SAMPLING_BUFFERED, new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return (long) counter.getBufferedSpanEventCount();
+            }
+        });
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    @Override
+    public String toString() {
+        return "Default DeferredSamplingMetricSet";
+    }
+}
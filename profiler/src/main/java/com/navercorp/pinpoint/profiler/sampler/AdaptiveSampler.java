@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.common.util.MathUtils;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueingStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples 1 out of samplingRate new transactions like {@link SamplingRateSampler},
+ * but doubles the rate (up to maxSamplingRate) while the span data sender is saturated,
+ * and halves it back to samplingRate once the queue has drained.
+ * <p>
+ * The sender is saturated if messages were dropped since the last check, or if the queue is filled over highWatermark percent.
+ * It is considered drained under lowWatermark percent.
+ * The status of the queue is checked at most once per adjustInterval, by the thread winning the CAS on the next check time.
+ *
+ * @author agent
+ */
+public class AdaptiveSampler implements Sampler {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final AsyncQueueingStatus queueingStatus;
+    private final int samplingRate;
+    private final int maxSamplingRate;
+    private final long adjustInterval;
+    private final int highWatermark;
+    private final int lowWatermark;
+
+    private final AtomicInteger counter = new AtomicInteger(0);
+    private final AtomicLong nextAdjustTime;
+    private volatile int currentSamplingRate;
+    private volatile long lastDroppedCount;
+
+    public AdaptiveSampler(AsyncQueueingStatus queueingStatus, int samplingRate, int maxSamplingRate, long adjustInterval, int highWatermark, int lowWatermark) {
+        if (queueingStatus == null) {
+            throw new NullPointerException("queueingStatus must not be null");
+        }
+        if (samplingRate <= 0) {
+            throw new IllegalArgumentException("Invalid samplingRate " + samplingRate);
+        }
+        if (maxSamplingRate < samplingRate) {
+            throw new IllegalArgumentException("Invalid maxSamplingRate " + maxSamplingRate);
+        }
+        if (adjustInterval <= 0) {
+            throw new IllegalArgumentException("Invalid adjustInterval " + adjustInterval);
+        }
+        if (lowWatermark < 0 || highWatermark < lowWatermark) {
+            throw new IllegalArgumentException("Invalid watermark high:" + highWatermark + " low:" + lowWatermark);
+        }
+        this.queueingStatus = queueingStatus;
+        this.samplingRate = samplingRate;
+        this.maxSamplingRate = maxSamplingRate;
+        this.adjustInterval = adjustInterval;
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+
+        this.currentSamplingRate = samplingRate;
+        this.lastDroppedCount = queueingStatus.getDroppedCount();
+        this.nextAdjustTime = new AtomicLong(currentTimeMillis() + adjustInterval);
+    }
+
+    @Override
+    public boolean isSampling() {
+        final long currentTime = currentTimeMillis();
+        final long nextAdjustTime = this.nextAdjustTime.get();
+        if (currentTime >= nextAdjustTime && this.nextAdjustTime.compareAndSet(nextAdjustTime, currentTime + adjustInterval)) {
+            adjust();
+        }
+
+        final int samplingCount = MathUtils.fastAbs(counter.getAndIncrement());
+        return samplingCount % currentSamplingRate == 0;
+    }
+
+    private void adjust() {
+        final long droppedCount = queueingStatus.getDroppedCount();
+        final long droppedDelta = droppedCount - lastDroppedCount;
+        this.lastDroppedCount = droppedCount;
+
+        final int occupancy = getOccupancy();
+        final int current = this.currentSamplingRate;
+        final int next;
+        if (droppedDelta > 0 || occupancy >= highWatermark) {
+            next = (int) Math.min((long) current * 2, maxSamplingRate);
+        } else if (occupancy <= lowWatermark) {
+            next = Math.max(current / 2, samplingRate);
+        } else {
+            next = current;
+        }
+
+        if (next != current) {
+            this.currentSamplingRate = next;
+            logger.info("samplingRate changed {} -> {}. queue occupancy:{}%, dropped:{}", current, next, occupancy, droppedDelta);
+        }
+    }
+
+    private int getOccupancy() {
+        final int queueCapacity = queueingStatus.getQueueCapacity();
+        if (queueCapacity <= 0) {
+            return 0;
+        }
+        return (int) ((long) queueingStatus.getQueueSize() * 100 / queueCapacity);
+    }
+
+    public int getCurrentSamplingRate() {
+        return currentSamplingRate;
+    }
+
+    // for test
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveSampler{" +
+                "samplingRate=" + samplingRate +
+                ", maxSamplingRate=" + maxSamplingRate +
+                ", currentSamplingRate=" + currentSamplingRate +
+                ", adjustInterval=" + adjustInterval +
+                ", highWatermark=" + highWatermark +
+                ", lowWatermark=" + lowWatermark +
+                '}';
+    }
+}
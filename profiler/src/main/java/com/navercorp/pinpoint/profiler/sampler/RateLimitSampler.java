@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sampler that starts at most tracePerSecond new transactions per second.
+ * <p>
+ * The bucket is kept as the theoretical arrival time of the next permit (GCRA),
+ * so a full bucket allows a burst of tracePerSecond transactions and is refilled continuously.
+ * A rejected transaction only reads the arrival time, a sampled one updates it with a single CAS.
+ *
+ * @author agent
+ */
+public class RateLimitSampler implements Sampler {
+
+    private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int tracePerSecond;
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    private final AtomicLong arrivalTime;
+
+    public RateLimitSampler(int tracePerSecond) {
+        if (tracePerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid tracePerSecond " + tracePerSecond);
+        }
+        this.tracePerSecond = tracePerSecond;
+        this.intervalNanos = Math.max(ONE_SECOND_NANOS / tracePerSecond, 1);
+        this.burstNanos = ONE_SECOND_NANOS - intervalNanos;
+        this.arrivalTime = new AtomicLong(nanoTime());
+    }
+
+    @Override
+    public boolean isSampling() {
+        final long now = nanoTime();
+        while (true) {
+            final long arrivalTime = this.arrivalTime.get();
+            // nanoTime() may overflow. compare the difference only.
+            final long base = (arrivalTime - now > 0) ? arrivalTime : now;
+            if (base - now > burstNanos) {
+                // bucket is empty
+                return false;
+            }
+            if (this.arrivalTime.compareAndSet(arrivalTime, base + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    // for test
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitSampler{" +
+                "tracePerSecond=" + tracePerSecond +
+                '}';
+    }
+}
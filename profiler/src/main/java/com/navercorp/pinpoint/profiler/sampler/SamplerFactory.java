@@ -16,7 +16,9 @@
 
 package com.navercorp.pinpoint.profiler.sampler;
 
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueingStatus;
 
 /**
  * @author emeroad
@@ -31,4 +33,37 @@ public class SamplerFactory {
         }
         return new SamplingRateSampler(samplingRate);
     }
+
+    /**
+     * @param queueingStatus status of the span data sender. null if the sender does not expose it, ADAPTIVE then falls back to RATE.
+     */
+    public Sampler createSampler(ProfilerConfig profilerConfig, AsyncQueueingStatus queueingStatus) {
+        if (profilerConfig == null) {
+            throw new NullPointerException("profilerConfig must not be null");
+        }
+        final boolean sampling = profilerConfig.isSamplingEnable();
+        final int samplingRate = profilerConfig.getSamplingRate();
+        if (!sampling) {
+            return new FalseSampler();
+        }
+
+        final SamplerType samplerType = SamplerType.valueOf(profilerConfig.getSamplingType());
+        switch (samplerType) {
+            case RATE_LIMIT:
+                final int tracePerSecond = profilerConfig.getSamplingRateLimitTracesPerSecond();
+                if (tracePerSecond <= 0) {
+                    return new FalseSampler();
+                }
+                return new RateLimitSampler(tracePerSecond);
+            case ADAPTIVE:
+                if (queueingStatus == null || samplingRate <= 0) {
+                    return createSampler(sampling, samplingRate);
+                }
+                final int maxSamplingRate = Math.max(profilerConfig.getSamplingAdaptiveMaxRate(), samplingRate);
+                return new AdaptiveSampler(queueingStatus, samplingRate, maxSamplingRate, profilerConfig.getSamplingAdaptiveInterval(),
+                        profilerConfig.getSamplingAdaptiveQueueHighWatermark(), profilerConfig.getSamplingAdaptiveQueueLowWatermark());
+            default:
+                return createSampler(sampling, samplingRate);
+        }
+    }
 }
@@ -22,6 +22,8 @@ import org.apache.thrift.TBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.navercorp.pinpoint.profiler.sender.queue.MessageQueue;
+import com.navercorp.pinpoint.profiler.sender.queue.MessageQueueFactory;
 import com.navercorp.pinpoint.rpc.FutureListener;
 import com.navercorp.pinpoint.rpc.ResponseMessage;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
@@ -56,21 +58,70 @@ public abstract class AbstractDataSender implements DataSender {
     }
 
     protected AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(int queueSize, String executorName) {
-        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queueSize, executorName);
+        return createAsyncQueueingExecutor(MessageQueueFactory.DEFAULT, BatchOption.DISABLE, queueSize, executorName);
+    }
+
+    protected AsyncQueueingExecutor<Object> createAsyncQueueingExecutor(MessageQueueFactory messageQueueFactory, BatchOption batchOption, int queueSize, String executorName) {
+        if (messageQueueFactory == null) {
+            throw new NullPointerException("messageQueueFactory must not be null");
+        }
+        if (batchOption == null) {
+            throw new NullPointerException("batchOption must not be null");
+        }
+        final MessageQueue<Object> queue = messageQueueFactory.createQueue(queueSize);
+        final AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(queue, executorName, batchOption.getDrainSize(), batchOption.getLingerTime());
         executor.setListener(new AsyncQueueingExecutorListener<Object>() {
             @Override
             public void execute(Collection<Object> messageList) {
-                sendPacketN(messageList);
+                try {
+                    sendPacketN(messageList);
+                } finally {
+                    if (isRecycleAfterSend()) {
+                        recycleN(messageList);
+                    }
+                }
             }
 
             @Override
             public void execute(Object message) {
-                sendPacket(message);
+                try {
+                    sendPacket(message);
+                } finally {
+                    if (isRecycleAfterSend()) {
+                        recycle(message);
+                    }
+                }
             }
         });
         return executor;
     }
 
+    /**
+     * Whether sendPacket() is done with the message when it returns, so that a {@link RecyclableMessage} can hand its buffers back.
+     * Senders keeping a reference to the message after sendPacket() must return false.
+     */
+    protected boolean isRecycleAfterSend() {
+        return false;
+    }
+
+    private void recycleN(Collection<Object> messageList) {
+        final Object[] dataList = messageList.toArray();
+        final int size = messageList.size();
+        for (int i = 0; i < size; i++) {
+            recycle(dataList[i]);
+        }
+    }
+
+    private void recycle(Object message) {
+        if (message instanceof RecyclableMessage) {
+            try {
+                ((RecyclableMessage) message).recycle();
+            } catch (Throwable th) {
+                logger.warn("recycle fail. Cause:{}", th.getMessage(), th);
+            }
+        }
+    }
+
     protected byte[] serialize(HeaderTBaseSerializer serializer, TBase tBase) {
         return SerializationUtils.serialize(tBase, serializer, null);
     }
@@ -17,32 +17,39 @@
 package com.navercorp.pinpoint.profiler.sender;
 
 import java.util.Collection;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+import com.navercorp.pinpoint.profiler.sender.queue.LinkedBlockingMessageQueue;
+import com.navercorp.pinpoint.profiler.sender.queue.MessageQueue;
 
 /**
  * @author emeroad
  */
-public class AsyncQueueingExecutor<T> implements Runnable {
+public class AsyncQueueingExecutor<T> implements Runnable, AsyncQueueingStatus {
 
     private static final AsyncQueueingExecutorListener EMPTY_LISTENER = new EmptyAsyncQueueingExecutorListener();
 
+    public static final int DEFAULT_MAX_DRAIN_SIZE = 10;
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final boolean isWarn = logger.isWarnEnabled();
 
-    private final LinkedBlockingQueue<T> queue;
+    private final MessageQueue<T> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
     private final AtomicBoolean isRun = new AtomicBoolean(true);
     private final Thread executeThread;
     private final String executorName;
 
     private final int maxDrainSize;
+    // 0 : dispatch immediately
+    private final long lingerTimeNanos;
     // Caution. single thread only. this Collection is simpler than ArrayList.
     private final Collection<T> drain;
 
@@ -54,13 +61,35 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     }
 
     public AsyncQueueingExecutor(int queueSize, String executorName) {
+        this(new LinkedBlockingMessageQueue<T>(queueSize), executorName);
+    }
+
+    public AsyncQueueingExecutor(MessageQueue<T> queue, String executorName) {
+        this(queue, executorName, DEFAULT_MAX_DRAIN_SIZE, 0);
+    }
+
+    /**
+     * @param maxDrainSize max number of messages passed to the listener at once
+     * @param lingerTimeMillis time to wait for more messages before passing a partially filled drain to the listener
+     */
+    public AsyncQueueingExecutor(MessageQueue<T> queue, String executorName, int maxDrainSize, long lingerTimeMillis) {
+        if (queue == null) {
+            throw new NullPointerException("queue must not be null");
+        }
         if (executorName == null) {
             throw new NullPointerException("executorName must not be null");
         }
+        if (maxDrainSize <= 0) {
+            throw new IllegalArgumentException("maxDrainSize");
+        }
+        if (lingerTimeMillis < 0) {
+            throw new IllegalArgumentException("lingerTimeMillis");
+        }
         // BEFORE executeThread start
-        this.maxDrainSize = 10;
+        this.maxDrainSize = maxDrainSize;
+        this.lingerTimeNanos = TimeUnit.MILLISECONDS.toNanos(lingerTimeMillis);
         this.drain = new UnsafeArrayCollection<T>(maxDrainSize);
-        this.queue = new LinkedBlockingQueue<T>(queueSize);
+        this.queue = queue;
 
         this.executeThread = this.createExecuteThread(executorName);
         this.executorName = executeThread.getName();
@@ -86,6 +115,7 @@ public class AsyncQueueingExecutor<T> implements Runnable {
                 Collection<T> dtoList = getDrainQueue();
                 int drainSize = takeN(dtoList, this.maxDrainSize);
                 if (drainSize > 0) {
+                    lingerDrain(dtoList);
                     doExecute(dtoList);
                     continue;
                 }
@@ -93,7 +123,13 @@ public class AsyncQueueingExecutor<T> implements Runnable {
                 while (isRun()) {
                     T dto = takeOne();
                     if (dto != null) {
-                        doExecute(dto);
+                        if (lingerTimeNanos > 0) {
+                            dtoList.add(dto);
+                            lingerDrain(dtoList);
+                            doExecute(dtoList);
+                        } else {
+                            doExecute(dto);
+                        }
                         continue drainStartEntry;
                     }
                 }
@@ -104,6 +140,34 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         flushQueue();
     }
 
+    private void lingerDrain(Collection<T> dtoList) {
+        if (lingerTimeNanos <= 0) {
+            return;
+        }
+        // wait a little for more messages so that the listener can send them together.
+        final long deadline = System.nanoTime() + lingerTimeNanos;
+        int drainSize = dtoList.size();
+        while (drainSize < maxDrainSize && isRun()) {
+            final long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return;
+            }
+            final T dto;
+            try {
+                dto = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (dto == null) {
+                return;
+            }
+            dtoList.add(dto);
+            drainSize++;
+            drainSize += takeN(dtoList, maxDrainSize - drainSize);
+        }
+    }
+
     private void flushQueue() {
         boolean debugEnabled = logger.isDebugEnabled();
         if (debugEnabled) {
@@ -150,6 +214,7 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         }
         boolean offer = queue.offer(data);
         if (!offer) {
+            droppedCount.incrementAndGet();
             if (isWarn) {
                 logger.warn("{} Drop data. queue is full. size:{}", executorName, queue.size());
             }
@@ -176,6 +241,21 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         return queue.isEmpty();
     }
 
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return queue.capacity();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
     public boolean isRun() {
         return isRun.get();
     }
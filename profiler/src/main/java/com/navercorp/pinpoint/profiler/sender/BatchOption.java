@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+/**
+ * Batching policy of a data sender.
+ * <ul>
+ *     <li>drainSize : max number of queued messages handed to the sender at once</li>
+ *     <li>lingerTime : millis to wait for more messages before sending a partial batch. 0 sends immediately</li>
+ *     <li>packetSize : byte budget of a datagram packing several messages. 0 sends one message per datagram</li>
+ * </ul>
+ * Packing several messages into one datagram requires a collector that decodes multi-message packets.
+ *
+ * @author agent
+ */
+public class BatchOption {
+
+    public static final BatchOption DISABLE = new BatchOption(AsyncQueueingExecutor.DEFAULT_MAX_DRAIN_SIZE, 0, 0);
+
+    private final int drainSize;
+    private final long lingerTime;
+    private final int packetSize;
+
+    public BatchOption(int drainSize, long lingerTime, int packetSize) {
+        if (drainSize <= 0) {
+            throw new IllegalArgumentException("drainSize");
+        }
+        if (lingerTime < 0) {
+            throw new IllegalArgumentException("lingerTime");
+        }
+        if (packetSize < 0) {
+            throw new IllegalArgumentException("packetSize");
+        }
+        this.drainSize = drainSize;
+        this.lingerTime = lingerTime;
+        this.packetSize = packetSize;
+    }
+
+    public int getDrainSize() {
+        return drainSize;
+    }
+
+    public long getLingerTime() {
+        return lingerTime;
+    }
+
+    public int getPacketSize() {
+        return packetSize;
+    }
+
+    public boolean isPacking() {
+        return packetSize > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchOption{" +
+                "drainSize=" + drainSize +
+                ", lingerTime=" + lingerTime +
+                ", packetSize=" + packetSize +
+                '}';
+    }
+}
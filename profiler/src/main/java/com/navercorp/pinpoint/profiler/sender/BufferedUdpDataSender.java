@@ -132,6 +132,11 @@ public class BufferedUdpDataSender extends UdpDataSender {
         }
     }
 
+    @Override
+    protected boolean isRecycleAfterSend() {
+        return false;
+    }
+
     @Override
     public void stop() {
         super.stop();
@@ -17,10 +17,12 @@
 
 package com.navercorp.pinpoint.profiler.sender;
 
+import com.navercorp.pinpoint.profiler.sender.queue.MessageQueueFactory;
 import com.navercorp.pinpoint.rpc.PinpointSocketException;
 import com.navercorp.pinpoint.rpc.buffer.ByteBufferFactory;
 import com.navercorp.pinpoint.rpc.buffer.ByteBufferFactoryLocator;
 import com.navercorp.pinpoint.rpc.buffer.ByteBufferType;
+import com.navercorp.pinpoint.thrift.io.BufferOverflowException;
 import com.navercorp.pinpoint.thrift.io.ByteBufferOutputStream;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer2;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory2;
@@ -34,11 +36,12 @@ import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
+import java.util.Collection;
 
 /**
  * @Author Taejin Koo
  */
-public class NioUDPDataSender extends AbstractDataSender implements DataSender {
+public class NioUDPDataSender extends AbstractDataSender implements DataSender, AsyncQueueingStatus {
 
     protected final Logger logger = LoggerFactory.getLogger(this.getClass());
     protected final boolean isDebug = logger.isDebugEnabled();
@@ -49,7 +52,11 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
 
     private final DatagramChannel datagramChannel;
     private final HeaderTBaseSerializer2 serializer;
+    // Caution. not thread safe. direct buffer the serializer writes into
+    private final ByteBuffer sendBuffer;
     private final ByteBufferOutputStream byteBufferOutputStream;
+    // byte budget of a datagram packing several messages. 0 : one message per datagram
+    private final int packetSize;
 
     private final AsyncQueueingExecutor<Object> executor;
 
@@ -60,6 +67,10 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
     }
 
     public NioUDPDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, MessageQueueFactory.DEFAULT, BatchOption.DISABLE);
+    }
+
+    public NioUDPDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, MessageQueueFactory messageQueueFactory, BatchOption batchOption) {
         if (host == null ) {
             throw new NullPointerException("host must not be null");
         }
@@ -75,6 +86,12 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
         if (sendBufferSize <= 0) {
             throw new IllegalArgumentException("sendBufferSize");
         }
+        if (messageQueueFactory == null) {
+            throw new NullPointerException("messageQueueFactory must not be null");
+        }
+        if (batchOption == null) {
+            throw new NullPointerException("batchOption must not be null");
+        }
 
         // TODO If fail to create socket, stop agent start
         logger.info("NioUDPDataSender initialized. host={}, port={}", host, port);
@@ -84,10 +101,11 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
         this.serializer = serializerFactory.createSerializer();
 
         ByteBufferFactory bufferFactory = ByteBufferFactoryLocator.getFactory(ByteBufferType.DIRECT);
-        ByteBuffer byteBuffer = bufferFactory.getBuffer(UDP_MAX_PACKET_LENGTH);
-        this.byteBufferOutputStream = new ByteBufferOutputStream(byteBuffer);
+        this.sendBuffer = bufferFactory.getBuffer(UDP_MAX_PACKET_LENGTH);
+        this.byteBufferOutputStream = new ByteBufferOutputStream(sendBuffer);
+        this.packetSize = Math.min(batchOption.getPacketSize(), UDP_MAX_PACKET_LENGTH);
 
-        this.executor = createAsyncQueueingExecutor(queueSize, threadName);
+        this.executor = createAsyncQueueingExecutor(messageQueueFactory, batchOption, queueSize, threadName);
     }
 
     private DatagramChannel createChannel(String host, int port, int timeout, int sendBufferSize) {
@@ -131,6 +149,21 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
         return executor.execute(data);
     }
 
+    @Override
+    public int getQueueSize() {
+        return executor.getQueueSize();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return executor.getQueueCapacity();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return executor.getDroppedCount();
+    }
+
     @Override
     public void stop() {
         try {
@@ -145,6 +178,12 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
         }
     }
 
+    @Override
+    protected boolean isRecycleAfterSend() {
+        // messages are serialized and sent within sendPacket()
+        return true;
+    }
+
     protected void sendPacket(Object message) {
         if (closed) {
             throw new PinpointSocketException("NioUDPDataSender already closed.");
@@ -180,4 +219,98 @@ public class NioUDPDataSender extends AbstractDataSender implements DataSender {
         }
     }
 
+    @Override
+    protected void sendPacketN(Collection<Object> messageList) {
+        if (packetSize <= 0) {
+            super.sendPacketN(messageList);
+            return;
+        }
+        if (closed) {
+            throw new PinpointSocketException("NioUDPDataSender already closed.");
+        }
+        // Cannot use toArray(T[] array) because passed messageList doesn't implement it properly.
+        final Object[] dataList = messageList.toArray();
+        final int size = messageList.size();
+
+        // serialize messages back to back into the direct buffer, and write them as one datagram per packetSize.
+        // no intermediate byte[] is created.
+        sendBuffer.clear();
+        int packedCount = 0;
+        for (int i = 0; i < size; i++) {
+            final Object message = dataList[i];
+            if (!(message instanceof TBase)) {
+                logger.warn("sendPacketN fail. invalid type:{}", message != null ? message.getClass() : null);
+                continue;
+            }
+            final TBase dto = (TBase) message;
+            final int mark = sendBuffer.position();
+            boolean appended = appendPacket(dto);
+            if (packedCount > 0 && (!appended || sendBuffer.position() > packetSize)) {
+                final int end = sendBuffer.position();
+                // send the previous messages.
+                writePacket(mark, packedCount);
+                packedCount = 0;
+                if (appended) {
+                    // move this message to the head of the buffer
+                    sendBuffer.limit(end);
+                    sendBuffer.position(mark);
+                    sendBuffer.compact();
+                } else {
+                    sendBuffer.clear();
+                    appended = appendPacket(dto);
+                }
+            }
+            if (!appended) {
+                // When packet size is greater than UDP packet size limit, it's better to discard packet than let the socket API fails.
+                logger.warn("discard packet. Caused:too large message. {}", dto);
+                sendBuffer.clear();
+                continue;
+            }
+            packedCount++;
+            if (sendBuffer.position() >= packetSize) {
+                writePacket(sendBuffer.position(), packedCount);
+                sendBuffer.clear();
+                packedCount = 0;
+            }
+        }
+        if (packedCount > 0) {
+            writePacket(sendBuffer.position(), packedCount);
+        }
+        sendBuffer.clear();
+    }
+
+    private boolean appendPacket(TBase dto) {
+        try {
+            serializer.serialize(dto, byteBufferOutputStream);
+            return true;
+        } catch (TException e) {
+            logger.warn("Serialize {} failed. Error:{}", dto, e.getMessage(), e);
+            return false;
+        } catch (BufferOverflowException e) {
+            // the message does not fit into the rest of the UDP packet.
+            if (isDebug) {
+                logger.debug("appendPacket fail. Caused:{}", e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private void writePacket(int length, int packedCount) {
+        sendBuffer.limit(length);
+        sendBuffer.position(0);
+        try {
+            datagramChannel.write(sendBuffer);
+            if (isDebug) {
+                logger.debug("Data sent. size:{}, count:{}", length, packedCount);
+            }
+        } catch (IOException e) {
+            final Thread currentThread = Thread.currentThread();
+            if (currentThread.isInterrupted()) {
+                logger.warn("{} thread interrupted.", currentThread.getName());
+                throw new PinpointSocketException(currentThread.getName() + " thread interrupted.", e);
+            }
+            logger.info("packet send error. size:{}, count:{}", length, packedCount, e);
+        }
+    }
+
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender;
+
+/**
+ * Message holding buffers that can be reused once the sender thread has serialized it.
+ * <p>
+ * Only senders that serialize the message and forget it may call {@link #recycle()}.
+ * A sender that keeps the message after sending (for retry or standby) must not.
+ *
+ * @author agent
+ */
+public interface RecyclableMessage {
+
+    /**
+     * Hands the buffers back to their owner. The message must not be read after this call.
+     */
+    void recycle();
+
+}
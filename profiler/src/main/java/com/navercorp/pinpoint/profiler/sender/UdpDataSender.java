@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.profiler.sender;
 
+import com.navercorp.pinpoint.profiler.sender.queue.MessageQueueFactory;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
 import org.apache.thrift.TBase;
@@ -27,13 +28,14 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
+import java.util.Collection;
 
 /**
  * @author netspider
  * @author emeroad
  * @author koo.taejin
  */
-public class UdpDataSender extends AbstractDataSender implements DataSender {
+public class UdpDataSender extends AbstractDataSender implements DataSender, AsyncQueueingStatus {
 
     protected final Logger logger = LoggerFactory.getLogger(this.getClass());
     protected final boolean isDebug = logger.isDebugEnabled();
@@ -52,11 +54,20 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
 
     private final AsyncQueueingExecutor<Object> executor;
 
+    // byte budget of a datagram packing several messages. 0 : one message per datagram
+    private final int packetSize;
+    // Caution. not thread safe. internal buffer of the serializer
+    private byte[] packedBuffer;
+
     public UdpDataSender(String host, int port, String threadName, int queueSize) {
         this(host, port, threadName, queueSize, SOCKET_TIMEOUT, SEND_BUFFER_SIZE);
     }
 
     public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, MessageQueueFactory.DEFAULT, BatchOption.DISABLE);
+    }
+
+    public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, MessageQueueFactory messageQueueFactory, BatchOption batchOption) {
         if (host == null ) {
             throw new NullPointerException("host must not be null");
         }
@@ -72,12 +83,19 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         if (sendBufferSize <= 0) {
             throw new IllegalArgumentException("sendBufferSize");
         }
+        if (messageQueueFactory == null) {
+            throw new NullPointerException("messageQueueFactory must not be null");
+        }
+        if (batchOption == null) {
+            throw new NullPointerException("batchOption must not be null");
+        }
 
         // TODO If fail to create socket, stop agent start
         logger.info("UdpDataSender initialized. host={}, port={}", host, port);
         this.udpSocket = createSocket(host, port, timeout, sendBufferSize);
+        this.packetSize = Math.min(batchOption.getPacketSize(), UDP_MAX_PACKET_LENGTH);
 
-        this.executor = createAsyncQueueingExecutor(queueSize, threadName);
+        this.executor = createAsyncQueueingExecutor(messageQueueFactory, batchOption, queueSize, threadName);
     }
 
     @Override
@@ -85,6 +103,21 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         return executor.execute(data);
     }
 
+    @Override
+    public int getQueueSize() {
+        return executor.getQueueSize();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return executor.getQueueCapacity();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return executor.getDroppedCount();
+    }
+
     @Override
     public void stop() {
         executor.stop();
@@ -111,6 +144,12 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         }
     }
 
+    @Override
+    protected boolean isRecycleAfterSend() {
+        // messages are serialized and sent within sendPacket()
+        return true;
+    }
+
     protected void sendPacket(Object message) {
         if (message instanceof TBase) {
             final TBase dto = (TBase) message;
@@ -144,6 +183,85 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         }
     }
 
+    @Override
+    protected void sendPacketN(Collection<Object> messageList) {
+        if (packetSize <= 0) {
+            super.sendPacketN(messageList);
+            return;
+        }
+        // Cannot use toArray(T[] array) because passed messageList doesn't implement it properly.
+        final Object[] dataList = messageList.toArray();
+        final int size = messageList.size();
+
+        // serialize messages back to back in the same buffer, and send them as one datagram per packetSize.
+        this.serializer.reset();
+        int packedCount = 0;
+        for (int i = 0; i < size; i++) {
+            final Object message = dataList[i];
+            if (!(message instanceof TBase)) {
+                logger.warn("sendPacketN fail. invalid type:{}", message != null ? message.getClass() : null);
+                continue;
+            }
+            final TBase dto = (TBase) message;
+            final int mark = this.serializer.getInterBufferSize();
+            boolean appended = appendPacket(dto);
+            if (packedCount > 0 && (!appended || this.serializer.getInterBufferSize() > packetSize)) {
+                // send the previous messages, and pack this message again into the next datagram.
+                sendPackedPacket(mark, packedCount);
+                this.serializer.reset();
+                packedCount = 0;
+                appended = appendPacket(dto);
+            }
+            if (!appended) {
+                // When packet size is greater than UDP packet size limit, it's better to discard packet than let the socket API fails.
+                logger.warn("discard packet. Caused:too large message. {}", dto);
+                this.serializer.reset();
+                continue;
+            }
+            packedCount++;
+            if (this.serializer.getInterBufferSize() >= packetSize) {
+                sendPackedPacket(this.serializer.getInterBufferSize(), packedCount);
+                this.serializer.reset();
+                packedCount = 0;
+            }
+        }
+        if (packedCount > 0) {
+            sendPackedPacket(this.serializer.getInterBufferSize(), packedCount);
+        }
+        this.serializer.reset();
+    }
+
+    private boolean appendPacket(TBase dto) {
+        try {
+            // do not copy bytes because it's single threaded
+            this.packedBuffer = this.serializer.continueSerialize(dto);
+            return true;
+        } catch (Exception e) {
+            // BufferOverflowException if the message does not fit into the rest of the UDP packet.
+            if (isDebug) {
+                logger.debug("appendPacket fail. Caused:{}", e.getMessage(), e);
+            }
+            return false;
+        }
+    }
+
+    private void sendPackedPacket(int length, int packedCount) {
+        if (isLimit(length)) {
+            logger.warn("discard packet. Caused:too large message. size:{}, count:{}", length, packedCount);
+            return;
+        }
+        // it's safe to reuse because it's single threaded
+        reusePacket.setData(packedBuffer, 0, length);
+        try {
+            udpSocket.send(reusePacket);
+            if (isDebug) {
+                logger.debug("Data sent. size:{}, count:{}", length, packedCount);
+            }
+        } catch (IOException e) {
+            logger.info("packet send error. size:{}, count:{}", length, packedCount, e);
+        }
+    }
+
     // for test
     protected boolean isLimit(int interBufferSize) {
         if (interBufferSize > UDP_MAX_PACKET_LENGTH) {
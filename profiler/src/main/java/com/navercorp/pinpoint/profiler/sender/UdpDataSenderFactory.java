@@ -17,6 +17,8 @@
 
 package com.navercorp.pinpoint.profiler.sender;
 
+import com.navercorp.pinpoint.profiler.sender.queue.MessageQueueFactory;
+
 /**
  * @Author Taejin Koo
  */
@@ -30,14 +32,28 @@ public final class UdpDataSenderFactory {
     private final int queueSize;
     private final int timeout;
     private final int sendBufferSize;
+    private final MessageQueueFactory messageQueueFactory;
+    private final BatchOption batchOption;
 
     public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, MessageQueueFactory.DEFAULT, BatchOption.DISABLE);
+    }
+
+    public UdpDataSenderFactory(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, MessageQueueFactory messageQueueFactory, BatchOption batchOption) {
+        if (messageQueueFactory == null) {
+            throw new NullPointerException("messageQueueFactory must not be null");
+        }
+        if (batchOption == null) {
+            throw new NullPointerException("batchOption must not be null");
+        }
         this.host = host;
         this.port = port;
         this.threadName = threadName;
         this.queueSize = queueSize;
         this.timeout = timeout;
         this.sendBufferSize = sendBufferSize;
+        this.messageQueueFactory = messageQueueFactory;
+        this.batchOption = batchOption;
     }
 
     public DataSender create(String typeName) {
@@ -46,9 +62,9 @@ public final class UdpDataSenderFactory {
 
     public DataSender create(UdpDataSenderType type) {
         if (type == UdpDataSenderType.NIO) {
-            return new NioUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize);
+            return new NioUDPDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, messageQueueFactory, batchOption);
         } else if (type == UdpDataSenderType.OIO) {
-            return new UdpDataSender(host, port, threadName, queueSize, timeout, sendBufferSize);
+            return new UdpDataSender(host, port, threadName, queueSize, timeout, sendBufferSize, messageQueueFactory, batchOption);
         } else {
             throw new IllegalArgumentException("Unknown type.");
         }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Yields for the first few empty polls, then parks with an exponentially growing timeout up to maxParkNanos.
+ *
+ * @author agent
+ */
+public class BackoffWaitStrategy implements WaitStrategy {
+
+    public static final int DEFAULT_YIELD_COUNT = 100;
+    public static final long DEFAULT_MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    public static final long DEFAULT_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final int yieldCount;
+    private final long minParkNanos;
+    private final long maxParkNanos;
+
+    public BackoffWaitStrategy() {
+        this(DEFAULT_YIELD_COUNT, DEFAULT_MIN_PARK_NANOS, DEFAULT_MAX_PARK_NANOS);
+    }
+
+    public BackoffWaitStrategy(int yieldCount, long minParkNanos, long maxParkNanos) {
+        if (yieldCount < 0) {
+            throw new IllegalArgumentException("yieldCount");
+        }
+        if (minParkNanos <= 0) {
+            throw new IllegalArgumentException("minParkNanos");
+        }
+        if (maxParkNanos < minParkNanos) {
+            throw new IllegalArgumentException("maxParkNanos");
+        }
+        this.yieldCount = yieldCount;
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public int idle(int idleCounter) {
+        if (idleCounter < yieldCount) {
+            Thread.yield();
+            return idleCounter + 1;
+        }
+        LockSupport.parkNanos(parkNanos(idleCounter - yieldCount));
+        if (idleCounter == Integer.MAX_VALUE) {
+            return idleCounter;
+        }
+        return idleCounter + 1;
+    }
+
+    long parkNanos(int parkCount) {
+        // minParkNanos * 2^parkCount, capped at maxParkNanos
+        if (parkCount >= Long.numberOfLeadingZeros(minParkNanos) - 1) {
+            return maxParkNanos;
+        }
+        return Math.min(minParkNanos << parkCount, maxParkNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "BackoffWaitStrategy{" +
+                "yieldCount=" + yieldCount +
+                ", minParkNanos=" + minParkNanos +
+                ", maxParkNanos=" + maxParkNanos +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue backend of {@link com.navercorp.pinpoint.profiler.sender.AsyncQueueingExecutor}.
+ * <p>
+ * offer() may be called by any number of application threads.
+ * poll() and drainTo() are only called by the single executor thread.
+ *
+ * @author agent
+ */
+public interface MessageQueue<E> {
+
+    /**
+     * @return false if the queue is full. The message is not enqueued.
+     */
+    boolean offer(E message);
+
+    E poll();
+
+    E poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    int drainTo(Collection<? super E> drain, int maxElements);
+
+    int size();
+
+    int capacity();
+
+    boolean isEmpty();
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+/**
+ * @author agent
+ */
+public class MessageQueueFactory {
+
+    public static final MessageQueueFactory DEFAULT = new MessageQueueFactory(MessageQueueType.LINKED, WaitStrategyType.PARK);
+
+    private final MessageQueueType queueType;
+    private final WaitStrategyType waitStrategyType;
+
+    public MessageQueueFactory(String queueTypeName, String waitStrategyTypeName) {
+        this(MessageQueueType.valueOf(queueTypeName), WaitStrategyType.valueOf(waitStrategyTypeName));
+    }
+
+    public MessageQueueFactory(MessageQueueType queueType, WaitStrategyType waitStrategyType) {
+        if (queueType == null) {
+            throw new NullPointerException("queueType must not be null");
+        }
+        if (waitStrategyType == null) {
+            throw new NullPointerException("waitStrategyType must not be null");
+        }
+        this.queueType = queueType;
+        this.waitStrategyType = waitStrategyType;
+    }
+
+    public <E> MessageQueue<E> createQueue(int capacity) {
+        if (queueType == MessageQueueType.MPSC_ARRAY) {
+            return new MpscArrayMessageQueue<E>(capacity, waitStrategyType.createWaitStrategy());
+        } else if (queueType == MessageQueueType.LINKED) {
+            return new LinkedBlockingMessageQueue<E>(capacity);
+        } else {
+            throw new IllegalArgumentException("Unknown type.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MessageQueueFactory{" +
+                "queueType=" + queueType +
+                ", waitStrategyType=" + waitStrategyType +
+                '}';
+    }
+}
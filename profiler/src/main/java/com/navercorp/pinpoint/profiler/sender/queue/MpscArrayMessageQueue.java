@@ -0,0 +1,188 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free, preallocated multi-producer/single-consumer ring buffer.
+ * <p>
+ * Producers claim a slot by CAS on the producer sequence and publish the message with an ordered store.
+ * The single consumer reads the slot, clears it and advances the consumer sequence.
+ * No node is allocated per offer, and a full queue rejects the message like {@link LinkedBlockingMessageQueue}.
+ * <p>
+ * Caution. poll() and drainTo() must be called by a single thread.
+ *
+ * @author agent
+ */
+public class MpscArrayMessageQueue<E> implements MessageQueue<E> {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+
+    private final PaddedAtomicLong producerIndex = new PaddedAtomicLong(0);
+    private final PaddedAtomicLong consumerIndex = new PaddedAtomicLong(0);
+
+    private final WaitStrategy waitStrategy;
+
+    public MpscArrayMessageQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity:" + capacity);
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy must not be null");
+        }
+        // the ring is rounded up to a power of two, but the queue still rejects messages beyond the requested capacity.
+        final int ringSize = roundToPowerOfTwo(capacity);
+        this.capacity = capacity;
+        this.mask = ringSize - 1;
+        this.buffer = new AtomicReferenceArray<E>(ringSize);
+        this.waitStrategy = waitStrategy;
+    }
+
+    static int roundToPowerOfTwo(int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        if (highestOneBit == value) {
+            return value;
+        }
+        return highestOneBit << 1;
+    }
+
+    @Override
+    public boolean offer(E message) {
+        if (message == null) {
+            throw new NullPointerException("message must not be null");
+        }
+        long currentProducerIndex;
+        do {
+            currentProducerIndex = producerIndex.get();
+            final long wrapPoint = currentProducerIndex - capacity;
+            if (consumerIndex.get() <= wrapPoint) {
+                // full
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(currentProducerIndex, currentProducerIndex + 1));
+
+        buffer.lazySet(offset(currentProducerIndex), message);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        final long currentConsumerIndex = consumerIndex.get();
+        final int offset = offset(currentConsumerIndex);
+        E message = buffer.get(offset);
+        if (message == null) {
+            if (currentConsumerIndex == producerIndex.get()) {
+                return null;
+            }
+            // slot is claimed but the producer has not published the message yet.
+            do {
+                message = buffer.get(offset);
+            } while (message == null);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(currentConsumerIndex + 1);
+        return message;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E message = poll();
+        if (message != null) {
+            return message;
+        }
+
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int idleCounter = 0;
+        while (true) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            message = poll();
+            if (message != null) {
+                return message;
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return null;
+            }
+            idleCounter = waitStrategy.idle(idleCounter);
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> drain, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            final E message = poll();
+            if (message == null) {
+                break;
+            }
+            drain.add(message);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        long after = consumerIndex.get();
+        while (true) {
+            final long before = after;
+            final long currentProducerIndex = producerIndex.get();
+            after = consumerIndex.get();
+            if (before == after) {
+                final long size = currentProducerIndex - after;
+                if (size < 0) {
+                    return 0;
+                }
+                if (size > capacity) {
+                    return capacity;
+                }
+                return (int) size;
+            }
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    private int offset(long index) {
+        return (int) (index & mask);
+    }
+
+    @Override
+    public String toString() {
+        return "MpscArrayMessageQueue{" +
+                "capacity=" + capacity +
+                ", ringSize=" + buffer.length() +
+                ", waitStrategy=" + waitStrategy +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AtomicLong followed by a cache line of padding.
+ * Subclass fields are laid out after the super class fields, so the producer and consumer sequences
+ * allocated one after the other do not share a cache line.
+ *
+ * @author agent
+ */
+final class PaddedAtomicLong extends AtomicLong {
+
+    public volatile long p1, p2, p3, p4, p5, p6, p7 = 7L;
+
+    PaddedAtomicLong(long initialValue) {
+        super(initialValue);
+    }
+
+    // prevent padding fields from being optimized away
+    long sumPaddingToPreventOptimisation() {
+        return p1 + p2 + p3 + p4 + p5 + p6 + p7;
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author agent
+ */
+public class ParkWaitStrategy implements WaitStrategy {
+
+    public static final long DEFAULT_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long parkNanos;
+
+    public ParkWaitStrategy() {
+        this(DEFAULT_PARK_NANOS);
+    }
+
+    public ParkWaitStrategy(long parkNanos) {
+        if (parkNanos <= 0) {
+            throw new IllegalArgumentException("parkNanos");
+        }
+        this.parkNanos = parkNanos;
+    }
+
+    @Override
+    public int idle(int idleCounter) {
+        LockSupport.parkNanos(parkNanos);
+        return idleCounter + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "ParkWaitStrategy{" +
+                "parkNanos=" + parkNanos +
+                '}';
+    }
+}
@@ -17,14 +17,24 @@
 package com.navercorp.pinpoint.profiler.context;
 
 import com.navercorp.pinpoint.bootstrap.context.ParsingResult;
+import com.navercorp.pinpoint.common.util.DefaultSqlParser;
+import com.navercorp.pinpoint.common.util.NormalizedSql;
+import com.navercorp.pinpoint.common.util.SqlParser;
 import org.junit.Assert;
+import org.junit.Ignore;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
 
 /**
  * @author emeroad
  */
 public class DefaultCachingSqlNormalizerTest {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     @Test
     public void testNormalizedSql() throws Exception {
         CachingSqlNormalizer normalizer = new DefaultCachingSqlNormalizer(1);
@@ -58,4 +68,120 @@ public class DefaultCachingSqlNormalizerTest {
         boolean newCache_parsingResult1_recached = normalizer.normalizedSql(parsingResult1_recached);
         Assert.assertTrue(newCache_parsingResult1_recached);
     }
+
+    @Test
+    public void testNormalizedSql_rawCacheHit() throws Exception {
+        CountingSqlParser sqlParser = new CountingSqlParser();
+        DefaultCachingSqlNormalizer normalizer = new DefaultCachingSqlNormalizer(16, 16, sqlParser);
+        ParsingResult first = normalizer.wrapSql("select * from member where id = ?");
+        Assert.assertTrue(normalizer.normalizedSql(first));
+        Assert.assertEquals(1, sqlParser.getParseCount());
+
+        ParsingResult second = normalizer.wrapSql(new String("select * from member where id = ?"));
+        Assert.assertFalse(normalizer.normalizedSql(second));
+        Assert.assertEquals(1, sqlParser.getParseCount());
+
+        Assert.assertEquals(first.getId(), second.getId());
+        Assert.assertEquals(first.getSql(), second.getSql());
+        Assert.assertEquals(first.getOutput(), second.getOutput());
+    }
+
+    @Test
+    public void testNormalizedSql_literal_admittedOnSecondSighting() throws Exception {
+        CountingSqlParser sqlParser = new CountingSqlParser();
+        DefaultCachingSqlNormalizer normalizer = new DefaultCachingSqlNormalizer(16, 16, sqlParser);
+        final String sql = "select * from member where id = 10";
+
+        ParsingResult first = normalizer.wrapSql(sql);
+        Assert.assertTrue(normalizer.normalizedSql(first));
+        Assert.assertEquals("10", first.getOutput());
+
+        // first sighting of a statement with literals is not cached
+        ParsingResult second = normalizer.wrapSql(sql);
+        Assert.assertFalse(normalizer.normalizedSql(second));
+        Assert.assertEquals(2, sqlParser.getParseCount());
+
+        ParsingResult third = normalizer.wrapSql(sql);
+        Assert.assertFalse(normalizer.normalizedSql(third));
+        Assert.assertEquals(2, sqlParser.getParseCount());
+        Assert.assertEquals(first.getId(), third.getId());
+        Assert.assertEquals("10", third.getOutput());
+    }
+
+    @Test
+    public void testNormalizedSql_concatenatedLiteral_notCached() throws Exception {
+        CountingSqlParser sqlParser = new CountingSqlParser();
+        DefaultCachingSqlNormalizer normalizer = new DefaultCachingSqlNormalizer(16, 16, sqlParser);
+        for (int i = 0; i < 100; i++) {
+            ParsingResult parsingResult = normalizer.wrapSql("select * from member where id = " + i);
+            normalizer.normalizedSql(parsingResult);
+            Assert.assertEquals(String.valueOf(i), parsingResult.getOutput());
+        }
+        Assert.assertEquals(100, sqlParser.getParseCount());
+    }
+
+    @Ignore
+    @Test
+    public void testNormalizedSql_performance() throws Exception {
+        // statements in the shape hibernate / mybatis generate
+        final String[] corpus = {
+                "select member0_.id as id1_0_, member0_.name as name2_0_, member0_.team_id as team_id3_0_ from member member0_ where member0_.id=?",
+                "select team0_.id as id1_1_0_, team0_.name as name2_1_0_ from team team0_ where team0_.id=?",
+                "insert into member (name, team_id, id) values (?, ?, ?)",
+                "update member set name=?, team_id=? where id=?",
+                "delete from member where id=?",
+                "select count(member0_.id) as col_0_0_ from member member0_ where member0_.status='ACTIVE'",
+                "SELECT ID, NAME, EMAIL, CREATED_AT FROM USERS WHERE EMAIL = ? AND DELETED = 0 ORDER BY CREATED_AT DESC LIMIT ?, ?",
+                "select o.id, o.amount, i.product_id, i.quantity from orders o inner join order_item i on o.id = i.order_id where o.member_id = ? and o.created_at between ? and ?"
+        };
+        final int loop = 1000000;
+        for (int i = 0; i < 5; i++) {
+            measure(corpus, loop);
+        }
+    }
+
+    private void measure(String[] corpus, int loop) {
+        final SqlParser parser = new DefaultSqlParser();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < loop; i++) {
+            parser.normalizedSql(corpus[i % corpus.length]);
+        }
+        final long parseOnly = System.nanoTime() - startTime;
+
+        final CountingSqlParser sqlParser = new CountingSqlParser();
+        final CachingSqlNormalizer normalizer = new DefaultCachingSqlNormalizer(1024, 1024, sqlParser);
+        startTime = System.nanoTime();
+        for (int i = 0; i < loop; i++) {
+            normalizer.normalizedSql(normalizer.wrapSql(corpus[i % corpus.length]));
+        }
+        final long cached = System.nanoTime() - startTime;
+
+        logger.info("parse:{}ms rawSqlCache:{}ms parseCount:{}/{}", parseOnly / 1000000, cached / 1000000, sqlParser.getParseCount(), loop);
+    }
+
+    private static class CountingSqlParser implements SqlParser {
+
+        private final SqlParser sqlParser = new DefaultSqlParser();
+        private int parseCount;
+
+        @Override
+        public NormalizedSql normalizedSql(String sql) {
+            parseCount++;
+            return sqlParser.normalizedSql(sql);
+        }
+
+        @Override
+        public String combineOutputParams(String sql, List<String> outputParams) {
+            return sqlParser.combineOutputParams(sql, outputParams);
+        }
+
+        @Override
+        public String combineBindValues(String sql, List<String> bindValues) {
+            return sqlParser.combineBindValues(sql, bindValues);
+        }
+
+        int getParseCount() {
+            return parseCount;
+        }
+    }
 }
\ No newline at end of file
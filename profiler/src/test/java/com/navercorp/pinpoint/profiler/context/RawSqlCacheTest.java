@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.context;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RawSqlCacheTest {
+
+    private static final String OUTPUT = "10";
+
+    @Test
+    public void put_literal_admittedOnSecondSighting() {
+        RawSqlCache cache = new RawSqlCache(16);
+        final String sql = "select * from member where id = 10";
+
+        Assert.assertFalse(cache.put(sql, 1, "select * from member where id = 0#", OUTPUT));
+        Assert.assertNull(cache.get(sql));
+
+        Assert.assertTrue(cache.put(sql, 1, "select * from member where id = 0#", OUTPUT));
+        Assert.assertEquals(1, cache.get(sql).getId());
+    }
+
+    @Test
+    public void put_noLiteral_admitted() {
+        RawSqlCache cache = new RawSqlCache(16);
+        final String sql = "select * from member where id = ?";
+
+        Assert.assertTrue(cache.put(sql, 1, sql, ""));
+        Assert.assertEquals(sql, cache.get(sql).getNormalizedSql());
+    }
+
+    @Test
+    public void put_collidingLiteral_keepsFirstSighting() {
+        RawSqlCache cache = new RawSqlCache(16);
+        final int mask = cache.capacity() - 1;
+        final String sql1 = "select * from member where id = 1";
+        final String sql2 = findCollision(sql1, mask);
+
+        Assert.assertFalse(cache.put(sql1, 1, "select * from member where id = 0#", "1"));
+        Assert.assertFalse(cache.put(sql2, 1, "select * from member where id = 0#", "2"));
+
+        // the sighting of sql1 survives the sighting of sql2 on the same slot
+        Assert.assertTrue(cache.put(sql1, 1, "select * from member where id = 0#", "1"));
+        Assert.assertTrue(cache.put(sql2, 1, "select * from member where id = 0#", "2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCacheSize() {
+        new RawSqlCache(0);
+    }
+
+    private String findCollision(String sql, int mask) {
+        final int hash = RawSqlCache.hash(sql);
+        for (int i = 2; ; i++) {
+            final String candidate = "select * from member where id = " + i;
+            final int candidateHash = RawSqlCache.hash(candidate);
+            if (candidateHash != hash && (candidateHash & mask) == (hash & mask) && (RawSqlCache.rehash(candidateHash) & mask) != (hash & mask)) {
+                return candidate;
+            }
+        }
+    }
+}
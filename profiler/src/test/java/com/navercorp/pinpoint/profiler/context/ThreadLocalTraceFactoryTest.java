@@ -19,7 +19,9 @@ package com.navercorp.pinpoint.profiler.context;
 import java.util.Collections;
 
 import com.navercorp.pinpoint.bootstrap.context.ServerMetaDataHolder;
+import com.navercorp.pinpoint.bootstrap.context.SpanId;
 import com.navercorp.pinpoint.bootstrap.context.Trace;
+import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.common.Version;
 import com.navercorp.pinpoint.common.trace.ServiceType;
 import com.navercorp.pinpoint.common.util.JvmUtils;
@@ -28,7 +30,9 @@ import com.navercorp.pinpoint.profiler.AgentInformation;
 import com.navercorp.pinpoint.profiler.context.DefaultServerMetaDataHolder;
 import com.navercorp.pinpoint.profiler.context.DefaultTraceContext;
 import com.navercorp.pinpoint.profiler.context.ThreadLocalTraceFactory;
+import com.navercorp.pinpoint.profiler.context.storage.DeferredStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.LogStorageFactory;
+import com.navercorp.pinpoint.profiler.sampler.FalseSampler;
 import com.navercorp.pinpoint.profiler.sampler.TrueSampler;
 
 import org.junit.Assert;
@@ -92,6 +96,42 @@ public class ThreadLocalTraceFactoryTest {
 
     }
 
+    @Test
+    public void newDeferredTraceObject() throws Exception {
+        LogStorageFactory logStorageFactory = new LogStorageFactory();
+        FalseSampler falseSampler = new FalseSampler();
+        ServerMetaDataHolder serverMetaDataHolder = new DefaultServerMetaDataHolder(Collections.<String>emptyList());
+        AgentInformation agentInformation = new AgentInformation("agentId", "applicationName", System.currentTimeMillis(), 10, "test", "127.0.0.1", ServiceType.STAND_ALONE,
+                JvmUtils.getSystemProperty(SystemPropertyKey.JAVA_VERSION), Version.VERSION);
+        DefaultTraceContext traceContext = new DefaultTraceContext(100, agentInformation, logStorageFactory, falseSampler, serverMetaDataHolder, false);
+        DeferredStorageFactory deferredStorageFactory = new DeferredStorageFactory(logStorageFactory, 100, 1000);
+        ThreadLocalTraceFactory traceFactory = new ThreadLocalTraceFactory(traceContext, logStorageFactory, falseSampler, new IdGenerator(), deferredStorageFactory);
+
+        Trace trace = traceFactory.newTraceObject();
+        try {
+            Assert.assertTrue(trace.canSampled());
+            Assert.assertTrue(DefaultTraceId.isDeferredSampling(trace.getTraceId().getFlags()));
+            // propagated to the next node
+            Assert.assertTrue(DefaultTraceId.isDeferredSampling(trace.getTraceId().getNextTraceId().getFlags()));
+        } finally {
+            traceFactory.removeTraceObject();
+        }
+    }
+
+    @Test
+    public void continueDeferredTraceObject() throws Exception {
+        ThreadLocalTraceFactory traceFactory = getTraceFactory();
+
+        TraceId traceId = new DefaultTraceId("agentId", System.currentTimeMillis(), 1, SpanId.NULL, SpanId.newSpanId(), DefaultTraceId.DEFERRED_SAMPLING_FLAG);
+        Trace trace = traceFactory.continueTraceObject(traceId.getNextTraceId());
+        try {
+            // only the root node decides, the rest of the transaction is not traced
+            Assert.assertFalse(trace.canSampled());
+        } finally {
+            traceFactory.removeTraceObject();
+        }
+    }
+
     @Test
     public void testDetachTraceObject() throws Exception {
 
@@ -22,17 +22,31 @@ import com.navercorp.pinpoint.common.util.JvmUtils;
 import com.navercorp.pinpoint.common.util.SystemPropertyKey;
 import com.navercorp.pinpoint.profiler.AgentInformation;
 import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanChunk;
 import com.navercorp.pinpoint.profiler.context.SpanChunkFactory;
 import com.navercorp.pinpoint.profiler.context.SpanEvent;
 import com.navercorp.pinpoint.profiler.context.storage.BufferedStorage;
 import com.navercorp.pinpoint.profiler.sender.CountingDataSender;
+import com.navercorp.pinpoint.profiler.sender.DataSender;
+import com.navercorp.pinpoint.profiler.sender.RecyclableMessage;
 
+import org.apache.thrift.TBase;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Ignore;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
 
 public class BufferedStorageTest {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     private AgentInformation agentInformation = new AgentInformation("agentId", "applicationName", 0, 1, "hostName", "127.0.0.1", ServiceType.STAND_ALONE,
             JvmUtils.getSystemProperty(SystemPropertyKey.JAVA_VERSION), Version.VERSION);
     private SpanChunkFactory spanChunkFactory = new SpanChunkFactory(agentInformation);
@@ -104,4 +118,137 @@ public class BufferedStorageTest {
         Assert.assertEquals(0, countingDataSender.getSpanCounter(), 1);
         Assert.assertEquals(0, countingDataSender.getSpanChunkCounter(), 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStore_recycleSpanChunk() throws Exception {
+        SpanEventListPool pool = new SpanEventListPool(4, 2);
+        RecordingDataSender dataSender = new RecordingDataSender();
+        BufferedStorage bufferedStorage = new BufferedStorage(dataSender, spanChunkFactory, 2, pool);
+
+        Span span = new Span();
+        bufferedStorage.store(new SpanEvent(span));
+        bufferedStorage.store(new SpanEvent(span));
+
+        Assert.assertEquals(1, dataSender.messageList.size());
+        SpanChunk spanChunk = (SpanChunk) dataSender.messageList.get(0);
+        List flushData = spanChunk.getSpanEventList();
+        Assert.assertEquals(2, flushData.size());
+        Assert.assertEquals(0, pool.size());
+
+        // sender thread is done with the chunk
+        spanChunk.recycle();
+        Assert.assertNull(spanChunk.getSpanEventList());
+        Assert.assertEquals(1, pool.size());
+        Assert.assertTrue(flushData.isEmpty());
+
+        // recycle twice
+        spanChunk.recycle();
+        Assert.assertEquals(1, pool.size());
+
+        bufferedStorage.store(new SpanEvent(span));
+        bufferedStorage.store(span);
+        Assert.assertEquals(0, pool.size());
+        Assert.assertSame(flushData, span.getSpanEventList());
+
+        span.recycle();
+        Assert.assertNull(span.getSpanEventList());
+        Assert.assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testStore_spanWithoutSpanEvent() throws Exception {
+        SpanEventListPool pool = new SpanEventListPool(4, 10);
+        BufferedStorage bufferedStorage = new BufferedStorage(countingDataSender, spanChunkFactory, 10, pool);
+
+        Span span = new Span();
+        bufferedStorage.store(span);
+        span.recycle();
+
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+        Assert.assertNull(span.getSpanEventList());
+        // no buffer borrowed, nothing to give back
+        Assert.assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testStore_noPool() throws Exception {
+        RecordingDataSender dataSender = new RecordingDataSender();
+        BufferedStorage bufferedStorage = new BufferedStorage(dataSender, spanChunkFactory, 1);
+
+        Span span = new Span();
+        bufferedStorage.store(new SpanEvent(span));
+
+        SpanChunk spanChunk = (SpanChunk) dataSender.messageList.get(0);
+        spanChunk.recycle();
+        // not owned by a pool, left as is
+        Assert.assertEquals(1, spanChunk.getSpanEventList().size());
+    }
+
+    @Ignore
+    @Test
+    public void allocationRate() throws Exception {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            logger.info("thread allocated bytes not supported");
+            return;
+        }
+        final com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        final int requestCount = 1000000;
+        final int spanEventCount = 30;
+
+        // warm up
+        allocationRate(allocationMXBean, null, requestCount, spanEventCount);
+        allocationRate(allocationMXBean, new SpanEventListPool(16, 20), requestCount, spanEventCount);
+
+        long bytes = allocationRate(allocationMXBean, null, requestCount, spanEventCount);
+        logger.info("no recycle. bytes/request:{}", bytes / requestCount);
+        bytes = allocationRate(allocationMXBean, new SpanEventListPool(16, 20), requestCount, spanEventCount);
+        logger.info("recycle. bytes/request:{}", bytes / requestCount);
+    }
+
+    private long allocationRate(com.sun.management.ThreadMXBean allocationMXBean, SpanEventListPool pool, int requestCount, int spanEventCount) {
+        final RecyclingDataSender dataSender = new RecyclingDataSender();
+        final Span span = new Span();
+        final SpanEvent spanEvent = new SpanEvent(span);
+        final long threadId = Thread.currentThread().getId();
+
+        final long before = allocationMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < requestCount; i++) {
+            BufferedStorage bufferedStorage = new BufferedStorage(dataSender, spanChunkFactory, 20, pool);
+            for (int j = 0; j < spanEventCount; j++) {
+                bufferedStorage.store(spanEvent);
+            }
+            bufferedStorage.store(span);
+        }
+        return allocationMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static class RecordingDataSender implements DataSender {
+        private final List<Object> messageList = new ArrayList<Object>();
+
+        @Override
+        public boolean send(TBase<?, ?> data) {
+            messageList.add(data);
+            return true;
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    private static class RecyclingDataSender implements DataSender {
+        @Override
+        public boolean send(TBase<?, ?> data) {
+            // serialized and sent
+            if (data instanceof RecyclableMessage) {
+                ((RecyclableMessage) data).recycle();
+            }
+            return true;
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.context.storage;
+
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.sender.CountingDataSender;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class DeferredStorageTest {
+
+    private final CountingDataSender countingDataSender = new CountingDataSender();
+    private final SpanStorageFactory spanStorageFactory = new SpanStorageFactory(countingDataSender);
+
+    @Before
+    public void before() {
+        countingDataSender.stop();
+    }
+
+    @Test
+    public void discard() {
+        DeferredStorageFactory factory = new DeferredStorageFactory(spanStorageFactory, 100, 1000);
+        Storage storage = factory.createStorage();
+
+        Span span = new Span();
+        storage.store(new SpanEvent(span));
+        storage.store(new SpanEvent(span));
+        Assert.assertEquals(2, factory.getCounter().getBufferedSpanEventCount());
+
+        span.setElapsed(999);
+        storage.store(span);
+        storage.close();
+
+        Assert.assertEquals(0, countingDataSender.getTotalCount());
+        Assert.assertEquals(0, factory.getCounter().getBufferedSpanEventCount());
+        Assert.assertEquals(0, factory.getCounter().getPromotedCount());
+        Assert.assertEquals(1, factory.getCounter().getDiscardedCount());
+    }
+
+    @Test
+    public void promoteSlowTrace() {
+        DeferredStorageFactory factory = new DeferredStorageFactory(spanStorageFactory, 100, 1000);
+        Storage storage = factory.createStorage();
+
+        Span span = new Span();
+        storage.store(new SpanEvent(span));
+        storage.store(new SpanEvent(span));
+        span.setElapsed(1000);
+        storage.store(span);
+
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+        Assert.assertEquals(2, span.getSpanEventListSize());
+        Assert.assertEquals(0, factory.getCounter().getBufferedSpanEventCount());
+        Assert.assertEquals(1, factory.getCounter().getPromotedCount());
+    }
+
+    @Test
+    public void promoteError() {
+        DeferredStorageFactory factory = new DeferredStorageFactory(spanStorageFactory, 100, 1000);
+
+        Storage storage = factory.createStorage();
+        Span span = new Span();
+        span.setErrCode(1);
+        storage.store(span);
+
+        storage = factory.createStorage();
+        Span exceptionSpan = new Span();
+        SpanEvent spanEvent = new SpanEvent(exceptionSpan);
+        spanEvent.setExceptionInfo(1, "exception");
+        storage.store(spanEvent);
+        storage.store(exceptionSpan);
+
+        Assert.assertEquals(2, countingDataSender.getSpanCounter());
+        Assert.assertEquals(2, factory.getCounter().getPromotedCount());
+    }
+
+    @Test
+    public void overflow() {
+        DeferredStorageFactory factory = new DeferredStorageFactory(spanStorageFactory, 2, 0);
+
+        Storage storage1 = factory.createStorage();
+        Span span1 = new Span();
+        storage1.store(new SpanEvent(span1));
+
+        Storage storage2 = factory.createStorage();
+        Span span2 = new Span();
+        storage2.store(new SpanEvent(span2));
+        // the buffer of the agent is full. span2 releases its buffer.
+        storage2.store(new SpanEvent(span2));
+        Assert.assertEquals(1, factory.getCounter().getBufferedSpanEventCount());
+
+        storage2.store(span2);
+        storage1.store(span1);
+
+        Assert.assertEquals(1, countingDataSender.getSpanCounter());
+        Assert.assertEquals(1, factory.getCounter().getPromotedCount());
+        Assert.assertEquals(1, factory.getCounter().getDiscardedCount());
+        Assert.assertEquals(1, factory.getCounter().getOverflowCount());
+        Assert.assertEquals(0, factory.getCounter().getBufferedSpanEventCount());
+    }
+}
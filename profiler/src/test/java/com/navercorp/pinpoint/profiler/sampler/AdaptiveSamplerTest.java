@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueingStatus;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class AdaptiveSamplerTest {
+
+    private long currentTimeMillis = 1000;
+
+    private final TestQueueingStatus queueingStatus = new TestQueueingStatus();
+
+    private AdaptiveSampler newSampler(int samplingRate, int maxSamplingRate) {
+        return new AdaptiveSampler(queueingStatus, samplingRate, maxSamplingRate, 1000, 50, 10) {
+            @Override
+            long currentTimeMillis() {
+                return AdaptiveSamplerTest.this.currentTimeMillis;
+            }
+        };
+    }
+
+    @Test
+    public void notSaturated() {
+        AdaptiveSampler sampler = newSampler(2, 8);
+        Assert.assertTrue(sampler.isSampling());
+        Assert.assertFalse(sampler.isSampling());
+
+        queueingStatus.queueSize = 20;
+        nextInterval(sampler);
+        Assert.assertEquals(2, sampler.getCurrentSamplingRate());
+    }
+
+    @Test
+    public void saturatedByOccupancy() {
+        AdaptiveSampler sampler = newSampler(2, 8);
+
+        queueingStatus.queueSize = 60;
+        // not yet checked
+        sampler.isSampling();
+        Assert.assertEquals(2, sampler.getCurrentSamplingRate());
+
+        nextInterval(sampler);
+        Assert.assertEquals(4, sampler.getCurrentSamplingRate());
+        nextInterval(sampler);
+        Assert.assertEquals(8, sampler.getCurrentSamplingRate());
+        nextInterval(sampler);
+        Assert.assertEquals(8, sampler.getCurrentSamplingRate());
+
+        // between the watermarks
+        queueingStatus.queueSize = 30;
+        nextInterval(sampler);
+        Assert.assertEquals(8, sampler.getCurrentSamplingRate());
+
+        // drained
+        queueingStatus.queueSize = 0;
+        nextInterval(sampler);
+        Assert.assertEquals(4, sampler.getCurrentSamplingRate());
+        nextInterval(sampler);
+        Assert.assertEquals(2, sampler.getCurrentSamplingRate());
+        nextInterval(sampler);
+        Assert.assertEquals(2, sampler.getCurrentSamplingRate());
+    }
+
+    @Test
+    public void saturatedByDrop() {
+        queueingStatus.droppedCount = 100;
+        AdaptiveSampler sampler = newSampler(1, 100);
+
+        // dropped before the sampler was created
+        nextInterval(sampler);
+        Assert.assertEquals(1, sampler.getCurrentSamplingRate());
+
+        queueingStatus.droppedCount = 101;
+        nextInterval(sampler);
+        Assert.assertEquals(2, sampler.getCurrentSamplingRate());
+
+        int sampled = 0;
+        for (int i = 0; i < 10; i++) {
+            if (sampler.isSampling()) {
+                sampled++;
+            }
+        }
+        Assert.assertEquals(5, sampled);
+    }
+
+    private void nextInterval(AdaptiveSampler sampler) {
+        currentTimeMillis += 1000;
+        sampler.isSampling();
+    }
+
+    private static class TestQueueingStatus implements AsyncQueueingStatus {
+        private int queueSize;
+        private long droppedCount;
+
+        @Override
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        @Override
+        public int getQueueCapacity() {
+            return 100;
+        }
+
+        @Override
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+    }
+}
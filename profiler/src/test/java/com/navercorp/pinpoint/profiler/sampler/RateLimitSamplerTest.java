@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author agent
+ */
+public class RateLimitSamplerTest {
+
+    private long nanoTime = Long.MAX_VALUE - TimeUnit.MILLISECONDS.toNanos(500);
+
+    private RateLimitSampler newSampler(int tracePerSecond) {
+        return new RateLimitSampler(tracePerSecond) {
+            @Override
+            long nanoTime() {
+                return RateLimitSamplerTest.this.nanoTime;
+            }
+        };
+    }
+
+    @Test
+    public void burst() {
+        RateLimitSampler sampler = newSampler(10);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(sampler.isSampling());
+        }
+        Assert.assertFalse(sampler.isSampling());
+        Assert.assertFalse(sampler.isSampling());
+    }
+
+    @Test
+    public void refill() {
+        RateLimitSampler sampler = newSampler(10);
+        for (int i = 0; i < 10; i++) {
+            sampler.isSampling();
+        }
+        Assert.assertFalse(sampler.isSampling());
+
+        // 1 permit per 100ms, nanoTime overflows here
+        nanoTime += TimeUnit.MILLISECONDS.toNanos(100);
+        Assert.assertTrue(sampler.isSampling());
+        Assert.assertFalse(sampler.isSampling());
+
+        nanoTime += TimeUnit.SECONDS.toNanos(10);
+        int sampled = 0;
+        for (int i = 0; i < 100; i++) {
+            if (sampler.isSampling()) {
+                sampled++;
+            }
+        }
+        // no more than the size of the bucket
+        Assert.assertEquals(10, sampled);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidTracePerSecond() {
+        new RateLimitSampler(0);
+    }
+}
@@ -16,13 +16,17 @@
 
 package com.navercorp.pinpoint.profiler.sampler;
 
+import com.navercorp.pinpoint.bootstrap.config.DefaultProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
 import com.navercorp.pinpoint.profiler.sampler.SamplerFactory;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueingStatus;
 
 import org.junit.Assert;
 
 import org.junit.Test;
 
+import java.util.Properties;
+
 /**
  * @author emeroad
  */
@@ -42,4 +46,40 @@ public class SamplerFactoryTest {
         boolean sampling = sampler.isSampling();
         Assert.assertFalse(sampling);
     }
+
+    @Test
+    public void createSamplerByType() {
+        SamplerFactory samplerFactory = new SamplerFactory();
+        AsyncQueueingStatus queueingStatus = new AsyncQueueingStatus() {
+            @Override
+            public int getQueueSize() {
+                return 0;
+            }
+
+            @Override
+            public int getQueueCapacity() {
+                return 1024;
+            }
+
+            @Override
+            public long getDroppedCount() {
+                return 0;
+            }
+        };
+
+        Properties properties = new Properties();
+        properties.setProperty("profiler.sampling.rate", "20");
+        Assert.assertTrue(samplerFactory.createSampler(new DefaultProfilerConfig(properties), queueingStatus) instanceof SamplingRateSampler);
+
+        properties.setProperty("profiler.sampling.type", "RATE_LIMIT");
+        Assert.assertTrue(samplerFactory.createSampler(new DefaultProfilerConfig(properties), queueingStatus) instanceof RateLimitSampler);
+
+        properties.setProperty("profiler.sampling.type", "ADAPTIVE");
+        Assert.assertTrue(samplerFactory.createSampler(new DefaultProfilerConfig(properties), queueingStatus) instanceof AdaptiveSampler);
+        // sender without status
+        Assert.assertTrue(samplerFactory.createSampler(new DefaultProfilerConfig(properties), null) instanceof SamplingRateSampler);
+
+        properties.setProperty("profiler.sampling.enable", "false");
+        Assert.assertTrue(samplerFactory.createSampler(new DefaultProfilerConfig(properties), queueingStatus) instanceof FalseSampler);
+    }
 }
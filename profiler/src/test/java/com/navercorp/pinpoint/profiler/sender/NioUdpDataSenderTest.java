@@ -17,10 +17,14 @@
 
 package com.navercorp.pinpoint.profiler.sender;
 
+import com.navercorp.pinpoint.profiler.sender.queue.MessageQueueFactory;
 import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.thrift.TBase;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -31,6 +35,7 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.SocketException;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -86,6 +91,39 @@ public class NioUdpDataSenderTest {
         }
     }
 
+    @Test
+    public void sendBatchTest() throws Exception {
+        final int sendMessageCount = 20;
+        BatchOption batchOption = new BatchOption(sendMessageCount, 1000, 1024);
+        NioUDPDataSender sender = new NioUDPDataSender("localhost", PORT, "test", 128, 1000, 1024 * 64 * 100, MessageQueueFactory.DEFAULT, batchOption);
+        try {
+            for (int i = 0; i < sendMessageCount; i++) {
+                TAgentInfo agentInfo = new TAgentInfo();
+                agentInfo.setAgentId("agent" + i);
+                sender.send(agentInfo);
+            }
+
+            HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+            byte[] receiveData = new byte[65535];
+            DatagramPacket datagramPacket = new DatagramPacket(receiveData, 0, receiveData.length);
+            int receivedMessageCount = 0;
+            int packetCount = 0;
+            while (receivedMessageCount < sendMessageCount) {
+                receiver.receive(datagramPacket);
+                Assert.assertTrue(datagramPacket.getLength() <= 1024);
+                List<TBase<?, ?>> tBaseList = deserializer.deserializeAll(datagramPacket.getData(), datagramPacket.getOffset(), datagramPacket.getLength());
+                for (TBase<?, ?> tBase : tBaseList) {
+                    Assert.assertEquals("agent" + receivedMessageCount, ((TAgentInfo) tBase).getAgentId());
+                    receivedMessageCount++;
+                }
+                packetCount++;
+            }
+            Assert.assertTrue("packetCount:" + packetCount, packetCount < sendMessageCount);
+        } finally {
+            sender.stop();
+        }
+    }
+
     @Test(expected = IOException.class)
     public void exceedMessageSendTest() throws InterruptedException, IOException {
         String random = RandomStringUtils.randomAlphabetic(UdpDataSender.UDP_MAX_PACKET_LENGTH + 100);
@@ -18,7 +18,10 @@ package com.navercorp.pinpoint.profiler.sender;
 
 import com.navercorp.pinpoint.profiler.logging.Slf4jLoggerBinderInitializer;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSender;
+import com.navercorp.pinpoint.profiler.sender.queue.MessageQueueFactory;
 import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
 
 import org.junit.Assert;
 
@@ -29,6 +32,10 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.springframework.util.SocketUtils;
 
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -83,6 +90,41 @@ public class UdpDataSenderTest {
 //        Assert.assertFalse("success", noLimit);
 //    }
 
+    @Test
+    public void sendBatch() throws Exception {
+        final int messageCount = 20;
+        DatagramSocket receiver = new DatagramSocket(new InetSocketAddress("localhost", PORT));
+        receiver.setSoTimeout(1000);
+        BatchOption batchOption = new BatchOption(messageCount, 1000, 1024);
+        UdpDataSender sender = new UdpDataSender("localhost", PORT, "test", 128, 1000, 1024*64*100, MessageQueueFactory.DEFAULT, batchOption);
+        try {
+            for (int i = 0; i < messageCount; i++) {
+                TAgentInfo agentInfo = new TAgentInfo();
+                agentInfo.setAgentId("agent" + i);
+                sender.send(agentInfo);
+            }
+
+            HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+            int receivedMessageCount = 0;
+            int packetCount = 0;
+            DatagramPacket packet = new DatagramPacket(new byte[UdpDataSender.UDP_MAX_PACKET_LENGTH], UdpDataSender.UDP_MAX_PACKET_LENGTH);
+            while (receivedMessageCount < messageCount) {
+                receiver.receive(packet);
+                Assert.assertTrue(packet.getLength() <= 1024);
+                List<TBase<?, ?>> tBaseList = deserializer.deserializeAll(packet.getData(), packet.getOffset(), packet.getLength());
+                for (TBase<?, ?> tBase : tBaseList) {
+                    Assert.assertEquals("agent" + receivedMessageCount, ((TAgentInfo) tBase).getAgentId());
+                    receivedMessageCount++;
+                }
+                packetCount++;
+            }
+            Assert.assertTrue("packetCount:" + packetCount, packetCount < messageCount);
+        } finally {
+            sender.stop();
+            receiver.close();
+        }
+    }
+
     @Test
     public void sendExceedData() throws InterruptedException {
         String random = RandomStringUtils.randomAlphabetic(UdpDataSender.UDP_MAX_PACKET_LENGTH + 100);
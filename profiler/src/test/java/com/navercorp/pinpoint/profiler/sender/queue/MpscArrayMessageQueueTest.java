@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sender.queue;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author agent
+ */
+public class MpscArrayMessageQueueTest {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Test
+    public void roundToPowerOfTwo() {
+        Assert.assertEquals(1, MpscArrayMessageQueue.roundToPowerOfTwo(1));
+        Assert.assertEquals(8, MpscArrayMessageQueue.roundToPowerOfTwo(5));
+        Assert.assertEquals(8, MpscArrayMessageQueue.roundToPowerOfTwo(8));
+        Assert.assertEquals(8192, MpscArrayMessageQueue.roundToPowerOfTwo(5120));
+    }
+
+    @Test
+    public void offer_full() {
+        MessageQueue<Integer> queue = new MpscArrayMessageQueue<Integer>(3, new YieldWaitStrategy());
+        Assert.assertTrue(queue.offer(1));
+        Assert.assertTrue(queue.offer(2));
+        Assert.assertTrue(queue.offer(3));
+        // ring size is 4, but the requested capacity is kept.
+        Assert.assertFalse(queue.offer(4));
+        Assert.assertEquals(3, queue.size());
+        Assert.assertEquals(3, queue.capacity());
+
+        Assert.assertEquals(1, queue.poll().intValue());
+        Assert.assertTrue(queue.offer(4));
+    }
+
+    @Test
+    public void poll_order() {
+        MessageQueue<Integer> queue = new MpscArrayMessageQueue<Integer>(4, new YieldWaitStrategy());
+        for (int round = 0; round < 10; round++) {
+            queue.offer(round);
+            queue.offer(round + 100);
+            Assert.assertEquals(round, queue.poll().intValue());
+            Assert.assertEquals(round + 100, queue.poll().intValue());
+            Assert.assertNull(queue.poll());
+            Assert.assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void drainTo() {
+        MessageQueue<Integer> queue = new MpscArrayMessageQueue<Integer>(16, new YieldWaitStrategy());
+        for (int i = 0; i < 15; i++) {
+            queue.offer(i);
+        }
+        List<Integer> drain = new ArrayList<Integer>();
+        Assert.assertEquals(10, queue.drainTo(drain, 10));
+        Assert.assertEquals(5, queue.drainTo(drain, 10));
+        Assert.assertEquals(0, queue.drainTo(drain, 10));
+        for (int i = 0; i < 15; i++) {
+            Assert.assertEquals(i, drain.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void poll_timeout() throws InterruptedException {
+        MessageQueue<Integer> queue = new MpscArrayMessageQueue<Integer>(16, new BackoffWaitStrategy());
+        long startTime = System.currentTimeMillis();
+        Assert.assertNull(queue.poll(100, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(System.currentTimeMillis() - startTime >= 100);
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void poll_interrupt() throws InterruptedException {
+        MessageQueue<Integer> queue = new MpscArrayMessageQueue<Integer>(16, new ParkWaitStrategy());
+        Thread.currentThread().interrupt();
+        queue.poll(1000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void multiProducer() throws InterruptedException {
+        final int producerCount = 4;
+        final int messageCount = 100000;
+        final MessageQueue<Integer> queue = new MpscArrayMessageQueue<Integer>(1024, new ParkWaitStrategy());
+
+        final long received = consume(queue, producerCount, messageCount, false);
+        Assert.assertEquals(producerCount * messageCount, received);
+    }
+
+    @Ignore
+    @Test
+    public void throughput() throws InterruptedException {
+        final int producerCount = 8;
+        final int messageCount = 1000000;
+        for (int i = 0; i < 5; i++) {
+            measure(new LinkedBlockingMessageQueue<Integer>(1024 * 5), producerCount, messageCount);
+            measure(new MpscArrayMessageQueue<Integer>(1024 * 5, new ParkWaitStrategy()), producerCount, messageCount);
+            measure(new MpscArrayMessageQueue<Integer>(1024 * 5, new BackoffWaitStrategy()), producerCount, messageCount);
+        }
+    }
+
+    private void measure(MessageQueue<Integer> queue, int producerCount, int messageCount) throws InterruptedException {
+        final long startTime = System.nanoTime();
+        final long received = consume(queue, producerCount, messageCount, true);
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        logger.info("{} received:{} dropped:{} elapsed:{}ms", queue, received, (long) producerCount * messageCount - received, elapsed);
+    }
+
+    private long consume(final MessageQueue<Integer> queue, int producerCount, final int messageCount, final boolean dropOnFull) throws InterruptedException {
+        final CountDownLatch producerLatch = new CountDownLatch(producerCount);
+        ExecutorService executor = Executors.newFixedThreadPool(producerCount);
+        for (int i = 0; i < producerCount; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final Integer message = 1;
+                    for (int i = 0; i < messageCount; i++) {
+                        while (!queue.offer(message)) {
+                            if (dropOnFull) {
+                                break;
+                            }
+                            Thread.yield();
+                        }
+                    }
+                    producerLatch.countDown();
+                }
+            });
+        }
+
+        long received = 0;
+        final List<Integer> drain = new ArrayList<Integer>(10);
+        while (true) {
+            drain.clear();
+            final int drainSize = queue.drainTo(drain, 10);
+            if (drainSize > 0) {
+                received += drainSize;
+                continue;
+            }
+            if (producerLatch.getCount() == 0 && queue.isEmpty()) {
+                break;
+            }
+            final Integer message = queue.poll(10, TimeUnit.MILLISECONDS);
+            if (message != null) {
+                received++;
+            }
+        }
+        executor.shutdown();
+        return received;
+    }
+}
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.thrift.io;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.thrift.TBase;
@@ -99,6 +100,41 @@ public class HeaderTBaseDeserializer {
         return tBaseList;
     }
 
+    /**
+     * Deserialize every Thrift object packed into buffer[offset, offset + length)
+     * by {@link HeaderTBaseSerializer#continueSerialize(TBase)}.
+     * A buffer holding a single object returns a list of one.
+     */
+    public List<TBase<?, ?>> deserializeAll(byte[] buffer, int offset, int length) throws TException {
+        trans.reset(buffer, offset, length);
+        try {
+            TBase<?, ?> first = readTBase();
+            if (trans.getBytesRemainingInBuffer() <= 0) {
+                return Collections.<TBase<?, ?>>singletonList(first);
+            }
+            final List<TBase<?, ?>> tBaseList = new ArrayList<TBase<?, ?>>();
+            tBaseList.add(first);
+            while (trans.getBytesRemainingInBuffer() > 0) {
+                tBaseList.add(readTBase());
+            }
+            return tBaseList;
+        } finally {
+            trans.clear();
+            protocol.reset();
+        }
+    }
+
+    private TBase<?, ?> readTBase() throws TException {
+        Header header = readHeader();
+        final int validate = validate(header);
+        if (validate == HeaderUtils.OK) {
+            TBase<?, ?> base = locator.tBaseLookup(header.getType());
+            base.read(protocol);
+            return base;
+        }
+        throw new IllegalStateException("invalid validate " + validate);
+    }
+
     private int validate(Header header) throws TException {
         final byte signature = header.getSignature();
         final int result = HeaderUtils.validateSignature(signature);
@@ -59,17 +59,25 @@ public class HeaderTBaseSerializer {
     public byte[] serialize(TBase<?, ?> base) throws TException {
         final Header header = locator.headerLookup(base);
         baos.reset();
-        writeHeader(header);
-        base.write(protocol);
+        write(header, base);
         return baos.toByteArray();
     }
     
     public byte[] continueSerialize(TBase<?, ?> base) throws TException {
         final Header header = locator.headerLookup(base);
-        writeHeader(header);
-        base.write(protocol);
+        write(header, base);
         return baos.toByteArray();
     }
+
+    private void write(Header header, TBase<?, ?> base) throws TException {
+        try {
+            writeHeader(header);
+            base.write(protocol);
+        } finally {
+            // clear the field id stack left over by a failed write. e.g. BufferOverflowException
+            protocol.reset();
+        }
+    }
     
     public void reset() {
         baos.reset();
@@ -51,6 +51,8 @@ public class HeaderTBaseSerializer2 {
             writeHeader(header);
             base.write(protocol);
         } finally {
+            // clear the field id stack left over by a failed write. e.g. BufferOverflowException
+            protocol.reset();
             tOutputStreamTransport.close();
         }
     }
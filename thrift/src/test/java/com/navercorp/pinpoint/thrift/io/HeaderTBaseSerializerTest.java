@@ -23,6 +23,7 @@ import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializer;
 import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
 
+import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
 import org.junit.Assert;
 import org.junit.Test;
@@ -30,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * @author emeroad
@@ -74,6 +76,32 @@ public class HeaderTBaseSerializerTest {
         Assert.assertEquals(deserialize, tAgentInfo);
     }
 
+    @Test
+    public void deserializeAll() throws Exception {
+        HeaderTBaseSerializer serializer = new HeaderTBaseSerializerFactory(false).createSerializer();
+        HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+
+        TAgentInfo tAgentInfo1 = new TAgentInfo();
+        tAgentInfo1.setAgentId("agentId1");
+        TAgentInfo tAgentInfo2 = new TAgentInfo();
+        tAgentInfo2.setAgentId("agentId2");
+
+        serializer.reset();
+        serializer.continueSerialize(tAgentInfo1);
+        byte[] buffer = serializer.continueSerialize(tAgentInfo2);
+        int length = serializer.getInterBufferSize();
+
+        List<TBase<?, ?>> tBaseList = deserializer.deserializeAll(buffer, 0, length);
+        Assert.assertEquals(2, tBaseList.size());
+        Assert.assertEquals(tAgentInfo1, tBaseList.get(0));
+        Assert.assertEquals(tAgentInfo2, tBaseList.get(1));
+
+        byte[] single = serializer.serialize(tAgentInfo1);
+        List<TBase<?, ?>> singleList = deserializer.deserializeAll(single, 0, serializer.getInterBufferSize());
+        Assert.assertEquals(1, singleList.size());
+        Assert.assertEquals(tAgentInfo1, singleList.get(0));
+    }
+
     public void dump(byte[] data) {
         String s = Arrays.toString(data);
         logger.debug("size:{} data:{}", data.length, s);
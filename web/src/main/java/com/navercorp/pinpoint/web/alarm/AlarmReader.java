@@ -16,17 +16,25 @@
 
 package com.navercorp.pinpoint.web.alarm;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 
 import com.navercorp.pinpoint.web.alarm.DataCollectorFactory.DataCollectorCategory;
 import com.navercorp.pinpoint.web.alarm.checker.AlarmChecker;
@@ -40,7 +48,14 @@ import com.navercorp.pinpoint.web.vo.Application;
  * @author minwoo.jung
  */
 public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListener {
-    
+
+    public static final String APPLICATION_COUNT = "application_count";
+    public static final String CHECKER_COUNT = "checker_count";
+    public static final String DATA_COLLECTOR_COUNT = "data_collector_count";
+    public static final String COLLECT_TIME = "collect_time";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     @Autowired
     private DataCollectorFactory dataCollectorFactory;
     
@@ -49,8 +64,13 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
     
     @Autowired
     private AlarmService alarmService;
-    
+
+    @Autowired(required = false)
+    @Qualifier("alarmDataCollectorExecutor")
+    private AsyncTaskExecutor dataCollectorExecutor;
+
     private final Queue<AlarmChecker> checkers = new LinkedList<>();
+    private final List<DataCollector> dataCollectors = new ArrayList<>();
 
     public AlarmReader() {
     }
@@ -60,6 +80,11 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
         this.applicationIndexDao = applicationIndexDao;
         this.alarmService = alarmService;
     }
+
+    protected AlarmReader(DataCollectorFactory dataCollectorFactory, ApplicationIndexDao applicationIndexDao, AlarmService alarmService, AsyncTaskExecutor dataCollectorExecutor) {
+        this(dataCollectorFactory, applicationIndexDao, alarmService);
+        this.dataCollectorExecutor = dataCollectorExecutor;
+    }
     
     public AlarmChecker read() {
         return checkers.poll();
@@ -80,15 +105,26 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
             to = appSize;
         }
 
-        
+        // every application of this partition is checked against the same time slot
+        long timeSlotEndTime = System.currentTimeMillis();
         for(int i = from; i < to; i++) {
-            addChecker(applicationList.get(i));
+            addChecker(applicationList.get(i), timeSlotEndTime);
         }
+
+        long collectStartTime = System.currentTimeMillis();
+        prefetch();
+        long collectTime = System.currentTimeMillis() - collectStartTime;
+
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        executionContext.putInt(APPLICATION_COUNT, to - from);
+        executionContext.putInt(CHECKER_COUNT, checkers.size());
+        executionContext.putInt(DATA_COLLECTOR_COUNT, dataCollectors.size());
+        executionContext.putLong(COLLECT_TIME, collectTime);
+        logger.info("alarm partition {} read. applications:{}, checkers:{}, dataCollectors:{}, collectTime:{}ms", partitionNumber, to - from, checkers.size(), dataCollectors.size(), collectTime);
     }
 
-    private void addChecker(Application application) {
+    private void addChecker(Application application, long timeSlotEndTime) {
         List<Rule> rules = alarmService.selectRuleByApplicationId(application.getName());
-        long timeSlotEndTime = System.currentTimeMillis();
         Map<DataCollectorCategory, DataCollector> collectorMap = new HashMap<>();
         
         for (Rule rule : rules) {
@@ -98,6 +134,7 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
             if(collector == null) {
                 collector = dataCollectorFactory.createDataCollector(checkerCategory, application, timeSlotEndTime);
                 collectorMap.put(collector.getDataCollectorCategory(), collector);
+                dataCollectors.add(collector);
             }
             
             AlarmChecker checker = checkerCategory.createChecker(collector, rule);
@@ -106,8 +143,44 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
         
     }
 
+    /**
+     * collects the data of every collector in parallel before the checkers are processed.
+     * a collector that failed here is collected again by its checkers.
+     */
+    private void prefetch() {
+        if (dataCollectorExecutor == null) {
+            return;
+        }
+
+        List<Future<?>> futures = new ArrayList<>(dataCollectors.size());
+        for (final DataCollector dataCollector : dataCollectors) {
+            Future<?> future = dataCollectorExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    dataCollector.collect();
+                }
+            });
+            futures.add(future);
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.warn("failed to collect alarm data. Caused:{}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
     @Override
     public ExitStatus afterStep(StepExecution stepExecution) {
+        final int checkerCount = stepExecution.getWriteCount();
+        final long elapsedTime = System.currentTimeMillis() - stepExecution.getStartTime().getTime();
+        final long throughput = elapsedTime == 0 ? checkerCount : (checkerCount * 1000L) / elapsedTime;
+        logger.info("alarm partition {} done. checkers:{}, elapsedTime:{}ms, throughput:{}/s", stepExecution.getExecutionContext().get(AlarmPartitioner.PARTITION_NUMBER), checkerCount, elapsedTime, throughput);
         return null;
     }
 }
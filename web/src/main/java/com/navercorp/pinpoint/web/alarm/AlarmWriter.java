@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.web.alarm;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,12 +37,27 @@ public class AlarmWriter implements ItemWriter<AlarmChecker> {
     
     @Autowired
     private AlarmService alarmService;
+
+    public AlarmWriter() {
+    }
+
+    protected AlarmWriter(AlarmMessageSender alarmMessageSender, AlarmService alarmService) {
+        this.alarmMessageSender = alarmMessageSender;
+        this.alarmService = alarmService;
+    }
     
     @Override
     public void write(List<? extends AlarmChecker> checkers) throws Exception {
-        Map<String, CheckerResult> beforeCheckerResults = alarmService.selectBeforeCheckerResults(checkers.get(0).getRule().getApplicationId());
+        // a chunk may span several applications
+        Map<String, Map<String, CheckerResult>> beforeCheckerResultsMap = new HashMap<>();
 
         for(AlarmChecker checker : checkers) {
+            String applicationId = checker.getRule().getApplicationId();
+            Map<String, CheckerResult> beforeCheckerResults = beforeCheckerResultsMap.get(applicationId);
+            if (beforeCheckerResults == null) {
+                beforeCheckerResults = alarmService.selectBeforeCheckerResults(applicationId);
+                beforeCheckerResultsMap.put(applicationId, beforeCheckerResults);
+            }
             CheckerResult beforeCheckerResult = beforeCheckerResults.get(checker.getRule().getCheckerName());
             
             if (beforeCheckerResult == null) {
@@ -40,7 +40,7 @@ public class AgentStatDataCollector extends DataCollector {
     private final ApplicationIndexDao applicationIndexDao;
     private final long timeSlotEndTime;
     private final long slotInterval;
-    private final AtomicBoolean init = new AtomicBoolean(false); // need to consider a race condition when checkers start simultaneously.
+    private final AtomicBoolean init = new AtomicBoolean(false);
 
     private final Map<String, Long> agentHeapUsageRate = new HashMap<>();
     private final Map<String, Long> agentGcCount = new HashMap<>();
@@ -57,7 +57,7 @@ public class AgentStatDataCollector extends DataCollector {
     }
 
     @Override
-    public void collect() {
+    public synchronized void collect() {
         if (init.get()) {
             return;
         }
@@ -29,6 +29,9 @@ public abstract class DataCollector {
         this.dataCollectorCategory = dataCollectorCategory;
     }
     
+    /**
+     * loads the data only once. checkers sharing this collector may call it from different threads.
+     */
     public abstract void collect();
     
     public DataCollectorCategory getDataCollectorCategory() {
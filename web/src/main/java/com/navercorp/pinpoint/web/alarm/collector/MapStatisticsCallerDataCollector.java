@@ -40,7 +40,7 @@ public class MapStatisticsCallerDataCollector extends DataCollector {
     private long timeSlotEndTime;
     private long slotInterval;
     private Map<String, LinkCallData> calleStatMap = new HashMap<>();
-    private final AtomicBoolean init =new AtomicBoolean(false); // need to consider a trace condition when checkers start simultaneously.
+    private final AtomicBoolean init = new AtomicBoolean(false);
 
     public MapStatisticsCallerDataCollector(DataCollectorCategory category, Application application, MapStatisticsCallerDao mapStatisticsCallerDao, long timeSlotEndTime, long slotInterval) {
         super(category);
@@ -51,7 +51,7 @@ public class MapStatisticsCallerDataCollector extends DataCollector {
     }
 
     @Override
-    public void collect() {
+    public synchronized void collect() {
         if (init.get()) {
             return;
         }
@@ -26,6 +26,9 @@ import com.navercorp.pinpoint.web.view.FilterMapWrapSerializer;
 public class FilterMapWrap {
     private final ApplicationMap applicationMap;
     private Long lastFetchedTimestamp;
+    private long resumeFrom = -1;
+    private long scannedCount;
+    private long discardedCount;
 
     public FilterMapWrap(ApplicationMap applicationMap) {
         this.applicationMap = applicationMap;
@@ -44,4 +47,31 @@ public class FilterMapWrap {
         return lastFetchedTimestamp;
     }
 
+    /**
+     * time to continue the transaction scan from. -1 if every transaction of the range was read.
+     */
+    public long getResumeFrom() {
+        return resumeFrom;
+    }
+
+    public void setResumeFrom(long resumeFrom) {
+        this.resumeFrom = resumeFrom;
+    }
+
+    public long getScannedCount() {
+        return scannedCount;
+    }
+
+    public void setScannedCount(long scannedCount) {
+        this.scannedCount = scannedCount;
+    }
+
+    public long getDiscardedCount() {
+        return discardedCount;
+    }
+
+    public void setDiscardedCount(long discardedCount) {
+        this.discardedCount = discardedCount;
+    }
+
 }
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.web.controller;
 
+import com.navercorp.pinpoint.web.dao.hbase.CollapsingCache;
 import com.navercorp.pinpoint.web.vo.Application;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +29,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.navercorp.pinpoint.web.service.AdminService;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -45,6 +47,9 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired(required = false)
+    private List<CollapsingCache<?, ?>> collapsingCacheList;
+
     @RequestMapping(value = "/removeApplicationName")
     @ResponseBody
     public String removeApplicationName(@RequestParam("applicationName") String applicationName) {
@@ -98,6 +103,19 @@ public class AdminController {
         return this.adminService.getDuplicateAgentIdMap();
     }
 
+    @RequestMapping(value = "/cacheStatistics")
+    @ResponseBody
+    public List<Map<String, Object>> cacheStatistics() {
+        if (collapsingCacheList == null) {
+            return new ArrayList<>();
+        }
+        List<Map<String, Object>> cacheStatistics = new ArrayList<>(collapsingCacheList.size());
+        for (CollapsingCache<?, ?> collapsingCache : collapsingCacheList) {
+            cacheStatistics.add(collapsingCache.getStatistics());
+        }
+        return cacheStatistics;
+    }
+
     @RequestMapping(value = "/getInactiveAgents")
     @ResponseBody
     public Map<String, List<Application>> getInactiveAgents(
@@ -28,6 +28,7 @@ import com.navercorp.pinpoint.common.server.bo.stat.TransactionBo;
 import com.navercorp.pinpoint.web.service.stat.ActiveTraceChartService;
 import com.navercorp.pinpoint.web.service.stat.ActiveTraceService;
 import com.navercorp.pinpoint.web.service.stat.AgentStatChartService;
+import com.navercorp.pinpoint.web.service.stat.ApplicationStatChartService;
 import com.navercorp.pinpoint.web.service.stat.CpuLoadChartService;
 import com.navercorp.pinpoint.web.service.stat.CpuLoadService;
 import com.navercorp.pinpoint.web.service.stat.JvmGcChartService;
@@ -38,6 +39,7 @@ import com.navercorp.pinpoint.web.service.stat.TransactionChartService;
 import com.navercorp.pinpoint.web.service.stat.TransactionService;
 import com.navercorp.pinpoint.web.util.TimeWindowSampler;
 import com.navercorp.pinpoint.web.vo.stat.chart.AgentStatChartGroup;
+import com.navercorp.pinpoint.web.vo.stat.chart.ApplicationStatChartGroup;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
@@ -62,9 +64,12 @@ public abstract class AgentStatController<T extends AgentStatDataPoint> {
 
     private final AgentStatChartService agentStatChartService;
 
-    public AgentStatController(AgentStatService<T> agentStatService, AgentStatChartService agentStatChartService) {
+    private final ApplicationStatChartService applicationStatChartService;
+
+    public AgentStatController(AgentStatService<T> agentStatService, AgentStatChartService agentStatChartService, ApplicationStatChartService applicationStatChartService) {
         this.agentStatService = agentStatService;
         this.agentStatChartService = agentStatChartService;
+        this.applicationStatChartService = applicationStatChartService;
     }
 
     @PreAuthorize("hasPermission(new com.navercorp.pinpoint.web.vo.AgentParam(#agentId, #to), 'agentParam', 'inspector')")
@@ -110,12 +115,24 @@ public abstract class AgentStatController<T extends AgentStatDataPoint> {
         return this.agentStatChartService.selectAgentChart(agentId, timeWindow);
     }
 
+    @PreAuthorize("hasPermission(#applicationName, 'application', 'inspector')")
+    @RequestMapping(value = "/chart/application", method = RequestMethod.GET)
+    @ResponseBody
+    public ApplicationStatChartGroup getApplicationStatChart(
+            @RequestParam("applicationName") String applicationName,
+            @RequestParam("from") long from,
+            @RequestParam("to") long to) {
+        TimeWindowSampler sampler = new TimeWindowSlotCentricSampler();
+        TimeWindow timeWindow = new TimeWindow(new Range(from, to), sampler);
+        return this.applicationStatChartService.selectApplicationChart(applicationName, this.agentStatChartService, timeWindow);
+    }
+
     @Controller
     @RequestMapping("/getAgentStat/jvmGc")
     public static class JvmGcController extends AgentStatController<JvmGcBo> {
         @Autowired
-        public JvmGcController(JvmGcService jvmGcService, JvmGcChartService jvmGcChartService) {
-            super(jvmGcService, jvmGcChartService);
+        public JvmGcController(JvmGcService jvmGcService, JvmGcChartService jvmGcChartService, ApplicationStatChartService applicationStatChartService) {
+            super(jvmGcService, jvmGcChartService, applicationStatChartService);
         }
     }
 
@@ -123,8 +140,8 @@ public abstract class AgentStatController<T extends AgentStatDataPoint> {
     @RequestMapping("/getAgentStat/jvmGcDetailed")
     public static class JvmGcDetailedController extends AgentStatController<JvmGcDetailedBo> {
         @Autowired
-        public JvmGcDetailedController(JvmGcDetailedService jvmGcDetailedService, JvmGcDetailedChartService jvmGcDetailedChartService) {
-            super(jvmGcDetailedService, jvmGcDetailedChartService);
+        public JvmGcDetailedController(JvmGcDetailedService jvmGcDetailedService, JvmGcDetailedChartService jvmGcDetailedChartService, ApplicationStatChartService applicationStatChartService) {
+            super(jvmGcDetailedService, jvmGcDetailedChartService, applicationStatChartService);
         }
     }
 
@@ -132,8 +149,8 @@ public abstract class AgentStatController<T extends AgentStatDataPoint> {
     @RequestMapping("/getAgentStat/cpuLoad")
     public static class CpuLoadController extends AgentStatController<CpuLoadBo> {
         @Autowired
-        public CpuLoadController(CpuLoadService cpuLoadService, CpuLoadChartService cpuLoadChartService) {
-            super(cpuLoadService, cpuLoadChartService);
+        public CpuLoadController(CpuLoadService cpuLoadService, CpuLoadChartService cpuLoadChartService, ApplicationStatChartService applicationStatChartService) {
+            super(cpuLoadService, cpuLoadChartService, applicationStatChartService);
         }
     }
 
@@ -141,8 +158,8 @@ public abstract class AgentStatController<T extends AgentStatDataPoint> {
     @RequestMapping("/getAgentStat/transaction")
     public static class TransactionController extends AgentStatController<TransactionBo> {
         @Autowired
-        public TransactionController(TransactionService transactionService, TransactionChartService transactionChartService) {
-            super(transactionService, transactionChartService);
+        public TransactionController(TransactionService transactionService, TransactionChartService transactionChartService, ApplicationStatChartService applicationStatChartService) {
+            super(transactionService, transactionChartService, applicationStatChartService);
         }
     }
 
@@ -150,8 +167,8 @@ public abstract class AgentStatController<T extends AgentStatDataPoint> {
     @RequestMapping("/getAgentStat/activeTrace")
     public static class ActiveTraceController extends AgentStatController<ActiveTraceBo> {
         @Autowired
-        public ActiveTraceController(ActiveTraceService activeTraceService, ActiveTraceChartService activeTraceChartService) {
-            super(activeTraceService, activeTraceChartService);
+        public ActiveTraceController(ActiveTraceService activeTraceService, ActiveTraceChartService activeTraceChartService, ApplicationStatChartService applicationStatChartService) {
+            super(activeTraceService, activeTraceChartService, applicationStatChartService);
         }
     }
 }
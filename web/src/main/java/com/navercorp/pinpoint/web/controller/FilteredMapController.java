@@ -126,6 +126,9 @@ public class FilteredMapController {
 
         FilterMapWrap mapWrap = new FilterMapWrap(map);
         mapWrap.setLastFetchedTimestamp(lastScanTime);
+        mapWrap.setResumeFrom(limitedScanResult.getResumeTime());
+        mapWrap.setScannedCount(limitedScanResult.getReadCount());
+        mapWrap.setDiscardedCount(limitedScanResult.getDiscardedCount());
         return mapWrap;
     }
 
@@ -186,6 +189,9 @@ public class FilteredMapController {
 
         FilterMapWrap mapWrap = new FilterMapWrap(map);
         mapWrap.setLastFetchedTimestamp(lastScanTime);
+        mapWrap.setResumeFrom(limitedScanResult.getResumeTime());
+        mapWrap.setScannedCount(limitedScanResult.getReadCount());
+        mapWrap.setDiscardedCount(limitedScanResult.getDiscardedCount());
         return mapWrap;
     }
 
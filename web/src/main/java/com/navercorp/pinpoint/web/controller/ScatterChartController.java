@@ -23,6 +23,7 @@ import com.navercorp.pinpoint.common.util.TransactionIdComparator;
 import com.navercorp.pinpoint.web.filter.Filter;
 import com.navercorp.pinpoint.web.filter.FilterBuilder;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterDensity;
 import com.navercorp.pinpoint.web.service.FilteredMapService;
 import com.navercorp.pinpoint.web.service.ScatterChartService;
 import com.navercorp.pinpoint.web.util.LimitUtils;
@@ -35,6 +36,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.util.StopWatch;
@@ -67,6 +69,11 @@ public class ScatterChartController {
     @Autowired
     private FilterBuilder filterBuilder;
 
+    // ApplicationTraceIndex rows are keyed by the start time of a transaction but written when it ends.
+    // a watermark request scans this much before the watermark again for the transactions finished since the previous poll.
+    @Value("#{pinpointWebProps['web.scatter.watermark.overlap'] ?: 180000}")
+    private long watermarkOverlap;
+
     private static final String PREFIX_TRANSACTION_ID = "I";
     private static final String PREFIX_TIME = "T";
     private static final String PREFIX_RESPONSE_TIME = "R";
@@ -134,7 +141,14 @@ public class ScatterChartController {
      * @param to
      * @param limit           max number of data return. if the requested data exceed this limit, we need additional calls to
      *                        fetch the rest of the data
-     * @return
+     * @param yMax            upper bound of the y axis for version 2. slower dots are counted in the top row
+     * @param watermark       "to" of the previous response. only [scanFrom, to] is scanned and the coordinates stay relative to "from".
+     *                        scanFrom of the response is web.scatter.watermark.overlap before the watermark, aligned to xGroupUnit.
+     *                        the client drops its previous dots from scanFrom on and merges the result. no filter support
+     * @param version         1 : every dot, 2 : dots binned into a xGroupUnit * yGroupUnit grid
+     * @return resumeFrom is the time to continue from when the scan stopped at the limit, -1 if complete.
+     *         scannedCount and discardedCount are the rows read from hbase and the rows read past the limit.
+     *         version 2 has no row counts
      */
     @RequestMapping(value = "/getScatterData", method = RequestMethod.GET)
     public ModelAndView getScatterData(
@@ -147,6 +161,8 @@ public class ScatterChartController {
             @RequestParam(value = "backwardDirection", required = false, defaultValue = "true") boolean backwardDirection,
             @RequestParam(value = "filter", required = false) String filterText,
             @RequestParam(value = "_callback", required = false) String jsonpCallback,
+            @RequestParam(value = "yMax", required = false, defaultValue = "10000") int yMax,
+            @RequestParam(value = "watermark", required = false, defaultValue = "-1") long watermark,
             @RequestParam(value = "v", required = false, defaultValue = "1") int version) {
         if (xGroupUnit <= 0) {
             throw new IllegalArgumentException("xGroupUnit(" + xGroupUnit + ") must be positive number");
@@ -154,6 +170,14 @@ public class ScatterChartController {
         if (yGroupUnit < 0) {
             throw new IllegalArgumentException("yGroupUnit(" + yGroupUnit + ") may not be negative number");
         }
+        if (yMax < 0) {
+            throw new IllegalArgumentException("yMax(" + yMax + ") may not be negative number");
+        }
+        if (version == 2) {
+            // a grid too fine for the range is coarsened instead of failing the request, the scatter returns the units in use
+            yGroupUnit = ScatterDensity.fitYGroupUnit(Math.max(yGroupUnit, 1), yMax);
+            xGroupUnit = ScatterDensity.fitXGroupUnit(from, to, xGroupUnit, yGroupUnit, yMax);
+        }
 
         limit = LimitUtils.checkRange(limit);
 
@@ -162,11 +186,12 @@ public class ScatterChartController {
 
         // TODO range check verification exception occurs. "from" is bigger than "to"
         final Range range = Range.createUncheckedRange(from, to);
-        logger.debug("fetch scatter data. RANGE={}, X-Group-Unit:{}, Y-Group-Unit:{}, LIMIT={}, BACKWARD_DIRECTION:{}, FILTER:{}", range, xGroupUnit, yGroupUnit, limit, backwardDirection, filterText);
+        final Range scanRange = createScanRange(range, watermark, watermarkOverlap, xGroupUnit);
+        logger.debug("fetch scatter data. RANGE={}, SCAN_RANGE={}, X-Group-Unit:{}, Y-Group-Unit:{}, LIMIT={}, BACKWARD_DIRECTION:{}, FILTER:{}", range, scanRange, xGroupUnit, yGroupUnit, limit, backwardDirection, filterText);
 
         ModelAndView mv = null;
         if (StringUtils.isEmpty(filterText)) {
-            mv = selectScatterData(applicationName, range, xGroupUnit, Math.max(yGroupUnit, 1), limit, backwardDirection, version);
+            mv = selectScatterData(applicationName, range, scanRange, xGroupUnit, Math.max(yGroupUnit, 1), yMax, limit, backwardDirection, version);
         } else {
             mv = selectFilterScatterData(applicationName, range, xGroupUnit, Math.max(yGroupUnit, 1), limit, backwardDirection, filterText, version);
         }
@@ -184,13 +209,22 @@ public class ScatterChartController {
         return mv;
     }
 
-    private ModelAndView selectScatterData(String applicationName, Range range, int xGroupUnit, int yGroupUnit, int limit, boolean backwardDirection, int version) {
+    private ModelAndView selectScatterData(String applicationName, Range range, Range scanRange, int xGroupUnit, int yGroupUnit, int yMax, int limit, boolean backwardDirection, int version) {
         ModelAndView mv = null;
         if (version == 1) {
-            final ScatterData scatterData = scatter.selectScatterData(applicationName, range, xGroupUnit, yGroupUnit, limit, backwardDirection);
+            final LimitedScanResult<ScatterData> limitedScanResult = scatter.selectScatterData(applicationName, range, scanRange, xGroupUnit, yGroupUnit, limit, backwardDirection);
+            final ScatterData scatterData = limitedScanResult.getScanData();
             boolean requestComplete = scatterData.getDotSize() < limit;
 
             mv = createScatterDataV1(scatterData, requestComplete);
+            addScanResult(mv, limitedScanResult);
+        } else if (version == 2) {
+            final ScatterDensity scatterDensity = scatter.selectScatterDensity(applicationName, range, scanRange, xGroupUnit, yGroupUnit, yMax, limit, backwardDirection);
+            boolean requestComplete = scatterDensity.getTotalCount() < limit;
+
+            mv = createScatterDataV2(scatterDensity, requestComplete);
+            // the density extractor stops after a whole row, so the scan continues right after the last accepted time
+            mv.addObject("resumeFrom", requestComplete ? -1 : getDensityResumeFrom(scatterDensity, backwardDirection));
         } else {
             mv = new ModelAndView();
         }
@@ -198,9 +232,39 @@ public class ScatterChartController {
         mv.addObject("currentServerTime", new ServerTime().getCurrentServerTime());
         mv.addObject("from", range.getFrom());
         mv.addObject("to", range.getTo());
+        mv.addObject("scanFrom", scanRange.getFrom());
         return mv;
     }
 
+    private void addScanResult(ModelAndView mv, LimitedScanResult<?> limitedScanResult) {
+        mv.addObject("resumeFrom", limitedScanResult.getResumeTime());
+        mv.addObject("scannedCount", limitedScanResult.getReadCount());
+        mv.addObject("discardedCount", limitedScanResult.getDiscardedCount());
+    }
+
+    private long getDensityResumeFrom(ScatterDensity scatterDensity, boolean backwardDirection) {
+        if (backwardDirection) {
+            return scatterDensity.getOldestAcceptedTime() - 1;
+        } else {
+            return scatterDensity.getLatestAcceptedTime() + 1;
+        }
+    }
+
+    /**
+     * only the tail of the range is scanned for a watermark request. the overlap before the watermark is scanned again
+     * for the late transactions, and the start is aligned to xGroupUnit so that the client can replace whole dot groups.
+     */
+    static Range createScanRange(Range range, long watermark, long overlap, int xGroupUnit) {
+        final long from = range.getFrom();
+        final long to = range.getTo();
+        if (watermark < from) {
+            return range;
+        }
+        final long scanFrom = Math.max(from, watermark + 1 - overlap);
+        final long alignedScanFrom = from + ((scanFrom - from) / xGroupUnit) * xGroupUnit;
+        return Range.createUncheckedRange(Math.min(alignedScanFrom, to), to);
+    }
+
     private ModelAndView selectFilterScatterData(String applicationName, Range range, int xGroupUnit, int yGroupUnit, int limit, boolean backwardDirection, String filterText, int version) {
         final LimitedScanResult<List<TransactionId>> limitedScanResult = flow.selectTraceIdsFromApplicationTraceIndex(applicationName, range, limit, backwardDirection);
 
@@ -224,6 +288,7 @@ public class ScatterChartController {
         } else {
             mv = new ModelAndView();
         }
+        addScanResult(mv, limitedScanResult);
 
         mv.addObject("currentServerTime", new ServerTime().getCurrentServerTime());
         mv.addObject("from", range.getFrom());
@@ -243,4 +308,16 @@ public class ScatterChartController {
         return mv;
     }
 
+    private ModelAndView createScatterDataV2(ScatterDensity scatterDensity, boolean complete) {
+        ModelAndView mv = new ModelAndView();
+
+        mv.addObject("resultFrom", scatterDensity.getOldestAcceptedTime());
+        mv.addObject("resultTo", scatterDensity.getLatestAcceptedTime());
+
+        mv.addObject("complete", complete);
+        mv.addObject("scatter", scatterDensity);
+
+        return mv;
+    }
+
 }
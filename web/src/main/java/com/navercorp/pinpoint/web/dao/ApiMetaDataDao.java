@@ -16,13 +16,21 @@
 
 package com.navercorp.pinpoint.web.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 /**
  * @author emeroad
  */
 public interface ApiMetaDataDao {
     List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId);
+
+    /**
+     * reads the metadata of all keys with a single multi-Get. duplicated keys are read once.
+     */
+    Map<MetaDataKey, List<ApiMetaDataBo>> getApiMetaData(Collection<MetaDataKey> metaDataKeys);
 }
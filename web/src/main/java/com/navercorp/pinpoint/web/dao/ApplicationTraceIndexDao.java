@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.web.dao;
 
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterDensity;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.SelectedScatterArea;
@@ -50,4 +51,18 @@ public interface ApplicationTraceIndexDao {
 
     ScatterData scanTraceScatterData(String applicationName, Range range, int xGroupUnit, int yGroupUnit, int limit, boolean scanBackward);
 
+    /**
+     * scans only scanRange, but x coordinates stay relative to range.getFrom() so that the result can be merged into the result of range.
+     *
+     * @param range range of the scatter chart
+     * @param scanRange part of the range to scan
+     * @return the dots with the resume time and row counts of the scan
+     */
+    LimitedScanResult<ScatterData> scanTraceScatterData(String applicationName, Range range, Range scanRange, int xGroupUnit, int yGroupUnit, int limit, boolean scanBackward);
+
+    /**
+     * same scan as {@link #scanTraceScatterData}, but dots are folded into a fixed grid instead of being kept one by one.
+     */
+    ScatterDensity scanTraceScatterDensity(String applicationName, Range range, Range scanRange, int xGroupUnit, int yGroupUnit, int yMax, int limit, boolean scanBackward);
+
 }
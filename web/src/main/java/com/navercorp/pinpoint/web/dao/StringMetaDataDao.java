@@ -17,12 +17,20 @@
 package com.navercorp.pinpoint.web.dao;
 
 import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author emeroad
  */
 public interface StringMetaDataDao {
     List<StringMetaDataBo> getStringMetaData(String agentId, long time, int stringId);
+
+    /**
+     * reads the metadata of all keys with a single multi-Get. duplicated keys are read once.
+     */
+    Map<MetaDataKey, List<StringMetaDataBo>> getStringMetaData(Collection<MetaDataKey> metaDataKeys);
 }
@@ -29,6 +29,10 @@ public interface TraceDao {
 
     List<SpanBo> selectSpan(TransactionId transactionId);
 
+    /**
+     * selects the spans of each transaction for the transaction list.
+     * span events and annotations may not be included.
+     */
     List<List<SpanBo>> selectSpans(List<TransactionId> transactionIdList);
     
     List<List<SpanBo>> selectAllSpans(List<TransactionId> transactionIdList);
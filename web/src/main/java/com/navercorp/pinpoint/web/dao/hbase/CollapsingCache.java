@@ -0,0 +1,252 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache in front of an hbase lookup. TTL and size eviction come from the underlying cache (ehcache.xml).
+ * <p>
+ * Concurrent misses of the same key are collapsed into a single load, the other callers wait for its value.
+ * A failed load is not cached, and the waiting callers load again by themselves.
+ * If cacheEmpty is false, null and empty collection or map values are returned but not cached,
+ * for lookups of rows that may be written after the first read (e.g. metadata).
+ *
+ * @author agent
+ */
+public class CollapsingCache<K, V> {
+
+    public interface Loader<K, V> {
+        V load(K key);
+    }
+
+    private final Cache cache;
+
+    private boolean cacheEmpty = true;
+
+    private final ConcurrentMap<K, Loading<V>> loadingMap = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong collapsedCount = new AtomicLong();
+
+    public CollapsingCache(String name, CacheManager cacheManager) {
+        if (name == null) {
+            throw new NullPointerException("name must not be null");
+        }
+        if (cacheManager == null) {
+            throw new NullPointerException("cacheManager must not be null");
+        }
+        final Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalArgumentException("cache not found. name:" + name);
+        }
+        this.cache = cache;
+    }
+
+    public CollapsingCache(Cache cache) {
+        if (cache == null) {
+            throw new NullPointerException("cache must not be null");
+        }
+        this.cache = cache;
+    }
+
+    public void setCacheEmpty(boolean cacheEmpty) {
+        this.cacheEmpty = cacheEmpty;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key, Loader<K, V> loader) {
+        if (key == null) {
+            throw new NullPointerException("key must not be null");
+        }
+        if (loader == null) {
+            throw new NullPointerException("loader must not be null");
+        }
+        while (true) {
+            final Cache.ValueWrapper hit = cache.get(key);
+            if (hit != null) {
+                hitCount.incrementAndGet();
+                return (V) hit.get();
+            }
+
+            final Loading<V> loading = new Loading<>();
+            final Loading<V> inProgress = loadingMap.putIfAbsent(key, loading);
+            if (inProgress == null) {
+                missCount.incrementAndGet();
+                return load(key, loader, loading);
+            }
+
+            collapsedCount.incrementAndGet();
+            if (inProgress.await()) {
+                return inProgress.value;
+            }
+            // the load failed. try again
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V load(K key, Loader<K, V> loader, Loading<V> loading) {
+        boolean success = false;
+        try {
+            // the value may have been put after the first lookup
+            final Cache.ValueWrapper hit = cache.get(key);
+            final V value;
+            if (hit != null) {
+                value = (V) hit.get();
+            } else {
+                value = loader.load(key);
+                if (isCacheable(value)) {
+                    cache.put(key, value);
+                }
+            }
+            loading.value = value;
+            success = true;
+            return value;
+        } finally {
+            // remove after cache.put() so that callers find either the cached value or the loading
+            loadingMap.remove(key, loading);
+            loading.complete(success);
+        }
+    }
+
+    private boolean isCacheable(V value) {
+        if (cacheEmpty) {
+            return true;
+        }
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Collection) {
+            return !((Collection<?>) value).isEmpty();
+        }
+        if (value instanceof Map) {
+            return !((Map<?, ?>) value).isEmpty();
+        }
+        return true;
+    }
+
+    /**
+     * lookup without loading, for callers that load the misses in bulk.
+     * @return null if not cached
+     */
+    @SuppressWarnings("unchecked")
+    public V getIfPresent(K key) {
+        if (key == null) {
+            throw new NullPointerException("key must not be null");
+        }
+        final Cache.ValueWrapper hit = cache.get(key);
+        if (hit != null) {
+            hitCount.incrementAndGet();
+            return (V) hit.get();
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * values that are not cacheable (see cacheEmpty) are ignored.
+     */
+    public void put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("key must not be null");
+        }
+        if (isCacheable(value)) {
+            cache.put(key, value);
+        }
+    }
+
+    public void evict(K key) {
+        if (key == null) {
+            throw new NullPointerException("key must not be null");
+        }
+        cache.evict(key);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public String getName() {
+        return cache.getName();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return number of lookups that waited for the load of another caller
+     */
+    public long getCollapsedCount() {
+        return collapsedCount.get();
+    }
+
+    public Map<String, Object> getStatistics() {
+        final Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("name", getName());
+        statistics.put("hit", getHitCount());
+        statistics.put("miss", getMissCount());
+        statistics.put("collapsed", getCollapsedCount());
+        return statistics;
+    }
+
+    private static class Loading<V> {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile boolean success;
+        private volatile V value;
+
+        private void complete(boolean success) {
+            this.success = success;
+            latch.countDown();
+        }
+
+        private boolean await() {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for the load", e);
+            }
+            return success;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CollapsingCache{" +
+                "name=" + getName() +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", collapsedCount=" + collapsedCount +
+                '}';
+    }
+}
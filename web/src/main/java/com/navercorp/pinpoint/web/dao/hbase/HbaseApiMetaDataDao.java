@@ -16,14 +16,17 @@
 
 package com.navercorp.pinpoint.web.dao.hbase;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 
 import org.apache.hadoop.hbase.client.Get;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 
 import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
@@ -31,6 +34,7 @@ import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 /**
  * @author emeroad
@@ -38,8 +42,6 @@ import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
  */
 @Repository
 public class HbaseApiMetaDataDao implements ApiMetaDataDao {
-    static final String SPEL_KEY = "#agentId.toString() + '.' + #time.toString() + '.' + #apiId.toString()";
-    
     @Autowired
     private HbaseOperations2 hbaseOperations2;
 
@@ -51,20 +53,77 @@ public class HbaseApiMetaDataDao implements ApiMetaDataDao {
     @Qualifier("metadataRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
+    @Autowired
+    @Qualifier("apiMetaDataCache")
+    private CollapsingCache<String, List<ApiMetaDataBo>> apiMetaDataCache;
+
     @Override
-    @Cacheable(value="apiMetaData", key=SPEL_KEY)
-    public List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId) {
+    public List<ApiMetaDataBo> getApiMetaData(final String agentId, final long time, final int apiId) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
         }
 
-        ApiMetaDataBo apiMetaDataBo = new ApiMetaDataBo(agentId, time, apiId);
-        byte[] sqlId = getDistributedKey(apiMetaDataBo.toRowKey());
-        Get get = new Get(sqlId);
-        get.addFamily(HBaseTables.API_METADATA_CF_API);
+        return apiMetaDataCache.get(cacheKey(agentId, time, apiId), new CollapsingCache.Loader<String, List<ApiMetaDataBo>>() {
+            @Override
+            public List<ApiMetaDataBo> load(String key) {
+                return selectApiMetaData(agentId, time, apiId);
+            }
+        });
+    }
+
+    static String cacheKey(String agentId, long time, int apiId) {
+        return agentId + '.' + time + '.' + apiId;
+    }
+
+    @Override
+    public Map<MetaDataKey, List<ApiMetaDataBo>> getApiMetaData(Collection<MetaDataKey> metaDataKeys) {
+        if (metaDataKeys == null) {
+            throw new NullPointerException("metaDataKeys must not be null");
+        }
+        final Map<MetaDataKey, List<ApiMetaDataBo>> result = new HashMap<>();
+        final List<MetaDataKey> missList = new ArrayList<>();
+        final List<Get> getList = new ArrayList<>();
+        for (MetaDataKey metaDataKey : metaDataKeys) {
+            if (result.containsKey(metaDataKey)) {
+                continue;
+            }
+            final List<ApiMetaDataBo> hit = apiMetaDataCache.getIfPresent(cacheKey(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()));
+            if (hit != null) {
+                result.put(metaDataKey, hit);
+            } else {
+                // reserve the key so that duplicated keys are read once
+                result.put(metaDataKey, null);
+                missList.add(metaDataKey);
+                getList.add(createGet(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()));
+            }
+        }
+        if (getList.isEmpty()) {
+            return result;
+        }
+
+        final List<List<ApiMetaDataBo>> metaDataList = hbaseOperations2.get(HBaseTables.API_METADATA, getList, apiMetaDataMapper);
+        for (int i = 0; i < missList.size(); i++) {
+            final MetaDataKey metaDataKey = missList.get(i);
+            final List<ApiMetaDataBo> metaData = metaDataList.get(i);
+            result.put(metaDataKey, metaData);
+            apiMetaDataCache.put(cacheKey(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()), metaData);
+        }
+        return result;
+    }
+
+    private List<ApiMetaDataBo> selectApiMetaData(String agentId, long time, int apiId) {
+        final Get get = createGet(agentId, time, apiId);
         return hbaseOperations2.get(HBaseTables.API_METADATA, get, apiMetaDataMapper);
     }
 
+    private Get createGet(String agentId, long time, int apiId) {
+        final ApiMetaDataBo metaDataBo = new ApiMetaDataBo(agentId, time, apiId);
+        final byte[] rowKey = getDistributedKey(metaDataBo.toRowKey());
+        final Get get = new Get(rowKey);
+        get.addFamily(HBaseTables.API_METADATA_CF_API);
+        return get;
+    }
+
     private byte[] getDistributedKey(byte[] rowKey) {
         return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey);
     }
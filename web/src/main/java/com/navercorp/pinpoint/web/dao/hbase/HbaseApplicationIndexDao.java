@@ -55,6 +55,17 @@ public class HbaseApplicationIndexDao implements ApplicationIndexDao {
     @Qualifier("agentIdMapper")
     private RowMapper<List<String>> agentIdMapper;
 
+    @Autowired
+    @Qualifier("agentIdListCache")
+    private CollapsingCache<String, List<String>> agentIdListCache;
+
+    private final CollapsingCache.Loader<String, List<String>> agentIdListLoader = new CollapsingCache.Loader<String, List<String>>() {
+        @Override
+        public List<String> load(String applicationName) {
+            return selectAgentIdsFromHbase(applicationName);
+        }
+    };
+
     @Override
     public List<Application> selectAllApplicationNames() {
         Scan scan = new Scan();
@@ -72,6 +83,12 @@ public class HbaseApplicationIndexDao implements ApplicationIndexDao {
         if (applicationName == null) {
             throw new NullPointerException("applicationName must not be null");
         }
+        final List<String> agentIds = agentIdListCache.get(applicationName, agentIdListLoader);
+        // copy the cached list, callers may sort it
+        return new ArrayList<>(agentIds);
+    }
+
+    private List<String> selectAgentIdsFromHbase(String applicationName) {
         byte[] rowKey = Bytes.toBytes(applicationName);
 
         Get get = new Get(rowKey);
@@ -85,6 +102,7 @@ public class HbaseApplicationIndexDao implements ApplicationIndexDao {
         byte[] rowKey = Bytes.toBytes(applicationName);
         Delete delete = new Delete(rowKey);
         hbaseOperations2.delete(HBaseTables.APPLICATION_INDEX, delete);
+        agentIdListCache.evict(applicationName);
     }
 
     @Override
@@ -113,6 +131,11 @@ public class HbaseApplicationIndexDao implements ApplicationIndexDao {
             }
         }
         hbaseOperations2.delete(HBaseTables.APPLICATION_INDEX, deletes);
+        for (String applicationName : applicationAgentIdMap.keySet()) {
+            if (applicationName != null) {
+                agentIdListCache.evict(applicationName);
+            }
+        }
     }
 
     @Override
@@ -128,5 +151,6 @@ public class HbaseApplicationIndexDao implements ApplicationIndexDao {
         byte[] qualifier = Bytes.toBytes(agentId);
         delete.addColumns(HBaseTables.APPLICATION_INDEX_CF_AGENTS, qualifier);
         hbaseOperations2.delete(HBaseTables.APPLICATION_INDEX, delete);
+        agentIdListCache.evict(applicationName);
     }
 }
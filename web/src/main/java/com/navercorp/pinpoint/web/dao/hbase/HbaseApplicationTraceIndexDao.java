@@ -23,6 +23,8 @@ import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.LimitEventHandler;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.hbase.ScanCounter;
+import com.navercorp.pinpoint.common.hbase.filter.TraceIndexValueFilter;
 import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.common.util.DateUtils;
 import com.navercorp.pinpoint.common.server.util.SpanUtils;
@@ -30,9 +32,11 @@ import com.navercorp.pinpoint.common.util.TimeUtils;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.dao.ApplicationTraceIndexDao;
 import com.navercorp.pinpoint.web.mapper.TraceIndexScatterMapper2;
+import com.navercorp.pinpoint.web.mapper.TraceIndexScatterDensityExtractor;
 import com.navercorp.pinpoint.web.mapper.TraceIndexScatterMapper3;
 import com.navercorp.pinpoint.web.mapper.TransactionIdMapper;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterDensity;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.ResponseTimeRange;
@@ -55,6 +59,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
@@ -86,6 +91,10 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
     @Qualifier("applicationTraceIndexDistributor")
     private AbstractRowKeyDistributor traceIdRowKeyDistributor;
 
+    // TraceIndexValueFilter must be deployed to the region servers
+    @Value("#{pinpointWebProps['web.scatter.serverfilter.enable'] ?: false}")
+    private boolean serverFilterEnable;
+
     private int scanCacheSize = 256;
 
     public void setScanCacheSize(int scanCacheSize) {
@@ -108,8 +117,10 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
         final LimitedScanResult<List<TransactionId>> limitedScanResult = new LimitedScanResult<>();
         LastRowAccessor lastRowAccessor = new LastRowAccessor();
+        ScanCounter scanCounter = new ScanCounter();
         List<List<TransactionId>> traceIndexList = hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX,
-                scan, traceIdRowKeyDistributor, limit, traceIndexMapper, lastRowAccessor, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
+                scan, traceIdRowKeyDistributor, limit, traceIndexMapper, lastRowAccessor, scanCounter, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
+        setScanCount(limitedScanResult, scanCounter);
 
         List<TransactionId> transactionIdSum = new ArrayList<>(128);
         for(List<TransactionId> transactionId: traceIndexList) {
@@ -120,6 +131,7 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         if (transactionIdSum.size() >= limit) {
             Long lastRowTimestamp = lastRowAccessor.getLastRowTimestamp();
             limitedScanResult.setLimitedTime(lastRowTimestamp);
+            limitedScanResult.setResumeTime(getResumeTime(lastRowTimestamp, scanBackward));
             if (logger.isDebugEnabled()) {
                 logger.debug("lastRowTimestamp lastTime:{}", DateUtils.longToDateStr(lastRowTimestamp));
             }
@@ -149,8 +161,10 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
         final LimitedScanResult<List<TransactionId>> limitedScanResult = new LimitedScanResult<>();
         LastRowAccessor lastRowAccessor = new LastRowAccessor();
+        ScanCounter scanCounter = new ScanCounter();
         List<List<TransactionId>> traceIndexList = hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX,
-                scan, traceIdRowKeyDistributor, limit, traceIndexMapper, lastRowAccessor, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
+                scan, traceIdRowKeyDistributor, limit, traceIndexMapper, lastRowAccessor, scanCounter, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
+        setScanCount(limitedScanResult, scanCounter);
 
         List<TransactionId> transactionIdSum = new ArrayList<>(128);
         for(List<TransactionId> transactionId: traceIndexList) {
@@ -161,6 +175,7 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         if (transactionIdSum.size() >= limit) {
             Long lastRowTimestamp = lastRowAccessor.getLastRowTimestamp();
             limitedScanResult.setLimitedTime(lastRowTimestamp);
+            limitedScanResult.setResumeTime(getResumeTime(lastRowTimestamp, true));
             if (logger.isDebugEnabled()) {
                 logger.debug("lastRowTimestamp lastTime:{}", DateUtils.longToDateStr(lastRowTimestamp));
             }
@@ -174,6 +189,23 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         return limitedScanResult;
     }
 
+    private void setScanCount(LimitedScanResult<?> limitedScanResult, ScanCounter scanCounter) {
+        limitedScanResult.setReadCount(scanCounter.getReadCount());
+        limitedScanResult.setDiscardedCount(scanCounter.getDiscardedCount());
+        if (logger.isDebugEnabled()) {
+            logger.debug("traceIndex {}", scanCounter);
+        }
+    }
+
+    private long getResumeTime(long lastRowTimestamp, boolean scanBackward) {
+        // a row holds every transaction of the same millisecond, so the last row has been read entirely.
+        if (scanBackward) {
+            return lastRowTimestamp - 1;
+        } else {
+            return lastRowTimestamp + 1;
+        }
+    }
+
     private class LastRowAccessor implements LimitEventHandler {
         private Long lastRowTimestamp = -1L;
         private TransactionId lastTransactionId = null;
@@ -267,6 +299,10 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
         // method 2
         ResponseTimeRange responseTimeRange = area.getResponseTimeRange();
+        if (serverFilterEnable) {
+            // skip the dots out of the response time range on the region servers
+            scan.setFilter(new TraceIndexValueFilter(responseTimeRange.getFrom(), responseTimeRange.getTo()));
+        }
         TraceIndexScatterMapper2 mapper = new TraceIndexScatterMapper2(responseTimeRange.getFrom(), responseTimeRange.getTo());
 
         List<List<Dot>> dotListList = hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX, scan, traceIdRowKeyDistributor, limit, mapper, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
@@ -281,31 +317,74 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
     @Override
     public ScatterData scanTraceScatterData(String applicationName, Range range, int xGroupUnit, int yGroupUnit, int limit, boolean scanBackward) {
+        return scanTraceScatterData(applicationName, range, range, xGroupUnit, yGroupUnit, limit, scanBackward).getScanData();
+    }
+
+    @Override
+    public LimitedScanResult<ScatterData> scanTraceScatterData(String applicationName, Range range, Range scanRange, int xGroupUnit, int yGroupUnit, int limit, boolean scanBackward) {
         if (applicationName == null) {
             throw new NullPointerException("applicationName must not be null");
         }
         if (range == null) {
             throw new NullPointerException("range must not be null");
         }
+        if (scanRange == null) {
+            throw new NullPointerException("scanRange must not be null");
+        }
         if (limit < 0) {
             throw new IllegalArgumentException("negative limit:" + limit);
         }
         logger.debug("scanTraceScatterDataMadeOfDotGroup");
-        Scan scan = createScan(applicationName, range, scanBackward);
+        Scan scan = createScan(applicationName, scanRange, scanBackward);
 
         TraceIndexScatterMapper3 mapper = new TraceIndexScatterMapper3(range.getFrom(), range.getTo(), xGroupUnit, yGroupUnit);
-        List<ScatterData> dotGroupList = hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX, scan, traceIdRowKeyDistributor, limit, mapper, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
+        final LimitedScanResult<ScatterData> limitedScanResult = new LimitedScanResult<>();
+        LastRowAccessor lastRowAccessor = new LastRowAccessor();
+        ScanCounter scanCounter = new ScanCounter();
+        List<ScatterData> dotGroupList = hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX,
+                scan, traceIdRowKeyDistributor, limit, mapper, lastRowAccessor, scanCounter, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
+        setScanCount(limitedScanResult, scanCounter);
 
         if (CollectionUtils.isEmpty(dotGroupList)) {
-            return new ScatterData(range.getFrom(), range.getTo(), xGroupUnit, yGroupUnit);
+            limitedScanResult.setScanData(new ScatterData(range.getFrom(), range.getTo(), xGroupUnit, yGroupUnit));
         } else {
             ScatterData firstScatterData = dotGroupList.get(0);
             for (int i = 1; i < dotGroupList.size(); i++) {
                 firstScatterData.merge(dotGroupList.get(i));
             }
+            limitedScanResult.setScanData(firstScatterData);
+        }
 
-            return firstScatterData;
+        // one ScatterData per row, the limit is a number of rows
+        if (dotGroupList.size() >= limit) {
+            Long lastRowTimestamp = lastRowAccessor.getLastRowTimestamp();
+            limitedScanResult.setLimitedTime(lastRowTimestamp);
+            limitedScanResult.setResumeTime(getResumeTime(lastRowTimestamp, scanBackward));
+        } else {
+            limitedScanResult.setLimitedTime(scanRange.getFrom());
+        }
+        return limitedScanResult;
+    }
+
+    @Override
+    public ScatterDensity scanTraceScatterDensity(String applicationName, Range range, Range scanRange, int xGroupUnit, int yGroupUnit, int yMax, int limit, boolean scanBackward) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
         }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (scanRange == null) {
+            throw new NullPointerException("scanRange must not be null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit:" + limit);
+        }
+        logger.debug("scanTraceScatterDensity");
+        Scan scan = createScan(applicationName, scanRange, scanBackward);
+
+        TraceIndexScatterDensityExtractor extractor = new TraceIndexScatterDensityExtractor(range.getFrom(), range.getTo(), xGroupUnit, yGroupUnit, yMax, limit);
+        return hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX, scan, traceIdRowKeyDistributor, extractor, APPLICATION_TRACE_INDEX_NUM_PARTITIONS);
     }
 
     /**
@@ -71,11 +71,32 @@ public class HbaseHostApplicationMapDao implements HostApplicationMapDao {
     private AbstractRowKeyDistributor acceptApplicationRowKeyDistributor;
 
 
+    @Autowired
+    @Qualifier("acceptApplicationCache")
+    private CollapsingCache<String, Set<AcceptApplication>> acceptApplicationCache;
+
     @Override
-    public Set<AcceptApplication> findAcceptApplicationName(Application fromApplication, Range range) {
+    public Set<AcceptApplication> findAcceptApplicationName(final Application fromApplication, final Range range) {
         if (fromApplication == null) {
             throw new NullPointerException("fromApplication must not be null");
         }
+        // the scan reads whole time slots, so the same slots give the same result
+        final String cacheKey = fromApplication.getName() + '.' + fromApplication.getServiceTypeCode()
+                + '.' + timeSlot.getTimeSlot(range.getFrom()) + '.' + timeSlot.getTimeSlot(range.getTo());
+        final Set<AcceptApplication> acceptApplications = acceptApplicationCache.get(cacheKey, new CollapsingCache.Loader<String, Set<AcceptApplication>>() {
+            @Override
+            public Set<AcceptApplication> load(String key) {
+                return selectAcceptApplicationName(fromApplication, range);
+            }
+        });
+        if (acceptApplications.isEmpty()) {
+            return Collections.emptySet();
+        }
+        // copy the cached set, callers may modify it
+        return new HashSet<>(acceptApplications);
+    }
+
+    private Set<AcceptApplication> selectAcceptApplicationName(Application fromApplication, Range range) {
         final Scan scan = createScan(fromApplication, range);
         final List<List<AcceptApplication>> result = hbaseOperations2.findParallel(HBaseTables.HOST_APPLICATION_MAP_VER2, scan, acceptApplicationRowKeyDistributor, hostApplicationMapperVer2, HOST_APPLICATION_MAP_VER2_NUM_PARTITIONS);
         if (CollectionUtils.isNotEmpty(result)) {
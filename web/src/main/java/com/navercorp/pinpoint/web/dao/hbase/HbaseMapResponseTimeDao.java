@@ -21,6 +21,8 @@ import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.web.dao.MapResponseDao;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.RangeFactory;
@@ -32,6 +34,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
@@ -64,6 +67,9 @@ public class HbaseMapResponseTimeDao implements MapResponseDao {
     @Qualifier("statisticsSelfRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
+    @Value("#{pinpointWebProps['web.mapstatistics.rollup.enable'] ?: false}")
+    private boolean rollupEnable;
+
 
     @Override
     public List<ResponseTime> selectResponseTime(Application application, Range range) {
@@ -74,9 +80,17 @@ public class HbaseMapResponseTimeDao implements MapResponseDao {
             logger.debug("selectResponseTime applicationName:{}, {}", application, range);
         }
 
-        Scan scan = createScan(application, range, HBaseTables.MAP_STATISTICS_SELF_VER2_CF_COUNTER);
+        // ResponseHistogramBuilder folds the rows into the same time window
+        final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+        final Range statisticsRange = rangeFactory.createStatisticsRange(range);
+        final List<MapStatisticsScanRange> scanRangeList = MapStatisticsScanRange.split(statisticsRange, timeWindow, HBaseTables.MAP_STATISTICS_SELF_VER2_CF_COUNTER, rollupEnable);
 
-        List<ResponseTime> responseTimeList = hbaseOperations2.findParallel(HBaseTables.MAP_STATISTICS_SELF_VER2, scan, rowKeyDistributorByHashPrefix, responseTimeMapper, MAP_STATISTICS_SELF_VER2_NUM_PARTITIONS);
+        List<ResponseTime> responseTimeList = new ArrayList<>();
+        for (MapStatisticsScanRange scanRange : scanRangeList) {
+            Scan scan = createScan(application, scanRange);
+            List<ResponseTime> scanResult = hbaseOperations2.findParallel(HBaseTables.MAP_STATISTICS_SELF_VER2, scan, rowKeyDistributorByHashPrefix, responseTimeMapper, MAP_STATISTICS_SELF_VER2_NUM_PARTITIONS);
+            responseTimeList.addAll(scanResult);
+        }
         if (logger.isDebugEnabled()) {
             logger.debug("Self data {}", responseTimeList);
         }
@@ -88,21 +102,20 @@ public class HbaseMapResponseTimeDao implements MapResponseDao {
         return new ArrayList<>();
     }
 
-    private Scan createScan(Application application, Range range, byte[] family) {
-        range = rangeFactory.createStatisticsRange(range);
+    private Scan createScan(Application application, MapStatisticsScanRange scanRange) {
         if (logger.isDebugEnabled()) {
-            logger.debug("scan time:{} ", range.prettyToString());
+            logger.debug("scan range:{}", scanRange);
         }
 
         // start key is replaced by end key because timestamp has been reversed
-        byte[] startKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), range.getTo());
-        byte[] endKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), range.getFrom());
+        byte[] startKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), scanRange.getTo());
+        byte[] endKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), scanRange.getFrom() - 1);
 
         final Scan scan = new Scan();
         scan.setCaching(this.scanCacheSize);
         scan.setStartRow(startKey);
         scan.setStopRow(endKey);
-        scan.addFamily(family);
+        scan.addFamily(scanRange.getFamily());
         scan.setId("ApplicationSelfScan");
 
         return scan;
@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
+import com.navercorp.pinpoint.common.util.TimeSlot;
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
 import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.web.mapper.*;
@@ -36,8 +37,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import java.util.List;
+
 /**
  * @author netspider
  * @author emeroad
@@ -64,9 +70,33 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
     @Qualifier("statisticsCalleeRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
+    @Value("#{pinpointWebProps['web.mapstatistics.rollup.enable'] ?: false}")
+    private boolean rollupEnable;
+
+    @Autowired
+    private TimeSlot timeSlot;
+
+    @Autowired
+    @Qualifier("ehcacheManager")
+    private CacheManager cacheManager;
+
+    @Value("#{pinpointWebProps['web.mapstatistics.prefixcache.enable'] ?: false}")
+    private boolean prefixCacheEnable;
+
+    @Value("#{pinpointWebProps['web.mapstatistics.prefixcache.sealdelay'] ?: 180000}")
+    private long prefixCacheSealDelay;
+
+    private MapStatisticsPrefixCache prefixCache;
+
+    @PostConstruct
+    public void init() {
+        if (prefixCacheEnable) {
+            this.prefixCache = new MapStatisticsPrefixCache("Callee", cacheManager.getCache(MapStatisticsPrefixCache.CACHE_NAME), timeSlot, prefixCacheSealDelay);
+        }
+    }
 
     @Override
-    public LinkDataMap selectCallee(Application calleeApplication, Range range) {
+    public LinkDataMap selectCallee(final Application calleeApplication, Range range) {
         if (calleeApplication == null) {
             throw new NullPointerException("calleeApplication must not be null");
         }
@@ -75,35 +105,60 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         }
 
         final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
-        // find distributed key - ver2.
-        final Scan scan = createScan(calleeApplication, range, HBaseTables.MAP_STATISTICS_CALLER_VER2_CF_COUNTER);
-        ResultsExtractor<LinkDataMap> resultExtractor = new RowMapReduceResultExtractor<>(mapStatisticsCalleeMapper, new MapStatisticsTimeWindowReducer(timeWindow));
-        LinkDataMap linkDataMap = hbaseOperations2.findParallel(HBaseTables.MAP_STATISTICS_CALLER_VER2, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLER_VER2_NUM_PARTITIONS);
+        final Range statisticsRange = rangeFactory.createStatisticsRange(range);
+        final LinkDataMap linkDataMap;
+        if (prefixCache == null) {
+            linkDataMap = scan(calleeApplication, statisticsRange, timeWindow);
+        } else {
+            linkDataMap = prefixCache.select(calleeApplication, statisticsRange, timeWindow, new MapStatisticsPrefixCache.Scanner() {
+                @Override
+                public LinkDataMap scan(Range statisticsRange) {
+                    return HbaseMapStatisticsCalleeDao.this.scan(calleeApplication, statisticsRange, timeWindow);
+                }
+            });
+        }
         logger.debug("Callee data. {}, {}", linkDataMap, range);
-        if (linkDataMap != null && linkDataMap.size() > 0) {
+        if (linkDataMap.size() > 0) {
             return linkDataMap;
         }
 
         return new LinkDataMap();
     }
 
+    private LinkDataMap scan(Application calleeApplication, Range statisticsRange, TimeWindow timeWindow) {
+        final List<MapStatisticsScanRange> scanRangeList = MapStatisticsScanRange.split(statisticsRange, timeWindow, HBaseTables.MAP_STATISTICS_CALLER_VER2_CF_COUNTER, rollupEnable);
+        // the reducer accumulates every scan into a single LinkDataMap
+        ResultsExtractor<LinkDataMap> resultExtractor = new RowMapReduceResultExtractor<>(mapStatisticsCalleeMapper, new MapStatisticsTimeWindowReducer(timeWindow));
+        LinkDataMap linkDataMap = null;
+        for (MapStatisticsScanRange scanRange : scanRangeList) {
+            // find distributed key - ver2.
+            final Scan scan = createScan(calleeApplication, scanRange);
+            final LinkDataMap scanResult = hbaseOperations2.findParallel(HBaseTables.MAP_STATISTICS_CALLER_VER2, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLER_VER2_NUM_PARTITIONS);
+            if (scanResult != null) {
+                linkDataMap = scanResult;
+            }
+        }
+        if (linkDataMap == null) {
+            return new LinkDataMap(timeWindow);
+        }
+        return linkDataMap;
+    }
 
-    private Scan createScan(Application application, Range range, byte[] family) {
-        range = rangeFactory.createStatisticsRange(range);
 
+    private Scan createScan(Application application, MapStatisticsScanRange scanRange) {
         if (logger.isDebugEnabled()) {
-            logger.debug("scan time:{} ", range.prettyToString());
+            logger.debug("scan range:{}", scanRange);
         }
 
         // start key is replaced by end key because timestamp has been reversed
-        byte[] startKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), range.getTo());
-        byte[] endKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), range.getFrom());
+        byte[] startKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), scanRange.getTo());
+        byte[] endKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), scanRange.getFrom() - 1);
 
         Scan scan = new Scan();
         scan.setCaching(this.scanCacheSize);
         scan.setStartRow(startKey);
         scan.setStopRow(endKey);
-        scan.addFamily(family);
+        scan.addFamily(scanRange.getFamily());
         scan.setId("ApplicationStatisticsScan");
 
         return scan;
@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
+import com.navercorp.pinpoint.common.util.TimeSlot;
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
 import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.web.mapper.*;
@@ -36,8 +37,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import java.util.List;
+
 /**
  * @author netspider
  * @author emeroad
@@ -64,9 +70,33 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
     @Qualifier("statisticsCallerRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
+    @Value("#{pinpointWebProps['web.mapstatistics.rollup.enable'] ?: false}")
+    private boolean rollupEnable;
+
+    @Autowired
+    private TimeSlot timeSlot;
+
+    @Autowired
+    @Qualifier("ehcacheManager")
+    private CacheManager cacheManager;
+
+    @Value("#{pinpointWebProps['web.mapstatistics.prefixcache.enable'] ?: false}")
+    private boolean prefixCacheEnable;
+
+    @Value("#{pinpointWebProps['web.mapstatistics.prefixcache.sealdelay'] ?: 180000}")
+    private long prefixCacheSealDelay;
+
+    private MapStatisticsPrefixCache prefixCache;
+
+    @PostConstruct
+    public void init() {
+        if (prefixCacheEnable) {
+            this.prefixCache = new MapStatisticsPrefixCache("Caller", cacheManager.getCache(MapStatisticsPrefixCache.CACHE_NAME), timeSlot, prefixCacheSealDelay);
+        }
+    }
 
     @Override
-    public LinkDataMap selectCaller(Application callerApplication, Range range) {
+    public LinkDataMap selectCaller(final Application callerApplication, Range range) {
         if (callerApplication == null) {
             throw new NullPointerException("callerApplication must not be null");
         }
@@ -75,37 +105,60 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         }
 
         final TimeWindow timeWindow = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
-        // find distributed key.
-        final Scan scan = createScan(callerApplication, range, HBaseTables.MAP_STATISTICS_CALLEE_VER2_CF_COUNTER);
-        ResultsExtractor<LinkDataMap> resultExtractor = new RowMapReduceResultExtractor<>(mapStatisticsCallerMapper, new MapStatisticsTimeWindowReducer(timeWindow));
-        LinkDataMap linkDataMap = hbaseOperations2.findParallel(HBaseTables.MAP_STATISTICS_CALLEE_VER2, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLEE_VER2_NUM_PARTITIONS);
+        final Range statisticsRange = rangeFactory.createStatisticsRange(range);
+        final LinkDataMap linkDataMap;
+        if (prefixCache == null) {
+            linkDataMap = scan(callerApplication, statisticsRange, timeWindow);
+        } else {
+            linkDataMap = prefixCache.select(callerApplication, statisticsRange, timeWindow, new MapStatisticsPrefixCache.Scanner() {
+                @Override
+                public LinkDataMap scan(Range statisticsRange) {
+                    return HbaseMapStatisticsCallerDao.this.scan(callerApplication, statisticsRange, timeWindow);
+                }
+            });
+        }
         logger.debug("Caller data. {}, {}", linkDataMap, range);
-        if (linkDataMap != null && linkDataMap.size() > 0) {
+        if (linkDataMap.size() > 0) {
             return linkDataMap;
         }
 
         return new LinkDataMap();
     }
 
+    private LinkDataMap scan(Application callerApplication, Range statisticsRange, TimeWindow timeWindow) {
+        final List<MapStatisticsScanRange> scanRangeList = MapStatisticsScanRange.split(statisticsRange, timeWindow, HBaseTables.MAP_STATISTICS_CALLEE_VER2_CF_COUNTER, rollupEnable);
+        // the reducer accumulates every scan into a single LinkDataMap
+        ResultsExtractor<LinkDataMap> resultExtractor = new RowMapReduceResultExtractor<>(mapStatisticsCallerMapper, new MapStatisticsTimeWindowReducer(timeWindow));
+        LinkDataMap linkDataMap = null;
+        for (MapStatisticsScanRange scanRange : scanRangeList) {
+            // find distributed key.
+            final Scan scan = createScan(callerApplication, scanRange);
+            final LinkDataMap scanResult = hbaseOperations2.findParallel(HBaseTables.MAP_STATISTICS_CALLEE_VER2, scan, rowKeyDistributorByHashPrefix, resultExtractor, MAP_STATISTICS_CALLEE_VER2_NUM_PARTITIONS);
+            if (scanResult != null) {
+                linkDataMap = scanResult;
+            }
+        }
+        if (linkDataMap == null) {
+            return new LinkDataMap(timeWindow);
+        }
+        return linkDataMap;
+    }
 
-    private Scan createScan(Application application, Range range, byte[]... familyArgs) {
-        range = rangeFactory.createStatisticsRange(range);
 
+    private Scan createScan(Application application, MapStatisticsScanRange scanRange) {
         if (logger.isDebugEnabled()) {
-            logger.debug("scan Time:{}", range.prettyToString());
+            logger.debug("scan range:{}", scanRange);
         }
 
         // start key is replaced by end key because timestamp has been reversed
-        byte[] startKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), range.getTo());
-        byte[] endKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), range.getFrom());
+        byte[] startKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), scanRange.getTo());
+        byte[] endKey = ApplicationMapStatisticsUtils.makeRowKey(application.getName(), application.getServiceTypeCode(), scanRange.getFrom() - 1);
 
         Scan scan = new Scan();
         scan.setCaching(this.scanCacheSize);
         scan.setStartRow(startKey);
         scan.setStopRow(endKey);
-        for(byte[] family : familyArgs) {
-            scan.addFamily(family);
-        }
+        scan.addFamily(scanRange.getFamily());
         scan.setId("ApplicationStatisticsScan");
 
         return scan;
@@ -16,18 +16,24 @@
 
 package com.navercorp.pinpoint.web.dao.hbase;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 
 import org.apache.hadoop.hbase.client.Get;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 
 import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 /**
  * @author emeroad
@@ -47,21 +53,77 @@ public class HbaseSqlMetaDataDao implements SqlMetaDataDao {
 //    @Qualifier("metadataRowKeyDistributor2")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
+    @Autowired
+    @Qualifier("sqlMetaDataCache")
+    private CollapsingCache<String, List<SqlMetaDataBo>> sqlMetaDataCache;
+
     @Override
-    public List<SqlMetaDataBo> getSqlMetaData(String agentId, long time, int sqlId) {
+    public List<SqlMetaDataBo> getSqlMetaData(final String agentId, final long time, final int sqlId) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
         }
 
-        SqlMetaDataBo sqlMetaData = new SqlMetaDataBo(agentId, time, sqlId);
-        byte[] rowKey = getDistributedKey(sqlMetaData.toRowKey());
+        return sqlMetaDataCache.get(cacheKey(agentId, time, sqlId), new CollapsingCache.Loader<String, List<SqlMetaDataBo>>() {
+            @Override
+            public List<SqlMetaDataBo> load(String key) {
+                return selectSqlMetaData(agentId, time, sqlId);
+            }
+        });
+    }
 
-        Get get = new Get(rowKey);
-        get.addFamily(HBaseTables.SQL_METADATA_VER2_CF_SQL);
+    static String cacheKey(String agentId, long time, int sqlId) {
+        return agentId + '.' + time + '.' + sqlId;
+    }
+
+    @Override
+    public Map<MetaDataKey, List<SqlMetaDataBo>> getSqlMetaData(Collection<MetaDataKey> metaDataKeys) {
+        if (metaDataKeys == null) {
+            throw new NullPointerException("metaDataKeys must not be null");
+        }
+        final Map<MetaDataKey, List<SqlMetaDataBo>> result = new HashMap<>();
+        final List<MetaDataKey> missList = new ArrayList<>();
+        final List<Get> getList = new ArrayList<>();
+        for (MetaDataKey metaDataKey : metaDataKeys) {
+            if (result.containsKey(metaDataKey)) {
+                continue;
+            }
+            final List<SqlMetaDataBo> hit = sqlMetaDataCache.getIfPresent(cacheKey(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()));
+            if (hit != null) {
+                result.put(metaDataKey, hit);
+            } else {
+                // reserve the key so that duplicated keys are read once
+                result.put(metaDataKey, null);
+                missList.add(metaDataKey);
+                getList.add(createGet(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()));
+            }
+        }
+        if (getList.isEmpty()) {
+            return result;
+        }
+
+        final List<List<SqlMetaDataBo>> metaDataList = hbaseOperations2.get(HBaseTables.SQL_METADATA_VER2, getList, sqlMetaDataMapper);
+        for (int i = 0; i < missList.size(); i++) {
+            final MetaDataKey metaDataKey = missList.get(i);
+            final List<SqlMetaDataBo> metaData = metaDataList.get(i);
+            result.put(metaDataKey, metaData);
+            sqlMetaDataCache.put(cacheKey(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()), metaData);
+        }
+        return result;
+    }
 
+    private List<SqlMetaDataBo> selectSqlMetaData(String agentId, long time, int sqlId) {
+        final Get get = createGet(agentId, time, sqlId);
         return hbaseOperations2.get(HBaseTables.SQL_METADATA_VER2, get, sqlMetaDataMapper);
     }
 
+    private Get createGet(String agentId, long time, int sqlId) {
+        final SqlMetaDataBo metaDataBo = new SqlMetaDataBo(agentId, time, sqlId);
+        final byte[] rowKey = getDistributedKey(metaDataBo.toRowKey());
+        final Get get = new Get(rowKey);
+        get.addFamily(HBaseTables.SQL_METADATA_VER2_CF_SQL);
+        return get;
+    }
+
     private byte[] getDistributedKey(byte[] rowKey) {
         return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey);
     }
@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
 
 import org.apache.hadoop.hbase.client.Get;
@@ -28,7 +29,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author emeroad
@@ -47,21 +52,77 @@ public class HbaseStringMetaDataDao implements StringMetaDataDao {
     @Qualifier("metadataRowKeyDistributor")
     private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
 
+    @Autowired
+    @Qualifier("stringMetaDataCache")
+    private CollapsingCache<String, List<StringMetaDataBo>> stringMetaDataCache;
+
     @Override
-    public List<StringMetaDataBo> getStringMetaData(String agentId, long time, int stringId) {
+    public List<StringMetaDataBo> getStringMetaData(final String agentId, final long time, final int stringId) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
         }
 
-        StringMetaDataBo stringMetaData = new StringMetaDataBo(agentId, time, stringId);
-        byte[] rowKey = getDistributedKey(stringMetaData.toRowKey());
+        return stringMetaDataCache.get(cacheKey(agentId, time, stringId), new CollapsingCache.Loader<String, List<StringMetaDataBo>>() {
+            @Override
+            public List<StringMetaDataBo> load(String key) {
+                return selectStringMetaData(agentId, time, stringId);
+            }
+        });
+    }
 
-        Get get = new Get(rowKey);
-        get.addFamily(HBaseTables.STRING_METADATA_CF_STR);
+    static String cacheKey(String agentId, long time, int stringId) {
+        return agentId + '.' + time + '.' + stringId;
+    }
+
+    @Override
+    public Map<MetaDataKey, List<StringMetaDataBo>> getStringMetaData(Collection<MetaDataKey> metaDataKeys) {
+        if (metaDataKeys == null) {
+            throw new NullPointerException("metaDataKeys must not be null");
+        }
+        final Map<MetaDataKey, List<StringMetaDataBo>> result = new HashMap<>();
+        final List<MetaDataKey> missList = new ArrayList<>();
+        final List<Get> getList = new ArrayList<>();
+        for (MetaDataKey metaDataKey : metaDataKeys) {
+            if (result.containsKey(metaDataKey)) {
+                continue;
+            }
+            final List<StringMetaDataBo> hit = stringMetaDataCache.getIfPresent(cacheKey(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()));
+            if (hit != null) {
+                result.put(metaDataKey, hit);
+            } else {
+                // reserve the key so that duplicated keys are read once
+                result.put(metaDataKey, null);
+                missList.add(metaDataKey);
+                getList.add(createGet(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()));
+            }
+        }
+        if (getList.isEmpty()) {
+            return result;
+        }
+
+        final List<List<StringMetaDataBo>> metaDataList = hbaseOperations2.get(HBaseTables.STRING_METADATA, getList, stringMetaDataMapper);
+        for (int i = 0; i < missList.size(); i++) {
+            final MetaDataKey metaDataKey = missList.get(i);
+            final List<StringMetaDataBo> metaData = metaDataList.get(i);
+            result.put(metaDataKey, metaData);
+            stringMetaDataCache.put(cacheKey(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()), metaData);
+        }
+        return result;
+    }
 
+    private List<StringMetaDataBo> selectStringMetaData(String agentId, long time, int stringId) {
+        final Get get = createGet(agentId, time, stringId);
         return hbaseOperations2.get(HBaseTables.STRING_METADATA, get, stringMetaDataMapper);
     }
 
+    private Get createGet(String agentId, long time, int stringId) {
+        final StringMetaDataBo metaDataBo = new StringMetaDataBo(agentId, time, stringId);
+        final byte[] rowKey = getDistributedKey(metaDataBo.toRowKey());
+        final Get get = new Get(rowKey);
+        get.addFamily(HBaseTables.STRING_METADATA_CF_STR);
+        return get;
+    }
+
     private byte[] getDistributedKey(byte[] rowKey) {
         return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey);
     }
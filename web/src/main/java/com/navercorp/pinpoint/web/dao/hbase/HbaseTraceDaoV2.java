@@ -6,11 +6,13 @@ import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.RowMapper;
 import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyDecoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.RowKeyEncoder;
 import com.navercorp.pinpoint.common.server.bo.serializer.trace.v2.SpanEncoder;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.dao.TraceDao;
 import com.navercorp.pinpoint.web.mapper.CellTraceMapper;
+import com.navercorp.pinpoint.web.mapper.SpanMapperV2;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
@@ -47,6 +49,8 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
     private RowMapper<List<SpanBo>> spanMapperV2;
 
+    private RowMapper<List<SpanBo>> spanHeaderMapperV2;
+
 
     @Value("#{pinpointWebProps['web.hbase.selectSpans.limit'] ?: 500}")
     private int selectSpansLimit;
@@ -60,11 +64,21 @@ public class HbaseTraceDaoV2 implements TraceDao {
     @Autowired
     @Qualifier("spanMapperV2")
     public void setSpanMapperV2(RowMapper<List<SpanBo>> spanMapperV2) {
-        final Logger logger = LoggerFactory.getLogger(spanMapperV2.getClass());
+        this.spanMapperV2 = wrapCellTraceMapper(spanMapperV2);
+    }
+
+    @Autowired
+    @Qualifier("traceRowKeyDecoderV2")
+    public void setTraceRowKeyDecoder(RowKeyDecoder<TransactionId> rowKeyDecoder) {
+        this.spanHeaderMapperV2 = wrapCellTraceMapper(new SpanMapperV2(rowKeyDecoder, true));
+    }
+
+    private RowMapper<List<SpanBo>> wrapCellTraceMapper(RowMapper<List<SpanBo>> spanMapper) {
+        final Logger logger = LoggerFactory.getLogger(spanMapper.getClass());
         if (logger.isDebugEnabled()) {
-            spanMapperV2 = CellTraceMapper.wrap(spanMapperV2);
+            return CellTraceMapper.wrap(spanMapper);
         }
-        this.spanMapperV2 = spanMapperV2;
+        return spanMapper;
     }
 
     @Override
@@ -90,7 +104,8 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
         List<List<TransactionId>> splitTransactionIdList = partition(transactionIdList, eachPartitionSize);
 
-        return partitionSelect(splitTransactionIdList, HBaseTables.TRACE_V2_CF_SPAN, spanFilter);
+        // transaction list only needs the span headers
+        return partitionSelect(splitTransactionIdList, HBaseTables.TRACE_V2_CF_SPAN, spanFilter, spanHeaderMapperV2);
     }
 
     @Override
@@ -105,7 +120,7 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
         List<List<TransactionId>> partitionTransactionIdList = partition(transactionIdList, eachPartitionSize);
 
-        return partitionSelect(partitionTransactionIdList, HBaseTables.TRACE_V2_CF_SPAN, null);
+        return partitionSelect(partitionTransactionIdList, HBaseTables.TRACE_V2_CF_SPAN, null, spanMapperV2);
     }
 
 
@@ -113,7 +128,7 @@ public class HbaseTraceDaoV2 implements TraceDao {
         return Lists.partition(transactionIdList, maxTransactionIdListSize);
     }
 
-    private List<List<SpanBo>> partitionSelect(List<List<TransactionId>> partitionTransactionIdList, byte[] columnFamily, Filter filter) {
+    private List<List<SpanBo>> partitionSelect(List<List<TransactionId>> partitionTransactionIdList, byte[] columnFamily, Filter filter, RowMapper<List<SpanBo>> spanMapper) {
         if (CollectionUtils.isEmpty(partitionTransactionIdList)) {
             return Collections.emptyList();
         }
@@ -123,13 +138,13 @@ public class HbaseTraceDaoV2 implements TraceDao {
 
         List<List<SpanBo>> spanBoList = new ArrayList<>();
         for (List<TransactionId> transactionIdList : partitionTransactionIdList) {
-            List<List<SpanBo>> partitionSpanList = select0(transactionIdList, columnFamily, filter);
+            List<List<SpanBo>> partitionSpanList = select0(transactionIdList, columnFamily, filter, spanMapper);
             spanBoList.addAll(partitionSpanList);
         }
         return spanBoList;
     }
 
-    private List<List<SpanBo>> select0(List<TransactionId> transactionIdList, byte[] columnFamily, Filter filter) {
+    private List<List<SpanBo>> select0(List<TransactionId> transactionIdList, byte[] columnFamily, Filter filter, RowMapper<List<SpanBo>> spanMapper) {
         if (CollectionUtils.isEmpty(transactionIdList)) {
             return Collections.emptyList();
         }
@@ -139,7 +154,7 @@ public class HbaseTraceDaoV2 implements TraceDao {
             final Get get = createGet(transactionId, columnFamily, filter);
             multiGet.add(get);
         }
-        return template2.get(HBaseTables.TRACE_V2, multiGet, spanMapperV2);
+        return template2.get(HBaseTables.TRACE_V2, multiGet, spanMapper);
     }
 
     private Get createGet(TransactionId transactionId, byte[] columnFamily, Filter filter) {
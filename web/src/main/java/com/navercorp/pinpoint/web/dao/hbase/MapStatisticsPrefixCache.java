@@ -0,0 +1,207 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.util.TimeSlot;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+/**
+ * Keeps the sealed prefix of a map statistics query, so that a refresh of the same range only scans the new slots.
+ * <p>
+ * A slot older than sealDelayMillis is assumed to receive no more data. The key is the application, the first slot and
+ * the window size, so an auto refreshing dashboard with a fixed "from" and a growing "to" hits the cache.
+ * The cached LinkDataMap is never handed out, it is copied into the result.
+ *
+ * @author agent
+ */
+public class MapStatisticsPrefixCache {
+
+    public static final String CACHE_NAME = "mapStatisticsPrefix";
+
+    private static final long ONE_MINUTE = MapStatisticsScanRange.ONE_MINUTE;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final String name;
+    private final Cache cache;
+    private final TimeSlot timeSlot;
+    private final long sealDelayMillis;
+
+    public interface Scanner {
+        /**
+         * @param statisticsRange from is exclusive, to is inclusive. same as RangeFactory.createStatisticsRange()
+         */
+        LinkDataMap scan(Range statisticsRange);
+    }
+
+    public MapStatisticsPrefixCache(String name, Cache cache, TimeSlot timeSlot, long sealDelayMillis) {
+        if (name == null) {
+            throw new NullPointerException("name must not be null");
+        }
+        if (cache == null) {
+            throw new NullPointerException("cache must not be null");
+        }
+        if (timeSlot == null) {
+            throw new NullPointerException("timeSlot must not be null");
+        }
+        if (sealDelayMillis < 0) {
+            throw new IllegalArgumentException("sealDelayMillis:" + sealDelayMillis);
+        }
+        this.name = name;
+        this.cache = cache;
+        this.timeSlot = timeSlot;
+        this.sealDelayMillis = sealDelayMillis;
+    }
+
+    public LinkDataMap select(Application application, Range statisticsRange, TimeWindow timeWindow, Scanner scanner) {
+        return select(application, statisticsRange, timeWindow, scanner, System.currentTimeMillis());
+    }
+
+    LinkDataMap select(Application application, Range statisticsRange, TimeWindow timeWindow, Scanner scanner, long currentTimeMillis) {
+        if (application == null) {
+            throw new NullPointerException("application must not be null");
+        }
+        if (statisticsRange == null) {
+            throw new NullPointerException("statisticsRange must not be null");
+        }
+        if (timeWindow == null) {
+            throw new NullPointerException("timeWindow must not be null");
+        }
+        if (scanner == null) {
+            throw new NullPointerException("scanner must not be null");
+        }
+        final long firstSlot = statisticsRange.getFrom() + 1;
+        final long lastSlot = statisticsRange.getTo();
+        final long lastSealedSlot = Math.min(lastSlot, timeSlot.getTimeSlot(currentTimeMillis - sealDelayMillis) - ONE_MINUTE);
+
+        final Key key = new Key(name, application, firstSlot, timeWindow.getWindowSlotSize());
+        final Prefix prefix = getPrefix(key);
+        if (prefix != null && prefix.getLastSlot() > lastSlot) {
+            // older "to" than the cached prefix, leave the cache as it is
+            return scanner.scan(statisticsRange);
+        }
+
+        final LinkDataMap result = new LinkDataMap(timeWindow);
+        long scanFrom = firstSlot;
+        if (prefix != null) {
+            result.addLinkDataMap(prefix.getLinkDataMap());
+            scanFrom = prefix.getLastSlot() + ONE_MINUTE;
+        }
+        if (scanFrom <= lastSealedSlot) {
+            final LinkDataMap sealed = scanner.scan(createStatisticsRange(scanFrom, lastSealedSlot));
+            result.addLinkDataMap(sealed);
+
+            final LinkDataMap newPrefix = new LinkDataMap(timeWindow);
+            if (prefix != null) {
+                newPrefix.addLinkDataMap(prefix.getLinkDataMap());
+            }
+            newPrefix.addLinkDataMap(sealed);
+            cache.put(key, new Prefix(lastSealedSlot, newPrefix));
+            scanFrom = lastSealedSlot + ONE_MINUTE;
+        }
+        if (scanFrom <= lastSlot) {
+            result.addLinkDataMap(scanner.scan(createStatisticsRange(scanFrom, lastSlot)));
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} prefix hit:{} lastSealedSlot:{} scanFrom:{}", name, prefix != null, lastSealedSlot, scanFrom);
+        }
+        return result;
+    }
+
+    private Prefix getPrefix(Key key) {
+        final Cache.ValueWrapper valueWrapper = cache.get(key);
+        if (valueWrapper == null) {
+            return null;
+        }
+        return (Prefix) valueWrapper.get();
+    }
+
+    private Range createStatisticsRange(long firstSlot, long lastSlot) {
+        return Range.createUncheckedRange(firstSlot - 1, lastSlot);
+    }
+
+    private static class Key {
+        private final String name;
+        private final Application application;
+        private final long firstSlot;
+        private final long windowSlotSize;
+
+        private Key(String name, Application application, long firstSlot, long windowSlotSize) {
+            this.name = name;
+            this.application = application;
+            this.firstSlot = firstSlot;
+            this.windowSlotSize = windowSlotSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            if (firstSlot != key.firstSlot) return false;
+            if (windowSlotSize != key.windowSlotSize) return false;
+            if (!name.equals(key.name)) return false;
+            return application.equals(key.application);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = name.hashCode();
+            result = 31 * result + application.hashCode();
+            result = 31 * result + (int) (firstSlot ^ (firstSlot >>> 32));
+            result = 31 * result + (int) (windowSlotSize ^ (windowSlotSize >>> 32));
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                    "name='" + name + '\'' +
+                    ", application=" + application +
+                    ", firstSlot=" + firstSlot +
+                    ", windowSlotSize=" + windowSlotSize +
+                    '}';
+        }
+    }
+
+    private static class Prefix {
+        private final long lastSlot;
+        private final LinkDataMap linkDataMap;
+
+        private Prefix(long lastSlot, LinkDataMap linkDataMap) {
+            this.lastSlot = lastSlot;
+            this.linkDataMap = linkDataMap;
+        }
+
+        public long getLastSlot() {
+            return lastSlot;
+        }
+
+        public LinkDataMap getLinkDataMap() {
+            return linkDataMap;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Slot range of a map statistics scan, both ends inclusive, and the column family to read.
+ * <p>
+ * When the time window is a multiple of a rollup slot, the whole rollup slots inside the range are read from the rollup family
+ * and only the partial slots at both ends are read from the one minute family, so the sum is the same as a one minute scan.
+ *
+ * @author agent
+ */
+public class MapStatisticsScanRange {
+
+    static final long ONE_MINUTE = 60000;
+
+    private final byte[] family;
+    private final long from;
+    private final long to;
+
+    public MapStatisticsScanRange(byte[] family, long from, long to) {
+        if (family == null) {
+            throw new NullPointerException("family must not be null");
+        }
+        this.family = family;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @param statisticsRange range from RangeFactory.createStatisticsRange(). from is exclusive, to is inclusive
+     */
+    public static List<MapStatisticsScanRange> split(Range statisticsRange, TimeWindow timeWindow, byte[] counterFamily, boolean useRollup) {
+        if (statisticsRange == null) {
+            throw new NullPointerException("statisticsRange must not be null");
+        }
+        if (timeWindow == null) {
+            throw new NullPointerException("timeWindow must not be null");
+        }
+        final long firstSlot = statisticsRange.getFrom() + 1;
+        final long lastSlot = statisticsRange.getTo();
+
+        final MapStatisticsRollup rollup = useRollup ? MapStatisticsRollup.findCoarsest(timeWindow.getWindowSlotSize()) : null;
+        if (rollup == null) {
+            return Arrays.asList(new MapStatisticsScanRange(counterFamily, firstSlot, lastSlot));
+        }
+
+        final long slotSize = rollup.getSlotSize();
+        // first rollup slot starting in the range, and end of the last rollup slot fully inside the range (exclusive)
+        final long rollupFrom = rollup.getTimeSlot(firstSlot + slotSize - 1);
+        final long rollupTo = rollup.getTimeSlot(lastSlot + ONE_MINUTE);
+        if (rollupFrom >= rollupTo) {
+            return Arrays.asList(new MapStatisticsScanRange(counterFamily, firstSlot, lastSlot));
+        }
+
+        final List<MapStatisticsScanRange> scanRangeList = new ArrayList<>(3);
+        if (firstSlot < rollupFrom) {
+            scanRangeList.add(new MapStatisticsScanRange(counterFamily, firstSlot, rollupFrom - ONE_MINUTE));
+        }
+        scanRangeList.add(new MapStatisticsScanRange(rollup.getFamily(), rollupFrom, rollupTo - slotSize));
+        if (rollupTo <= lastSlot) {
+            scanRangeList.add(new MapStatisticsScanRange(counterFamily, rollupTo, lastSlot));
+        }
+        return scanRangeList;
+    }
+
+    public byte[] getFamily() {
+        return family;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    @Override
+    public String toString() {
+        return "MapStatisticsScanRange{" +
+                "family=" + Bytes.toString(family) +
+                ", from=" + from +
+                ", to=" + to +
+                '}';
+    }
+}
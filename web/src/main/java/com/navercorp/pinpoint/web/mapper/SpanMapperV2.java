@@ -62,13 +62,23 @@ public class SpanMapperV2 implements RowMapper<List<SpanBo>> {
 
     private final RowKeyDecoder<TransactionId> rowKeyDecoder;
 
+    private final boolean headerOnly;
+
     @Autowired
     public SpanMapperV2(@Qualifier("traceRowKeyDecoderV2") RowKeyDecoder<TransactionId> rowKeyDecoder) {
+        this(rowKeyDecoder, false);
+    }
+
+    /**
+     * @param headerOnly maps only the span headers. span events and annotations are not decoded and span chunks are left empty
+     */
+    public SpanMapperV2(RowKeyDecoder<TransactionId> rowKeyDecoder, boolean headerOnly) {
         if (rowKeyDecoder == null) {
             throw new NullPointerException("rowKeyDecoder must not be null");
         }
 
         this.rowKeyDecoder = rowKeyDecoder;
+        this.headerOnly = headerOnly;
     }
 
     @Override
@@ -88,6 +98,7 @@ public class SpanMapperV2 implements RowMapper<List<SpanBo>> {
 
         final SpanDecodingContext decodingContext = new SpanDecodingContext();
         decodingContext.setTransactionId(transactionId);
+        decodingContext.setHeaderOnly(headerOnly);
 
         for (Cell cell : rawCells) {
             SpanDecoder spanDecoder = null;
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.ResultsExtractor;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.TimeUtils;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.scatter.ScatterDensity;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+
+/**
+ * folds ApplicationTraceIndex rows into a {@link ScatterDensity} as they arrive.
+ * the transactionId is decoded only for the exemplar of a cell.
+ *
+ * @author agent
+ */
+public class TraceIndexScatterDensityExtractor implements ResultsExtractor<ScatterDensity> {
+
+    private final long from;
+    private final long to;
+    private final int xGroupUnit;
+    private final int yGroupUnit;
+    private final int yMax;
+    private final int limit;
+
+    public TraceIndexScatterDensityExtractor(long from, long to, int xGroupUnit, int yGroupUnit, int yMax, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit:" + limit);
+        }
+        this.from = from;
+        this.to = to;
+        this.xGroupUnit = xGroupUnit;
+        this.yGroupUnit = yGroupUnit;
+        this.yMax = yMax;
+        this.limit = limit;
+    }
+
+    @Override
+    public ScatterDensity extractData(ResultScanner results) throws Exception {
+        final ScatterDensity scatterDensity = new ScatterDensity(from, to, xGroupUnit, yGroupUnit, yMax);
+        for (Result result : results) {
+            if (result.isEmpty()) {
+                continue;
+            }
+            for (Cell cell : result.rawCells()) {
+                addDot(scatterDensity, cell);
+            }
+            if (scatterDensity.getTotalCount() >= limit) {
+                break;
+            }
+        }
+        return scatterDensity;
+    }
+
+    private void addDot(ScatterDensity scatterDensity, Cell cell) {
+        final Buffer valueBuffer = new OffsetFixedBuffer(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+        final int elapsed = valueBuffer.readVInt();
+        final int exceptionCode = valueBuffer.readSVInt();
+        // agentId is not used
+
+        final long reverseAcceptedTime = BytesUtils.bytesToLong(cell.getRowArray(), cell.getRowOffset() + HBaseTables.APPLICATION_NAME_MAX_LEN + HBaseTables.APPLICATION_TRACE_INDEX_ROW_DISTRIBUTE_SIZE);
+        final long acceptedTime = TimeUtils.recoveryTimeMillis(reverseAcceptedTime);
+
+        final int exemplarCell = scatterDensity.addDot(acceptedTime, elapsed, exceptionCode);
+        if (exemplarCell != -1) {
+            final TransactionId transactionId = TransactionIdMapper.parseVarTransactionId(cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+            scatterDensity.setExemplar(exemplarCell, transactionId);
+        }
+    }
+}
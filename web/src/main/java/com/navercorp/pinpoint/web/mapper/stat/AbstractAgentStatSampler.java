@@ -108,30 +108,33 @@ public abstract class AbstractAgentStatSampler<T extends AgentStatDataPoint, S e
     private Map<Long, S> sampleDataPointPartition(TimeWindow timeWindow, List<T> dataPoints) {
         Map<Long, S> sampledDataPoints = new HashMap<>((int) timeWindow.getWindowRangeCount());
         T previous;
-        List<T> currentBatch = new ArrayList<>();
+        // data points of a timeslot are contiguous, so batches are views of dataPoints rather than copies
+        int currentBatchStart = 0;
         int currentTimeWindowIndex = INITIAL_TIME_WINDOW_INDEX;
         long currentTimeslotTimestamp = 0;
-        for (T dataPoint : dataPoints) {
+        final int numDataPoints = dataPoints.size();
+        for (int i = 0; i < numDataPoints; ++i) {
+            T dataPoint = dataPoints.get(i);
             long timestamp = dataPoint.getTimestamp();
             int timeWindowIndex = timeWindow.getWindowIndex(timestamp);
-            if (currentTimeWindowIndex == INITIAL_TIME_WINDOW_INDEX || currentTimeWindowIndex == timeWindowIndex) {
-                currentBatch.add(dataPoint);
-            } else if (timeWindowIndex < currentTimeWindowIndex) {
+            if (currentTimeWindowIndex != INITIAL_TIME_WINDOW_INDEX && currentTimeWindowIndex != timeWindowIndex) {
+                if (timeWindowIndex > currentTimeWindowIndex) {
+                    // Results should be sorted in a descending order of their actual timestamp values
+                    // as they are stored using reverse timestamp.
+                    throw new IllegalStateException("Out of order AgentStatDataPoint");
+                }
                 previous = dataPoint;
                 // currentBatch shouldn't be empty at this point
+                List<T> currentBatch = dataPoints.subList(currentBatchStart, i);
                 S sampledBatch = sampleDataPoints(currentTimeWindowIndex, currentTimeslotTimestamp, currentBatch, previous);
                 sampledDataPoints.put(currentTimeslotTimestamp, sampledBatch);
-                currentBatch = new ArrayList<>(currentBatch.size());
-                currentBatch.add(dataPoint);
-            } else {
-                // Results should be sorted in a descending order of their actual timestamp values
-                // as they are stored using reverse timestamp.
-                throw new IllegalStateException("Out of order AgentStatDataPoint");
+                currentBatchStart = i;
             }
             currentTimeslotTimestamp = timeWindow.refineTimestamp(timestamp);
             currentTimeWindowIndex = timeWindowIndex;
         }
-        if (!currentBatch.isEmpty()) {
+        if (currentBatchStart < numDataPoints) {
+            List<T> currentBatch = dataPoints.subList(currentBatchStart, numDataPoints);
             S sampledBatch = sampleDataPoints(currentTimeWindowIndex, currentTimeslotTimestamp, currentBatch, null);
             sampledDataPoints.put(currentTimeslotTimestamp, sampledBatch);
         }
@@ -22,13 +22,11 @@ import com.navercorp.pinpoint.common.trace.HistogramSchema;
 import com.navercorp.pinpoint.common.trace.SlotType;
 import com.navercorp.pinpoint.web.vo.chart.Point;
 import com.navercorp.pinpoint.web.vo.chart.UncollectedPoint;
-import com.navercorp.pinpoint.web.vo.stat.chart.DownSampler;
-import com.navercorp.pinpoint.web.vo.stat.chart.DownSamplers;
+import com.navercorp.pinpoint.web.vo.stat.chart.IntegerDownSampleAggregator;
 import com.navercorp.pinpoint.web.vo.stat.SampledActiveTrace;
 import com.navercorp.pinpoint.web.vo.chart.TitledPoint;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -38,7 +36,6 @@ import java.util.Map;
 @Component
 public class ActiveTraceSampler extends AbstractAgentStatSampler<ActiveTraceBo, SampledActiveTrace> {
 
-    public static final DownSampler<Integer> INTEGER_DOWN_SAMPLER = DownSamplers.getIntegerDownSampler(ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT);
 
     @Override
     public SampledActiveTrace sampleDataPoints(int timeWindowIndex, long timestamp, List<ActiveTraceBo> dataPoints, ActiveTraceBo previousDataPoint) {
@@ -50,10 +47,10 @@ public class ActiveTraceSampler extends AbstractAgentStatSampler<ActiveTraceBo,
             sampledActiveTrace.setSlowCounts(new UncollectedPoint<>(timestamp, ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT));
             sampledActiveTrace.setVerySlowCounts(new UncollectedPoint<>(timestamp, ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT));
         } else {
-            List<Integer> fastCounts = new ArrayList<>(dataPoints.size());
-            List<Integer> normalCounts = new ArrayList<>(dataPoints.size());
-            List<Integer> slowCounts = new ArrayList<>(dataPoints.size());
-            List<Integer> verySlowCounts = new ArrayList<>(dataPoints.size());
+            IntegerDownSampleAggregator fastCounts = new IntegerDownSampleAggregator(ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT);
+            IntegerDownSampleAggregator normalCounts = new IntegerDownSampleAggregator(ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT);
+            IntegerDownSampleAggregator slowCounts = new IntegerDownSampleAggregator(ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT);
+            IntegerDownSampleAggregator verySlowCounts = new IntegerDownSampleAggregator(ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT);
             for (ActiveTraceBo activeTraceBo : dataPoints) {
                 Map<SlotType, Integer> activeTraceCounts = activeTraceBo.getActiveTraceCounts();
                 if (activeTraceCounts.get(SlotType.FAST) != ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT) {
@@ -77,17 +74,17 @@ public class ActiveTraceSampler extends AbstractAgentStatSampler<ActiveTraceBo,
         return sampledActiveTrace;
     }
 
-    private Point<Long, Integer> createSampledTitledPoint(String title, long timestamp, List<Integer> values) {
+    private Point<Long, Integer> createSampledTitledPoint(String title, long timestamp, IntegerDownSampleAggregator values) {
         if (values.isEmpty()) {
             return new UncollectedPoint<>(timestamp, ActiveTraceBo.UNCOLLECTED_ACTIVE_TRACE_COUNT);
         } else {
             return new TitledPoint<>(
                     title,
                     timestamp,
-                    INTEGER_DOWN_SAMPLER.sampleMin(values),
-                    INTEGER_DOWN_SAMPLER.sampleMax(values),
-                    INTEGER_DOWN_SAMPLER.sampleAvg(values, 1),
-                    INTEGER_DOWN_SAMPLER.sampleSum(values));
+                    values.getMin(),
+                    values.getMax(),
+                    values.getAvg(1),
+                    values.getSum());
         }
     }
 }
@@ -19,12 +19,10 @@ package com.navercorp.pinpoint.web.mapper.stat;
 import com.navercorp.pinpoint.common.server.bo.stat.CpuLoadBo;
 import com.navercorp.pinpoint.web.vo.chart.Point;
 import com.navercorp.pinpoint.web.vo.chart.UncollectedPoint;
-import com.navercorp.pinpoint.web.vo.stat.chart.DownSampler;
-import com.navercorp.pinpoint.web.vo.stat.chart.DownSamplers;
+import com.navercorp.pinpoint.web.vo.stat.chart.DoubleDownSampleAggregator;
 import com.navercorp.pinpoint.web.vo.stat.SampledCpuLoad;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -34,12 +32,11 @@ import java.util.List;
 public class CpuLoadSampler extends AbstractAgentStatSampler<CpuLoadBo, SampledCpuLoad> {
 
     private static final int NUM_DECIMAL_PLACES = 1;
-    public static final DownSampler<Double> DOUBLE_DOWN_SAMPLER = DownSamplers.getDoubleDownSampler(CpuLoadBo.UNCOLLECTED_VALUE, NUM_DECIMAL_PLACES);
 
     @Override
     public SampledCpuLoad sampleDataPoints(int timeWindowIndex, long timestamp, List<CpuLoadBo> dataPoints, CpuLoadBo previousDataPoint) {
-        List<Double> jvmCpuLoads = new ArrayList<>(dataPoints.size());
-        List<Double> systemCpuLoads = new ArrayList<>(dataPoints.size());
+        DoubleDownSampleAggregator jvmCpuLoads = new DoubleDownSampleAggregator(CpuLoadBo.UNCOLLECTED_VALUE, NUM_DECIMAL_PLACES);
+        DoubleDownSampleAggregator systemCpuLoads = new DoubleDownSampleAggregator(CpuLoadBo.UNCOLLECTED_VALUE, NUM_DECIMAL_PLACES);
         for (CpuLoadBo cpuLoadBo : dataPoints) {
             if (cpuLoadBo.getJvmCpuLoad() != CpuLoadBo.UNCOLLECTED_VALUE) {
                 jvmCpuLoads.add(cpuLoadBo.getJvmCpuLoad() * 100);
@@ -54,16 +51,16 @@ public class CpuLoadSampler extends AbstractAgentStatSampler<CpuLoadBo, SampledC
         return sampledCpuLoad;
     }
 
-    private Point<Long, Double> createPoint(long timestamp, List<Double> values) {
+    private Point<Long, Double> createPoint(long timestamp, DoubleDownSampleAggregator values) {
         if (values.isEmpty()) {
             return new UncollectedPoint<>(timestamp, CpuLoadBo.UNCOLLECTED_VALUE);
         } else {
             return new Point<>(
                     timestamp,
-                    DOUBLE_DOWN_SAMPLER.sampleMin(values),
-                    DOUBLE_DOWN_SAMPLER.sampleMax(values),
-                    DOUBLE_DOWN_SAMPLER.sampleAvg(values),
-                    DOUBLE_DOWN_SAMPLER.sampleSum(values));
+                    values.getMin(),
+                    values.getMax(),
+                    values.getAvg(),
+                    values.getSum());
         }
     }
 }
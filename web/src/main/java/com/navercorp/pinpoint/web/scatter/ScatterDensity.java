@@ -0,0 +1,282 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.scatter;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.view.ScatterDensitySerializer;
+
+/**
+ * Fixed size scatter grid. (x slot, y slot) -> count, error count and the slowest transaction as an exemplar.
+ * <p>
+ * Unlike {@link ScatterData}, no object is kept per dot, so memory is bounded by the viewport and not by the number of transactions.
+ * Elapsed times over yMax are folded into the top row.
+ * <p>
+ * Caution. not thread safe, use {@link #merge(ScatterDensity)} to combine partial results.
+ *
+ * @author agent
+ */
+@JsonSerialize(using = ScatterDensitySerializer.class)
+public class ScatterDensity {
+
+    public static final int MAX_CELL_SIZE = 1 << 20;
+
+    private final long from;
+    private final long to;
+    private final int xGroupUnit;
+    private final int yGroupUnit;
+    private final int yMax;
+
+    private final int xSlotSize;
+    private final int ySlotSize;
+
+    private final int[] count;
+    private final int[] errorCount;
+    private final long[] exemplarAcceptedTime;
+    private final int[] exemplarElapsed;
+    private final TransactionId[] exemplarTransactionId;
+
+    private long totalCount;
+    private long oldestAcceptedTime = Long.MAX_VALUE;
+    private long latestAcceptedTime = Long.MIN_VALUE;
+
+    public ScatterDensity(long from, long to, int xGroupUnit, int yGroupUnit, int yMax) {
+        if (from <= 0) {
+            throw new IllegalArgumentException("from value must be higher than 0");
+        }
+        if (from > to) {
+            throw new IllegalArgumentException("from value must be lower or equal to to value");
+        }
+        if (xGroupUnit <= 0) {
+            throw new IllegalArgumentException("xGroupUnit:" + xGroupUnit);
+        }
+        if (yGroupUnit <= 0) {
+            throw new IllegalArgumentException("yGroupUnit:" + yGroupUnit);
+        }
+        if (yMax < 0) {
+            throw new IllegalArgumentException("yMax:" + yMax);
+        }
+        final long xSlotSize = (to - from) / xGroupUnit + 1;
+        final long ySlotSize = yMax / yGroupUnit + 1;
+        if (xSlotSize * ySlotSize > MAX_CELL_SIZE) {
+            throw new IllegalArgumentException("too many cells. xSlotSize:" + xSlotSize + ", ySlotSize:" + ySlotSize);
+        }
+
+        this.from = from;
+        this.to = to;
+        this.xGroupUnit = xGroupUnit;
+        this.yGroupUnit = yGroupUnit;
+        this.yMax = yMax;
+        this.xSlotSize = (int) xSlotSize;
+        this.ySlotSize = (int) ySlotSize;
+
+        final int cellSize = this.xSlotSize * this.ySlotSize;
+        this.count = new int[cellSize];
+        this.errorCount = new int[cellSize];
+        this.exemplarAcceptedTime = new long[cellSize];
+        this.exemplarElapsed = new int[cellSize];
+        this.exemplarTransactionId = new TransactionId[cellSize];
+    }
+
+    /**
+     * @return yGroupUnit coarsened so that the rows alone fit in {@link #MAX_CELL_SIZE}
+     */
+    public static int fitYGroupUnit(int yGroupUnit, int yMax) {
+        return Math.max(yGroupUnit, yMax / MAX_CELL_SIZE + 1);
+    }
+
+    /**
+     * @return xGroupUnit coarsened so that the grid fits in {@link #MAX_CELL_SIZE}.
+     * the time axis is coarsened first, use {@link #fitYGroupUnit(int, int)} for yGroupUnit beforehand
+     */
+    public static int fitXGroupUnit(long from, long to, int xGroupUnit, int yGroupUnit, int yMax) {
+        final long ySlotSize = yMax / yGroupUnit + 1;
+        final long maxXSlotSize = Math.max(MAX_CELL_SIZE / ySlotSize, 1);
+        final long minXGroupUnit = (to - from) / maxXSlotSize + 1;
+        return (int) Math.min(Math.max(xGroupUnit, minXGroupUnit), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return index of the cell if the dot became the exemplar of the cell, -1 otherwise.
+     * the caller is expected to hand over the transactionId with {@link #setExemplar(int, TransactionId)}
+     */
+    public int addDot(long acceptedTime, int elapsed, int exceptionCode) {
+        final int cell = getCell(acceptedTime, elapsed);
+
+        totalCount++;
+        if (oldestAcceptedTime > acceptedTime) {
+            oldestAcceptedTime = acceptedTime;
+        }
+        if (latestAcceptedTime < acceptedTime) {
+            latestAcceptedTime = acceptedTime;
+        }
+
+        final int prevCount = count[cell]++;
+        if (exceptionCode != 0) {
+            errorCount[cell]++;
+        }
+        if (prevCount == 0 || exemplarElapsed[cell] < elapsed) {
+            exemplarAcceptedTime[cell] = acceptedTime;
+            exemplarElapsed[cell] = elapsed;
+            exemplarTransactionId[cell] = null;
+            return cell;
+        }
+        return -1;
+    }
+
+    public void addDot(TransactionId transactionId, long acceptedTime, int elapsed, int exceptionCode) {
+        final int cell = addDot(acceptedTime, elapsed, exceptionCode);
+        if (cell != -1) {
+            setExemplar(cell, transactionId);
+        }
+    }
+
+    public void setExemplar(int cell, TransactionId transactionId) {
+        if (transactionId == null) {
+            throw new NullPointerException("transactionId must not be null");
+        }
+        exemplarTransactionId[cell] = transactionId;
+    }
+
+    private int getCell(long acceptedTime, int elapsed) {
+        int xSlot = (int) Math.max(0, Math.min((acceptedTime - from) / xGroupUnit, xSlotSize - 1));
+        int ySlot = Math.max(0, Math.min(elapsed / yGroupUnit, ySlotSize - 1));
+        return xSlot * ySlotSize + ySlot;
+    }
+
+    public void merge(ScatterDensity scatterDensity) {
+        if (scatterDensity == null) {
+            return;
+        }
+        if (from != scatterDensity.from || to != scatterDensity.to || xGroupUnit != scatterDensity.xGroupUnit
+                || yGroupUnit != scatterDensity.yGroupUnit || yMax != scatterDensity.yMax) {
+            throw new IllegalArgumentException("grid mismatch. " + scatterDensity);
+        }
+
+        for (int cell = 0; cell < count.length; cell++) {
+            final int otherCount = scatterDensity.count[cell];
+            if (otherCount == 0) {
+                continue;
+            }
+            final int prevCount = count[cell];
+            count[cell] += otherCount;
+            errorCount[cell] += scatterDensity.errorCount[cell];
+            if (prevCount == 0 || exemplarElapsed[cell] < scatterDensity.exemplarElapsed[cell]) {
+                exemplarAcceptedTime[cell] = scatterDensity.exemplarAcceptedTime[cell];
+                exemplarElapsed[cell] = scatterDensity.exemplarElapsed[cell];
+                exemplarTransactionId[cell] = scatterDensity.exemplarTransactionId[cell];
+            }
+        }
+
+        totalCount += scatterDensity.totalCount;
+        if (oldestAcceptedTime > scatterDensity.oldestAcceptedTime) {
+            oldestAcceptedTime = scatterDensity.oldestAcceptedTime;
+        }
+        if (latestAcceptedTime < scatterDensity.latestAcceptedTime) {
+            latestAcceptedTime = scatterDensity.latestAcceptedTime;
+        }
+    }
+
+    public int getXSlotSize() {
+        return xSlotSize;
+    }
+
+    public int getYSlotSize() {
+        return ySlotSize;
+    }
+
+    public int getCount(int xSlot, int ySlot) {
+        return count[cellIndex(xSlot, ySlot)];
+    }
+
+    public int getErrorCount(int xSlot, int ySlot) {
+        return errorCount[cellIndex(xSlot, ySlot)];
+    }
+
+    public long getExemplarAcceptedTime(int xSlot, int ySlot) {
+        return exemplarAcceptedTime[cellIndex(xSlot, ySlot)];
+    }
+
+    public int getExemplarElapsed(int xSlot, int ySlot) {
+        return exemplarElapsed[cellIndex(xSlot, ySlot)];
+    }
+
+    public TransactionId getExemplarTransactionId(int xSlot, int ySlot) {
+        return exemplarTransactionId[cellIndex(xSlot, ySlot)];
+    }
+
+    private int cellIndex(int xSlot, int ySlot) {
+        if (xSlot < 0 || xSlot >= xSlotSize) {
+            throw new IndexOutOfBoundsException("xSlot:" + xSlot);
+        }
+        if (ySlot < 0 || ySlot >= ySlotSize) {
+            throw new IndexOutOfBoundsException("ySlot:" + ySlot);
+        }
+        return xSlot * ySlotSize + ySlot;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public int getXGroupUnit() {
+        return xGroupUnit;
+    }
+
+    public int getYGroupUnit() {
+        return yGroupUnit;
+    }
+
+    public int getYMax() {
+        return yMax;
+    }
+
+    public long getOldestAcceptedTime() {
+        if (oldestAcceptedTime == Long.MAX_VALUE) {
+            return -1;
+        }
+        return oldestAcceptedTime;
+    }
+
+    public long getLatestAcceptedTime() {
+        if (latestAcceptedTime == Long.MIN_VALUE) {
+            return -1;
+        }
+        return latestAcceptedTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ScatterDensity{" +
+                "from=" + from +
+                ", to=" + to +
+                ", xGroupUnit=" + xGroupUnit +
+                ", yGroupUnit=" + yGroupUnit +
+                ", yMax=" + yMax +
+                ", totalCount=" + totalCount +
+                '}';
+    }
+}
@@ -26,6 +26,7 @@ import com.navercorp.pinpoint.web.security.ServerMapDataFilter;
 import com.navercorp.pinpoint.web.service.map.AcceptApplication;
 import com.navercorp.pinpoint.web.service.map.AcceptApplicationLocalCache;
 import com.navercorp.pinpoint.web.service.map.RpcApplication;
+import com.navercorp.pinpoint.web.util.BoundedExecutor;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.LinkKey;
 import com.navercorp.pinpoint.web.vo.Range;
@@ -36,10 +37,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Breadth-first link search
  * not thread safe
+ * <p>
+ * With an executor, the caller/callee statistics and accept application lookups of a whole depth are fetched concurrently.
+ * The results are merged on the calling thread in the same order as the serial search, so both produce the same map.
  * @author emeroad
  * @author minwoo.jung
  */
@@ -57,13 +64,29 @@ public class BFSLinkSelector implements LinkSelector {
 
     private final AcceptApplicationLocalCache acceptApplicationLocalCache = new AcceptApplicationLocalCache();
 
+    // findAcceptApplicationName result per caller application. the same caller is looked up only once per request.
+    private final Map<Application, Set<AcceptApplication>> acceptApplicationLookup = new HashMap<>();
+
     private final Set<LinkData> emulationLinkMarker = new HashSet<>();
 
     private final Queue nextQueue = new Queue();
     
     private ServerMapDataFilter serverMapDataFilter;
 
+    private final BoundedExecutor executor;
+    private final long timeoutMillis;
+    private long deadline;
+
     public BFSLinkSelector(MapStatisticsCallerDao mapStatisticsCallerDao, MapStatisticsCalleeDao mapStatisticsCalleeDao, HostApplicationMapDao hostApplicationMapDao, ServerMapDataFilter serverMapDataFilter) {
+        this(mapStatisticsCallerDao, mapStatisticsCalleeDao, hostApplicationMapDao, serverMapDataFilter, new BoundedExecutor("Pinpoint-LinkSelector", 0, 0), 0);
+    }
+
+    /**
+     * @param executor executor for the concurrent fetch of each depth
+     * @param timeoutMillis deadline of a select() call. 0 or less means no deadline
+     */
+    public BFSLinkSelector(MapStatisticsCallerDao mapStatisticsCallerDao, MapStatisticsCalleeDao mapStatisticsCalleeDao, HostApplicationMapDao hostApplicationMapDao, ServerMapDataFilter serverMapDataFilter,
+                           BoundedExecutor executor, long timeoutMillis) {
         if (mapStatisticsCalleeDao == null) {
             throw new NullPointerException("mapStatisticsCalleeDao must not be null");
         }
@@ -73,10 +96,15 @@ public class BFSLinkSelector implements LinkSelector {
         if (hostApplicationMapDao == null) {
             throw new NullPointerException("hostApplicationMapDao must not be null");
         }
+        if (executor == null) {
+            throw new NullPointerException("executor must not be null");
+        }
         this.mapStatisticsCalleeDao = mapStatisticsCalleeDao;
         this.mapStatisticsCallerDao = mapStatisticsCallerDao;
         this.hostApplicationMapDao = hostApplicationMapDao;
         this.serverMapDataFilter = serverMapDataFilter;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
     }
 
     /**
@@ -88,12 +116,43 @@ public class BFSLinkSelector implements LinkSelector {
      */
     private LinkDataDuplexMap selectLink(List<Application> targetApplicationList, Range range, SearchDepth callerDepth, SearchDepth calleeDepth) {
 
+        final List<Application> callerTargetList = new ArrayList<>();
+        final List<Application> calleeTargetList = new ArrayList<>();
+        for (Application targetApplication : targetApplicationList) {
+            if (checkNextCaller(targetApplication, callerDepth)) {
+                callerTargetList.add(targetApplication);
+            }
+            if (checkNextCallee(targetApplication, calleeDepth)) {
+                calleeTargetList.add(targetApplication);
+            }
+        }
+
+        final List<Callable<LinkDataMap>> fetchList = new ArrayList<>(callerTargetList.size() + calleeTargetList.size());
+        for (Application targetApplication : callerTargetList) {
+            fetchList.add(new CallerFetch(targetApplication, range));
+        }
+        for (Application targetApplication : calleeTargetList) {
+            fetchList.add(new CalleeFetch(targetApplication, range));
+        }
+        final List<LinkDataMap> fetchResult = executeAll(fetchList);
+
+        final Map<Application, LinkDataMap> callerMap = new HashMap<>();
+        final Map<Application, LinkDataMap> calleeMap = new HashMap<>();
+        for (int i = 0; i < callerTargetList.size(); i++) {
+            callerMap.put(callerTargetList.get(i), fetchResult.get(i));
+        }
+        for (int i = 0; i < calleeTargetList.size(); i++) {
+            calleeMap.put(calleeTargetList.get(i), fetchResult.get(callerTargetList.size() + i));
+        }
+
+        prefetchAcceptApplication(callerMap.values(), range);
+
+        // merge in the order of the serial search
         final LinkDataDuplexMap searchResult = new LinkDataDuplexMap();
 
         for (Application targetApplication : targetApplicationList) {
-            final boolean searchCallerNode = checkNextCaller(targetApplication, callerDepth);
-            if (searchCallerNode) {
-                final LinkDataMap caller = mapStatisticsCallerDao.selectCaller(targetApplication, range);
+            final LinkDataMap caller = callerMap.get(targetApplication);
+            if (caller != null) {
                 if (logger.isDebugEnabled()) {
                     logger.debug("Found Caller. count={}, caller={}, depth={}", caller.size(), targetApplication, callerDepth.getDepth());
                 }
@@ -113,9 +172,8 @@ public class BFSLinkSelector implements LinkSelector {
                 }
             }
 
-            final boolean searchCalleeNode = checkNextCallee(targetApplication, calleeDepth);
-            if (searchCalleeNode) {
-                final LinkDataMap callee = mapStatisticsCalleeDao.selectCallee(targetApplication, range);
+            final LinkDataMap callee = calleeMap.get(targetApplication);
+            if (callee != null) {
                 if (logger.isInfoEnabled()) {
                     logger.debug("Found Callee. count={}, callee={}, depth={}", callee.size(), targetApplication, calleeDepth.getDepth());
                 }
@@ -132,6 +190,53 @@ public class BFSLinkSelector implements LinkSelector {
         return searchResult;
     }
 
+    private void prefetchAcceptApplication(Collection<LinkDataMap> callerList, Range range) {
+        final Set<Application> lookupSet = new LinkedHashSet<>();
+        for (LinkDataMap caller : callerList) {
+            for (LinkData linkData : caller.getLinkDataList()) {
+                final ServiceType toServiceType = linkData.getToApplication().getServiceType();
+                if (!toServiceType.isRpcClient() && !toServiceType.isQueue()) {
+                    continue;
+                }
+                final Application fromApplication = linkData.getFromApplication();
+                if (!acceptApplicationLookup.containsKey(fromApplication)) {
+                    lookupSet.add(fromApplication);
+                }
+            }
+        }
+        if (lookupSet.isEmpty()) {
+            return;
+        }
+
+        final List<Application> lookupList = new ArrayList<>(lookupSet);
+        final List<Callable<Set<AcceptApplication>>> fetchList = new ArrayList<>(lookupList.size());
+        for (Application fromApplication : lookupList) {
+            fetchList.add(new AcceptApplicationFetch(fromApplication, range));
+        }
+        final List<Set<AcceptApplication>> fetchResult = executeAll(fetchList);
+        for (int i = 0; i < lookupList.size(); i++) {
+            acceptApplicationLookup.put(lookupList.get(i), fetchResult.get(i));
+        }
+    }
+
+    private <T> List<T> executeAll(List<Callable<T>> taskList) {
+        long timeoutNanos = 0;
+        if (timeoutMillis > 0) {
+            timeoutNanos = deadline - System.nanoTime();
+            if (timeoutNanos <= 0) {
+                throw new LinkSelectTimeoutException(timeoutMillis);
+            }
+        }
+        try {
+            return executor.executeAll(taskList, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("link select interrupted", e);
+        } catch (TimeoutException e) {
+            throw new LinkSelectTimeoutException(timeoutMillis);
+        }
+    }
+
     private void addNextNode(Application sourceApplication) {
         final boolean add = this.nextQueue.addNextNode(sourceApplication);
         if (!add) {
@@ -246,7 +351,11 @@ public class BFSLinkSelector implements LinkSelector {
             logger.debug("acceptApplicationLocalCache hit {}", rpcApplication);
             return hit;
         }
-        final Set<AcceptApplication> acceptApplicationSet= hostApplicationMapDao.findAcceptApplicationName(fromApplication, range);
+        Set<AcceptApplication> acceptApplicationSet = this.acceptApplicationLookup.get(fromApplication);
+        if (acceptApplicationSet == null && !this.acceptApplicationLookup.containsKey(fromApplication)) {
+            acceptApplicationSet = hostApplicationMapDao.findAcceptApplicationName(fromApplication, range);
+            this.acceptApplicationLookup.put(fromApplication, acceptApplicationSet);
+        }
         this.acceptApplicationLocalCache.put(rpcApplication, acceptApplicationSet);
 
         Set<AcceptApplication> acceptApplication = this.acceptApplicationLocalCache.get(rpcApplication);
@@ -339,6 +448,7 @@ public class BFSLinkSelector implements LinkSelector {
         SearchDepth calleeDepth = new SearchDepth(searchOption.getCalleeSearchDepth());
 
         logger.debug("ApplicationMap select {}", sourceApplication);
+        this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
         addNextNode(sourceApplication);
 
         LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
@@ -377,9 +487,12 @@ public class BFSLinkSelector implements LinkSelector {
 
         logger.info("unvisited callee node {}", unvisitedList);
 
-        final LinkDataMap calleeLinkData = new LinkDataMap();
+        final List<Callable<LinkDataMap>> fetchList = new ArrayList<>(unvisitedList.size());
         for (Application application : unvisitedList) {
-            LinkDataMap callee = mapStatisticsCalleeDao.selectCallee(application, range);
+            fetchList.add(new CalleeFetch(application, range));
+        }
+        final LinkDataMap calleeLinkData = new LinkDataMap();
+        for (LinkDataMap callee : executeAll(fetchList)) {
             logger.debug("calleeNode:{}", callee);
             calleeLinkData.addLinkDataMap(callee);
         }
@@ -439,6 +552,51 @@ public class BFSLinkSelector implements LinkSelector {
     }
 
 
+    private class CallerFetch implements Callable<LinkDataMap> {
+        private final Application application;
+        private final Range range;
+
+        private CallerFetch(Application application, Range range) {
+            this.application = application;
+            this.range = range;
+        }
+
+        @Override
+        public LinkDataMap call() {
+            return mapStatisticsCallerDao.selectCaller(application, range);
+        }
+    }
+
+    private class CalleeFetch implements Callable<LinkDataMap> {
+        private final Application application;
+        private final Range range;
+
+        private CalleeFetch(Application application, Range range) {
+            this.application = application;
+            this.range = range;
+        }
+
+        @Override
+        public LinkDataMap call() {
+            return mapStatisticsCalleeDao.selectCallee(application, range);
+        }
+    }
+
+    private class AcceptApplicationFetch implements Callable<Set<AcceptApplication>> {
+        private final Application fromApplication;
+        private final Range range;
+
+        private AcceptApplicationFetch(Application fromApplication, Range range) {
+            this.fromApplication = fromApplication;
+            this.range = range;
+        }
+
+        @Override
+        public Set<AcceptApplication> call() {
+            return hostApplicationMapDao.findAcceptApplicationName(fromApplication, range);
+        }
+    }
+
     static class Queue {
 
         private final Set<Application> nextNode = new HashSet<>();
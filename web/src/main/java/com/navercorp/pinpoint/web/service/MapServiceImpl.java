@@ -25,6 +25,7 @@ import com.navercorp.pinpoint.web.dao.MapResponseDao;
 import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.web.security.ServerMapDataFilter;
+import com.navercorp.pinpoint.web.util.BoundedExecutor;
 import com.navercorp.pinpoint.web.view.ApplicationTimeHistogramViewModel;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
@@ -33,9 +34,12 @@ import com.navercorp.pinpoint.web.vo.SearchOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StopWatch;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.List;
 
 /**
@@ -69,6 +73,36 @@ public class MapServiceImpl implements MapService {
     @Autowired(required=false)
     private ServerMapDataFilter serverMapDataFilter;
 
+    // 0 : serial search
+    @Value("#{pinpointWebProps['web.servermap.selector.threads'] ?: 16}")
+    private int linkSelectorThreads;
+
+    @Value("#{pinpointWebProps['web.servermap.selector.queue'] ?: 1024}")
+    private int linkSelectorQueueSize;
+
+    @Value("#{pinpointWebProps['web.servermap.selector.timeout'] ?: 60000}")
+    private long linkSelectorTimeout;
+
+    private BoundedExecutor linkSelectorExecutor;
+
+    @PostConstruct
+    public void start() {
+        this.linkSelectorExecutor = new BoundedExecutor("Pinpoint-LinkSelector", Math.max(linkSelectorThreads, 0), linkSelectorQueueSize);
+        if (linkSelectorExecutor.isSerial()) {
+            logger.info("serial link selector");
+            return;
+        }
+        logger.info("link selector threads:{} queueSize:{} timeout:{}ms", linkSelectorThreads, linkSelectorQueueSize, linkSelectorTimeout);
+    }
+
+    @PreDestroy
+    public void stop() {
+        final BoundedExecutor linkSelectorExecutor = this.linkSelectorExecutor;
+        if (linkSelectorExecutor != null) {
+            linkSelectorExecutor.shutdown();
+        }
+    }
+
     /**
      * Used in the main UI - draws the server map by querying the timeslot by time.
      */
@@ -85,7 +119,8 @@ public class MapServiceImpl implements MapService {
         StopWatch watch = new StopWatch("ApplicationMap");
         watch.start("ApplicationMap Hbase Io Fetch(Caller,Callee) Time");
 
-        LinkSelector linkSelector = new BFSLinkSelector(this.mapStatisticsCallerDao, this.mapStatisticsCalleeDao, hostApplicationMapDao, serverMapDataFilter);
+        LinkSelector linkSelector = new BFSLinkSelector(this.mapStatisticsCallerDao, this.mapStatisticsCalleeDao, hostApplicationMapDao, serverMapDataFilter,
+                linkSelectorExecutor, linkSelectorTimeout);
         LinkDataDuplexMap linkDataDuplexMap = linkSelector.select(sourceApplication, range, searchOption);
         watch.stop();
 
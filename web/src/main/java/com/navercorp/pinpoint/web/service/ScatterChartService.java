@@ -20,6 +20,8 @@ import com.navercorp.pinpoint.common.server.bo.SpanBo;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.web.filter.Filter;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterDensity;
+import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.SelectedScatterArea;
 import com.navercorp.pinpoint.web.vo.TransactionMetadataQuery;
@@ -65,4 +67,11 @@ public interface ScatterChartService {
 
     ScatterData selectScatterData(List<TransactionId> transactionIdList, String applicationName, Range range, int xGroupUnit, int yGroupUnit, Filter filter);
 
+    /**
+     * Queries only the scanRange part of the range. The result can be merged into the result of the whole range.
+     */
+    LimitedScanResult<ScatterData> selectScatterData(String applicationName, Range range, Range scanRange, int xGroupUnit, int yGroupUnit, int limit, boolean backwardDirection);
+
+    ScatterDensity selectScatterDensity(String applicationName, Range range, Range scanRange, int xGroupUnit, int yGroupUnit, int yMax, int limit, boolean backwardDirection);
+
 }
@@ -22,6 +22,8 @@ import com.navercorp.pinpoint.web.dao.ApplicationTraceIndexDao;
 import com.navercorp.pinpoint.web.dao.TraceDao;
 import com.navercorp.pinpoint.web.filter.Filter;
 import com.navercorp.pinpoint.web.scatter.ScatterData;
+import com.navercorp.pinpoint.web.scatter.ScatterDensity;
+import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.SelectedScatterArea;
 import com.navercorp.pinpoint.web.vo.TransactionMetadataQuery;
@@ -147,6 +149,34 @@ public class ScatterChartServiceImpl implements ScatterChartService {
         return applicationTraceIndexDao.scanTraceScatterData(applicationName, range, xGroupUnit, yGroupUnit, limit, backwardDirection);
     }
 
+    @Override
+    public LimitedScanResult<ScatterData> selectScatterData(String applicationName, Range range, Range scanRange, int xGroupUnit, int yGroupUnit, int limit, boolean backwardDirection) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (scanRange == null) {
+            throw new NullPointerException("scanRange must not be null");
+        }
+        return applicationTraceIndexDao.scanTraceScatterData(applicationName, range, scanRange, xGroupUnit, yGroupUnit, limit, backwardDirection);
+    }
+
+    @Override
+    public ScatterDensity selectScatterDensity(String applicationName, Range range, Range scanRange, int xGroupUnit, int yGroupUnit, int yMax, int limit, boolean backwardDirection) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (scanRange == null) {
+            throw new NullPointerException("scanRange must not be null");
+        }
+        return applicationTraceIndexDao.scanTraceScatterDensity(applicationName, range, scanRange, xGroupUnit, yGroupUnit, yMax, limit, backwardDirection);
+    }
+
     @Override
     public ScatterData selectScatterData(List<TransactionId> transactionIdList, String applicationName, Range range, int xGroupUnit, int yGroupUnit, Filter filter) {
         if (transactionIdList == null) {
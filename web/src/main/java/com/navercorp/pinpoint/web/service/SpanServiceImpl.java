@@ -17,7 +17,10 @@
 package com.navercorp.pinpoint.web.service;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
 import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
@@ -43,6 +46,7 @@ import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
 import com.navercorp.pinpoint.web.dao.TraceDao;
 import com.navercorp.pinpoint.web.security.MetaDataFilter;
 import com.navercorp.pinpoint.web.security.MetaDataFilter.MetaData;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -95,20 +99,97 @@ public class SpanServiceImpl implements SpanService {
             return new SpanResult(SpanAligner2.FAIL_MATCH, new CallTreeIterator(null));
         }
 
+        // TODO the whole transaction is still fetched, aligned and returned at once.
+        // parallel span fetching, a call tree built while the spans decode and a paged call tree api are not done yet.
         final SpanResult result = order(spans, selectedSpanHint);
         final CallTreeIterator callTreeIterator = result.getCallTree();
         final List<SpanAlign> values = callTreeIterator.values();
         
-        transitionDynamicApiId(values);
-        transitionSqlId(values);
-        transitionCachedString(values);
-        transitionException(values);
+        // metadata of each step is read with a single multi-Get
+        final Map<MetaDataKey, List<ApiMetaDataBo>> apiMetaDataMap = apiMetaDataDao.getApiMetaData(collectApiMetaDataKey(values));
+        transitionDynamicApiId(values, apiMetaDataMap);
+        final Map<MetaDataKey, List<SqlMetaDataBo>> sqlMetaDataMap = sqlMetaDataDao.getSqlMetaData(collectSqlMetaDataKey(values));
+        transitionSqlId(values, sqlMetaDataMap);
+        final Map<MetaDataKey, List<StringMetaDataBo>> stringMetaDataMap = stringMetaDataDao.getStringMetaData(collectStringMetaDataKey(values));
+        transitionCachedString(values, stringMetaDataMap);
+        transitionException(values, stringMetaDataMap);
         // TODO need to at least show the row data when root span is not found. 
         return result;
     }
 
 
 
+    private Set<MetaDataKey> collectApiMetaDataKey(List<SpanAlign> spans) {
+        final Set<MetaDataKey> metaDataKeys = new HashSet<>();
+        for (SpanAlign spanAlign : spans) {
+            final int apiId = spanAlign.getApiId();
+            if (apiId == 0 && AnnotationUtils.findApiAnnotation(spanAlign.getAnnotationBoList()) != null) {
+                // annotation base api
+                continue;
+            }
+            metaDataKeys.add(new MetaDataKey(spanAlign.getAgentId(), spanAlign.getAgentStartTime(), apiId));
+        }
+        return metaDataKeys;
+    }
+
+    private Set<MetaDataKey> collectSqlMetaDataKey(List<SpanAlign> spans) {
+        final Set<MetaDataKey> metaDataKeys = new HashSet<>();
+        for (SpanAlign spanAlign : spans) {
+            final List<AnnotationBo> annotationBoList = spanAlign.getAnnotationBoList();
+            if (annotationBoList == null) {
+                continue;
+            }
+            final AnnotationBo sqlIdAnnotation = findAnnotation(annotationBoList, AnnotationKey.SQL_ID.getCode());
+            if (sqlIdAnnotation == null) {
+                continue;
+            }
+            final IntStringStringValue sqlValue = (IntStringStringValue) sqlIdAnnotation.getValue();
+            metaDataKeys.add(new MetaDataKey(spanAlign.getAgentId(), spanAlign.getAgentStartTime(), sqlValue.getIntValue()));
+        }
+        return metaDataKeys;
+    }
+
+    private Set<MetaDataKey> collectStringMetaDataKey(List<SpanAlign> spans) {
+        final Set<MetaDataKey> metaDataKeys = new HashSet<>();
+        for (SpanAlign spanAlign : spans) {
+            final List<AnnotationBo> annotationBoList = spanAlign.getAnnotationBoList();
+            if (annotationBoList != null) {
+                for (AnnotationBo annotationBo : findCachedStringAnnotation(annotationBoList)) {
+                    final int stringMetaDataId = (Integer) annotationBo.getValue();
+                    metaDataKeys.add(new MetaDataKey(spanAlign.getAgentId(), spanAlign.getAgentStartTime(), stringMetaDataId));
+                }
+            }
+            if (spanAlign.hasException()) {
+                metaDataKeys.add(new MetaDataKey(spanAlign.getAgentId(), spanAlign.getAgentStartTime(), spanAlign.getExceptionId()));
+            }
+        }
+        return metaDataKeys;
+    }
+
+    private List<ApiMetaDataBo> getApiMetaData(Map<MetaDataKey, List<ApiMetaDataBo>> apiMetaDataMap, String agentId, long agentStartTime, int apiId) {
+        final List<ApiMetaDataBo> apiMetaDataList = apiMetaDataMap.get(new MetaDataKey(agentId, agentStartTime, apiId));
+        if (apiMetaDataList != null) {
+            return apiMetaDataList;
+        }
+        return apiMetaDataDao.getApiMetaData(agentId, agentStartTime, apiId);
+    }
+
+    private List<SqlMetaDataBo> getSqlMetaData(Map<MetaDataKey, List<SqlMetaDataBo>> sqlMetaDataMap, String agentId, long agentStartTime, int sqlId) {
+        final List<SqlMetaDataBo> sqlMetaDataList = sqlMetaDataMap.get(new MetaDataKey(agentId, agentStartTime, sqlId));
+        if (sqlMetaDataList != null) {
+            return sqlMetaDataList;
+        }
+        return sqlMetaDataDao.getSqlMetaData(agentId, agentStartTime, sqlId);
+    }
+
+    private List<StringMetaDataBo> getStringMetaData(Map<MetaDataKey, List<StringMetaDataBo>> stringMetaDataMap, String agentId, long agentStartTime, int stringId) {
+        final List<StringMetaDataBo> stringMetaDataList = stringMetaDataMap.get(new MetaDataKey(agentId, agentStartTime, stringId));
+        if (stringMetaDataList != null) {
+            return stringMetaDataList;
+        }
+        return stringMetaDataDao.getStringMetaData(agentId, agentStartTime, stringId);
+    }
+
     private void transitionAnnotation(List<SpanAlign> spans, AnnotationReplacementCallback annotationReplacementCallback) {
         for (SpanAlign spanAlign : spans) {
             List<AnnotationBo> annotationBoList = spanAlign.getAnnotationBoList();
@@ -120,7 +201,7 @@ public class SpanServiceImpl implements SpanService {
         }
     }
 
-    private void transitionSqlId(final List<SpanAlign> spans) {
+    private void transitionSqlId(final List<SpanAlign> spans, final Map<MetaDataKey, List<SqlMetaDataBo>> sqlMetaDataMap) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList) {
@@ -138,7 +219,7 @@ public class SpanServiceImpl implements SpanService {
                 final IntStringStringValue sqlValue = (IntStringStringValue) sqlIdAnnotation.getValue();
                 final int sqlId = sqlValue.getIntValue();
                 final String sqlParam = sqlValue.getStringValue1();
-                final List<SqlMetaDataBo> sqlMetaDataList = sqlMetaDataDao.getSqlMetaData(spanAlign.getAgentId(), spanAlign.getAgentStartTime(), sqlId);
+                final List<SqlMetaDataBo> sqlMetaDataList = getSqlMetaData(sqlMetaDataMap, spanAlign.getAgentId(), spanAlign.getAgentStartTime(), sqlId);
                 final int size = sqlMetaDataList.size();
                 if (size == 0) {
                     AnnotationBo api = new AnnotationBo();
@@ -231,7 +312,7 @@ public class SpanServiceImpl implements SpanService {
     }
 
 
-    private void transitionDynamicApiId(List<SpanAlign> spans) {
+    private void transitionDynamicApiId(List<SpanAlign> spans, final Map<MetaDataKey, List<ApiMetaDataBo>> apiMetaDataMap) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList) {
@@ -255,7 +336,7 @@ public class SpanServiceImpl implements SpanService {
                 }
 
                 // may be able to get a more accurate data using agentIdentifier.
-                List<ApiMetaDataBo> apiMetaDataList = apiMetaDataDao.getApiMetaData(spanAlign.getAgentId(), spanAlign.getAgentStartTime(), apiId);
+                List<ApiMetaDataBo> apiMetaDataList = getApiMetaData(apiMetaDataMap, spanAlign.getAgentId(), spanAlign.getAgentStartTime(), apiId);
                 int size = apiMetaDataList.size();
                 if (size == 0) {
                     AnnotationBo api = new AnnotationBo();
@@ -295,7 +376,7 @@ public class SpanServiceImpl implements SpanService {
         });
     }
 
-    private void transitionCachedString(List<SpanAlign> spans) {
+    private void transitionCachedString(List<SpanAlign> spans, final Map<MetaDataKey, List<StringMetaDataBo>> stringMetaDataMap) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList) {
@@ -307,7 +388,7 @@ public class SpanServiceImpl implements SpanService {
                 for (AnnotationBo annotationBo : cachedStringAnnotation) {
                     final int cachedArgsKey = annotationBo.getKey();
                     int stringMetaDataId = (Integer) annotationBo.getValue();
-                    List<StringMetaDataBo> stringMetaList = stringMetaDataDao.getStringMetaData(spanAlign.getAgentId(), spanAlign.getAgentStartTime(), stringMetaDataId);
+                    List<StringMetaDataBo> stringMetaList = getStringMetaData(stringMetaDataMap, spanAlign.getAgentId(), spanAlign.getAgentStartTime(), stringMetaDataId);
                     int size = stringMetaList.size();
                     if (size == 0) {
                         logger.warn("StringMetaData not Found {}/{}/{}", spanAlign.getAgentId(), stringMetaDataId, spanAlign.getAgentStartTime());
@@ -343,18 +424,18 @@ public class SpanServiceImpl implements SpanService {
         return findAnnotationBoList;
     }
 
-    private void transitionException(List<SpanAlign> spanAlignList) {
+    private void transitionException(List<SpanAlign> spanAlignList, Map<MetaDataKey, List<StringMetaDataBo>> stringMetaDataMap) {
         for (SpanAlign spanAlign : spanAlignList) {
             if (spanAlign.hasException()) {
-                StringMetaDataBo stringMetaData = selectStringMetaData(spanAlign.getAgentId(), spanAlign.getExceptionId(), spanAlign.getAgentStartTime());
+                StringMetaDataBo stringMetaData = selectStringMetaData(stringMetaDataMap, spanAlign.getAgentId(), spanAlign.getExceptionId(), spanAlign.getAgentStartTime());
                 spanAlign.setExceptionClass(stringMetaData.getStringValue());
             }
         }
 
     }
 
-    private StringMetaDataBo selectStringMetaData(String agentId, int cacheId, long agentStartTime) {
-        final List<StringMetaDataBo> metaDataList = stringMetaDataDao.getStringMetaData(agentId, agentStartTime, cacheId);
+    private StringMetaDataBo selectStringMetaData(Map<MetaDataKey, List<StringMetaDataBo>> stringMetaDataMap, String agentId, int cacheId, long agentStartTime) {
+        final List<StringMetaDataBo> metaDataList = getStringMetaData(stringMetaDataMap, agentId, agentStartTime, cacheId);
         if (metaDataList == null || metaDataList.isEmpty()) {
             logger.warn("StringMetaData not Found agent:{}, cacheId{}, agentStartTime:{}", agentId, cacheId, agentStartTime);
             StringMetaDataBo stringMetaDataBo = new StringMetaDataBo(agentId, agentStartTime, cacheId);
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service.stat;
+
+import com.navercorp.pinpoint.web.service.AgentInfoService;
+import com.navercorp.pinpoint.web.util.BoundedExecutor;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.AgentInfo;
+import com.navercorp.pinpoint.web.vo.stat.chart.AgentStatChartGroup;
+import com.navercorp.pinpoint.web.vo.stat.chart.ApplicationStatChartAggregator;
+import com.navercorp.pinpoint.web.vo.stat.chart.ApplicationStatChartGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Charts of all agents of an application, selected concurrently and merged into per-window aggregates.
+ *
+ * @author agent
+ */
+@Service
+public class ApplicationStatChartService {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    public static final int DEFAULT_PERCENTILE = 95;
+
+    private final AgentInfoService agentInfoService;
+
+    // 0 : serial select
+    @Value("#{pinpointWebProps['web.stat.application.threads'] ?: 16}")
+    private int selectThreads;
+
+    @Value("#{pinpointWebProps['web.stat.application.queue'] ?: 1024}")
+    private int selectQueueSize;
+
+    @Value("#{pinpointWebProps['web.stat.application.timeout'] ?: 60000}")
+    private long selectTimeout;
+
+    private BoundedExecutor selectExecutor;
+
+    @Autowired
+    public ApplicationStatChartService(AgentInfoService agentInfoService) {
+        if (agentInfoService == null) {
+            throw new NullPointerException("agentInfoService must not be null");
+        }
+        this.agentInfoService = agentInfoService;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.selectExecutor = new BoundedExecutor("Pinpoint-ApplicationStat", Math.max(selectThreads, 0), selectQueueSize);
+        if (selectExecutor.isSerial()) {
+            logger.info("serial application stat select");
+            return;
+        }
+        logger.info("application stat select threads:{} queueSize:{} timeout:{}ms", selectThreads, selectQueueSize, selectTimeout);
+    }
+
+    @PreDestroy
+    public void stop() {
+        final BoundedExecutor selectExecutor = this.selectExecutor;
+        if (selectExecutor != null) {
+            selectExecutor.shutdown();
+        }
+    }
+
+    public ApplicationStatChartGroup selectApplicationChart(String applicationName, AgentStatChartService agentStatChartService, TimeWindow timeWindow) {
+        return selectApplicationChart(applicationName, agentStatChartService, timeWindow, DEFAULT_PERCENTILE);
+    }
+
+    public ApplicationStatChartGroup selectApplicationChart(String applicationName, AgentStatChartService agentStatChartService, TimeWindow timeWindow, int percentile) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (agentStatChartService == null) {
+            throw new NullPointerException("agentStatChartService must not be null");
+        }
+        if (timeWindow == null) {
+            throw new NullPointerException("timeWindow must not be null");
+        }
+        final ApplicationStatChartAggregator aggregator = new ApplicationStatChartAggregator(timeWindow, percentile);
+
+        final Set<AgentInfo> agentInfos = agentInfoService.getAgentsByApplicationNameWithoutStatus(applicationName, timeWindow.getWindowRange().getTo());
+        final List<String> agentIdList = new ArrayList<>(agentInfos.size());
+        for (AgentInfo agentInfo : agentInfos) {
+            agentIdList.add(agentInfo.getAgentId());
+        }
+        logger.debug("select application stat. applicationName:{} agents:{}", applicationName, agentIdList.size());
+
+        final List<Callable<AgentStatChartGroup>> taskList = new ArrayList<>(agentIdList.size());
+        for (String agentId : agentIdList) {
+            taskList.add(new SelectAgentChartTask(agentStatChartService, agentId, timeWindow));
+        }
+        final List<AgentStatChartGroup> agentChartGroupList = executeAll(taskList);
+        for (int i = 0; i < agentIdList.size(); i++) {
+            aggregator.addAgentChartGroup(agentIdList.get(i), agentChartGroupList.get(i));
+        }
+        return aggregator.aggregate(applicationName);
+    }
+
+    private List<AgentStatChartGroup> executeAll(List<Callable<AgentStatChartGroup>> taskList) {
+        try {
+            return selectExecutor.executeAll(taskList, selectTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("application stat select interrupted", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("application stat select timeout. timeout:" + selectTimeout + "ms", e);
+        }
+    }
+
+    private static class SelectAgentChartTask implements Callable<AgentStatChartGroup> {
+
+        private final AgentStatChartService agentStatChartService;
+        private final String agentId;
+        private final TimeWindow timeWindow;
+
+        private SelectAgentChartTask(AgentStatChartService agentStatChartService, String agentId, TimeWindow timeWindow) {
+            this.agentStatChartService = agentStatChartService;
+            this.agentId = agentId;
+            this.timeWindow = timeWindow;
+        }
+
+        @Override
+        public AgentStatChartGroup call() throws Exception {
+            return agentStatChartService.selectAgentChart(agentId, timeWindow);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.util;
+
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fixed thread pool with a bounded queue that runs a batch of tasks and waits for all of their results within a timeout.
+ * <p>
+ * When the queue is full, the calling thread runs the task itself, but only while the timeout has not passed.
+ * Tasks that have not started when the timeout passes or another task fails are cancelled without an interrupt,
+ * a thread in the middle of an HBase client call is left to finish the call.
+ *
+ * @author agent
+ */
+public class BoundedExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param threadName thread name prefix of the pool
+     * @param threads number of threads. 0 runs all tasks serially on the calling thread
+     * @param queueSize number of queued tasks before the calling thread runs them itself
+     */
+    public BoundedExecutor(String threadName, int threads, int queueSize) {
+        if (threadName == null) {
+            throw new NullPointerException("threadName must not be null");
+        }
+        if (threads < 0) {
+            throw new IllegalArgumentException("threads:" + threads);
+        }
+        if (queueSize < 0) {
+            throw new IllegalArgumentException("queueSize:" + queueSize);
+        }
+        if (threads == 0) {
+            this.executor = null;
+            return;
+        }
+        final PinpointThreadFactory threadFactory = new PinpointThreadFactory(threadName, true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(queueSize), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean isSerial() {
+        return executor == null;
+    }
+
+    /**
+     * runs all tasks and returns the results in task order.
+     *
+     * @param timeout 0 or less means no timeout
+     * @throws TimeoutException if the results are not ready within the timeout
+     */
+    public <T> List<T> executeAll(List<Callable<T>> taskList, long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        if (taskList == null) {
+            throw new NullPointerException("taskList must not be null");
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit must not be null");
+        }
+        final Deadline deadline = new Deadline(timeout, unit);
+        final List<T> resultList = new ArrayList<>(taskList.size());
+        if (executor == null || taskList.size() <= 1) {
+            for (Callable<T> task : taskList) {
+                deadline.check();
+                resultList.add(call(task));
+            }
+            return resultList;
+        }
+
+        final List<FutureTask<T>> futureList = new ArrayList<>(taskList.size());
+        boolean done = false;
+        try {
+            for (Callable<T> task : taskList) {
+                final FutureTask<T> future = new FutureTask<>(new DeadlineTask<>(task, deadline));
+                futureList.add(future);
+                try {
+                    executor.execute(future);
+                } catch (RejectedExecutionException e) {
+                    // queue full, the calling thread runs the task itself
+                    deadline.check();
+                    future.run();
+                }
+            }
+            for (FutureTask<T> future : futureList) {
+                resultList.add(getResult(future, deadline));
+            }
+            done = true;
+            return resultList;
+        } finally {
+            if (!done) {
+                // no interrupt, an interrupted HBase client call may leave its connection in a bad state
+                for (FutureTask<T> future : futureList) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+
+    private <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private <T> T getResult(FutureTask<T> future, Deadline deadline) throws InterruptedException, TimeoutException {
+        try {
+            if (!deadline.isTimed()) {
+                return future.get();
+            }
+            return future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof TimeoutException) {
+                throw (TimeoutException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        if (executor == null) {
+            return true;
+        }
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    private static class Deadline {
+
+        private final long timeoutNanos;
+        private final long deadline;
+
+        private Deadline(long timeout, TimeUnit unit) {
+            this.timeoutNanos = unit.toNanos(timeout);
+            this.deadline = System.nanoTime() + timeoutNanos;
+        }
+
+        private boolean isTimed() {
+            return timeoutNanos > 0;
+        }
+
+        private long remainingNanos() {
+            return deadline - System.nanoTime();
+        }
+
+        private void check() throws TimeoutException {
+            if (isTimed() && remainingNanos() <= 0) {
+                throw new TimeoutException("timeout:" + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms");
+            }
+        }
+    }
+
+    private static class DeadlineTask<T> implements Callable<T> {
+
+        private final Callable<T> task;
+        private final Deadline deadline;
+
+        private DeadlineTask(Callable<T> task, Deadline deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public T call() throws Exception {
+            // a task that waited in the queue past the timeout does not start its select
+            deadline.check();
+            return task.call();
+        }
+    }
+}
@@ -42,6 +42,9 @@ public class FilterMapWrapSerializer extends JsonSerializer<FilterMapWrap> {
 
         jgen.writeObjectField("applicationMapData", wrap.getApplicationMap());
         jgen.writeNumberField("lastFetchedTimestamp", wrap.getLastFetchedTimestamp());
+        jgen.writeNumberField("resumeFrom", wrap.getResumeFrom());
+        jgen.writeNumberField("scannedCount", wrap.getScannedCount());
+        jgen.writeNumberField("discardedCount", wrap.getDiscardedCount());
 
         if (wrap.getApplicationMap() instanceof ApplicationMapWithScatterScanResult) {
             final List<ApplicationScatterScanResult> applicationScatterScanResult = ((ApplicationMapWithScatterScanResult) wrap.getApplicationMap()).getApplicationScatterScanResultList();
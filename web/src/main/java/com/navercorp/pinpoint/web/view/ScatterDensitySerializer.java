@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.common.util.TransactionIdUtils;
+import com.navercorp.pinpoint.web.scatter.ScatterDensity;
+
+import java.io.IOException;
+
+/**
+ * writes the non empty cells of the grid one by one, newest x slot first.
+ * cell : [x, y, count, errorCount, exemplarAcceptedTime, exemplarElapsed, exemplarTransactionId]
+ *
+ * @author agent
+ */
+public class ScatterDensitySerializer extends JsonSerializer<ScatterDensity> {
+
+    @Override
+    public void serialize(ScatterDensity value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        jgen.writeStartObject();
+
+        jgen.writeNumberField("xGroupUnit", value.getXGroupUnit());
+        jgen.writeNumberField("yGroupUnit", value.getYGroupUnit());
+        jgen.writeNumberField("yMax", value.getYMax());
+        jgen.writeNumberField("totalCount", value.getTotalCount());
+        writeCellList(value, jgen);
+
+        jgen.writeEndObject();
+    }
+
+    private void writeCellList(ScatterDensity scatterDensity, JsonGenerator jgen) throws IOException {
+        jgen.writeArrayFieldStart("dotList");
+
+        final int ySlotSize = scatterDensity.getYSlotSize();
+        for (int xSlot = scatterDensity.getXSlotSize() - 1; xSlot >= 0; xSlot--) {
+            for (int ySlot = 0; ySlot < ySlotSize; ySlot++) {
+                final int count = scatterDensity.getCount(xSlot, ySlot);
+                if (count == 0) {
+                    continue;
+                }
+                writeCell(scatterDensity, xSlot, ySlot, count, jgen);
+            }
+        }
+
+        jgen.writeEndArray();
+    }
+
+    private void writeCell(ScatterDensity scatterDensity, int xSlot, int ySlot, int count, JsonGenerator jgen) throws IOException {
+        jgen.writeStartArray();
+
+        jgen.writeNumber((long) xSlot * scatterDensity.getXGroupUnit());
+        jgen.writeNumber((long) ySlot * scatterDensity.getYGroupUnit());
+        jgen.writeNumber(count);
+        jgen.writeNumber(scatterDensity.getErrorCount(xSlot, ySlot));
+        jgen.writeNumber(scatterDensity.getExemplarAcceptedTime(xSlot, ySlot));
+        jgen.writeNumber(scatterDensity.getExemplarElapsed(xSlot, ySlot));
+
+        final TransactionId transactionId = scatterDensity.getExemplarTransactionId(xSlot, ySlot);
+        if (transactionId == null) {
+            jgen.writeNull();
+        } else {
+            jgen.writeString(TransactionIdUtils.formatString(transactionId));
+        }
+
+        jgen.writeEndArray();
+    }
+
+}
@@ -27,6 +27,10 @@ public class LimitedScanResult<V> {
     private long limitedTime;
     private V data;
 
+    private long resumeTime = -1;
+    private long readCount;
+    private long discardedCount;
+
     public V getScanData() {
         return data;
     }
@@ -43,10 +47,40 @@ public class LimitedScanResult<V> {
         this.limitedTime = limitedTime;
     }
 
+    /**
+     * time to continue the scan from without reading the last row again. -1 if the scan was not limited.
+     */
+    public long getResumeTime() {
+        return resumeTime;
+    }
+
+    public void setResumeTime(long resumeTime) {
+        this.resumeTime = resumeTime;
+    }
+
+    public long getReadCount() {
+        return readCount;
+    }
+
+    public void setReadCount(long readCount) {
+        this.readCount = readCount;
+    }
+
+    public long getDiscardedCount() {
+        return discardedCount;
+    }
+
+    public void setDiscardedCount(long discardedCount) {
+        this.discardedCount = discardedCount;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("LimitedScanResult{");
         sb.append("limitedTime=").append(limitedTime);
+        sb.append(", resumeTime=").append(resumeTime);
+        sb.append(", readCount=").append(readCount);
+        sb.append(", discardedCount=").append(discardedCount);
         sb.append(", data=").append(data);
         sb.append('}');
         return sb.toString();
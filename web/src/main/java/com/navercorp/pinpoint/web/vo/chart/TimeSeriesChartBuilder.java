@@ -18,7 +18,7 @@ package com.navercorp.pinpoint.web.vo.chart;
 
 import com.navercorp.pinpoint.web.util.TimeWindow;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -27,25 +27,32 @@ import java.util.List;
 public class TimeSeriesChartBuilder<Y extends Number> {
 
     private final TimeWindow timeWindow;
-    private final List<Point<Long, Y>> points;
+    private final Y uncollectedValue;
 
     public TimeSeriesChartBuilder(TimeWindow timeWindow, Y uncollectedValue) {
         if (timeWindow.getWindowRangeCount() > Integer.MAX_VALUE) {
             throw new IllegalArgumentException("range yields too many timeslots");
         }
         this.timeWindow = timeWindow;
-        int numTimeslots = (int) this.timeWindow.getWindowRangeCount();
-        this.points = new ArrayList<>(numTimeslots);
-        for (long timestamp : this.timeWindow) {
-            this.points.add(new UncollectedPoint<>(timestamp, uncollectedValue));
-        }
+        this.uncollectedValue = uncollectedValue;
     }
 
     public Chart<Long, Y> build(List<Point<Long, Y>> sampledPoints) {
+        final int numTimeslots = (int) this.timeWindow.getWindowRangeCount();
+        @SuppressWarnings("unchecked")
+        final Point<Long, Y>[] points = new Point[numTimeslots];
         for (Point<Long, Y> sampledPoint : sampledPoints) {
             int timeslotIndex = this.timeWindow.getWindowIndex(sampledPoint.getxVal());
-            this.points.set(timeslotIndex, sampledPoint);
+            points[timeslotIndex] = sampledPoint;
+        }
+        // only empty timeslots need an uncollected point
+        final long from = this.timeWindow.getWindowRange().getFrom();
+        final long windowSlotSize = this.timeWindow.getWindowSlotSize();
+        for (int i = 0; i < numTimeslots; ++i) {
+            if (points[i] == null) {
+                points[i] = new UncollectedPoint<>(from + i * windowSlotSize, this.uncollectedValue);
+            }
         }
-        return new Chart<>(this.points);
+        return new Chart<>(Arrays.asList(points));
     }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo.stat.chart;
+
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.chart.Chart;
+import com.navercorp.pinpoint.web.vo.chart.Point;
+import com.navercorp.pinpoint.web.vo.chart.UncollectedPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merges the charts of the agents of an application into per-window aggregates.
+ * min/max are taken over the min/max of each agent (with the agent id of the extreme value),
+ * avg and the percentile over the average of each agent. Uncollected points are skipped.
+ * <p>
+ * not thread safe.
+ *
+ * @author agent
+ */
+public class ApplicationStatChartAggregator {
+
+    public static final double UNCOLLECTED_VALUE = -1D;
+
+    private static final int NUM_DECIMALS = 1;
+
+    private final TimeWindow timeWindow;
+    private final int percentile;
+    private final int windowCount;
+
+    private final Map<AgentStatChartGroup.ChartType, WindowValues[]> chartValues = new HashMap<>();
+    private final Set<String> agentIds = new HashSet<>();
+
+    public ApplicationStatChartAggregator(TimeWindow timeWindow, int percentile) {
+        if (timeWindow == null) {
+            throw new NullPointerException("timeWindow must not be null");
+        }
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile:" + percentile);
+        }
+        this.timeWindow = timeWindow;
+        this.percentile = percentile;
+        this.windowCount = (int) timeWindow.getWindowRangeCount();
+    }
+
+    public void addAgentChartGroup(String agentId, AgentStatChartGroup agentStatChartGroup) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        if (agentStatChartGroup == null) {
+            throw new NullPointerException("agentStatChartGroup must not be null");
+        }
+        for (Map.Entry<AgentStatChartGroup.ChartType, Chart> entry : agentStatChartGroup.getCharts().entrySet()) {
+            addChart(agentId, entry.getKey(), entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addChart(String agentId, AgentStatChartGroup.ChartType chartType, Chart chart) {
+        if (chart == null) {
+            return;
+        }
+        WindowValues[] windowValuesArray = null;
+        final List<Point<?, ?>> points = chart.getPoints();
+        for (Point<?, ?> point : points) {
+            if (point instanceof UncollectedPoint || point.getAvgYVal() == null) {
+                continue;
+            }
+            final int windowIndex = timeWindow.getWindowIndex(point.getxVal().longValue());
+            if (windowIndex < 0 || windowIndex >= windowCount) {
+                continue;
+            }
+            if (windowValuesArray == null) {
+                windowValuesArray = getWindowValuesArray(chartType);
+            }
+            WindowValues windowValues = windowValuesArray[windowIndex];
+            if (windowValues == null) {
+                windowValues = new WindowValues();
+                windowValuesArray[windowIndex] = windowValues;
+            }
+            windowValues.add(agentId, point.getMinYVal().doubleValue(), point.getMaxYVal().doubleValue(), point.getAvgYVal());
+            agentIds.add(agentId);
+        }
+    }
+
+    private WindowValues[] getWindowValuesArray(AgentStatChartGroup.ChartType chartType) {
+        WindowValues[] windowValuesArray = chartValues.get(chartType);
+        if (windowValuesArray == null) {
+            windowValuesArray = new WindowValues[windowCount];
+            chartValues.put(chartType, windowValuesArray);
+        }
+        return windowValuesArray;
+    }
+
+    public ApplicationStatChartGroup aggregate(String applicationName) {
+        final Map<AgentStatChartGroup.ChartType, List<ApplicationStatPoint>> charts = new HashMap<>(chartValues.size());
+        for (Map.Entry<AgentStatChartGroup.ChartType, WindowValues[]> entry : chartValues.entrySet()) {
+            final WindowValues[] windowValuesArray = entry.getValue();
+            final List<ApplicationStatPoint> points = new ArrayList<>(windowCount);
+            long timestamp = timeWindow.getWindowRange().getFrom();
+            for (WindowValues windowValues : windowValuesArray) {
+                if (windowValues == null) {
+                    points.add(new ApplicationStatPoint(timestamp, UNCOLLECTED_VALUE));
+                } else {
+                    points.add(windowValues.toPoint(timestamp, percentile));
+                }
+                timestamp += timeWindow.getWindowSlotSize();
+            }
+            charts.put(entry.getKey(), points);
+        }
+        return new ApplicationStatChartGroup(applicationName, agentIds.size(), percentile, charts);
+    }
+
+    private static class WindowValues {
+
+        private double[] avgValues = new double[4];
+        private int count;
+        private double avgSum;
+
+        private double min = Double.MAX_VALUE;
+        private String minAgentId;
+        private double max = -Double.MAX_VALUE;
+        private String maxAgentId;
+
+        private void add(String agentId, double minValue, double maxValue, double avgValue) {
+            if (minValue < min) {
+                min = minValue;
+                minAgentId = agentId;
+            }
+            if (maxValue > max) {
+                max = maxValue;
+                maxAgentId = agentId;
+            }
+            if (count == avgValues.length) {
+                avgValues = Arrays.copyOf(avgValues, count << 1);
+            }
+            avgValues[count++] = avgValue;
+            avgSum += avgValue;
+        }
+
+        private ApplicationStatPoint toPoint(long timestamp, int percentile) {
+            Arrays.sort(avgValues, 0, count);
+            // nearest rank
+            final int rank = (int) Math.ceil(percentile / 100D * count);
+            final double percentileValue = avgValues[Math.max(rank, 1) - 1];
+            final double avg = DownSamplers.roundToScale(avgSum / count, NUM_DECIMALS);
+            return new ApplicationStatPoint(timestamp, min, minAgentId, max, maxAgentId, avg, percentileValue, count);
+        }
+    }
+}
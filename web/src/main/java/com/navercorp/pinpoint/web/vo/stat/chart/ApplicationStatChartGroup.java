@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo.stat.chart;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author agent
+ */
+public class ApplicationStatChartGroup {
+
+    private final String applicationName;
+    private final int agentCount;
+    private final int percentile;
+    private final Map<AgentStatChartGroup.ChartType, List<ApplicationStatPoint>> charts;
+
+    public ApplicationStatChartGroup(String applicationName, int agentCount, int percentile, Map<AgentStatChartGroup.ChartType, List<ApplicationStatPoint>> charts) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (charts == null) {
+            throw new NullPointerException("charts must not be null");
+        }
+        this.applicationName = applicationName;
+        this.agentCount = agentCount;
+        this.percentile = percentile;
+        this.charts = charts;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public int getAgentCount() {
+        return agentCount;
+    }
+
+    public int getPercentile() {
+        return percentile;
+    }
+
+    public Map<AgentStatChartGroup.ChartType, List<ApplicationStatPoint>> getCharts() {
+        return charts;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ApplicationStatChartGroup{");
+        sb.append("applicationName='").append(applicationName).append('\'');
+        sb.append(", agentCount=").append(agentCount);
+        sb.append(", percentile=").append(percentile);
+        sb.append(", charts=").append(charts);
+        sb.append('}');
+        return sb.toString();
+    }
+}
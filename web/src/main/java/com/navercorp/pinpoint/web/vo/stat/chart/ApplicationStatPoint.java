@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo.stat.chart;
+
+/**
+ * Value of one time window of an application stat chart, aggregated over the agents of the application.
+ *
+ * @author agent
+ */
+public class ApplicationStatPoint {
+
+    private final long xVal;
+    private final double minYVal;
+    private final String minAgentId;
+    private final double maxYVal;
+    private final String maxAgentId;
+    private final double avgYVal;
+    private final double percentileYVal;
+    private final int agentCount;
+
+    public ApplicationStatPoint(long xVal, double uncollectedValue) {
+        this(xVal, uncollectedValue, null, uncollectedValue, null, uncollectedValue, uncollectedValue, 0);
+    }
+
+    public ApplicationStatPoint(long xVal, double minYVal, String minAgentId, double maxYVal, String maxAgentId,
+                                double avgYVal, double percentileYVal, int agentCount) {
+        this.xVal = xVal;
+        this.minYVal = minYVal;
+        this.minAgentId = minAgentId;
+        this.maxYVal = maxYVal;
+        this.maxAgentId = maxAgentId;
+        this.avgYVal = avgYVal;
+        this.percentileYVal = percentileYVal;
+        this.agentCount = agentCount;
+    }
+
+    public long getxVal() {
+        return xVal;
+    }
+
+    public double getMinYVal() {
+        return minYVal;
+    }
+
+    public String getMinAgentId() {
+        return minAgentId;
+    }
+
+    public double getMaxYVal() {
+        return maxYVal;
+    }
+
+    public String getMaxAgentId() {
+        return maxAgentId;
+    }
+
+    public double getAvgYVal() {
+        return avgYVal;
+    }
+
+    public double getPercentileYVal() {
+        return percentileYVal;
+    }
+
+    public int getAgentCount() {
+        return agentCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ApplicationStatPoint that = (ApplicationStatPoint) o;
+
+        if (xVal != that.xVal) return false;
+        if (Double.compare(that.minYVal, minYVal) != 0) return false;
+        if (Double.compare(that.maxYVal, maxYVal) != 0) return false;
+        if (Double.compare(that.avgYVal, avgYVal) != 0) return false;
+        if (Double.compare(that.percentileYVal, percentileYVal) != 0) return false;
+        if (agentCount != that.agentCount) return false;
+        if (minAgentId != null ? !minAgentId.equals(that.minAgentId) : that.minAgentId != null) return false;
+        return maxAgentId != null ? maxAgentId.equals(that.maxAgentId) : that.maxAgentId == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result;
+        long temp;
+        result = (int) (xVal ^ (xVal >>> 32));
+        temp = Double.doubleToLongBits(minYVal);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + (minAgentId != null ? minAgentId.hashCode() : 0);
+        temp = Double.doubleToLongBits(maxYVal);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + (maxAgentId != null ? maxAgentId.hashCode() : 0);
+        temp = Double.doubleToLongBits(avgYVal);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(percentileYVal);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + agentCount;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ApplicationStatPoint{");
+        sb.append("xVal=").append(xVal);
+        sb.append(", minYVal=").append(minYVal);
+        sb.append(", minAgentId='").append(minAgentId).append('\'');
+        sb.append(", maxYVal=").append(maxYVal);
+        sb.append(", maxAgentId='").append(maxAgentId).append('\'');
+        sb.append(", avgYVal=").append(avgYVal);
+        sb.append(", percentileYVal=").append(percentileYVal);
+        sb.append(", agentCount=").append(agentCount);
+        sb.append('}');
+        return sb.toString();
+    }
+}
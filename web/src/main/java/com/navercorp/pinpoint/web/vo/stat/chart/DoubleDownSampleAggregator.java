@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo.stat.chart;
+
+/**
+ * Single pass, primitive counterpart of {@link DownSamplers#getDoubleDownSampler(double, int)}.
+ * Produces the same min, max, avg and sum without collecting the values of a timeslot.
+ *
+ * @author agent
+ */
+public class DoubleDownSampleAggregator {
+
+    private static final int NO_ROUNDING = -1;
+
+    private final double defaultValue;
+    private final int numDecimals;
+
+    private int count;
+    private double min;
+    private double max;
+    private double avg;
+    private double sum;
+
+    public DoubleDownSampleAggregator(double defaultValue) {
+        this.defaultValue = defaultValue;
+        this.numDecimals = NO_ROUNDING;
+    }
+
+    public DoubleDownSampleAggregator(double defaultValue, int numDecimals) {
+        if (numDecimals < 0) {
+            throw new IllegalArgumentException("numDecimals:" + numDecimals);
+        }
+        this.defaultValue = defaultValue;
+        this.numDecimals = numDecimals;
+    }
+
+    public void add(double value) {
+        if (this.count == 0) {
+            this.min = value;
+            this.max = value;
+        } else {
+            // same ordering as Collections.min/max over boxed Doubles
+            if (Double.compare(value, this.min) < 0) {
+                this.min = value;
+            }
+            if (Double.compare(value, this.max) > 0) {
+                this.max = value;
+            }
+        }
+        this.count++;
+        this.avg += (value - this.avg) / this.count;
+        this.sum += value;
+    }
+
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+    public double getMin() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        return round(this.min);
+    }
+
+    public double getMax() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        return round(this.max);
+    }
+
+    public double getAvg() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        return round(this.avg);
+    }
+
+    public double getSum() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        return this.sum;
+    }
+
+    private double round(double value) {
+        if (this.numDecimals == NO_ROUNDING) {
+            return value;
+        }
+        return DownSamplers.roundToScale(value, this.numDecimals);
+    }
+}
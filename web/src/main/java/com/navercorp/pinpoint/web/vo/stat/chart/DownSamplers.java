@@ -69,10 +69,14 @@ public class DownSamplers {
         }
 
         protected final double roundToScale(double value, int numDecimals) {
-            return BigDecimal.valueOf(value).setScale(numDecimals, RoundingMode.HALF_UP).doubleValue();
+            return DownSamplers.roundToScale(value, numDecimals);
         }
     }
 
+    static double roundToScale(double value, int numDecimals) {
+        return BigDecimal.valueOf(value).setScale(numDecimals, RoundingMode.HALF_UP).doubleValue();
+    }
+
     private static class IntegerDownSampler extends AbstractDownSampler<Integer> {
 
         private IntegerDownSampler(Integer defaultValue) {
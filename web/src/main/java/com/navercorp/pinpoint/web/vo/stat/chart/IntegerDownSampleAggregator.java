@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo.stat.chart;
+
+/**
+ * Single pass, primitive counterpart of {@link DownSamplers#getIntegerDownSampler(int)}.
+ * Produces the same min, max, avg and sum without collecting the values of a timeslot.
+ *
+ * @author agent
+ */
+public class IntegerDownSampleAggregator {
+
+    private final int defaultValue;
+
+    private int count;
+    private int min;
+    private int max;
+    private double avg;
+    private int sum;
+    private boolean sumOverflow;
+
+    public IntegerDownSampleAggregator(int defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    public void add(int value) {
+        if (this.count == 0) {
+            this.min = value;
+            this.max = value;
+        } else {
+            this.min = Math.min(this.min, value);
+            this.max = Math.max(this.max, value);
+        }
+        this.count++;
+        this.avg += (value - this.avg) / this.count;
+        if (!this.sumOverflow) {
+            final int newSum = this.sum + value;
+            // Checks integer overflow - from JDK8 Math.addExact(int, int)
+            if (((this.sum ^ newSum) & (value ^ newSum)) < 0) {
+                this.sumOverflow = true;
+            }
+            this.sum = newSum;
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+    public int getMin() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        return this.min;
+    }
+
+    public int getMax() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        return this.max;
+    }
+
+    public double getAvg() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        return this.avg;
+    }
+
+    public double getAvg(int numDecimals) {
+        return DownSamplers.roundToScale(getAvg(), numDecimals);
+    }
+
+    public int getSum() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        if (this.sumOverflow) {
+            return Integer.MAX_VALUE;
+        }
+        return this.sum;
+    }
+}
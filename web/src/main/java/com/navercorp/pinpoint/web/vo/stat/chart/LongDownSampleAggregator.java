@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo.stat.chart;
+
+/**
+ * Single pass, primitive counterpart of {@link DownSamplers#getLongDownSampler(long)}.
+ * Produces the same min, max, avg and sum without collecting the values of a timeslot.
+ *
+ * @author agent
+ */
+public class LongDownSampleAggregator {
+
+    private final long defaultValue;
+
+    private int count;
+    private long min;
+    private long max;
+    private double avg;
+    private long sum;
+    private boolean sumOverflow;
+
+    public LongDownSampleAggregator(long defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    public void add(long value) {
+        if (this.count == 0) {
+            this.min = value;
+            this.max = value;
+        } else {
+            this.min = Math.min(this.min, value);
+            this.max = Math.max(this.max, value);
+        }
+        this.count++;
+        this.avg += (value - this.avg) / this.count;
+        if (!this.sumOverflow) {
+            final long newSum = this.sum + value;
+            // Checks long overflow - from JDK8 Math.addExact(long, long)
+            if (((this.sum ^ newSum) & (value ^ newSum)) < 0) {
+                this.sumOverflow = true;
+            }
+            this.sum = newSum;
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+    public long getMin() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        return this.min;
+    }
+
+    public long getMax() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        return this.max;
+    }
+
+    public double getAvg() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        return this.avg;
+    }
+
+    public double getAvg(int numDecimals) {
+        return DownSamplers.roundToScale(getAvg(), numDecimals);
+    }
+
+    public long getSum() {
+        if (isEmpty()) {
+            return this.defaultValue;
+        }
+        if (this.sumOverflow) {
+            return Long.MAX_VALUE;
+        }
+        return this.sum;
+    }
+}
@@ -179,7 +179,7 @@
 	                            if (query.from === result.lastFetchedTimestamp) {
 	                                scope.$emit('serverMapDirective.allFetched', result);
 	                            } else {
-	                                htLastMapData.lastFetchedTimestamp = result.lastFetchedTimestamp - 1;
+	                                htLastMapData.lastFetchedTimestamp = result.resumeFrom > -1 ? result.resumeFrom : result.lastFetchedTimestamp - 1;
 	                                scope.$emit('serverMapDirective.fetched', htLastMapData.lastFetchedTimestamp, result);
 	                            }
 	                            var filters = JSON.parse(filterText);
@@ -16,35 +16,62 @@
 
 package com.navercorp.pinpoint.web.alarm;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.After;
 import org.junit.BeforeClass;
+import org.junit.Ignore;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 
 import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.web.alarm.checker.AlarmChecker;
 import com.navercorp.pinpoint.web.alarm.collector.DataCollector;
 import com.navercorp.pinpoint.web.alarm.collector.ResponseTimeDataCollector;
 import com.navercorp.pinpoint.web.alarm.vo.Rule;
 import com.navercorp.pinpoint.web.dao.ApplicationIndexDao;
+import com.navercorp.pinpoint.web.dao.MapResponseDao;
 import com.navercorp.pinpoint.web.service.AlarmService;
 import com.navercorp.pinpoint.web.service.AlarmServiceImpl;
 import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.ResponseTime;
 
 public class ReaderTest {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     private static ApplicationIndexDao applicationIndexDao;
     private static AlarmService alarmService;
     private static DataCollectorFactory dataCollectorFactory;
     private static final String APP_NAME = "app";
     private static final String SERVICE_TYPE = "tomcat";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(AlarmPartitioner.APP_COUNT);
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
     
     @Test
     public void readTest() {
@@ -101,15 +128,182 @@ public class ReaderTest {
         assertNull(reader.read());
     }
     
-    @BeforeClass
-    public static void beforeClass() {
-        applicationIndexDao = new ApplicationIndexDao() {
+    @Test
+    public void prefetchTest() {
+        // every collector of the partition must be in a select at the same time to pass the barrier
+        final CyclicBarrier barrier = new CyclicBarrier(AlarmPartitioner.APP_COUNT);
+        CountingResponseDao responseDao = new CountingResponseDao() {
+            @Override
+            protected void select(String applicationName) throws Exception {
+                barrier.await(5, TimeUnit.SECONDS);
+            }
+        };
+        AlarmReader reader = new AlarmReader(responseTimeCollectorFactory(responseDao), applicationIndexDao, twoRuleAlarmService(), new TaskExecutorAdapter(executor));
+        StepExecution stepExecution = stepExecution(1);
+
+        reader.beforeStep(stepExecution);
+
+        assertEquals(AlarmPartitioner.APP_COUNT, stepExecution.getExecutionContext().getInt(AlarmReader.DATA_COLLECTOR_COUNT));
+        assertEquals(AlarmPartitioner.APP_COUNT, responseDao.getSelectCount());
+        for (int i = 0; i < AlarmPartitioner.APP_COUNT; i++) {
+            assertEquals(1, responseDao.getSelectCount(APP_NAME + i));
+        }
+
+        // the checkers use the prefetched data
+        assertEquals(AlarmPartitioner.APP_COUNT * 2, checkAll(reader));
+        assertEquals(AlarmPartitioner.APP_COUNT, responseDao.getSelectCount());
+    }
+
+    @Test
+    public void prefetchFailTest() {
+        final String failApplicationName = APP_NAME + 1;
+        CountingResponseDao responseDao = new CountingResponseDao() {
+            @Override
+            protected void select(String applicationName) {
+                if (failApplicationName.equals(applicationName) && getSelectCount(applicationName) == 1) {
+                    throw new IllegalStateException("select fail");
+                }
+            }
+        };
+        AlarmReader reader = new AlarmReader(responseTimeCollectorFactory(responseDao), applicationIndexDao, twoRuleAlarmService(), new TaskExecutorAdapter(executor));
+
+        reader.beforeStep(stepExecution(1));
+
+        assertEquals(AlarmPartitioner.APP_COUNT, responseDao.getSelectCount());
+
+        // only the collector that failed in prefetch is collected again, and only once for its two checkers
+        assertEquals(AlarmPartitioner.APP_COUNT * 2, checkAll(reader));
+        assertEquals(AlarmPartitioner.APP_COUNT + 1, responseDao.getSelectCount());
+        assertEquals(2, responseDao.getSelectCount(failApplicationName));
+        assertEquals(1, responseDao.getSelectCount(APP_NAME + 0));
+    }
+
+    @Ignore
+    @Test
+    public void throughputTest() {
+        final int applicationCount = 2000;
+        final int partitionCount = applicationCount / AlarmPartitioner.APP_COUNT;
+        ApplicationIndexDao applicationIndexDao = createApplicationIndexDao(applicationCount);
+        CountingResponseDao responseDao = new CountingResponseDao() {
+            @Override
+            protected void select(String applicationName) throws Exception {
+                // hbase latency
+                Thread.sleep(5);
+            }
+        };
+        DataCollectorFactory dataCollectorFactory = responseTimeCollectorFactory(responseDao);
+        AlarmService alarmService = new AlarmServiceImpl() {
+            @Override
+            public List<Rule> selectRuleByApplicationId(String applicationId) {
+                List<Rule> rules = new LinkedList<Rule>();
+                for (int i = 0; i < 5; i++) {
+                    rules.add(new Rule(applicationId, SERVICE_TYPE, CheckerCategory.SLOW_COUNT.getName(), 76, "testGroup", false, false, ""));
+                }
+                return rules;
+            }
+        };
+
+        for (TaskExecutorAdapter dataCollectorExecutor : new TaskExecutorAdapter[] {null, new TaskExecutorAdapter(executor)}) {
+            final long startTime = System.currentTimeMillis();
+            int checkerCount = 0;
+            for (int partitionNumber = 1; partitionNumber <= partitionCount; partitionNumber++) {
+                AlarmReader reader = new AlarmReader(dataCollectorFactory, applicationIndexDao, alarmService, dataCollectorExecutor);
+                reader.beforeStep(stepExecution(partitionNumber));
+                checkerCount += checkAll(reader);
+            }
+            final long elapsedTime = System.currentTimeMillis() - startTime;
+            logger.info("prefetch:{} rules:{} elapsedTime:{}ms throughput:{}/s", dataCollectorExecutor != null, checkerCount, elapsedTime, checkerCount * 1000L / Math.max(elapsedTime, 1));
+        }
+    }
+
+    private StepExecution stepExecution(int partitionNumber) {
+        StepExecution stepExecution = new StepExecution("alarmStep", null);
+        ExecutionContext executionContext = new ExecutionContext();
+        executionContext.put(AlarmPartitioner.PARTITION_NUMBER, partitionNumber);
+        stepExecution.setExecutionContext(executionContext);
+        return stepExecution;
+    }
+
+    private int checkAll(AlarmReader reader) {
+        int checkerCount = 0;
+        AlarmChecker checker;
+        while ((checker = reader.read()) != null) {
+            checker.check();
+            checkerCount++;
+        }
+        return checkerCount;
+    }
+
+    private static AlarmService twoRuleAlarmService() {
+        // two checkers sharing a response time collector per application
+        return new AlarmServiceImpl() {
+            @Override
+            public List<Rule> selectRuleByApplicationId(String applicationId) {
+                List<Rule> rules = new LinkedList<Rule>();
+                rules.add(new Rule(applicationId, SERVICE_TYPE, CheckerCategory.SLOW_COUNT.getName(), 76, "testGroup", false, false, ""));
+                rules.add(new Rule(applicationId, SERVICE_TYPE, CheckerCategory.ERROR_COUNT.getName(), 76, "testGroup", false, false, ""));
+                return rules;
+            }
+        };
+    }
+
+    private static DataCollectorFactory responseTimeCollectorFactory(final MapResponseDao responseDao) {
+        return new DataCollectorFactory() {
+            @Override
+            public DataCollector createDataCollector(CheckerCategory checker, Application application, long timeSlotEndTime) {
+                return new ResponseTimeDataCollector(DataCollectorCategory.RESPONSE_TIME, application, responseDao, timeSlotEndTime, 300000);
+            }
+        };
+    }
+
+    private static class CountingResponseDao implements MapResponseDao {
+
+        private final AtomicInteger selectCount = new AtomicInteger();
+        private final ConcurrentMap<String, AtomicInteger> applicationSelectCount = new ConcurrentHashMap<String, AtomicInteger>();
+
+        @Override
+        public List<ResponseTime> selectResponseTime(Application application, Range range) {
+            selectCount.incrementAndGet();
+            AtomicInteger count = applicationSelectCount.get(application.getName());
+            if (count == null) {
+                AtomicInteger newCount = new AtomicInteger();
+                count = applicationSelectCount.putIfAbsent(application.getName(), newCount);
+                if (count == null) {
+                    count = newCount;
+                }
+            }
+            count.incrementAndGet();
+            try {
+                select(application.getName());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return Collections.emptyList();
+        }
+
+        protected void select(String applicationName) throws Exception {
+        }
+
+        int getSelectCount() {
+            return selectCount.get();
+        }
+
+        int getSelectCount(String applicationName) {
+            AtomicInteger count = applicationSelectCount.get(applicationName);
+            return count == null ? 0 : count.get();
+        }
+    }
+
+    private static ApplicationIndexDao createApplicationIndexDao(final int applicationCount) {
+        return new ApplicationIndexDao() {
 
             @Override
             public List<Application> selectAllApplicationNames() {
                 List<Application> apps = new LinkedList<Application>();
 
-                for(int i = 0; i < 7; i++) {
+                for(int i = 0; i < applicationCount; i++) {
                     apps.add(new Application(APP_NAME + i, ServiceType.STAND_ALONE));
                 }
                 return apps;
@@ -124,6 +318,11 @@ public class ReaderTest {
             @Override public void deleteAgentId(String applicationName, String agentId) {}
             
         };
+    }
+
+    @BeforeClass
+    public static void beforeClass() {
+        applicationIndexDao = createApplicationIndexDao(7);
         
         alarmService = new AlarmServiceImpl() {
             private Map<String, Rule> ruleMap ;
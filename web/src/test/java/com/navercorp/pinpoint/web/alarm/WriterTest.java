@@ -16,30 +16,29 @@
 
 package com.navercorp.pinpoint.web.alarm;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
-import org.junit.Ignore;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.test.context.ContextConfiguration;
-import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
-import com.navercorp.pinpoint.web.alarm.AlarmWriter;
-import com.navercorp.pinpoint.web.alarm.CheckerCategory;
 import com.navercorp.pinpoint.web.alarm.checker.AlarmChecker;
 import com.navercorp.pinpoint.web.alarm.checker.SlowCountChecker;
+import com.navercorp.pinpoint.web.alarm.vo.CheckerResult;
 import com.navercorp.pinpoint.web.alarm.vo.Rule;
+import com.navercorp.pinpoint.web.service.AlarmServiceImpl;
 
-@RunWith(SpringJUnit4ClassRunner.class)
-@ContextConfiguration("classpath:applicationContext-test.xml")
 public class WriterTest {
 
-    @Autowired
-    AlarmWriter writer;
+    private final RecordingMessageSender messageSender = new RecordingMessageSender();
+    private final RecordingAlarmService alarmService = new RecordingAlarmService();
+    private final AlarmWriter writer = new AlarmWriter(messageSender, alarmService);
     
-    @Ignore
     @Test
     public void smsSendTest() throws Exception {
         Rule rule = new Rule("testService", "tomcat", CheckerCategory.SLOW_COUNT.getName(), 100, "testGroup", true, false, "");
@@ -58,9 +57,12 @@ public class WriterTest {
         List<AlarmChecker> checkers = new LinkedList<AlarmChecker>();
         checkers.add(checker);
         writer.write(checkers);
+
+        assertEquals(1, messageSender.smsCheckers.size());
+        assertSame(checker, messageSender.smsCheckers.get(0));
+        assertEquals(0, messageSender.emailCheckers.size());
     }
 
-    @Ignore
     @Test
     public void emailSendTest() throws Exception {
         Rule rule = new Rule("testService", "tomcat", CheckerCategory.SLOW_COUNT.getName(), 100, "testGroup", false, true, "");
@@ -79,6 +81,101 @@ public class WriterTest {
         List<AlarmChecker> checkers = new LinkedList<AlarmChecker>();
         checkers.add(checker);
         writer.write(checkers);
+
+        assertEquals(0, messageSender.smsCheckers.size());
+        assertEquals(1, messageSender.emailCheckers.size());
+        assertSame(checker, messageSender.emailCheckers.get(0));
+    }
+
+    @Test
+    public void multiApplicationChunkTest() throws Exception {
+        // app1 already alarmed and waits 3 times before the next message, app2 has no previous result
+        alarmService.addBeforeCheckerResult(new CheckerResult("app1", CheckerCategory.SLOW_COUNT.getName(), true, 0, 3));
+
+        AlarmChecker app1Checker = detectedChecker("app1");
+        AlarmChecker app2Checker = detectedChecker("app2");
+        AlarmChecker app1Checker2 = detectedChecker("app1");
+        List<AlarmChecker> checkers = new LinkedList<AlarmChecker>();
+        checkers.add(app1Checker);
+        checkers.add(app2Checker);
+        checkers.add(app1Checker2);
+        writer.write(checkers);
+
+        // previous results are selected once per application of the chunk
+        assertEquals(2, alarmService.selectCount);
+
+        assertEquals(1, messageSender.smsCheckers.size());
+        assertSame(app2Checker, messageSender.smsCheckers.get(0));
+
+        assertEquals(3, alarmService.updatedResults.size());
+        for (int i = 0; i < checkers.size(); i++) {
+            assertSame(checkers.get(i), alarmService.updatedCheckers.get(i));
+            assertEquals(checkers.get(i).getRule().getApplicationId(), alarmService.updatedResults.get(i).getApplicationId());
+        }
+        assertSame(alarmService.updatedResults.get(0), alarmService.updatedResults.get(2));
+    }
+
+    private AlarmChecker detectedChecker(String applicationId) {
+        Rule rule = new Rule(applicationId, "tomcat", CheckerCategory.SLOW_COUNT.getName(), 100, "testGroup", true, false, "");
+        return new SlowCountChecker(null, rule) {
+            @Override
+            public boolean isDetected() {
+                return true;
+            }
+
+            @Override
+            protected long getDetectedValue() {
+                return 10000;
+            }
+        };
+    }
+
+    private static class RecordingMessageSender implements AlarmMessageSender {
+
+        private final List<AlarmChecker> smsCheckers = new ArrayList<AlarmChecker>();
+        private final List<AlarmChecker> emailCheckers = new ArrayList<AlarmChecker>();
+
+        @Override
+        public void sendSms(AlarmChecker checker, int sequenceCount) {
+            smsCheckers.add(checker);
+        }
+
+        @Override
+        public void sendEmail(AlarmChecker checker, int sequenceCount) {
+            emailCheckers.add(checker);
+        }
+    }
+
+    private static class RecordingAlarmService extends AlarmServiceImpl {
+
+        private final Map<String, Map<String, CheckerResult>> beforeCheckerResults = new HashMap<String, Map<String, CheckerResult>>();
+        private final List<CheckerResult> updatedResults = new ArrayList<CheckerResult>();
+        private final List<AlarmChecker> updatedCheckers = new ArrayList<AlarmChecker>();
+        private int selectCount;
+
+        void addBeforeCheckerResult(CheckerResult checkerResult) {
+            Map<String, CheckerResult> checkerResults = beforeCheckerResults.get(checkerResult.getApplicationId());
+            if (checkerResults == null) {
+                checkerResults = new HashMap<String, CheckerResult>();
+                beforeCheckerResults.put(checkerResult.getApplicationId(), checkerResults);
+            }
+            checkerResults.put(checkerResult.getCheckerName(), checkerResult);
+        }
+
+        @Override
+        public Map<String, CheckerResult> selectBeforeCheckerResults(String applicationId) {
+            selectCount++;
+            Map<String, CheckerResult> checkerResults = beforeCheckerResults.get(applicationId);
+            if (checkerResults == null) {
+                return new HashMap<String, CheckerResult>();
+            }
+            return checkerResults;
+        }
+
+        @Override
+        public void updateBeforeCheckerResult(CheckerResult beforeCheckerResult, AlarmChecker checker) {
+            updatedResults.add(beforeCheckerResult);
+            updatedCheckers.add(checker);
+        }
     }
-    
 }
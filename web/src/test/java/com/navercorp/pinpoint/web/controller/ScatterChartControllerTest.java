@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.controller;
+
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScatterChartControllerTest {
+
+    private static final long OVERLAP = 180000;
+
+    @Test
+    public void createScanRange_noWatermark() {
+        Range range = Range.createUncheckedRange(1000000, 2000000);
+        Range scanRange = ScatterChartController.createScanRange(range, -1, OVERLAP, 100);
+        Assert.assertEquals(range.getFrom(), scanRange.getFrom());
+        Assert.assertEquals(range.getTo(), scanRange.getTo());
+    }
+
+    @Test
+    public void createScanRange_lateDot() {
+        final long from = 1000000;
+        final long watermark = 1600000;
+        // started before the previous poll, but indexed after it
+        final long lateDotAcceptedTime = watermark - 5000;
+
+        Range scanRange = ScatterChartController.createScanRange(Range.createUncheckedRange(from, 1700000), watermark, OVERLAP, 100);
+        Assert.assertTrue(scanRange.getFrom() <= lateDotAcceptedTime);
+        Assert.assertTrue(scanRange.getFrom() > from);
+        Assert.assertEquals(1700000, scanRange.getTo());
+    }
+
+    @Test
+    public void createScanRange_alignedToXGroupUnit() {
+        final long from = 1000000;
+        Range scanRange = ScatterChartController.createScanRange(Range.createUncheckedRange(from, 1700000), 1600050, OVERLAP, 1000);
+        Assert.assertEquals(1420000, scanRange.getFrom());
+        Assert.assertEquals(0, (scanRange.getFrom() - from) % 1000);
+    }
+
+    @Test
+    public void createScanRange_overlapLongerThanRange() {
+        final long from = 1000000;
+        Range scanRange = ScatterChartController.createScanRange(Range.createUncheckedRange(from, 1100000), 1050000, OVERLAP, 100);
+        Assert.assertEquals(from, scanRange.getFrom());
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author agent
+ */
+public class CollapsingCacheTest {
+
+    @Test
+    public void get_hit() {
+        CollapsingCache<String, String> cache = new CollapsingCache<>(new ConcurrentMapCache("test"));
+        CountingLoader loader = new CountingLoader();
+
+        Assert.assertEquals("value-a", cache.get("a", loader));
+        Assert.assertEquals("value-a", cache.get("a", loader));
+        Assert.assertEquals("value-b", cache.get("b", loader));
+
+        Assert.assertEquals(2, loader.count.get());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void get_evict() {
+        CollapsingCache<String, String> cache = new CollapsingCache<>(new ConcurrentMapCache("test"));
+        CountingLoader loader = new CountingLoader();
+
+        cache.get("a", loader);
+        cache.evict("a");
+        cache.get("a", loader);
+
+        Assert.assertEquals(2, loader.count.get());
+    }
+
+    @Test
+    public void get_empty_notCached() {
+        CollapsingCache<String, List<String>> cache = new CollapsingCache<>(new ConcurrentMapCache("test"));
+        cache.setCacheEmpty(false);
+        final AtomicInteger count = new AtomicInteger();
+        CollapsingCache.Loader<String, List<String>> loader = new CollapsingCache.Loader<String, List<String>>() {
+            @Override
+            public List<String> load(String key) {
+                if (count.incrementAndGet() == 1) {
+                    return new ArrayList<>();
+                }
+                List<String> list = new ArrayList<>();
+                list.add("value-" + key);
+                return list;
+            }
+        };
+
+        Assert.assertTrue(cache.get("a", loader).isEmpty());
+        Assert.assertEquals("value-a", cache.get("a", loader).get(0));
+        Assert.assertEquals("value-a", cache.get("a", loader).get(0));
+
+        Assert.assertEquals(2, count.get());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void get_empty_cached() {
+        CollapsingCache<String, List<String>> cache = new CollapsingCache<>(new ConcurrentMapCache("test"));
+        final AtomicInteger count = new AtomicInteger();
+        CollapsingCache.Loader<String, List<String>> loader = new CollapsingCache.Loader<String, List<String>>() {
+            @Override
+            public List<String> load(String key) {
+                count.incrementAndGet();
+                return new ArrayList<>();
+            }
+        };
+
+        cache.get("a", loader);
+        cache.get("a", loader);
+
+        Assert.assertEquals(1, count.get());
+    }
+
+    @Test
+    public void getIfPresent_put() {
+        CollapsingCache<String, String> cache = new CollapsingCache<>(new ConcurrentMapCache("test"));
+
+        Assert.assertNull(cache.getIfPresent("a"));
+        cache.put("a", "value-a");
+        Assert.assertEquals("value-a", cache.getIfPresent("a"));
+
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void put_empty_notCached() {
+        CollapsingCache<String, List<String>> cache = new CollapsingCache<>(new ConcurrentMapCache("test"));
+        cache.setCacheEmpty(false);
+
+        cache.put("a", new ArrayList<String>());
+        cache.put("b", null);
+        Assert.assertNull(cache.getIfPresent("a"));
+        Assert.assertNull(cache.getIfPresent("b"));
+
+        List<String> list = new ArrayList<>();
+        list.add("value-c");
+        cache.put("c", list);
+        Assert.assertEquals(list, cache.getIfPresent("c"));
+    }
+
+    @Test
+    public void get_failure_notCached() {
+        CollapsingCache<String, String> cache = new CollapsingCache<>(new ConcurrentMapCache("test"));
+        CollapsingCache.Loader<String, String> failLoader = new CollapsingCache.Loader<String, String>() {
+            @Override
+            public String load(String key) {
+                throw new IllegalStateException("fail");
+            }
+        };
+        try {
+            cache.get("a", failLoader);
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        CountingLoader loader = new CountingLoader();
+        Assert.assertEquals("value-a", cache.get("a", loader));
+        Assert.assertEquals(1, loader.count.get());
+    }
+
+    @Test
+    public void get_collapse() throws Exception {
+        final CollapsingCache<String, String> cache = new CollapsingCache<>(new ConcurrentMapCache("test"));
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch loadRelease = new CountDownLatch(1);
+        final AtomicInteger loadCount = new AtomicInteger();
+        final CollapsingCache.Loader<String, String> blockingLoader = new CollapsingCache.Loader<String, String>() {
+            @Override
+            public String load(String key) {
+                loadCount.incrementAndGet();
+                loadStarted.countDown();
+                try {
+                    loadRelease.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "value-" + key;
+            }
+        };
+
+        final int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            futures.add(executor.submit(new Get(cache, blockingLoader)));
+            Assert.assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                futures.add(executor.submit(new Get(cache, blockingLoader)));
+            }
+            // wait for the other callers to join the load
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (cache.getCollapsedCount() < threads - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            loadRelease.countDown();
+
+            for (Future<String> future : futures) {
+                Assert.assertEquals("value-a", future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(threads - 1, cache.getCollapsedCount());
+    }
+
+    private static class Get implements Callable<String> {
+        private final CollapsingCache<String, String> cache;
+        private final CollapsingCache.Loader<String, String> loader;
+
+        private Get(CollapsingCache<String, String> cache, CollapsingCache.Loader<String, String> loader) {
+            this.cache = cache;
+            this.loader = loader;
+        }
+
+        @Override
+        public String call() throws Exception {
+            return cache.get("a", loader);
+        }
+    }
+
+    private static class CountingLoader implements CollapsingCache.Loader<String, String> {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public String load(String key) {
+            count.incrementAndGet();
+            return "value-" + key;
+        }
+    }
+}
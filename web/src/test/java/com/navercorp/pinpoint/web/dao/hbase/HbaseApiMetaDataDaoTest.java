@@ -1,24 +1,134 @@
 package com.navercorp.pinpoint.web.dao.hbase;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.Mockito.*;
 
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.RowMapper;
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+
+import org.apache.hadoop.hbase.client.Get;
+import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 public class HbaseApiMetaDataDaoTest {
 
+    @Mock
+    private HbaseOperations2 hbaseOperations2;
+
+    @Mock
+    private RowMapper<List<ApiMetaDataBo>> apiMetaDataMapper;
+
+    @Mock
+    private RowKeyDistributorByHashPrefix rowKeyDistributorByHashPrefix;
+
+    @Spy
+    private CollapsingCache<String, List<ApiMetaDataBo>> apiMetaDataCache = newApiMetaDataCache();
+
+    @InjectMocks
+    private HbaseApiMetaDataDao apiMetaDataDao = new HbaseApiMetaDataDao();
+
+    private static CollapsingCache<String, List<ApiMetaDataBo>> newApiMetaDataCache() {
+        CollapsingCache<String, List<ApiMetaDataBo>> cache = new CollapsingCache<>(new ConcurrentMapCache("apiMetaData"));
+        cache.setCacheEmpty(false);
+        return cache;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(rowKeyDistributorByHashPrefix.getDistributedKey(any(byte[].class))).thenAnswer(returnsFirstArg());
+    }
+
     @Test
-    public void getApiMetaDataCachable() {
-        // cacheable key - spring expression language
-        ExpressionParser parser = new SpelExpressionParser();
-        StandardEvaluationContext context = new StandardEvaluationContext();
-        context.setVariable("agentId", "foo");
-        context.setVariable("time", (long) 1);
-        context.setVariable("apiId", (int) 2);
-
-        String key = (String) parser.parseExpression(HbaseApiMetaDataDao.SPEL_KEY).getValue(context);
+    public void getApiMetaDataCacheKey() {
+        String key = HbaseApiMetaDataDao.cacheKey("foo", 1, 2);
         assertEquals("foo.1.2", key);
     }
+
+    @Test
+    public void getApiMetaData_multiGet() {
+        final MetaDataKey cachedKey = new MetaDataKey("agent", 1, 1);
+        final MetaDataKey key2 = new MetaDataKey("agent", 1, 2);
+        final MetaDataKey key3 = new MetaDataKey("agent", 1, 3);
+        final List<ApiMetaDataBo> cached = newApiMetaDataList(cachedKey);
+        apiMetaDataCache.put(HbaseApiMetaDataDao.cacheKey("agent", 1, 1), cached);
+
+        final List<ApiMetaDataBo> metaData2 = newApiMetaDataList(key2);
+        final List<ApiMetaDataBo> metaData3 = newApiMetaDataList(key3);
+        when(hbaseOperations2.get(eq(HBaseTables.API_METADATA), anyListOf(Get.class), eq(apiMetaDataMapper))).thenReturn(Arrays.asList(metaData3, metaData2));
+
+        Map<MetaDataKey, List<ApiMetaDataBo>> result = apiMetaDataDao.getApiMetaData(Arrays.asList(key3, cachedKey, key2, key3, key2));
+
+        // the misses are read once, in the order of their first appearance
+        ArgumentCaptor<List> getCaptor = ArgumentCaptor.forClass(List.class);
+        verify(hbaseOperations2).get(eq(HBaseTables.API_METADATA), getCaptor.capture(), eq(apiMetaDataMapper));
+        List<Get> getList = getCaptor.getValue();
+        Assert.assertEquals(2, getList.size());
+        Assert.assertArrayEquals(toRowKey(key3), getList.get(0).getRow());
+        Assert.assertArrayEquals(toRowKey(key2), getList.get(1).getRow());
+
+        Assert.assertEquals(3, result.size());
+        Assert.assertSame(cached, result.get(cachedKey));
+        Assert.assertSame(metaData2, result.get(key2));
+        Assert.assertSame(metaData3, result.get(key3));
+    }
+
+    @Test
+    public void getApiMetaData_cache() {
+        final MetaDataKey key1 = new MetaDataKey("agent", 1, 1);
+        final MetaDataKey key2 = new MetaDataKey("agent", 1, 2);
+        final List<ApiMetaDataBo> metaData1 = newApiMetaDataList(key1);
+        final List<ApiMetaDataBo> notFound = Collections.emptyList();
+        final List<ApiMetaDataBo> metaData2 = newApiMetaDataList(key2);
+        when(hbaseOperations2.get(eq(HBaseTables.API_METADATA), anyListOf(Get.class), eq(apiMetaDataMapper)))
+                .thenReturn(Arrays.asList(metaData1, notFound))
+                .thenReturn(Arrays.asList(metaData2));
+
+        Map<MetaDataKey, List<ApiMetaDataBo>> first = apiMetaDataDao.getApiMetaData(Arrays.asList(key1, key2));
+        Assert.assertSame(metaData1, first.get(key1));
+        Assert.assertTrue(first.get(key2).isEmpty());
+
+        // key1 is a hit, the missing key2 was not cached and is read again
+        Map<MetaDataKey, List<ApiMetaDataBo>> second = apiMetaDataDao.getApiMetaData(Arrays.asList(key1, key2));
+        Assert.assertSame(metaData1, second.get(key1));
+        Assert.assertSame(metaData2, second.get(key2));
+
+        ArgumentCaptor<List> getCaptor = ArgumentCaptor.forClass(List.class);
+        verify(hbaseOperations2, times(2)).get(eq(HBaseTables.API_METADATA), getCaptor.capture(), eq(apiMetaDataMapper));
+        List<Get> secondGetList = getCaptor.getAllValues().get(1);
+        Assert.assertEquals(1, secondGetList.size());
+        Assert.assertArrayEquals(toRowKey(key2), secondGetList.get(0).getRow());
+        Assert.assertEquals(1, apiMetaDataCache.getHitCount());
+        Assert.assertEquals(3, apiMetaDataCache.getMissCount());
+    }
+
+    private List<ApiMetaDataBo> newApiMetaDataList(MetaDataKey metaDataKey) {
+        ApiMetaDataBo apiMetaDataBo = new ApiMetaDataBo(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId());
+        apiMetaDataBo.setApiInfo("api" + metaDataKey.getId());
+        List<ApiMetaDataBo> apiMetaDataList = new ArrayList<>();
+        apiMetaDataList.add(apiMetaDataBo);
+        return apiMetaDataList;
+    }
+
+    private byte[] toRowKey(MetaDataKey metaDataKey) {
+        return new ApiMetaDataBo(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId()).toRowKey();
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.common.util.DefaultTimeSlot;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author agent
+ */
+public class MapStatisticsPrefixCacheTest {
+
+    private static final long ONE_MINUTE = 60000;
+    private static final long BASE = 100 * ONE_MINUTE;
+    private static final long SEAL_DELAY = 3 * ONE_MINUTE;
+
+    private final Application application = new Application("APP", ServiceType.STAND_ALONE);
+    private final Application toApplication = new Application("TO_APP", ServiceType.STAND_ALONE);
+
+    private MapStatisticsPrefixCache prefixCache;
+    private RecordingScanner scanner;
+
+    @Before
+    public void setUp() {
+        prefixCache = new MapStatisticsPrefixCache("Caller", new ConcurrentMapCache("test"), new DefaultTimeSlot(), SEAL_DELAY);
+        scanner = new RecordingScanner();
+    }
+
+    @Test
+    public void select_refresh() {
+        // slots 0 ~ 9, slots 0 ~ 6 are sealed
+        LinkDataMap result1 = select(9, 10 * ONE_MINUTE + 30000);
+        Assert.assertEquals(10, result1.getTotalCount());
+        Assert.assertEquals(2, scanner.scanned.size());
+        assertScanned(0, 0, 6);
+        assertScanned(1, 7, 9);
+
+        // slots 0 ~ 11, 0 ~ 6 from the cache
+        LinkDataMap result2 = select(11, 12 * ONE_MINUTE + 30000);
+        Assert.assertEquals(12, result2.getTotalCount());
+        Assert.assertEquals(4, scanner.scanned.size());
+        assertScanned(2, 7, 8);
+        assertScanned(3, 9, 11);
+    }
+
+    @Test
+    public void select_nothingSealed() {
+        LinkDataMap result = select(3, 3 * ONE_MINUTE + 30000);
+        Assert.assertEquals(4, result.getTotalCount());
+        Assert.assertEquals(1, scanner.scanned.size());
+        assertScanned(0, 0, 3);
+    }
+
+    @Test
+    public void select_olderThanPrefix() {
+        select(9, 20 * ONE_MINUTE);
+        Assert.assertEquals(1, scanner.scanned.size());
+
+        LinkDataMap result = select(5, 20 * ONE_MINUTE);
+        Assert.assertEquals(6, result.getTotalCount());
+        Assert.assertEquals(2, scanner.scanned.size());
+        assertScanned(1, 0, 5);
+    }
+
+    @Test
+    public void select_cacheNotShared() {
+        LinkDataMap result1 = select(9, 20 * ONE_MINUTE);
+        result1.addLinkData(application, "agent", toApplication, "toAgent", BASE, (short) 1000, 100);
+
+        LinkDataMap result2 = select(9, 20 * ONE_MINUTE);
+        Assert.assertEquals(10, result2.getTotalCount());
+    }
+
+    private LinkDataMap select(int lastSlot, long currentTimeMillis) {
+        final Range range = new Range(BASE, BASE + lastSlot * ONE_MINUTE);
+        final Range statisticsRange = Range.createUncheckedRange(BASE - 1, BASE + lastSlot * ONE_MINUTE);
+        return prefixCache.select(application, statisticsRange, new TimeWindow(range), scanner, BASE + currentTimeMillis);
+    }
+
+    private void assertScanned(int index, int firstSlot, int lastSlot) {
+        Range scanned = scanner.scanned.get(index);
+        Assert.assertEquals(BASE + firstSlot * ONE_MINUTE - 1, scanned.getFrom());
+        Assert.assertEquals(BASE + lastSlot * ONE_MINUTE, scanned.getTo());
+    }
+
+    private class RecordingScanner implements MapStatisticsPrefixCache.Scanner {
+
+        private final List<Range> scanned = new ArrayList<>();
+
+        @Override
+        public LinkDataMap scan(Range statisticsRange) {
+            scanned.add(statisticsRange);
+            // one call per slot
+            LinkDataMap linkDataMap = new LinkDataMap();
+            for (long slot = statisticsRange.getFrom() + 1; slot <= statisticsRange.getTo(); slot += ONE_MINUTE) {
+                linkDataMap.addLinkData(application, "agent", toApplication, "toAgent", slot, (short) 1000, 1);
+            }
+            return linkDataMap;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.vo.Range;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author agent
+ */
+public class MapStatisticsScanRangeTest {
+
+    private static final byte[] COUNTER = HBaseTables.MAP_STATISTICS_CALLER_VER2_CF_COUNTER;
+
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long ONE_DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Test
+    public void split_rollupDisabled() {
+        Range range = new Range(ONE_DAY, ONE_DAY * 8);
+        List<MapStatisticsScanRange> split = MapStatisticsScanRange.split(statisticsRange(range), new TimeWindow(range, TimeWindowDownSampler.SAMPLER), COUNTER, false);
+
+        Assert.assertEquals(1, split.size());
+        assertScanRange(split.get(0), COUNTER, ONE_DAY, ONE_DAY * 8);
+    }
+
+    @Test
+    public void split_shortRange() {
+        // one minute window
+        Range range = new Range(ONE_HOUR, ONE_HOUR + ONE_MINUTE * 30);
+        List<MapStatisticsScanRange> split = MapStatisticsScanRange.split(statisticsRange(range), new TimeWindow(range, TimeWindowDownSampler.SAMPLER), COUNTER, true);
+
+        Assert.assertEquals(1, split.size());
+        assertScanRange(split.get(0), COUNTER, ONE_HOUR, ONE_HOUR + ONE_MINUTE * 30);
+    }
+
+    @Test
+    public void split_7days() {
+        // one hour window. partial hours at both ends
+        final long from = ONE_DAY + ONE_MINUTE * 10;
+        final long to = ONE_DAY * 8 + ONE_MINUTE * 20;
+        Range range = new Range(from, to);
+        List<MapStatisticsScanRange> split = MapStatisticsScanRange.split(statisticsRange(range), new TimeWindow(range, TimeWindowDownSampler.SAMPLER), COUNTER, true);
+
+        Assert.assertEquals(3, split.size());
+        assertScanRange(split.get(0), COUNTER, from, ONE_DAY + ONE_HOUR - ONE_MINUTE);
+        assertScanRange(split.get(1), MapStatisticsRollup.ONE_HOUR.getFamily(), ONE_DAY + ONE_HOUR, ONE_DAY * 8 - ONE_HOUR);
+        assertScanRange(split.get(2), COUNTER, ONE_DAY * 8, to);
+    }
+
+    @Test
+    public void split_aligned() {
+        // the last slot of the range is the start of an hour, it is read from the one minute family
+        final long from = ONE_DAY;
+        final long to = ONE_DAY * 4;
+        Range range = new Range(from, to);
+        List<MapStatisticsScanRange> split = MapStatisticsScanRange.split(statisticsRange(range), new TimeWindow(range, TimeWindowDownSampler.SAMPLER), COUNTER, true);
+
+        Assert.assertEquals(2, split.size());
+        assertScanRange(split.get(0), MapStatisticsRollup.ONE_HOUR.getFamily(), from, to - ONE_HOUR);
+        assertScanRange(split.get(1), COUNTER, to, to);
+    }
+
+    @Test
+    public void findCoarsest() {
+        Assert.assertNull(MapStatisticsRollup.findCoarsest(ONE_MINUTE));
+        Assert.assertEquals(MapStatisticsRollup.FIVE_MINUTES, MapStatisticsRollup.findCoarsest(ONE_MINUTE * 5));
+        Assert.assertEquals(MapStatisticsRollup.FIVE_MINUTES, MapStatisticsRollup.findCoarsest(ONE_MINUTE * 30));
+        Assert.assertEquals(MapStatisticsRollup.ONE_HOUR, MapStatisticsRollup.findCoarsest(ONE_HOUR));
+        Assert.assertEquals(MapStatisticsRollup.ONE_DAY, MapStatisticsRollup.findCoarsest(ONE_DAY * 2));
+    }
+
+    private Range statisticsRange(Range range) {
+        // RangeFactory.createStatisticsRange()
+        final long from = (range.getFrom() / ONE_MINUTE) * ONE_MINUTE - 1;
+        final long to = (range.getTo() / ONE_MINUTE) * ONE_MINUTE;
+        return Range.createUncheckedRange(from, to);
+    }
+
+    private void assertScanRange(MapStatisticsScanRange scanRange, byte[] family, long from, long to) {
+        Assert.assertArrayEquals(family, scanRange.getFamily());
+        Assert.assertEquals(from, scanRange.getFrom());
+        Assert.assertEquals(to, scanRange.getTo());
+    }
+}
@@ -91,6 +91,44 @@ public class SpanMapperV2Test {
 
     }
 
+    @Test
+    public void testHeaderOnly() {
+
+        SpanBo span = new SpanBo();
+        span.setServiceType((short) 1000);
+        span.setElapsed(300);
+        span.setRpc("/rpc");
+        span.setErrCode(1);
+        span.setAcceptorHost("acceptorHost");
+        span.setAnnotationBoList(Lists.<AnnotationBo>newArrayList(newAnnotation(100, "spanAnnotation")));
+
+        SpanEventBo spanEventBo = new SpanEventBo();
+        spanEventBo.setEndElapsed(100);
+        spanEventBo.setServiceType((short) 1003);
+        spanEventBo.setAnnotationBoList(Lists.<AnnotationBo>newArrayList(newAnnotation(200, "annotation")));
+        span.addSpanEvent(spanEventBo);
+
+        SpanEncodingContext<SpanBo> encodingContext = new SpanEncodingContext<>(span);
+        SpanEncoder encoder = new SpanEncoderV0();
+        ByteBuffer byteBuffer = encoder.encodeSpanColumnValue(encodingContext);
+
+        Buffer buffer = new OffsetFixedBuffer(byteBuffer.array(), byteBuffer.arrayOffset(), byteBuffer.remaining());
+
+        SpanBo readSpan = new SpanBo();
+        SpanDecodingContext decodingContext = new SpanDecodingContext();
+        decodingContext.setHeaderOnly(true);
+        decoder.readSpanValue(buffer, readSpan, null, decodingContext);
+
+        Assert.assertEquals(readSpan.getServiceType(), 1000);
+        Assert.assertEquals(readSpan.getElapsed(), 300);
+        Assert.assertEquals(readSpan.getRpc(), "/rpc");
+        Assert.assertEquals(readSpan.getErrCode(), 1);
+        Assert.assertEquals(readSpan.getAcceptorHost(), "acceptorHost");
+
+        Assert.assertTrue(readSpan.getAnnotationBoList().isEmpty());
+        Assert.assertTrue(readSpan.getSpanEventBoList().isEmpty());
+    }
+
     private AnnotationBo newAnnotation(int key, Object value) {
         AnnotationBo annotationBo = new AnnotationBo();
         annotationBo.setKey(key);
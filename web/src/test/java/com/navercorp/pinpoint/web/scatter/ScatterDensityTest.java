@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.scatter;
+
+import com.navercorp.pinpoint.common.util.TransactionId;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class ScatterDensityTest {
+
+    private static final long FROM = 1000;
+    private static final long TO = 10999;
+
+    @Test
+    public void addDot() {
+        ScatterDensity scatterDensity = new ScatterDensity(FROM, TO, 1000, 100, 1000);
+        Assert.assertEquals(10, scatterDensity.getXSlotSize());
+        Assert.assertEquals(11, scatterDensity.getYSlotSize());
+
+        scatterDensity.addDot(newTransactionId(1), 1000, 150, 0);
+        scatterDensity.addDot(newTransactionId(2), 1999, 199, 1);
+        scatterDensity.addDot(newTransactionId(3), 2000, 150, 0);
+
+        Assert.assertEquals(3, scatterDensity.getTotalCount());
+        Assert.assertEquals(2, scatterDensity.getCount(0, 1));
+        Assert.assertEquals(1, scatterDensity.getErrorCount(0, 1));
+        Assert.assertEquals(1, scatterDensity.getCount(1, 1));
+
+        Assert.assertEquals(1000, scatterDensity.getOldestAcceptedTime());
+        Assert.assertEquals(2000, scatterDensity.getLatestAcceptedTime());
+    }
+
+    @Test
+    public void addDot_exemplar() {
+        ScatterDensity scatterDensity = new ScatterDensity(FROM, TO, 1000, 100, 1000);
+
+        scatterDensity.addDot(newTransactionId(1), 1000, 110, 0);
+        scatterDensity.addDot(newTransactionId(2), 1100, 190, 0);
+        scatterDensity.addDot(newTransactionId(3), 1200, 120, 0);
+
+        Assert.assertEquals(newTransactionId(2), scatterDensity.getExemplarTransactionId(0, 1));
+        Assert.assertEquals(1100, scatterDensity.getExemplarAcceptedTime(0, 1));
+        Assert.assertEquals(190, scatterDensity.getExemplarElapsed(0, 1));
+    }
+
+    @Test
+    public void addDot_outOfRange() {
+        ScatterDensity scatterDensity = new ScatterDensity(FROM, TO, 1000, 100, 1000);
+
+        scatterDensity.addDot(newTransactionId(1), 500, 100000, 0);
+        scatterDensity.addDot(newTransactionId(2), 20000, 10, 0);
+
+        Assert.assertEquals(1, scatterDensity.getCount(0, 10));
+        Assert.assertEquals(1, scatterDensity.getCount(9, 0));
+    }
+
+    @Test
+    public void merge() {
+        ScatterDensity scatterDensity1 = new ScatterDensity(FROM, TO, 1000, 100, 1000);
+        scatterDensity1.addDot(newTransactionId(1), 1000, 110, 0);
+        scatterDensity1.addDot(newTransactionId(2), 5000, 500, 1);
+
+        ScatterDensity scatterDensity2 = new ScatterDensity(FROM, TO, 1000, 100, 1000);
+        scatterDensity2.addDot(newTransactionId(3), 1000, 150, 1);
+
+        scatterDensity1.merge(scatterDensity2);
+
+        Assert.assertEquals(3, scatterDensity1.getTotalCount());
+        Assert.assertEquals(2, scatterDensity1.getCount(0, 1));
+        Assert.assertEquals(1, scatterDensity1.getErrorCount(0, 1));
+        Assert.assertEquals(newTransactionId(3), scatterDensity1.getExemplarTransactionId(0, 1));
+        Assert.assertEquals(1, scatterDensity1.getCount(4, 5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void merge_mismatch() {
+        ScatterDensity scatterDensity1 = new ScatterDensity(FROM, TO, 1000, 100, 1000);
+        ScatterDensity scatterDensity2 = new ScatterDensity(FROM, TO, 1000, 100, 2000);
+        scatterDensity1.merge(scatterDensity2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyCells() {
+        new ScatterDensity(FROM, FROM + 100000000, 1, 1, 10000);
+    }
+
+    @Test
+    public void fitGroupUnit() {
+        final long to = FROM + 100000000;
+        int yGroupUnit = ScatterDensity.fitYGroupUnit(1, 10000);
+        int xGroupUnit = ScatterDensity.fitXGroupUnit(FROM, to, 1, yGroupUnit, 10000);
+        Assert.assertEquals(1, yGroupUnit);
+        Assert.assertTrue(xGroupUnit > 1);
+
+        ScatterDensity scatterDensity = new ScatterDensity(FROM, to, xGroupUnit, yGroupUnit, 10000);
+        Assert.assertTrue((long) scatterDensity.getXSlotSize() * scatterDensity.getYSlotSize() <= ScatterDensity.MAX_CELL_SIZE);
+    }
+
+    @Test
+    public void fitGroupUnit_rowsOverMaxCellSize() {
+        final int yMax = Integer.MAX_VALUE;
+        int yGroupUnit = ScatterDensity.fitYGroupUnit(1, yMax);
+        int xGroupUnit = ScatterDensity.fitXGroupUnit(FROM, TO, 1, yGroupUnit, yMax);
+
+        ScatterDensity scatterDensity = new ScatterDensity(FROM, TO, xGroupUnit, yGroupUnit, yMax);
+        Assert.assertEquals(1, scatterDensity.getXSlotSize());
+        Assert.assertTrue(scatterDensity.getYSlotSize() <= ScatterDensity.MAX_CELL_SIZE);
+    }
+
+    @Test
+    public void fitGroupUnit_unchanged() {
+        Assert.assertEquals(100, ScatterDensity.fitYGroupUnit(100, 1000));
+        Assert.assertEquals(1000, ScatterDensity.fitXGroupUnit(FROM, TO, 1000, 100, 1000));
+    }
+
+    private TransactionId newTransactionId(long sequence) {
+        return new TransactionId("agent", 1L, sequence);
+    }
+}
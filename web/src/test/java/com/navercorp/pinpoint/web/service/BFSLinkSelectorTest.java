@@ -18,24 +18,33 @@ package com.navercorp.pinpoint.web.service;
 
 import com.navercorp.pinpoint.common.trace.BaseHistogramSchema;
 import com.navercorp.pinpoint.common.trace.ServiceType;
+import com.navercorp.pinpoint.common.trace.ServiceTypeFactory;
 import com.navercorp.pinpoint.web.applicationmap.rawdata.*;
 import com.navercorp.pinpoint.web.dao.HostApplicationMapDao;
 import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.web.service.map.AcceptApplication;
+import com.navercorp.pinpoint.web.util.BoundedExecutor;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.LinkKey;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.SearchOption;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -46,11 +55,14 @@ public class BFSLinkSelectorTest {
     private MapStatisticsCallerDao callerDao;
     private MapStatisticsCalleeDao calleeDao;
     private HostApplicationMapDao hostApplicationMapDao;
+    private BoundedExecutor executor;
 
     private Application APP_A = new Application("APP_A", ServiceType.STAND_ALONE);
     private Application APP_B = new Application("APP_B", ServiceType.STAND_ALONE);
     private Application APP_C = new Application("APP_C", ServiceType.STAND_ALONE);
 
+    private static final ServiceType RPC_CLIENT = ServiceTypeFactory.of(9990, "RPC_CLIENT");
+
 
     private Range range = new Range(0, 100);
 
@@ -63,6 +75,17 @@ public class BFSLinkSelectorTest {
         this.callerDao = mock(MapStatisticsCallerDao.class);
         this.calleeDao = mock(MapStatisticsCalleeDao.class);
         this.hostApplicationMapDao = mock(HostApplicationMapDao.class);
+        this.executor = new BoundedExecutor("Pinpoint-LinkSelector-Test", 4, 1024);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.executor.shutdown();
+        this.executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private LinkSelector createParallelLinkSelector(long timeoutMillis) {
+        return new BFSLinkSelector(this.callerDao, this.calleeDao, hostApplicationMapDao, null, executor, timeoutMillis);
     }
 
     private LinkSelector createLinkSelector() {
@@ -238,7 +261,70 @@ public class BFSLinkSelectorTest {
         Assert.assertEquals(message, totalCount, count);
     }
 
+    @Test
+    public void testParallel_3tier() throws Exception {
+        // APP_A -> APP_B -> APP_C, APP_C <- APP_B
+        int callCount_A_B = 10;
+        LinkDataMap link_A_B = new LinkDataMap();
+        link_A_B.addLinkData(APP_A, "agentA", APP_B, "agentB", 1000, BaseHistogramSchema.NORMAL_SCHEMA.getNormalSlot().getSlotTime(), callCount_A_B);
+        when(callerDao.selectCaller(eq(APP_A), any(Range.class))).thenReturn(link_A_B);
 
+        int callCount_B_C = 20;
+        LinkDataMap link_B_C = new LinkDataMap();
+        link_B_C.addLinkData(APP_B, "agentB", APP_C, "agentC", 1000, BaseHistogramSchema.NORMAL_SCHEMA.getNormalSlot().getSlotTime(), callCount_B_C);
+        when(callerDao.selectCaller(eq(APP_B), any(Range.class))).thenReturn(link_B_C);
+        when(callerDao.selectCaller(eq(APP_C), any(Range.class))).thenReturn(newEmptyLinkDataMap());
 
-}
+        when(calleeDao.selectCallee(any(Application.class), any(Range.class))).thenReturn(newEmptyLinkDataMap());
+        when(calleeDao.selectCallee(eq(APP_B), any(Range.class))).thenReturn(link_A_B);
+        when(hostApplicationMapDao.findAcceptApplicationName(any(Application.class), any(Range.class))).thenReturn(new HashSet<AcceptApplication>());
+
+        LinkDataDuplexMap serial = createLinkSelector().select(APP_A, range, twoDepth);
+        LinkDataDuplexMap parallel = createParallelLinkSelector(10000).select(APP_A, range, twoDepth);
+
+        Assert.assertEquals(serial.size(), parallel.size());
+        Assert.assertEquals(serial.getTotalCount(), parallel.getTotalCount());
+        Assert.assertEquals(serial.getSourceLinkDataList().size(), parallel.getSourceLinkDataList().size());
+        Assert.assertEquals(serial.getTargetLinkDataList().size(), parallel.getTargetLinkDataList().size());
+
+        assertSource_Target_TotalCount("APP_A->APP_B", parallel, new LinkKey(APP_A, APP_B), callCount_A_B);
+        assertSource_Target_TotalCount("APP_B->APP_C", parallel, new LinkKey(APP_B, APP_C), callCount_B_C);
+        assertTarget_Source_TotalCount("APP_A->APP_B", parallel, new LinkKey(APP_A, APP_B), callCount_A_B);
+    }
+
+    @Test
+    public void testAcceptApplication_lookupOnce() throws Exception {
+        // APP_A -> rpc host1, rpc host2
+        Application rpc1 = new Application("host1", RPC_CLIENT);
+        Application rpc2 = new Application("host2", RPC_CLIENT);
+        LinkDataMap linkDataMap = new LinkDataMap();
+        linkDataMap.addLinkData(APP_A, "agentA", rpc1, "host1", 1000, BaseHistogramSchema.NORMAL_SCHEMA.getNormalSlot().getSlotTime(), 10);
+        linkDataMap.addLinkData(APP_A, "agentA", rpc2, "host2", 1000, BaseHistogramSchema.NORMAL_SCHEMA.getNormalSlot().getSlotTime(), 20);
+        when(callerDao.selectCaller(eq(APP_A), any(Range.class))).thenReturn(linkDataMap);
+        when(calleeDao.selectCallee(any(Application.class), any(Range.class))).thenReturn(newEmptyLinkDataMap());
+        when(hostApplicationMapDao.findAcceptApplicationName(any(Application.class), any(Range.class)))
+                .thenReturn(Collections.singleton(new AcceptApplication("host1", APP_B)));
+
+        LinkDataDuplexMap linkData = createParallelLinkSelector(10000).select(APP_A, range, oneDepth);
+
+        verify(hostApplicationMapDao, times(1)).findAcceptApplicationName(eq(APP_A), any(Range.class));
+        assertSource_Target_TotalCount("APP_A->APP_B", linkData, new LinkKey(APP_A, APP_B), 10);
+        assertSource_Target_TotalCount("APP_A->host2", linkData, new LinkKey(APP_A, new Application("host2", ServiceType.UNKNOWN)), 20);
+    }
+
+    @Test(expected = LinkSelectTimeoutException.class)
+    public void testParallel_timeout() throws Exception {
+        Answer<LinkDataMap> slowAnswer = new Answer<LinkDataMap>() {
+            @Override
+            public LinkDataMap answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(1000);
+                return newEmptyLinkDataMap();
+            }
+        };
+        when(callerDao.selectCaller(any(Application.class), any(Range.class))).thenAnswer(slowAnswer);
+        when(calleeDao.selectCallee(any(Application.class), any(Range.class))).thenAnswer(slowAnswer);
+
+        createParallelLinkSelector(100).select(APP_A, range, oneDepth);
+    }
 
+}
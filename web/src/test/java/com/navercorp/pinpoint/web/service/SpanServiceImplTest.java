@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.server.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.server.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.SpanBo;
+import com.navercorp.pinpoint.common.server.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.server.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.server.bo.StringMetaDataBo;
+import com.navercorp.pinpoint.common.trace.AnnotationKey;
+import com.navercorp.pinpoint.common.util.IntStringStringValue;
+import com.navercorp.pinpoint.common.util.TransactionId;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.dao.TraceDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+public class SpanServiceImplTest {
+
+    private static final String AGENT_ID = "agent";
+    private static final long AGENT_START_TIME = 1000;
+
+    @Mock
+    private TraceDao traceDao;
+
+    @Mock
+    private ApiMetaDataDao apiMetaDataDao;
+
+    @Mock
+    private SqlMetaDataDao sqlMetaDataDao;
+
+    @Mock
+    private StringMetaDataDao stringMetaDataDao;
+
+    @InjectMocks
+    private SpanServiceImpl spanService = new SpanServiceImpl();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void selectSpan_metaDataKeysInOneBatch() {
+        final TransactionId transactionId = new TransactionId(AGENT_ID, AGENT_START_TIME, 1);
+        final SpanBo span = newSpan(1);
+        span.addSpanEvent(newSpanEvent(0, 2, newSqlIdAnnotation(10)));
+        span.addSpanEvent(newSpanEvent(1, 2, newSqlIdAnnotation(10)));
+        final SpanEventBo exceptionEvent = newSpanEvent(2, 3, newCachedStringAnnotation(20));
+        exceptionEvent.setExceptionInfo(21, "exception");
+        span.addSpanEvent(exceptionEvent);
+        span.addSpanEvent(newSpanEvent(3, 3, newCachedStringAnnotation(20)));
+        when(traceDao.selectSpan(transactionId)).thenReturn(Arrays.asList(span));
+
+        when(apiMetaDataDao.getApiMetaData(anyCollectionOf(MetaDataKey.class))).thenAnswer(new MetaDataAnswer<ApiMetaDataBo>() {
+            @Override
+            ApiMetaDataBo newMetaData(MetaDataKey metaDataKey) {
+                ApiMetaDataBo apiMetaDataBo = new ApiMetaDataBo(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId());
+                apiMetaDataBo.setApiInfo("api" + metaDataKey.getId());
+                return apiMetaDataBo;
+            }
+        });
+        when(sqlMetaDataDao.getSqlMetaData(anyCollectionOf(MetaDataKey.class))).thenAnswer(new MetaDataAnswer<SqlMetaDataBo>() {
+            @Override
+            SqlMetaDataBo newMetaData(MetaDataKey metaDataKey) {
+                SqlMetaDataBo sqlMetaDataBo = new SqlMetaDataBo(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId());
+                sqlMetaDataBo.setSql("select " + metaDataKey.getId());
+                return sqlMetaDataBo;
+            }
+        });
+        when(stringMetaDataDao.getStringMetaData(anyCollectionOf(MetaDataKey.class))).thenAnswer(new MetaDataAnswer<StringMetaDataBo>() {
+            @Override
+            StringMetaDataBo newMetaData(MetaDataKey metaDataKey) {
+                StringMetaDataBo stringMetaDataBo = new StringMetaDataBo(metaDataKey.getAgentId(), metaDataKey.getAgentStartTime(), metaDataKey.getId());
+                stringMetaDataBo.setStringValue("string" + metaDataKey.getId());
+                return stringMetaDataBo;
+            }
+        });
+
+        spanService.selectSpan(transactionId, 0);
+
+        ArgumentCaptor<Collection> apiKeys = ArgumentCaptor.forClass(Collection.class);
+        verify(apiMetaDataDao).getApiMetaData(apiKeys.capture());
+        Assert.assertEquals(newKeys(1, 2, 3), new HashSet<MetaDataKey>(apiKeys.getValue()));
+
+        ArgumentCaptor<Collection> sqlKeys = ArgumentCaptor.forClass(Collection.class);
+        verify(sqlMetaDataDao).getSqlMetaData(sqlKeys.capture());
+        Assert.assertEquals(newKeys(10), new HashSet<MetaDataKey>(sqlKeys.getValue()));
+
+        ArgumentCaptor<Collection> stringKeys = ArgumentCaptor.forClass(Collection.class);
+        verify(stringMetaDataDao).getStringMetaData(stringKeys.capture());
+        Assert.assertEquals(newKeys(20, 21), new HashSet<MetaDataKey>(stringKeys.getValue()));
+
+        // every key was in the batch result, so there is no single key lookup
+        verify(apiMetaDataDao, never()).getApiMetaData(anyString(), anyLong(), anyInt());
+        verify(sqlMetaDataDao, never()).getSqlMetaData(anyString(), anyLong(), anyInt());
+        verify(stringMetaDataDao, never()).getStringMetaData(anyString(), anyLong(), anyInt());
+    }
+
+    private SpanBo newSpan(int apiId) {
+        SpanBo span = new SpanBo();
+        span.setAgentId(AGENT_ID);
+        span.setAgentStartTime(AGENT_START_TIME);
+        span.setSpanId(100);
+        span.setParentSpanId(-1);
+        span.setStartTime(2000);
+        span.setElapsed(100);
+        span.setApiId(apiId);
+        return span;
+    }
+
+    private SpanEventBo newSpanEvent(int sequence, int apiId, AnnotationBo annotationBo) {
+        SpanEventBo spanEvent = new SpanEventBo();
+        spanEvent.setSequence((short) sequence);
+        spanEvent.setDepth(1);
+        spanEvent.setStartElapsed(sequence);
+        spanEvent.setEndElapsed(1);
+        spanEvent.setApiId(apiId);
+        List<AnnotationBo> annotationBoList = new ArrayList<>();
+        annotationBoList.add(annotationBo);
+        spanEvent.setAnnotationBoList(annotationBoList);
+        return spanEvent;
+    }
+
+    private AnnotationBo newSqlIdAnnotation(int sqlId) {
+        AnnotationBo annotationBo = new AnnotationBo();
+        annotationBo.setKey(AnnotationKey.SQL_ID.getCode());
+        annotationBo.setValue(new IntStringStringValue(sqlId, null, null));
+        return annotationBo;
+    }
+
+    private AnnotationBo newCachedStringAnnotation(int stringId) {
+        AnnotationBo annotationBo = new AnnotationBo();
+        annotationBo.setKey(AnnotationKey.CACHE_ARGS0.getCode());
+        annotationBo.setValue(stringId);
+        return annotationBo;
+    }
+
+    private Set<MetaDataKey> newKeys(int... ids) {
+        Set<MetaDataKey> metaDataKeys = new HashSet<>();
+        for (int id : ids) {
+            metaDataKeys.add(new MetaDataKey(AGENT_ID, AGENT_START_TIME, id));
+        }
+        return metaDataKeys;
+    }
+
+    private static abstract class MetaDataAnswer<T> implements Answer<Map<MetaDataKey, List<T>>> {
+        @Override
+        public Map<MetaDataKey, List<T>> answer(InvocationOnMock invocation) throws Throwable {
+            final Collection<MetaDataKey> metaDataKeys = (Collection<MetaDataKey>) invocation.getArguments()[0];
+            final Map<MetaDataKey, List<T>> result = new HashMap<>();
+            for (MetaDataKey metaDataKey : metaDataKeys) {
+                List<T> metaDataList = new ArrayList<>();
+                metaDataList.add(newMetaData(metaDataKey));
+                result.put(metaDataKey, metaDataList);
+            }
+            return result;
+        }
+
+        abstract T newMetaData(MetaDataKey metaDataKey);
+    }
+}
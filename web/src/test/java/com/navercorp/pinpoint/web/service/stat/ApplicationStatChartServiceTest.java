@@ -0,0 +1,257 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.service.stat;
+
+import com.navercorp.pinpoint.web.service.AgentInfoService;
+import com.navercorp.pinpoint.web.util.BoundedExecutor;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowSampler;
+import com.navercorp.pinpoint.web.vo.AgentInfo;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.chart.Chart;
+import com.navercorp.pinpoint.web.vo.chart.Point;
+import com.navercorp.pinpoint.web.vo.chart.TimeSeriesChartBuilder;
+import com.navercorp.pinpoint.web.vo.stat.chart.AgentStatChartGroup;
+import com.navercorp.pinpoint.web.vo.stat.chart.ApplicationStatChartGroup;
+import com.navercorp.pinpoint.web.vo.stat.chart.ApplicationStatPoint;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+public class ApplicationStatChartServiceTest {
+
+    private static final String APPLICATION_NAME = "app";
+
+    private final TimeWindow timeWindow = new TimeWindow(new Range(1000, 3000), new TimeWindowSampler() {
+        @Override
+        public long getWindowSize(Range range) {
+            return 1000;
+        }
+    });
+
+    private enum TestChartType implements AgentStatChartGroup.ChartType {
+        TEST
+    }
+
+    @Mock
+    private AgentInfoService agentInfoService;
+
+    private ApplicationStatChartService applicationStatChartService;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        this.applicationStatChartService = new ApplicationStatChartService(agentInfoService);
+    }
+
+    @After
+    public void tearDown() {
+        this.applicationStatChartService.stop();
+    }
+
+    @Test
+    public void selectConcurrently() {
+        start(4, 5000);
+        agents("agent1", "agent2", "agent3", "agent4");
+        // every agent must be in a select at the same time to pass the barrier
+        final CyclicBarrier barrier = new CyclicBarrier(4);
+        AgentStatChartService agentStatChartService = new AgentStatChartService() {
+            @Override
+            public AgentStatChartGroup selectAgentChart(String agentId, TimeWindow timeWindow) {
+                try {
+                    barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                return chartGroup(Double.parseDouble(agentId.substring("agent".length())));
+            }
+        };
+
+        ApplicationStatChartGroup chartGroup = applicationStatChartService.selectApplicationChart(APPLICATION_NAME, agentStatChartService, timeWindow);
+
+        Assert.assertEquals(4, chartGroup.getAgentCount());
+        ApplicationStatPoint point = chartGroup.getCharts().get(TestChartType.TEST).get(0);
+        Assert.assertEquals(1D, point.getMinYVal(), 0);
+        Assert.assertEquals("agent1", point.getMinAgentId());
+        Assert.assertEquals(4D, point.getMaxYVal(), 0);
+        Assert.assertEquals("agent4", point.getMaxAgentId());
+    }
+
+    @Test
+    public void selectSerially() {
+        start(0, 5000);
+        agents("agent1", "agent2");
+        final List<Thread> selectThreads = new CopyOnWriteArrayList<>();
+        AgentStatChartService agentStatChartService = new AgentStatChartService() {
+            @Override
+            public AgentStatChartGroup selectAgentChart(String agentId, TimeWindow timeWindow) {
+                selectThreads.add(Thread.currentThread());
+                return chartGroup(1D);
+            }
+        };
+
+        ApplicationStatChartGroup chartGroup = applicationStatChartService.selectApplicationChart(APPLICATION_NAME, agentStatChartService, timeWindow);
+
+        Assert.assertEquals(2, chartGroup.getAgentCount());
+        Assert.assertEquals(Collections.nCopies(2, Thread.currentThread()), selectThreads);
+    }
+
+    @Test
+    public void timeout() throws InterruptedException {
+        start(4, 100);
+        agents("agent1", "agent2");
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> interrupted = new CopyOnWriteArrayList<>();
+        AgentStatChartService agentStatChartService = new AgentStatChartService() {
+            @Override
+            public AgentStatChartGroup selectAgentChart(String agentId, TimeWindow timeWindow) {
+                if ("agent2".equals(agentId)) {
+                    awaitRelease(release, agentId, interrupted);
+                }
+                return chartGroup(1D);
+            }
+        };
+
+        try {
+            applicationStatChartService.selectApplicationChart(APPLICATION_NAME, agentStatChartService, timeWindow);
+            Assert.fail("timeout expected");
+        } catch (IllegalStateException expected) {
+        } finally {
+            release.countDown();
+        }
+        stopAndAwait();
+        Assert.assertEquals("a running select must not be interrupted", Collections.emptyList(), interrupted);
+    }
+
+    @Test
+    public void selectFailure() throws InterruptedException {
+        start(4, 5000);
+        agents("agent1", "agent2");
+        final RuntimeException failure = new RuntimeException("select fail");
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> interrupted = new CopyOnWriteArrayList<>();
+        AgentStatChartService agentStatChartService = new AgentStatChartService() {
+            @Override
+            public AgentStatChartGroup selectAgentChart(String agentId, TimeWindow timeWindow) {
+                if ("agent1".equals(agentId)) {
+                    throw failure;
+                }
+                awaitRelease(release, agentId, interrupted);
+                return chartGroup(1D);
+            }
+        };
+
+        try {
+            applicationStatChartService.selectApplicationChart(APPLICATION_NAME, agentStatChartService, timeWindow);
+            Assert.fail("select failure expected");
+        } catch (RuntimeException e) {
+            Assert.assertSame(failure, e);
+        } finally {
+            release.countDown();
+        }
+        stopAndAwait();
+        Assert.assertEquals("a running select must not be interrupted", Collections.emptyList(), interrupted);
+    }
+
+    @Test
+    public void timeout_queuedAgentNotSelected() throws InterruptedException {
+        start(1, 100);
+        agents("agent1", "agent2", "agent3");
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> selected = new CopyOnWriteArrayList<>();
+        AgentStatChartService agentStatChartService = new AgentStatChartService() {
+            @Override
+            public AgentStatChartGroup selectAgentChart(String agentId, TimeWindow timeWindow) {
+                selected.add(agentId);
+                awaitRelease(release, agentId, new CopyOnWriteArrayList<String>());
+                return chartGroup(1D);
+            }
+        };
+
+        try {
+            applicationStatChartService.selectApplicationChart(APPLICATION_NAME, agentStatChartService, timeWindow);
+            Assert.fail("timeout expected");
+        } catch (IllegalStateException expected) {
+        } finally {
+            release.countDown();
+        }
+        stopAndAwait();
+        Assert.assertEquals(Collections.singletonList("agent1"), selected);
+    }
+
+    private void start(int selectThreads, long selectTimeout) {
+        ReflectionTestUtils.setField(applicationStatChartService, "selectThreads", selectThreads);
+        ReflectionTestUtils.setField(applicationStatChartService, "selectQueueSize", 16);
+        ReflectionTestUtils.setField(applicationStatChartService, "selectTimeout", selectTimeout);
+        applicationStatChartService.start();
+    }
+
+    private void agents(String... agentIds) {
+        // ordered, the results are collected in this order
+        final Set<AgentInfo> agentInfos = new LinkedHashSet<>();
+        for (String agentId : agentIds) {
+            AgentInfo agentInfo = new AgentInfo();
+            agentInfo.setAgentId(agentId);
+            agentInfos.add(agentInfo);
+        }
+        when(agentInfoService.getAgentsByApplicationNameWithoutStatus(eq(APPLICATION_NAME), anyLong())).thenReturn(agentInfos);
+    }
+
+    private void stopAndAwait() throws InterruptedException {
+        applicationStatChartService.stop();
+        BoundedExecutor selectExecutor = (BoundedExecutor) ReflectionTestUtils.getField(applicationStatChartService, "selectExecutor");
+        Assert.assertTrue(selectExecutor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitRelease(CountDownLatch release, String agentId, List<String> interrupted) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            interrupted.add(agentId);
+        }
+    }
+
+    private AgentStatChartGroup chartGroup(double value) {
+        final Point<Long, Double> point = new Point<>(1000L, value, value, value, value);
+        final Chart chart = new TimeSeriesChartBuilder<>(timeWindow, -1D).build(Collections.singletonList(point));
+        return new AgentStatChartGroup() {
+            @Override
+            public Map<ChartType, Chart> getCharts() {
+                return Collections.<ChartType, Chart>singletonMap(TestChartType.TEST, chart);
+            }
+        };
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class BoundedExecutorTest {
+
+    private final List<String> started = new CopyOnWriteArrayList<>();
+    private final List<String> interrupted = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BoundedExecutor executor;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void executeAll() throws Exception {
+        executor = new BoundedExecutor("test", 4, 16);
+
+        List<String> result = executor.executeAll(tasks(task("a"), task("b"), task("c")), 5000, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), result);
+    }
+
+    @Test
+    public void executeAll_serial() throws Exception {
+        executor = new BoundedExecutor("test", 0, 0);
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        Callable<String> task = new Callable<String>() {
+            @Override
+            public String call() {
+                threads.add(Thread.currentThread());
+                return "a";
+            }
+        };
+
+        List<String> result = executor.executeAll(tasks(task, task), 0, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(executor.isSerial());
+        Assert.assertEquals(Arrays.asList("a", "a"), result);
+        Assert.assertEquals(Collections.nCopies(2, Thread.currentThread()), threads);
+    }
+
+    @Test
+    public void timeout_runningTaskNotInterrupted() throws Exception {
+        executor = new BoundedExecutor("test", 4, 16);
+
+        try {
+            executor.executeAll(tasks(task("a"), blockingTask("b")), 100, TimeUnit.MILLISECONDS);
+            Assert.fail("timeout expected");
+        } catch (TimeoutException expected) {
+        }
+        release.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        Assert.assertTrue(started.contains("b"));
+        Assert.assertEquals(Collections.emptyList(), interrupted);
+    }
+
+    @Test
+    public void timeout_queuedTaskSkipped() throws Exception {
+        executor = new BoundedExecutor("test", 1, 16);
+
+        try {
+            executor.executeAll(tasks(blockingTask("a"), task("b"), task("c")), 100, TimeUnit.MILLISECONDS);
+            Assert.fail("timeout expected");
+        } catch (TimeoutException expected) {
+        }
+        release.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(Collections.singletonList("a"), started);
+    }
+
+    @Test
+    public void timeout_callerRunsTaskNotStartedAfterTimeout() throws Exception {
+        // one thread, one queue slot : a runs on the pool, b waits in the queue, c and d are run by the calling thread
+        executor = new BoundedExecutor("test", 1, 1);
+        Callable<String> slowTask = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                started.add("c");
+                Thread.sleep(200);
+                return "c";
+            }
+        };
+
+        try {
+            executor.executeAll(tasks(blockingTask("a"), task("b"), slowTask, task("d")), 100, TimeUnit.MILLISECONDS);
+            Assert.fail("timeout expected");
+        } catch (TimeoutException expected) {
+        }
+        release.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(Arrays.asList("a", "c"), started);
+    }
+
+    @Test
+    public void failure_runningTaskNotInterrupted() throws Exception {
+        executor = new BoundedExecutor("test", 2, 16);
+        final RuntimeException failure = new RuntimeException("fail");
+        Callable<String> failTask = new Callable<String>() {
+            @Override
+            public String call() {
+                started.add("a");
+                throw failure;
+            }
+        };
+
+        try {
+            executor.executeAll(tasks(failTask, blockingTask("b")), 5000, TimeUnit.MILLISECONDS);
+            Assert.fail("failure expected");
+        } catch (RuntimeException e) {
+            Assert.assertSame(failure, e);
+        }
+        release.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(Collections.emptyList(), interrupted);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidThreads() {
+        new BoundedExecutor("test", -1, 16);
+    }
+
+    private Callable<String> task(final String name) {
+        return new Callable<String>() {
+            @Override
+            public String call() {
+                started.add(name);
+                return name;
+            }
+        };
+    }
+
+    private Callable<String> blockingTask(final String name) {
+        return new Callable<String>() {
+            @Override
+            public String call() {
+                started.add(name);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted.add(name);
+                }
+                return name;
+            }
+        };
+    }
+
+    @SafeVarargs
+    private static List<Callable<String>> tasks(Callable<String>... tasks) {
+        return new ArrayList<>(Arrays.asList(tasks));
+    }
+}
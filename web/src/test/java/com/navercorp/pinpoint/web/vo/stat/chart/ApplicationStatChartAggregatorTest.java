@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo.stat.chart;
+
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowSampler;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.chart.Chart;
+import com.navercorp.pinpoint.web.vo.chart.Point;
+import com.navercorp.pinpoint.web.vo.chart.TimeSeriesChartBuilder;
+import com.navercorp.pinpoint.web.vo.chart.UncollectedPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author agent
+ */
+public class ApplicationStatChartAggregatorTest {
+
+    private final TimeWindow timeWindow = new TimeWindow(new Range(1000, 3000), new TimeWindowSampler() {
+        @Override
+        public long getWindowSize(Range range) {
+            return 1000;
+        }
+    });
+
+    private enum TestChartType implements AgentStatChartGroup.ChartType {
+        TEST
+    }
+
+    @Test
+    public void aggregate() {
+        ApplicationStatChartAggregator aggregator = new ApplicationStatChartAggregator(timeWindow, 50);
+        aggregator.addAgentChartGroup("agent1", chartGroup(
+                new Point<>(1000L, 1D, 5D, 3D, 6D),
+                new UncollectedPoint<>(2000L, -1D)));
+        aggregator.addAgentChartGroup("agent2", chartGroup(
+                new Point<>(1000L, 2D, 10D, 6D, 12D)));
+        aggregator.addAgentChartGroup("agent3", chartGroup(
+                new Point<>(1000L, 0.5D, 4D, 2D, 4D),
+                new Point<>(3000L, 7D, 7D, 7D, 7D)));
+        aggregator.addAgentChartGroup("agent4", new AgentStatChartGroup() {
+            @Override
+            public Map<ChartType, Chart> getCharts() {
+                return Collections.emptyMap();
+            }
+        });
+
+        ApplicationStatChartGroup chartGroup = aggregator.aggregate("app");
+        Assert.assertEquals("app", chartGroup.getApplicationName());
+        Assert.assertEquals(3, chartGroup.getAgentCount());
+        Assert.assertEquals(50, chartGroup.getPercentile());
+
+        List<ApplicationStatPoint> points = chartGroup.getCharts().get(TestChartType.TEST);
+        Assert.assertEquals(3, points.size());
+        Assert.assertEquals(new ApplicationStatPoint(1000L, 0.5D, "agent3", 10D, "agent2", 3.7D, 3D, 3), points.get(0));
+        Assert.assertEquals(new ApplicationStatPoint(2000L, ApplicationStatChartAggregator.UNCOLLECTED_VALUE), points.get(1));
+        Assert.assertEquals(new ApplicationStatPoint(3000L, 7D, "agent3", 7D, "agent3", 7D, 7D, 1), points.get(2));
+    }
+
+    @Test
+    public void percentile() {
+        ApplicationStatChartAggregator aggregator = new ApplicationStatChartAggregator(timeWindow, 95);
+        for (int i = 1; i <= 100; i++) {
+            double value = 101 - i;
+            aggregator.addAgentChartGroup("agent" + i, chartGroup(new Point<>(2000L, value, value, value, value)));
+        }
+        ApplicationStatPoint point = aggregator.aggregate("app").getCharts().get(TestChartType.TEST).get(1);
+        Assert.assertEquals(100, point.getAgentCount());
+        Assert.assertEquals(95D, point.getPercentileYVal(), 0);
+        Assert.assertEquals(1D, point.getMinYVal(), 0);
+        Assert.assertEquals("agent100", point.getMinAgentId());
+        Assert.assertEquals(100D, point.getMaxYVal(), 0);
+        Assert.assertEquals("agent1", point.getMaxAgentId());
+        Assert.assertEquals(50.5D, point.getAvgYVal(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPercentile() {
+        new ApplicationStatChartAggregator(timeWindow, 0);
+    }
+
+    @SafeVarargs
+    private final AgentStatChartGroup chartGroup(Point<Long, Double>... points) {
+        final Chart chart = new TimeSeriesChartBuilder<>(timeWindow, -1D).build(Arrays.asList(points));
+        return new AgentStatChartGroup() {
+            @Override
+            public Map<ChartType, Chart> getCharts() {
+                return Collections.<ChartType, Chart>singletonMap(TestChartType.TEST, chart);
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo.stat.chart;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author agent
+ */
+public class DownSampleAggregatorTest {
+
+    private static final int DEFAULT_VALUE = -1;
+    private static final int NUM_DECIMALS = 1;
+    private static final int NUM_TEST_RUNS = 100;
+
+    private final Random random = new Random();
+
+    @Test
+    public void empty_aggregators_should_return_default_value() {
+        DoubleDownSampleAggregator doubleAggregator = new DoubleDownSampleAggregator(DEFAULT_VALUE, NUM_DECIMALS);
+        LongDownSampleAggregator longAggregator = new LongDownSampleAggregator(DEFAULT_VALUE);
+        IntegerDownSampleAggregator integerAggregator = new IntegerDownSampleAggregator(DEFAULT_VALUE);
+
+        Assert.assertTrue(doubleAggregator.isEmpty());
+        Assert.assertEquals(DEFAULT_VALUE, doubleAggregator.getMin(), 0);
+        Assert.assertEquals(DEFAULT_VALUE, doubleAggregator.getMax(), 0);
+        Assert.assertEquals(DEFAULT_VALUE, doubleAggregator.getAvg(), 0);
+        Assert.assertEquals(DEFAULT_VALUE, doubleAggregator.getSum(), 0);
+
+        Assert.assertTrue(longAggregator.isEmpty());
+        Assert.assertEquals(DEFAULT_VALUE, longAggregator.getMin());
+        Assert.assertEquals(DEFAULT_VALUE, longAggregator.getSum());
+        Assert.assertEquals(DEFAULT_VALUE, longAggregator.getAvg(NUM_DECIMALS), 0);
+
+        Assert.assertTrue(integerAggregator.isEmpty());
+        Assert.assertEquals(DEFAULT_VALUE, integerAggregator.getMax());
+        Assert.assertEquals(DEFAULT_VALUE, integerAggregator.getSum());
+    }
+
+    @Test
+    public void double_aggregator_should_match_down_sampler() {
+        DownSampler<Double> downSampler = DownSamplers.getDoubleDownSampler(DEFAULT_VALUE, NUM_DECIMALS);
+        for (int i = 0; i < NUM_TEST_RUNS; ++i) {
+            DoubleDownSampleAggregator aggregator = new DoubleDownSampleAggregator(DEFAULT_VALUE, NUM_DECIMALS);
+            final int numValues = random.nextInt(20) + 1;
+            List<Double> values = new ArrayList<>(numValues);
+            for (int j = 0; j < numValues; ++j) {
+                double value = random.nextDouble() * 100;
+                values.add(value);
+                aggregator.add(value);
+            }
+            Assert.assertEquals(numValues, aggregator.getCount());
+            Assert.assertEquals(downSampler.sampleMin(values), aggregator.getMin(), 0);
+            Assert.assertEquals(downSampler.sampleMax(values), aggregator.getMax(), 0);
+            Assert.assertEquals(downSampler.sampleAvg(values), aggregator.getAvg(), 0);
+            Assert.assertEquals(downSampler.sampleSum(values), aggregator.getSum(), 0);
+        }
+    }
+
+    @Test
+    public void long_aggregator_should_match_down_sampler() {
+        DownSampler<Long> downSampler = DownSamplers.getLongDownSampler(DEFAULT_VALUE);
+        for (int i = 0; i < NUM_TEST_RUNS; ++i) {
+            LongDownSampleAggregator aggregator = new LongDownSampleAggregator(DEFAULT_VALUE);
+            final int numValues = random.nextInt(20) + 1;
+            List<Long> values = new ArrayList<>(numValues);
+            for (int j = 0; j < numValues; ++j) {
+                long value = random.nextInt(1000000);
+                values.add(value);
+                aggregator.add(value);
+            }
+            Assert.assertEquals((long) downSampler.sampleMin(values), aggregator.getMin());
+            Assert.assertEquals((long) downSampler.sampleMax(values), aggregator.getMax());
+            Assert.assertEquals(downSampler.sampleAvg(values, 0), aggregator.getAvg(0), 0);
+            Assert.assertEquals((long) downSampler.sampleSum(values), aggregator.getSum());
+        }
+    }
+
+    @Test
+    public void integer_aggregator_should_match_down_sampler() {
+        DownSampler<Integer> downSampler = DownSamplers.getIntegerDownSampler(DEFAULT_VALUE);
+        for (int i = 0; i < NUM_TEST_RUNS; ++i) {
+            IntegerDownSampleAggregator aggregator = new IntegerDownSampleAggregator(DEFAULT_VALUE);
+            final int numValues = random.nextInt(20) + 1;
+            List<Integer> values = new ArrayList<>(numValues);
+            for (int j = 0; j < numValues; ++j) {
+                int value = random.nextInt(100);
+                values.add(value);
+                aggregator.add(value);
+            }
+            Assert.assertEquals((int) downSampler.sampleMin(values), aggregator.getMin());
+            Assert.assertEquals((int) downSampler.sampleMax(values), aggregator.getMax());
+            Assert.assertEquals(downSampler.sampleAvg(values, NUM_DECIMALS), aggregator.getAvg(NUM_DECIMALS), 0);
+            Assert.assertEquals((int) downSampler.sampleSum(values), aggregator.getSum());
+        }
+    }
+
+    @Test
+    public void sum_overflow_should_be_capped() {
+        List<Long> values = Collections.nCopies(3, Long.MAX_VALUE / 2);
+        LongDownSampleAggregator aggregator = new LongDownSampleAggregator(DEFAULT_VALUE);
+        for (long value : values) {
+            aggregator.add(value);
+        }
+        Assert.assertEquals(Long.MAX_VALUE, aggregator.getSum());
+        Assert.assertEquals((long) DownSamplers.getLongDownSampler(DEFAULT_VALUE).sampleSum(values), aggregator.getSum());
+
+        IntegerDownSampleAggregator integerAggregator = new IntegerDownSampleAggregator(DEFAULT_VALUE);
+        integerAggregator.add(Integer.MAX_VALUE);
+        integerAggregator.add(1);
+        Assert.assertEquals(Integer.MAX_VALUE, integerAggregator.getSum());
+    }
+}